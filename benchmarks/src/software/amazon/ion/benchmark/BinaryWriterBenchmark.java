@@ -0,0 +1,136 @@
+/*
+ * Copyright 2017 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at:
+ *
+ *     http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+
+package software.amazon.ion.benchmark;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import software.amazon.ion.IonDatagram;
+import software.amazon.ion.IonSystem;
+import software.amazon.ion.IonValue;
+import software.amazon.ion.IonWriter;
+import software.amazon.ion.SymbolTable;
+import software.amazon.ion.impl.bin.IonBinaryWriterPool;
+import software.amazon.ion.impl.bin.PrivateIonManagedBinaryWriterBuilder;
+import software.amazon.ion.impl.bin.PrivateIonManagedBinaryWriterBuilder.AllocatorMode;
+
+/**
+ * Measures the managed binary writer ({@code IonManagedBinaryWriter}) across
+ * its configuration options.
+ * <p>
+ * Each invocation replays a pre-loaded {@link Corpus} into a fresh writer so
+ * that writer construction cost is included, as it is for applications, or
+ * into a writer reused from an {@code IonBinaryWriterPool}.
+ */
+@SuppressWarnings("deprecation")
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BinaryWriterBenchmark
+{
+    /** How the vocabulary shared symbol table is made available to the writer. */
+    public enum Imports
+    {
+        /** No imports; every symbol is declared locally. */
+        NONE,
+        /** {@code ImportedSymbolResolverMode.DELEGATE} */
+        DELEGATE,
+        /** {@code ImportedSymbolResolverMode.FLAT} */
+        FLAT
+    }
+
+    @Param
+    public Corpus corpus;
+
+    @Param
+    public AllocatorMode allocatorMode;
+
+    /** Selects {@code PreallocationMode.PREALLOCATE_0}, {@code _1} or {@code _2}. */
+    @Param({"0", "1", "2"})
+    public int preallocation;
+
+    @Param
+    public Imports imports;
+
+    private IonDatagram values;
+    private PrivateIonManagedBinaryWriterBuilder builder;
+    private IonBinaryWriterPool pool;
+    private ByteArrayOutputStream out;
+
+    @Setup
+    public void setup() throws IOException
+    {
+        final IonSystem system = Corpus.newSystem();
+        values = system.getLoader().load(corpus.binary(system));
+
+        final SymbolTable vocabulary = Corpus.vocabulary(system);
+        builder = PrivateIonManagedBinaryWriterBuilder
+            .create(allocatorMode)
+            .withPaddedLengthPreallocation(preallocation);
+        switch (imports)
+        {
+            case DELEGATE:
+                builder.withImports(vocabulary);
+                break;
+            case FLAT:
+                builder.withFlatImports(vocabulary);
+                break;
+            default:
+                break;
+        }
+        pool = builder.newWriterPool(1);
+        out = new ByteArrayOutputStream(2 * Corpus.TARGET_SIZE);
+    }
+
+    @Benchmark
+    public int managedBinaryWriter() throws IOException
+    {
+        out.reset();
+        final IonWriter writer = builder.newWriter(out);
+        for (final IonValue value : values)
+        {
+            value.writeTo(writer);
+        }
+        writer.close();
+        return out.size();
+    }
+
+    @Benchmark
+    public int pooledBinaryWriter() throws IOException
+    {
+        out.reset();
+        final IonWriter writer = pool.newWriter(out);
+        for (final IonValue value : values)
+        {
+            value.writeTo(writer);
+        }
+        writer.close();
+        return out.size();
+    }
+}
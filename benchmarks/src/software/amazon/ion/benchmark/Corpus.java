@@ -0,0 +1,283 @@
+/*
+ * Copyright 2017 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at:
+ *
+ *     http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+
+package software.amazon.ion.benchmark;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import software.amazon.ion.IonSystem;
+import software.amazon.ion.IonType;
+import software.amazon.ion.IonWriter;
+import software.amazon.ion.SymbolTable;
+import software.amazon.ion.Timestamp;
+import software.amazon.ion.system.IonSystemBuilder;
+
+/**
+ * Generates synthetic Ion data sets of a particular shape.
+ * <p>
+ * Every shape is produced from a fixed seed so that runs are comparable
+ * across builds.  Each corpus is roughly {@link #TARGET_SIZE} bytes when
+ * binary encoded, which keeps an iteration long enough to be measured
+ * without leaving the caches entirely.
+ */
+public enum Corpus
+{
+    /** Top-level structs with hundreds of mixed scalar fields. */
+    WIDE_STRUCTS
+    {
+        @Override
+        void writeValue(final IonWriter out, final Random random) throws IOException
+        {
+            out.stepIn(IonType.STRUCT);
+            for (int i = 0; i < 256; i++)
+            {
+                out.setFieldName(FIELD_NAMES.get(i % FIELD_NAMES.size()));
+                switch (i % 4)
+                {
+                    case 0:
+                        out.writeInt(random.nextInt());
+                        break;
+                    case 1:
+                        out.writeString(randomText(random, 4 + random.nextInt(24)));
+                        break;
+                    case 2:
+                        out.writeDecimal(BigDecimal.valueOf(random.nextInt(1000000), 2));
+                        break;
+                    default:
+                        out.writeFloat(random.nextDouble());
+                        break;
+                }
+            }
+            out.stepOut();
+        }
+    },
+
+    /** Structs and lists nested many levels deep. */
+    DEEP_NESTING
+    {
+        @Override
+        void writeValue(final IonWriter out, final Random random) throws IOException
+        {
+            writeNested(out, random, 48);
+        }
+
+        private void writeNested(final IonWriter out, final Random random, final int depth) throws IOException
+        {
+            final IonType type = (depth & 1) == 0 ? IonType.STRUCT : IonType.LIST;
+            out.stepIn(type);
+            for (int i = 0; i < 2; i++)
+            {
+                if (type == IonType.STRUCT)
+                {
+                    out.setFieldName(FIELD_NAMES.get(random.nextInt(FIELD_NAMES.size())));
+                }
+                out.writeInt(random.nextInt(1000));
+            }
+            if (depth > 0)
+            {
+                if (type == IonType.STRUCT)
+                {
+                    out.setFieldName("child");
+                }
+                writeNested(out, random, depth - 1);
+            }
+            out.stepOut();
+        }
+    },
+
+    /** Annotated symbol values drawn from a large vocabulary. */
+    SYMBOL_HEAVY
+    {
+        @Override
+        void writeValue(final IonWriter out, final Random random) throws IOException
+        {
+            out.addTypeAnnotation(VOCABULARY.get(random.nextInt(VOCABULARY.size())));
+            out.stepIn(IonType.STRUCT);
+            for (int i = 0; i < 32; i++)
+            {
+                out.setFieldName(VOCABULARY.get(random.nextInt(VOCABULARY.size())));
+                out.stepIn(IonType.SEXP);
+                for (int j = 0; j < 4; j++)
+                {
+                    out.writeSymbol(VOCABULARY.get(random.nextInt(VOCABULARY.size())));
+                }
+                out.stepOut();
+            }
+            out.stepOut();
+        }
+    },
+
+    /** Large blobs with a little metadata around them. */
+    BLOB_HEAVY
+    {
+        @Override
+        void writeValue(final IonWriter out, final Random random) throws IOException
+        {
+            final byte[] data = new byte[1024 + random.nextInt(16 * 1024)];
+            random.nextBytes(data);
+
+            out.stepIn(IonType.STRUCT);
+            out.setFieldName("name");
+            out.writeString(randomText(random, 16));
+            out.setFieldName("data");
+            out.writeBlob(data);
+            out.stepOut();
+        }
+    },
+
+    /** Lists of timestamps at assorted precisions and offsets. */
+    TIMESTAMP_HEAVY
+    {
+        @Override
+        void writeValue(final IonWriter out, final Random random) throws IOException
+        {
+            out.stepIn(IonType.LIST);
+            for (int i = 0; i < 64; i++)
+            {
+                // Spread over roughly 2000-2030 with a quarter-hour offset.
+                final long millis = 946684800000L + (long) (random.nextDouble() * 946684800000L);
+                final Integer offset = (random.nextInt(96) - 48) * 15;
+                final Timestamp ts = Timestamp.forMillis(millis, offset);
+                switch (i % 3)
+                {
+                    case 0:
+                        out.writeTimestamp(ts);
+                        break;
+                    case 1:
+                        out.writeTimestamp(Timestamp.forSecond(ts.getYear(), ts.getMonth(), ts.getDay(),
+                                                               ts.getHour(), ts.getMinute(), ts.getSecond(),
+                                                               offset));
+                        break;
+                    default:
+                        out.writeTimestamp(Timestamp.forDay(ts.getYear(), ts.getMonth(), ts.getDay()));
+                        break;
+                }
+            }
+            out.stepOut();
+        }
+    };
+
+    /** Approximate binary size of each generated corpus. */
+    public static final int TARGET_SIZE = 1024 * 1024;
+
+    /** Name of the shared symbol table that declares {@link #VOCABULARY}. */
+    public static final String VOCABULARY_TABLE_NAME = "benchmark.vocabulary";
+
+    private static final long SEED = 0x10ADBEEFL;
+
+    private static final List<String> FIELD_NAMES = symbols("field_", 64);
+    private static final List<String> VOCABULARY = symbols("sym_", 2048);
+
+    private static List<String> symbols(final String prefix, final int count)
+    {
+        final List<String> symbols = new ArrayList<String>(count);
+        for (int i = 0; i < count; i++)
+        {
+            symbols.add(prefix + i);
+        }
+        return symbols;
+    }
+
+    private static String randomText(final Random random, final int length)
+    {
+        final char[] chars = new char[length];
+        for (int i = 0; i < length; i++)
+        {
+            chars[i] = (char) ('a' + random.nextInt(26));
+        }
+        return new String(chars);
+    }
+
+    /** Writes a single top-level value of this shape. */
+    abstract void writeValue(IonWriter out, Random random) throws IOException;
+
+    /** Writes the first {@code count} top-level values of the corpus. */
+    private void writeCorpus(final IonWriter out, final int count) throws IOException
+    {
+        final Random random = new Random(SEED);
+        for (int i = 0; i < count; i++)
+        {
+            writeValue(out, random);
+        }
+    }
+
+    /** Determines how many top-level values make up the corpus. */
+    private int valueCount(final IonSystem system) throws IOException
+    {
+        final Random random = new Random(SEED);
+        final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        final IonWriter out = system.newBinaryWriter(buffer);
+        int count = 0;
+        while (buffer.size() < TARGET_SIZE)
+        {
+            writeValue(out, random);
+            // Force the value out so the buffer reflects its size.
+            out.finish();
+            count++;
+        }
+        out.close();
+        return count;
+    }
+
+    /** Returns the corpus encoded in binary Ion. */
+    public byte[] binary(final IonSystem system) throws IOException
+    {
+        final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        final IonWriter out = system.newBinaryWriter(buffer);
+        writeCorpus(out, valueCount(system));
+        out.close();
+        return buffer.toByteArray();
+    }
+
+    /** Returns the corpus encoded in text Ion. */
+    public byte[] text(final IonSystem system) throws IOException
+    {
+        final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        final IonWriter out = system.newTextWriter(buffer);
+        writeCorpus(out, valueCount(system));
+        out.close();
+        return buffer.toByteArray();
+    }
+
+    /** Returns the corpus in the requested encoding. */
+    public byte[] encode(final IonSystem system, final Format format) throws IOException
+    {
+        return format == Format.BINARY ? binary(system) : text(system);
+    }
+
+    /** Returns a shared symbol table declaring every symbol the corpora use. */
+    public static SymbolTable vocabulary(final IonSystem system)
+    {
+        final List<String> symbols = new ArrayList<String>(FIELD_NAMES);
+        symbols.addAll(VOCABULARY);
+        return system.newSharedSymbolTable(VOCABULARY_TABLE_NAME, 1, symbols.iterator());
+    }
+
+    /** Returns a system suitable for generating corpora. */
+    public static IonSystem newSystem()
+    {
+        return IonSystemBuilder.standard().build();
+    }
+
+    /** Ion encodings a benchmark may be parameterized over. */
+    public enum Format
+    {
+        BINARY,
+        TEXT
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright 2017 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at:
+ *
+ *     http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+
+package software.amazon.ion.benchmark;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import software.amazon.ion.IonDatagram;
+import software.amazon.ion.IonLoader;
+import software.amazon.ion.IonSystem;
+
+/**
+ * Measures the lite DOM: loading a {@link Corpus} into an
+ * {@code IonDatagramLite} through {@code IonLoaderLite}, and serializing it
+ * back out through {@code ReverseBinaryEncoder}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DomBenchmark
+{
+    @Param
+    public Corpus corpus;
+
+    @Param
+    public Corpus.Format format;
+
+    private IonLoader loader;
+    private byte[] data;
+    private IonDatagram datagram;
+
+    @Setup
+    public void setup() throws IOException
+    {
+        final IonSystem system = Corpus.newSystem();
+        loader = system.getLoader();
+        data = corpus.encode(system, format);
+        datagram = loader.load(data);
+    }
+
+    @Benchmark
+    public IonDatagram load()
+    {
+        return loader.load(data);
+    }
+
+    /** Serialization is always binary; the format only affects how the DOM was built. */
+    @Benchmark
+    public byte[] reverseBinaryEncode()
+    {
+        return datagram.getBytes();
+    }
+}
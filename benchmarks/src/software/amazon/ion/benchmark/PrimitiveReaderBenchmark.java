@@ -0,0 +1,152 @@
+/*
+ * Copyright 2017 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at:
+ *
+ *     http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+
+package software.amazon.ion.benchmark;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import software.amazon.ion.IonReader;
+import software.amazon.ion.IonSystem;
+import software.amazon.ion.IonType;
+import software.amazon.ion.IonWriter;
+import software.amazon.ion.impl.PrivateReaderSids;
+
+/**
+ * Measures reading numeric fields from binary data as primitives, one
+ * operation per value, so that running with {@code -prof gc} reports the
+ * bytes allocated per value as {@code gc.alloc.rate.norm}.
+ * <p>
+ * Each record is a struct of an int, a long, a float and a decimal, the
+ * last of which is annotated.  The primitive benchmark reads SIDs and
+ * primitives, which shouldn't allocate at all; the token benchmark reads
+ * the same values through {@link software.amazon.ion.SymbolToken}s and
+ * {@link software.amazon.ion.Decimal}s for comparison.
+ */
+@SuppressWarnings("deprecation")
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PrimitiveReaderBenchmark
+{
+    private static final int RECORDS = 10000;
+    private static final int FIELDS = 4;
+
+    private IonSystem system;
+    private byte[] data;
+
+    @Setup
+    public void setup() throws IOException
+    {
+        system = Corpus.newSystem();
+        final Random random = new Random(0x10ADBEEFL);
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final IonWriter writer = system.newBinaryWriter(out);
+        for (int i = 0; i < RECORDS; i++)
+        {
+            writer.stepIn(IonType.STRUCT);
+            writer.setFieldName("int");
+            writer.writeInt(random.nextInt());
+            writer.setFieldName("long");
+            writer.writeInt(random.nextLong());
+            writer.setFieldName("float");
+            writer.writeFloat(random.nextDouble());
+            writer.setFieldName("decimal");
+            writer.addTypeAnnotation("price");
+            writer.writeDecimal(BigDecimal.valueOf(random.nextInt(100000000), 2));
+            writer.stepOut();
+        }
+        writer.close();
+        data = out.toByteArray();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(RECORDS * FIELDS)
+    public void primitives(final Blackhole bh) throws IOException
+    {
+        final IonReader reader = system.newReader(data);
+        while (reader.next() != null)
+        {
+            reader.stepIn();
+            IonType type;
+            while ((type = reader.next()) != null)
+            {
+                bh.consume(PrivateReaderSids.getFieldNameSid(reader));
+                final int annotations = PrivateReaderSids.getTypeAnnotationSidCount(reader);
+                for (int i = 0; i < annotations; i++)
+                {
+                    bh.consume(PrivateReaderSids.getTypeAnnotationSid(reader, i));
+                }
+                if (type == IonType.INT)
+                {
+                    bh.consume(reader.longValue());
+                }
+                else
+                {
+                    bh.consume(reader.doubleValue());
+                }
+            }
+            reader.stepOut();
+        }
+        reader.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(RECORDS * FIELDS)
+    public void tokens(final Blackhole bh) throws IOException
+    {
+        final IonReader reader = system.newReader(data);
+        while (reader.next() != null)
+        {
+            reader.stepIn();
+            IonType type;
+            while ((type = reader.next()) != null)
+            {
+                bh.consume(reader.getFieldNameSymbol());
+                bh.consume(reader.getTypeAnnotationSymbols());
+                switch (type)
+                {
+                    case INT:
+                        bh.consume(reader.bigIntegerValue());
+                        break;
+                    case DECIMAL:
+                        bh.consume(reader.decimalValue());
+                        break;
+                    default:
+                        bh.consume(reader.doubleValue());
+                        break;
+                }
+            }
+            reader.stepOut();
+        }
+        reader.close();
+    }
+}
@@ -0,0 +1,158 @@
+/*
+ * Copyright 2017 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at:
+ *
+ *     http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+
+package software.amazon.ion.benchmark;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import software.amazon.ion.IonReader;
+import software.amazon.ion.IonSystem;
+import software.amazon.ion.IonType;
+import software.amazon.ion.impl.PrivateIonSystem;
+
+/**
+ * Measures streaming reads over each {@link Corpus}.
+ * <p>
+ * The system reader sits directly on top of the raw binary and text readers
+ * ({@code IonReaderBinaryRawX} and {@code IonReaderTextRawX}), so it isolates
+ * the cost of scanning from symbol table processing; the user reader adds
+ * that processing back in.
+ */
+@SuppressWarnings("deprecation")
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ReaderBenchmark
+{
+    @Param
+    public Corpus corpus;
+
+    @Param
+    public Corpus.Format format;
+
+    private PrivateIonSystem system;
+    private byte[] data;
+
+    @Setup
+    public void setup() throws IOException
+    {
+        final IonSystem ion = Corpus.newSystem();
+        system = (PrivateIonSystem) ion;
+        data = corpus.encode(ion, format);
+    }
+
+    /** Steps into every container and materializes every scalar. */
+    @Benchmark
+    public void systemReaderFullScan(final Blackhole bh) throws IOException
+    {
+        final IonReader reader = system.newSystemReader(data);
+        scan(reader, bh);
+        reader.close();
+    }
+
+    /** Visits top-level values without stepping into them. */
+    @Benchmark
+    public void systemReaderSkipTopLevel(final Blackhole bh) throws IOException
+    {
+        final IonReader reader = system.newSystemReader(data);
+        IonType type;
+        while ((type = reader.next()) != null)
+        {
+            bh.consume(type);
+        }
+        reader.close();
+    }
+
+    /** Steps into every container and materializes every scalar, resolving symbols. */
+    @Benchmark
+    public void userReaderFullScan(final Blackhole bh) throws IOException
+    {
+        final IonReader reader = system.newReader(data);
+        scan(reader, bh);
+        reader.close();
+    }
+
+    /**
+     * Symbols are consumed as {@link software.amazon.ion.SymbolToken}s since
+     * the system reader does not resolve local symbol IDs to text.
+     */
+    static void scan(final IonReader reader, final Blackhole bh)
+    {
+        IonType type;
+        while ((type = reader.next()) != null)
+        {
+            bh.consume(reader.getTypeAnnotationSymbols());
+            if (reader.isInStruct())
+            {
+                bh.consume(reader.getFieldNameSymbol());
+            }
+            if (reader.isNullValue())
+            {
+                continue;
+            }
+            switch (type)
+            {
+                case BOOL:
+                    bh.consume(reader.booleanValue());
+                    break;
+                case INT:
+                    bh.consume(reader.bigIntegerValue());
+                    break;
+                case FLOAT:
+                    bh.consume(reader.doubleValue());
+                    break;
+                case DECIMAL:
+                    bh.consume(reader.decimalValue());
+                    break;
+                case TIMESTAMP:
+                    bh.consume(reader.timestampValue());
+                    break;
+                case SYMBOL:
+                    bh.consume(reader.symbolValue());
+                    break;
+                case STRING:
+                    bh.consume(reader.stringValue());
+                    break;
+                case CLOB:
+                case BLOB:
+                    bh.consume(reader.newBytes());
+                    break;
+                case LIST:
+                case SEXP:
+                case STRUCT:
+                    reader.stepIn();
+                    scan(reader, bh);
+                    reader.stepOut();
+                    break;
+                default:
+                    break;
+            }
+        }
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright 2017 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at:
+ *
+ *     http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+
+package software.amazon.ion.benchmark;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import software.amazon.ion.IonStruct;
+import software.amazon.ion.IonSystem;
+import software.amazon.ion.IonValue;
+
+/**
+ * Measures field access on {@code IonStructLite}, from structs small enough
+ * to be scanned linearly up to ones large enough to need their field index.
+ * Each operation visits the next field in turn, leaving the struct the same
+ * size.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StructBenchmark
+{
+    @Param({ "4", "16", "256", "10000" })
+    public int fields;
+
+    private IonSystem system;
+    private IonStruct struct;
+    private String[] names;
+    private int next;
+
+    @Setup
+    public void setup()
+    {
+        system = Corpus.newSystem();
+        struct = system.newEmptyStruct();
+        names = new String[fields];
+        for (int i = 0; i < fields; i++)
+        {
+            names[i] = "field_" + i;
+            struct.add(names[i], system.newInt(i));
+        }
+    }
+
+    private String nextName()
+    {
+        String name = names[next];
+        next = (next + 1) % names.length;
+        return name;
+    }
+
+    @Benchmark
+    public IonValue get()
+    {
+        return struct.get(nextName());
+    }
+
+    @Benchmark
+    public IonStruct put()
+    {
+        struct.put(nextName(), system.newInt(0));
+        return struct;
+    }
+
+    @Benchmark
+    public IonStruct removeAndAdd()
+    {
+        String name = nextName();
+        IonValue field = struct.remove(name);
+        struct.add(name, field);
+        return struct;
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright 2017 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at:
+ *
+ *     http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+
+package software.amazon.ion.benchmark;
+
+import java.io.UnsupportedEncodingException;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import software.amazon.ion.IonSystem;
+import software.amazon.ion.SymbolTable;
+import software.amazon.ion.impl.PrivateSymbolIndex;
+import software.amazon.ion.impl.bin.PrivateIonManagedBinaryWriterBuilder;
+import software.amazon.ion.impl.bin.PrivateIonManagedBinaryWriterBuilder.AllocatorMode;
+
+/**
+ * Measures symbol lookups in a shared symbol table through its compiled
+ * {@link PrivateSymbolIndex}, from each kind of text it accepts, and the
+ * cost of setting up a binary writer builder that imports the table.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SymbolTableBenchmark
+{
+    @Param({ "64", "50000" })
+    public int symbols;
+
+    private SymbolTable table;
+    private PrivateSymbolIndex index;
+    private String[] names;
+    private StringBuilder[] builders;
+    private byte[][] utf8;
+    private int next;
+
+    @Setup
+    public void setup()
+        throws UnsupportedEncodingException
+    {
+        IonSystem system = Corpus.newSystem();
+        names = new String[symbols];
+        builders = new StringBuilder[symbols];
+        utf8 = new byte[symbols][];
+        for (int i = 0; i < symbols; i++)
+        {
+            names[i] = "symbol_" + Integer.toString(i * 7919, 36);
+            builders[i] = new StringBuilder(names[i]);
+            utf8[i] = names[i].getBytes("UTF-8");
+        }
+        table = system.newSharedSymbolTable("benchmark", 1,
+                                            Arrays.asList(names).iterator());
+        index = PrivateSymbolIndex.of(table);
+    }
+
+    private int nextSymbol()
+    {
+        int i = next;
+        next = (i + 1) % symbols;
+        return i;
+    }
+
+    @Benchmark
+    public int findString()
+    {
+        return table.findSymbol(names[nextSymbol()]);
+    }
+
+    @Benchmark
+    public int findCharSequence()
+    {
+        return index.findSymbol(builders[nextSymbol()]);
+    }
+
+    @Benchmark
+    public int findUtf8()
+    {
+        byte[] bytes = utf8[nextSymbol()];
+        return index.findSymbol(bytes, 0, bytes.length);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public PrivateIonManagedBinaryWriterBuilder flatImports()
+    {
+        return PrivateIonManagedBinaryWriterBuilder
+            .create(AllocatorMode.BASIC)
+            .withFlatImports(table);
+    }
+}
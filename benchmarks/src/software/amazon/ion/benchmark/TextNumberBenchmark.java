@@ -0,0 +1,113 @@
+/*
+ * Copyright 2017 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at:
+ *
+ *     http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+
+package software.amazon.ion.benchmark;
+
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import software.amazon.ion.IonReader;
+import software.amazon.ion.IonSystem;
+import software.amazon.ion.IonType;
+
+/**
+ * Measures reading numbers from text, one operation per value: ints of
+ * mixed sizes and radixes, and floats as printed by
+ * {@link Double#toString(double)}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TextNumberBenchmark
+{
+    private static final int VALUES = 100000;
+
+    private IonSystem system;
+    private String ints;
+    private String floats;
+
+    @Setup
+    public void setup()
+    {
+        system = Corpus.newSystem();
+        final Random random = new Random(0x10ADBEEFL);
+        final StringBuilder intText = new StringBuilder();
+        final StringBuilder floatText = new StringBuilder();
+        for (int i = 0; i < VALUES; i++)
+        {
+            switch (i % 4)
+            {
+                case 0:
+                    intText.append(random.nextInt(100000));
+                    break;
+                case 1:
+                    intText.append(random.nextLong());
+                    break;
+                case 2:
+                    intText.append("0x").append(Integer.toHexString(random.nextInt() >>> 1));
+                    break;
+                default:
+                    intText.append(-random.nextInt());
+                    break;
+            }
+            intText.append(' ');
+
+            final double value = random.nextDouble() * Math.pow(10, random.nextInt(40) - 20);
+            final String image = Double.toString(value);
+            floatText.append(image.indexOf('E') < 0 ? image + "e0" : image.replace('E', 'e'));
+            floatText.append(' ');
+        }
+        ints = intText.toString();
+        floats = floatText.toString();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(VALUES)
+    public void ints(final Blackhole bh) throws IOException
+    {
+        final IonReader reader = system.newReader(ints);
+        while (reader.next() != null)
+        {
+            bh.consume(reader.longValue());
+        }
+        reader.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(VALUES)
+    public void floats(final Blackhole bh) throws IOException
+    {
+        final IonReader reader = system.newReader(floats);
+        while (reader.next() == IonType.FLOAT)
+        {
+            bh.consume(reader.doubleValue());
+        }
+        reader.close();
+    }
+}
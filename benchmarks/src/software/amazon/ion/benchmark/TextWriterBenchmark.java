@@ -0,0 +1,77 @@
+/*
+ * Copyright 2017 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at:
+ *
+ *     http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+
+package software.amazon.ion.benchmark;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import software.amazon.ion.IonDatagram;
+import software.amazon.ion.IonSystem;
+import software.amazon.ion.IonValue;
+import software.amazon.ion.IonWriter;
+import software.amazon.ion.system.IonTextWriterBuilder;
+
+/**
+ * Measures the text writer ({@code IonWriterSystemText}) over each
+ * {@link Corpus}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TextWriterBenchmark
+{
+    @Param
+    public Corpus corpus;
+
+    private IonDatagram values;
+    private IonTextWriterBuilder builder;
+    private ByteArrayOutputStream out;
+
+    @Setup
+    public void setup() throws IOException
+    {
+        final IonSystem system = Corpus.newSystem();
+        values = system.getLoader().load(corpus.binary(system));
+        builder = IonTextWriterBuilder.standard().immutable();
+        out = new ByteArrayOutputStream(4 * Corpus.TARGET_SIZE);
+    }
+
+    @Benchmark
+    public int textWriter() throws IOException
+    {
+        out.reset();
+        final IonWriter writer = builder.build(out);
+        for (final IonValue value : values)
+        {
+            value.writeTo(writer);
+        }
+        writer.close();
+        return out.size();
+    }
+}
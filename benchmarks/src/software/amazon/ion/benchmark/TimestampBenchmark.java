@@ -0,0 +1,139 @@
+/*
+ * Copyright 2017 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at:
+ *
+ *     http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+
+package software.amazon.ion.benchmark;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import software.amazon.ion.IonReader;
+import software.amazon.ion.IonSystem;
+import software.amazon.ion.IonWriter;
+import software.amazon.ion.Timestamp;
+import software.amazon.ion.impl.PrivateReaderTimestamps;
+
+/**
+ * Measures millisecond-precision timestamps with UTC and local offsets, one
+ * operation per timestamp: parsing and printing text, either to a String or
+ * into a reused UTF-8 buffer, and reading binary
+ * data either as {@link Timestamp}s or as epoch millis.  Run with
+ * {@code -prof gc} to see the bytes allocated per timestamp.
+ */
+@SuppressWarnings("deprecation")
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TimestampBenchmark
+{
+    private static final int TIMESTAMPS = 10000;
+    private static final Integer[] OFFSETS = { 0, -480, 330, 60, null };
+
+    private IonSystem system;
+    private Timestamp[] timestamps;
+    private String[] images;
+    private byte[] binary;
+    private byte[] utf8;
+
+    @Setup
+    public void setup() throws IOException
+    {
+        system = Corpus.newSystem();
+        final Random random = new Random(0x10ADBEEFL);
+        timestamps = new Timestamp[TIMESTAMPS];
+        images = new String[TIMESTAMPS];
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final IonWriter writer = system.newBinaryWriter(out);
+        final long now = 1500000000000L;
+        for (int i = 0; i < TIMESTAMPS; i++)
+        {
+            final long millis = now + (random.nextLong() % (365L * 24 * 3600 * 1000));
+            timestamps[i] = Timestamp.forMillis(millis, OFFSETS[i % OFFSETS.length]);
+            images[i] = timestamps[i].toString();
+            writer.writeTimestamp(timestamps[i]);
+        }
+        writer.close();
+        binary = out.toByteArray();
+        utf8 = new byte[Timestamp.MAX_MILLIS_PRINTED_LENGTH];
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(TIMESTAMPS)
+    public void parse(final Blackhole bh)
+    {
+        for (final String image : images)
+        {
+            bh.consume(Timestamp.valueOf(image));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(TIMESTAMPS)
+    public void print(final Blackhole bh)
+    {
+        for (final Timestamp timestamp : timestamps)
+        {
+            bh.consume(timestamp.toString());
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(TIMESTAMPS)
+    public void printUtf8(final Blackhole bh)
+    {
+        for (final Timestamp timestamp : timestamps)
+        {
+            bh.consume(timestamp.printUtf8(utf8, 0));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(TIMESTAMPS)
+    public void readTimestamps(final Blackhole bh) throws IOException
+    {
+        final IonReader reader = system.newReader(binary);
+        while (reader.next() != null)
+        {
+            bh.consume(reader.timestampValue().getMillis());
+        }
+        reader.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(TIMESTAMPS)
+    public void readMillis(final Blackhole bh) throws IOException
+    {
+        final IonReader reader = system.newReader(binary);
+        while (reader.next() != null)
+        {
+            bh.consume(PrivateReaderTimestamps.timestampValueMillis(reader));
+        }
+        reader.close();
+    }
+}
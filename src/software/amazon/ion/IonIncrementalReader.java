@@ -0,0 +1,68 @@
+/*
+ * Copyright 2017 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at:
+ *
+ *     http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+
+package software.amazon.ion;
+
+/**
+ * An {@link IonReader} over binary Ion data that the caller supplies
+ * incrementally, as it becomes available.
+ * <p>
+ * <b>WARNING:</b> This interface should not be implemented or extended by
+ * code outside of this library.
+ * <p>
+ * Data is passed to the reader with {@link #feed}, in pieces of any size.
+ * The reader only produces a top-level value once all of its bytes have
+ * arrived, so once a value has been produced it can be stepped into and
+ * read in full without ever running out of data.  When the next top-level
+ * value hasn't arrived in full, {@link #next()} returns null at top-level
+ * rather than blocking or failing, and {@link #isValueIncomplete()}
+ * distinguishes that from having consumed everything fed so far.  Once more
+ * data is fed, {@link #next()} picks up where it left off.
+ * <p>
+ * This lets a single thread parse any number of streams as their data
+ * arrives, for example from non-blocking network connections.  Each
+ * incomplete top-level value is buffered until it is complete, so memory
+ * use is proportional to the largest top-level value.
+ * <p>
+ * The data must begin with the binary Ion version marker.  Incremental
+ * readers don't support the {@link SpanProvider} or {@link SeekableReader}
+ * facets.
+ * <p>
+ * Implementations of this interface are not thread-safe.
+ *
+ * @see software.amazon.ion.util.IonReaders#newIncrementalReader(IonSystem)
+ */
+public interface IonIncrementalReader
+    extends IonReader
+{
+    /**
+     * Passes more data to this reader.  The data is copied, so the caller
+     * may reuse the array once this method returns.
+     *
+     * @param bytes the data; must not be null.
+     * @param offset the position of the data in the array.
+     * @param length the number of bytes of data.
+     */
+    public void feed(byte[] bytes, int offset, int length);
+
+
+    /**
+     * Determines whether this reader has buffered the beginning of a
+     * top-level value that needs more data to be complete.
+     *
+     * @return true if more data must be {@linkplain #feed fed} before the
+     * next top-level value can be read.
+     */
+    public boolean isValueIncomplete();
+}
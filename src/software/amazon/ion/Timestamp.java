@@ -20,6 +20,7 @@ import static software.amazon.ion.util.IonTextUtils.printCodePointAsString;
 import java.io.IOException;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.nio.CharBuffer;
 import java.util.Calendar;
 import java.util.Date;
 import java.util.GregorianCalendar;
@@ -93,6 +94,13 @@ public final class Timestamp
      */
     public static final Integer UTC_OFFSET = Integer.valueOf(0);
 
+    /**
+     * The most characters that {@link #print(char[], int)} prints for a
+     * Timestamp with up to millisecond precision, so that a buffer of this
+     * size can be reused for all of them.
+     */
+    public static final int MAX_MILLIS_PRINTED_LENGTH = 30;
+
     private static final int FLAG_YEAR      = 0x01;
     private static final int FLAG_MONTH     = 0x02;
     private static final int FLAG_DAY       = 0x04;
@@ -885,14 +893,23 @@ public final class Timestamp
             }
             precision = Precision.SECOND;
             pos = END_OF_SECONDS + 1;
+            int digits = 0;
             while (length > pos && Character.isDigit(in.charAt(pos))) {
+                digits = digits * 10 + Character.digit(in.charAt(pos), 10);
                 pos++;
             }
             if (pos <= END_OF_SECONDS + 1) {
                 throw fail(in,
                            "must have at least one digit after decimal point");
             }
-            fraction = new BigDecimal(in.subSequence(19, pos).toString());
+            int scale = pos - (END_OF_SECONDS + 1);
+            if (scale <= 3) {
+                // up to milliseconds, the fraction is shared
+                fraction = PrivateUtils.fractionOfSecond(digits, scale);
+            }
+            else {
+                fraction = new BigDecimal(in.subSequence(19, pos).toString());
+            }
         } while (false);
 
         Integer offset;
@@ -933,7 +950,7 @@ public final class Timestamp
                 offset = null;
             }
             else {
-                offset = temp;
+                offset = PrivateUtils.localOffset(temp);
             }
         }
         else {
@@ -1398,17 +1415,10 @@ public final class Timestamp
      *          number of milliseconds (<em>ignoring</em> any fractional
      *          milliseconds) from the epoch (1970-01-01T00:00:00.000Z)
      */
-    @SuppressWarnings("deprecation")
     public long getMillis()
     {
-        //                                        month is 0 based for Date
-        long millis = Date.UTC(this._year - 1900, this._month - 1, this._day, this._hour, this._minute, this._second);
-        if (this._fraction != null) {
-            int frac = this._fraction.movePointRight(3).intValue();
-            millis += frac;
-        }
-        return millis;
-
+        return PrivateUtils.utcMillis(_year, _month, _day,
+                                      _hour, _minute, _second, _fraction);
     }
 
     /**
@@ -1789,17 +1799,8 @@ public final class Timestamp
     @Override
     public String toString()
     {
-        StringBuilder buffer = new StringBuilder(32);
-        try
-        {
-            print(buffer);
-        }
-        catch (IOException e)
-        {
-            throw new RuntimeException("Exception printing to StringBuilder",
-                                       e);
-        }
-        return buffer.toString();
+        char[] buffer = new char[printedLengthLimit()];
+        return new String(buffer, 0, print(buffer, 0));
     }
 
 
@@ -1837,21 +1838,83 @@ public final class Timestamp
      * @throws IOException propagated when the {@link Appendable} throws it
      *
      * @see #printZ(Appendable)
+     * @see #print(char[], int)
      */
     public void print(Appendable out)
         throws IOException
     {
-        // we have to make a copy to preserve the "immutable" contract
-        // on Timestamp and we don't want someone reading the calendar
-        // member while we've shifted it around.
-        Timestamp adjusted = this;
-
-        // Adjust UTC time back to local time
-        if (this._offset != null && this._offset.intValue() != 0) {
-            adjusted = make_localtime();
+        char[] buffer = new char[printedLengthLimit()];
+        int length = print(buffer, 0);
+        if (out instanceof StringBuilder) {
+            ((StringBuilder) out).append(buffer, 0, length);
         }
+        else {
+            out.append(CharBuffer.wrap(buffer, 0, length));
+        }
+    }
+
+
+    /**
+     * Prints the string representation (in Ion format) of this Timestamp in
+     * its local time into a character buffer, which can be reused from one
+     * timestamp to the next.
+     * <p>
+     * This method produces the same characters as {@link #toString()}.
+     *
+     * @param buffer not {@code null}; must have at least
+     * {@link #printedLengthLimit()} characters from {@code offset} on.
+     * @param offset the index at which to start printing.
+     *
+     * @return the number of characters printed.
+     *
+     * @throws IndexOutOfBoundsException if the buffer is too small.
+     *
+     * @see #printUtf8(byte[], int)
+     */
+    public int print(char[] buffer, int offset)
+    {
+        check_print_buffer(buffer.length, offset);
+        return format(buffer, null, offset, localtime()) - offset;
+    }
+
+
+    /**
+     * Prints the string representation (in Ion format) of this Timestamp in
+     * its local time into a buffer of UTF-8 bytes, which can be reused from
+     * one timestamp to the next.  The representation is all ASCII, so each
+     * character is printed as a single byte.
+     *
+     * @param buffer not {@code null}; must have at least
+     * {@link #printedLengthLimit()} bytes from {@code offset} on.
+     * @param offset the index at which to start printing.
+     *
+     * @return the number of bytes printed.
+     *
+     * @throws IndexOutOfBoundsException if the buffer is too small.
+     *
+     * @see #print(char[], int)
+     */
+    public int printUtf8(byte[] buffer, int offset)
+    {
+        check_print_buffer(buffer.length, offset);
+        return format(null, buffer, offset, localtime()) - offset;
+    }
 
-        print(out, adjusted);
+
+    /**
+     * Returns the most characters that {@link #print(char[], int)} and
+     * {@link #printUtf8(byte[], int)} may print for this Timestamp.
+     * The limit only depends on the number of digits in the fractional
+     * second; it is {@link #MAX_MILLIS_PRINTED_LENGTH} or less for timestamps
+     * with up to millisecond precision.
+     */
+    public int printedLengthLimit()
+    {
+        if (_fraction == null) {
+            return FIXED_FORMATTED_LENGTH;
+        }
+        // the point, and up to one more character than there are digits
+        return FIXED_FORMATTED_LENGTH + Math.max(_fraction.scale(), 0) + 2;
     }
 
 
@@ -1894,112 +1957,154 @@ public final class Timestamp
 
 
     /**
-     * helper for print(out) and printZ(out) so that printZ can create
-     * a zulu time and pass it directly and print can apply the local
-     * offset and adjust the various fields (without breaking the
-     * contract to be immutable).
-     * @param out destination for the text image of the value
-     * @param adjusted the time value with the fields adjusted to match the desired text output
-     * @throws IOException
+     * Returns this timestamp with its fields adjusted to its local time.
+     * We have to make a copy to preserve the "immutable" contract on
+     * Timestamp.
      */
-    private static void print(Appendable out, Timestamp adjusted)
-        throws IOException
+    private Timestamp localtime()
     {
-        // null is our first "guess" to get it out of the way
-        if (adjusted == null) {
-            out.append("null.timestamp");
-            return;
+        if (_offset != null && _offset.intValue() != 0) {
+            return make_localtime();
         }
+        return this;
+    }
 
-        // so we have a real value - we'll start with the date portion
-        // which we always have
-        print_digits(out, adjusted._year, 4);
+    /** yyyy-mm-ddThh:mm:ss+hh:mm, without the fraction. */
+    private static final int FIXED_FORMATTED_LENGTH = 25;
+
+    private void check_print_buffer(int length, int offset)
+    {
+        int limit = printedLengthLimit();
+        if (offset < 0 || offset > length - limit) {
+            throw new IndexOutOfBoundsException(
+                "Need " + limit + " characters at " + offset
+                + " in a buffer of " + length);
+        }
+    }
+
+    /**
+     * helper for the print methods and toString() that formats the text
+     * image of the value into a buffer, so that printZ can create a zulu
+     * time and print it directly and print can apply the local offset and
+     * adjust the various fields (without breaking the contract to be
+     * immutable).
+     * <p>
+     * Exactly one of {@code chars} and {@code bytes} is the buffer; the
+     * text is all ASCII, so it's the same either way.
+     *
+     * @param chars the buffer, or null when printing to {@code bytes}.
+     * @param bytes the buffer, or null when printing to {@code chars}.
+     * @param pos the index at which to start formatting; there must be at
+     * least {@link #printedLengthLimit} characters from there on.
+     * @param adjusted the time value with the fields adjusted to match the
+     * desired text output
+     *
+     * @return the index after the last character formatted.
+     */
+    private static int format(char[] chars, byte[] bytes, int pos,
+                              Timestamp adjusted)
+    {
+        // we'll start with the date portion which we always have
+        pos = format_digits(chars, bytes, pos, adjusted._year, 4);
         if (adjusted._precision == Precision.YEAR) {
             assert adjusted._offset == UNKNOWN_OFFSET;
-            out.append("T");
-            return;
+            return format_char(chars, bytes, pos, 'T');
         }
 
-        out.append("-");
-        print_digits(out, adjusted._month, 2);  // convert calendar months to a base 1 value
+        pos = format_char(chars, bytes, pos, '-');
+        pos = format_digits(chars, bytes, pos, adjusted._month, 2);
         if (adjusted._precision == Precision.MONTH) {
             assert adjusted._offset == UNKNOWN_OFFSET;
-            out.append("T");
-            return;
+            return format_char(chars, bytes, pos, 'T');
         }
 
-        out.append("-");
-        print_digits(out, adjusted._day, 2);
+        pos = format_char(chars, bytes, pos, '-');
+        pos = format_digits(chars, bytes, pos, adjusted._day, 2);
         if (adjusted._precision == Precision.DAY) {
             assert adjusted._offset == UNKNOWN_OFFSET;
-            // out.append("T");
-            return;
+            return pos;
         }
 
-        out.append("T");
-        print_digits(out, adjusted._hour, 2);
-        out.append(":");
-        print_digits(out, adjusted._minute, 2);
+        pos = format_char(chars, bytes, pos, 'T');
+        pos = format_digits(chars, bytes, pos, adjusted._hour, 2);
+        pos = format_char(chars, bytes, pos, ':');
+        pos = format_digits(chars, bytes, pos, adjusted._minute, 2);
         // ok, so how much time do we have ?
         if (adjusted._precision == Precision.SECOND) {
-            out.append(":");
-            print_digits(out, adjusted._second, 2);
+            pos = format_char(chars, bytes, pos, ':');
+            pos = format_digits(chars, bytes, pos, adjusted._second, 2);
             if (adjusted._fraction != null) {
-                print_fractional_digits(out, adjusted._fraction);
+                pos = format_fraction(chars, bytes, pos, adjusted._fraction);
             }
         }
 
         if (adjusted._offset != UNKNOWN_OFFSET) {
-            int min, hour;
-            min = adjusted._offset;
+            int min = adjusted._offset;
             if (min == 0) {
-                out.append('Z');
+                pos = format_char(chars, bytes, pos, 'Z');
             }
             else {
                 if (min < 0) {
                     min = -min;
-                    out.append('-');
+                    pos = format_char(chars, bytes, pos, '-');
                 }
                 else {
-                    out.append('+');
+                    pos = format_char(chars, bytes, pos, '+');
                 }
-                hour = min / 60;
+                int hour = min / 60;
                 min = min - hour*60;
-                print_digits(out, hour, 2);
-                out.append(":");
-                print_digits(out, min, 2);
+                pos = format_digits(chars, bytes, pos, hour, 2);
+                pos = format_char(chars, bytes, pos, ':');
+                pos = format_digits(chars, bytes, pos, min, 2);
             }
         }
         else {
-            out.append("-00:00");
+            pos = format_char(chars, bytes, pos, '-');
+            pos = format_digits(chars, bytes, pos, 0, 2);
+            pos = format_char(chars, bytes, pos, ':');
+            pos = format_digits(chars, bytes, pos, 0, 2);
         }
+        return pos;
     }
-    private static void print_digits(Appendable out, int value, int length)
-        throws IOException
+
+    private static int format_char(char[] chars, byte[] bytes, int pos,
+                                   char c)
     {
-        char temp[] = new char[length];
-        while (length > 0) {
-            length--;
-            int next = value / 10;
-            temp[length] =  (char)('0' + (value - next*10));
-            value = next;
+        if (chars != null) {
+            chars[pos] = c;
         }
-        while (length > 0) {
-            length--;
-            temp[length] =  '0';
+        else {
+            bytes[pos] = (byte) c;
         }
-        for (char c : temp) {
-            out.append(c);
+        return pos + 1;
+    }
+
+    private static int format_digits(char[] chars, byte[] bytes, int pos,
+                                     long value, int length)
+    {
+        for (int i = pos + length - 1; i >= pos; i--) {
+            long next = value / 10;
+            format_char(chars, bytes, i, (char)('0' + (value - next*10)));
+            value = next;
         }
+        return pos + length;
     }
-    private static void print_fractional_digits(Appendable out, BigDecimal value)
-        throws IOException
+
+    private static int format_fraction(char[] chars, byte[] bytes, int pos,
+                                       BigDecimal value)
     {
+        int scale = value.scale();
+        if (scale >= 1 && scale <= 9) {
+            pos = format_char(chars, bytes, pos, '.');
+            return format_digits(chars, bytes, pos,
+                                 PrivateUtils.fractionDigits(value), scale);
+        }
         String temp = value.toPlainString(); // crude, but it works
-        if (temp.charAt(0) == '0') { // this should always be true
-            temp = temp.substring(1);
+        int start = (temp.charAt(0) == '0') ? 1 : 0; // this should always be true
+        for (int i = start; i < temp.length(); i++) {
+            pos = format_char(chars, bytes, pos, temp.charAt(i));
         }
-        out.append(temp);
+        return pos;
     }
 
 
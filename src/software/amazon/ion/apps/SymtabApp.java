@@ -14,26 +14,85 @@
 
 package software.amazon.ion.apps;
 
+import java.io.ByteArrayOutputStream;
+import java.io.File;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.io.PrintStream;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
 import software.amazon.ion.IonCatalog;
 import software.amazon.ion.IonException;
 import software.amazon.ion.IonReader;
 import software.amazon.ion.IonType;
 import software.amazon.ion.IonWriter;
 import software.amazon.ion.SymbolTable;
-
+import software.amazon.ion.SymbolToken;
+import software.amazon.ion.SystemSymbols;
+
+/**
+ * Builds a shared symbol table from the symbols used by a set of files.
+ * <p>
+ * By default the table holds the symbols in the order they're found.  With
+ * {@code --by-frequency} it holds every field name, annotation and symbol
+ * value in order of how often they occur, so that the most common symbols
+ * get the smallest SIDs, and the projected size of the files when
+ * re-encoded in binary with a table of each candidate size is reported on
+ * stderr.  {@code --max-symbols} limits the size of the table that's
+ * printed, and {@code --candidates} takes a comma-separated list of the
+ * sizes to report.
+ */
 public class SymtabApp
     extends BaseApp
 {
+    /** The largest SID encoded in a single byte as a field name or annotation. */
+    private static final int MAX_ONE_BYTE_SID = 0x7F;
+
+    /** The largest SID encoded in two bytes as a field name or annotation. */
+    private static final int MAX_TWO_BYTE_SID = 0x3FFF;
+
+    /** How often a symbol occurs. */
+    private static final class SymbolCount
+    {
+        final String text;
+        long         count;
+
+        SymbolCount(String text)
+        {
+            this.text = text;
+        }
+    }
+
+    private static final Comparator<SymbolCount> MOST_FREQUENT_FIRST =
+        new Comparator<SymbolCount>()
+    {
+        public int compare(SymbolCount a, SymbolCount b)
+        {
+            return (a.count < b.count) ? 1 : (a.count > b.count) ? -1 : 0;
+        }
+    };
+
     private ArrayList<SymbolTable> myImports = new ArrayList<SymbolTable>();
     private ArrayList<String>      mySymbols = new ArrayList<String>();
 
     private String mySymtabName;
     private int    mySymtabVersion;
 
+    private boolean myByFrequency;
+    private int     myMaxSymbols = -1;
+    private List<Integer> myCandidateSizes;
+
+    /** In first-seen order, which breaks ties between equal counts. */
+    private final Map<String, SymbolCount> myCounts =
+        new LinkedHashMap<String, SymbolCount>();
+    private final List<File> myFiles = new ArrayList<File>();
+
 
     //=========================================================================
     // Static methods
@@ -101,6 +160,26 @@ public class SymtabApp
                     throw new RuntimeException("Name must not be empty");
                 }
             }
+            else if ("--by-frequency".equals(arg))
+            {
+                myByFrequency = true;
+            }
+            else if ("--max-symbols".equals(arg))
+            {
+                myMaxSymbols = Integer.parseInt(args[++i]);
+                if (myMaxSymbols < 0)
+                {
+                    throw new RuntimeException("Max symbols must not be negative");
+                }
+            }
+            else if ("--candidates".equals(arg))
+            {
+                myCandidateSizes = new ArrayList<Integer>();
+                for (String size : args[++i].split(","))
+                {
+                    myCandidateSizes.add(Integer.valueOf(size.trim()));
+                }
+            }
             else if ("--version".equals(arg))
             {
                 if (mySymtabVersion != 0)
@@ -150,6 +229,13 @@ public class SymtabApp
             return false;
         }
 
+        if (! myByFrequency
+            && (myMaxSymbols >= 0 || myCandidateSizes != null))
+        {
+            System.err.println("--max-symbols and --candidates require --by-frequency");
+            return false;
+        }
+
         return true;
     }
 
@@ -162,6 +248,19 @@ public class SymtabApp
         SymbolTable[] importArray = new SymbolTable[myImports.size()];
         myImports.toArray(importArray);
 
+        if (myByFrequency)
+        {
+            List<String> ordered = symbolsByFrequency();
+            reportCandidates(ordered, importArray, System.err);
+
+            int size = ordered.size();
+            if (myMaxSymbols >= 0 && myMaxSymbols < size)
+            {
+                size = myMaxSymbols;
+            }
+            mySymbols.addAll(ordered.subList(0, size));
+        }
+
         SymbolTable mySymtab =
             mySystem.newSharedSymbolTable(mySymtabName,
                                           mySymtabVersion,
@@ -183,10 +282,39 @@ public class SymtabApp
     }
 
 
+    @Override
+    protected void process(File file)
+        throws IOException, IonException
+    {
+        process(file, mySystem.newReader(load(file)));
+        if (myByFrequency)
+        {
+            // re-encoded for the report once the symbols are all counted
+            myFiles.add(file);
+        }
+    }
+
+    /**
+     * Reads the data of an input file.  Files are read once to count their
+     * symbols, and again for each table size in the report.
+     */
+    byte[] load(File file)
+        throws IOException
+    {
+        return loadAsByteArray(file);
+    }
+
+
     @Override
     protected void process(IonReader reader)
         throws IonException
     {
+        if (myByFrequency)
+        {
+            count(reader);
+            return;
+        }
+
         IonType type;
         while ((type = reader.next()) != null)
         {
@@ -234,11 +362,196 @@ public class SymtabApp
         }
     }
 
+    //=========================================================================
+    // Frequency-driven tables
+
+    /** Counts the symbols of the values at the reader's depth, recursively. */
+    private void count(IonReader reader)
+    {
+        IonType type;
+        while ((type = reader.next()) != null)
+        {
+            if (reader.isInStruct())
+            {
+                count(reader.getFieldNameSymbol());
+            }
+            for (SymbolToken annotation : reader.getTypeAnnotationSymbols())
+            {
+                count(annotation);
+            }
+
+            if (reader.isNullValue()) continue;
+
+            switch (type) {
+                case SYMBOL:
+                {
+                    count(reader.symbolValue());
+                    break;
+                }
+                case LIST:
+                case SEXP:
+                case STRUCT:
+                {
+                    reader.stepIn();
+                    count(reader);
+                    reader.stepOut();
+                    break;
+                }
+                default:
+                {
+                    // do nothing
+                    break;
+                }
+            }
+        }
+    }
+
+    private void count(SymbolToken symbol)
+    {
+        String text = symbol.getText();
+        if (text == null || isSystemSymbol(text)) return;
+
+        SymbolCount count = myCounts.get(text);
+        if (count == null)
+        {
+            count = new SymbolCount(text);
+            myCounts.put(text, count);
+        }
+        count.count++;
+    }
+
+    /**
+     * Returns the counted symbols that aren't already imported, most
+     * frequent first.
+     */
+    List<String> symbolsByFrequency()
+    {
+        List<SymbolCount> counts = new ArrayList<SymbolCount>();
+        for (SymbolCount count : myCounts.values())
+        {
+            if (! isImported(count.text))
+            {
+                counts.add(count);
+            }
+        }
+
+        // The sort is stable, so ties stay in first-seen order
+        Collections.sort(counts, MOST_FREQUENT_FIRST);
+
+        List<String> ordered = new ArrayList<String>(counts.size());
+        for (SymbolCount count : counts)
+        {
+            ordered.add(count.text);
+        }
+        return ordered;
+    }
+
+    private boolean isImported(String text)
+    {
+        for (SymbolTable table : myImports)
+        {
+            if (table.findSymbol(text) != SymbolTable.UNKNOWN_SYMBOL_ID)
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the requested candidate sizes, or by default the sizes whose
+     * symbols all get one and two byte SIDs, and all of the symbols.
+     */
+    TreeSet<Integer> candidateSizes(int symbolCount,
+                                    SymbolTable[] importArray)
+    {
+        TreeSet<Integer> sizes = new TreeSet<Integer>();
+        if (myCandidateSizes != null)
+        {
+            sizes.addAll(myCandidateSizes);
+        }
+        else
+        {
+            int firstSid = SystemSymbols.ION_1_0_MAX_ID + 1;
+            for (SymbolTable table : importArray)
+            {
+                firstSid += table.getMaxId();
+            }
+            sizes.add(MAX_ONE_BYTE_SID - firstSid + 1);
+            sizes.add(MAX_TWO_BYTE_SID - firstSid + 1);
+            sizes.add(symbolCount);
+        }
+        return sizes;
+    }
+
+    /**
+     * Re-encodes the files in binary with a table of the most frequent
+     * symbols for each candidate size, and prints the size of the result
+     * compared to encoding them with only the imports (the first row).
+     */
+    void reportCandidates(List<String> ordered,
+                          SymbolTable[] importArray,
+                          PrintStream out)
+    {
+        try
+        {
+            long baseline = encodedSize(importArray);
+            out.println("symbols       bytes       saved");
+            out.println(String.format("%7d %11d", 0, baseline));
+
+            for (int size : candidateSizes(ordered.size(), importArray))
+            {
+                if (size <= 0 || size > ordered.size()) continue;
+
+                SymbolTable candidate =
+                    mySystem.newSharedSymbolTable(mySymtabName,
+                                                  mySymtabVersion,
+                                                  ordered.subList(0, size).iterator(),
+                                                  importArray);
+                long bytes = encodedSize(candidate);
+                long saved = baseline - bytes;
+                out.println(String.format("%7d %11d %11d (%.1f%%)",
+                                          size, bytes, saved,
+                                          baseline == 0
+                                              ? 0.0
+                                              : 100.0 * saved / baseline));
+            }
+        }
+        catch (IOException e)
+        {
+            throw new IonException("Error re-encoding the files", e);
+        }
+    }
+
+    /**
+     * Returns the total size of the files when each is re-encoded in binary
+     * with the given tables imported.
+     */
+    private long encodedSize(SymbolTable... imports)
+        throws IOException
+    {
+        long total = 0;
+        for (File file : myFiles)
+        {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            IonWriter writer = mySystem.newBinaryWriter(out, imports);
+            writer.writeValues(mySystem.newReader(load(file)));
+            writer.close();
+            total += out.size();
+        }
+        return total;
+    }
+
+    private static boolean isSystemSymbol(String text)
+    {
+        return text.equals("$ion") || text.startsWith("$ion_");
+    }
+
     private void intern(String text)
     {
         if (text != null)
         {
-            if (text.equals("$ion") || text.startsWith("$ion_")) return;
+            if (isSystemSymbol(text)) return;
             mySymbols.add(text);
         }
     }
@@ -0,0 +1,271 @@
+/*
+ * Copyright 2017 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at:
+ *
+ *     http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+
+package software.amazon.ion.impl;
+
+import static software.amazon.ion.impl.PrivateIonConstants.BINARY_VERSION_MARKER_SIZE;
+import static software.amazon.ion.impl.PrivateIonConstants.lnIsNull;
+import static software.amazon.ion.impl.PrivateIonConstants.lnIsOrderedStruct;
+import static software.amazon.ion.impl.PrivateIonConstants.lnIsVarLen;
+import static software.amazon.ion.impl.PrivateIonConstants.tidBoolean;
+import static software.amazon.ion.impl.PrivateIonConstants.tidStruct;
+
+import java.io.IOException;
+import software.amazon.ion.IonCatalog;
+import software.amazon.ion.IonException;
+import software.amazon.ion.IonIncrementalReader;
+import software.amazon.ion.IonSystem;
+import software.amazon.ion.IonType;
+import software.amazon.ion.SeekableReader;
+import software.amazon.ion.SpanProvider;
+import software.amazon.ion.impl.UnifiedInputStreamX.FromByteArray;
+
+/**
+ * A binary user reader over data that is fed to it incrementally.
+ * <p>
+ * Fed data is appended to a buffer, and the headers of the top-level values
+ * in it are scanned to find how much of the buffer holds complete values.
+ * Only that prefix is handed to the underlying byte array stream, so the
+ * reader never sees a partial value.  When the reader runs out of complete
+ * values at top-level, the consumed data is discarded and the stream is
+ * reset over whatever complete values have arrived since, keeping the
+ * current symbol table.
+ * <p>
+ * The buffer is only compacted in place while the reader is between
+ * top-level values; otherwise the stream keeps the array it was given and
+ * newly fed data goes to a fresh array.
+ */
+final class IonReaderBinaryIncrementalX
+    extends IonReaderBinaryUserX
+    implements IonIncrementalReader
+{
+    private static final int INITIAL_BUFFER_SIZE = 4096;
+
+    private final FromByteArray _source;
+
+    /** The fed data, of which the stream may still be reading a prefix. */
+    private byte[] _data;
+    /** The end of the data fed so far. */
+    private int    _data_limit;
+    /** The end of the complete top-level values found so far. */
+    private int    _complete;
+    /** The end of the data handed to the stream. */
+    private int    _released;
+    /** Whether the stream has consumed everything handed to it. */
+    private boolean _drained;
+
+    IonReaderBinaryIncrementalX(IonSystem system, IonCatalog catalog)
+    {
+        this(system, catalog, new byte[INITIAL_BUFFER_SIZE]);
+    }
+
+    private IonReaderBinaryIncrementalX(IonSystem system,
+                                        IonCatalog catalog,
+                                        byte[] data)
+    {
+        this(system, catalog, data, new FromByteArray(data, 0, 0));
+    }
+
+    private IonReaderBinaryIncrementalX(IonSystem system,
+                                        IonCatalog catalog,
+                                        byte[] data,
+                                        FromByteArray source)
+    {
+        super(system, catalog, source);
+        _source = source;
+        _data = data;
+        _drained = true;
+    }
+
+
+    public void feed(byte[] bytes, int offset, int length)
+    {
+        if (offset < 0 || length < 0 || offset > bytes.length - length)
+        {
+            throw new IndexOutOfBoundsException();
+        }
+        if (_data == null)
+        {
+            throw new IllegalStateException("Reader is closed");
+        }
+
+        if (_data.length - _data_limit < length)
+        {
+            make_room(length);
+        }
+        System.arraycopy(bytes, offset, _data, _data_limit, length);
+        _data_limit += length;
+
+        scan();
+    }
+
+    public boolean isValueIncomplete()
+    {
+        return _data_limit > _complete;
+    }
+
+    /** Makes room for at least {@code length} more bytes after the data. */
+    private void make_room(int length)
+    {
+        int unreleased = _data_limit - _released;
+        int needed = unreleased + length;
+        if (needed < 0)
+        {
+            throw new IonException("Value exceeds the maximum buffer size");
+        }
+
+        byte[] data = _data;
+        if (!_drained || data.length < needed)
+        {
+            // the stream may still be reading from the current array
+            data = new byte[Math.max(data.length, (int) Math.min(Integer.MAX_VALUE, 2L * needed))];
+        }
+        System.arraycopy(_data, _released, data, 0, unreleased);
+
+        _data = data;
+        _data_limit -= _released;
+        _complete -= _released;
+        _released = 0;
+        if (_drained)
+        {
+            _source.reset(data, 0, 0);
+        }
+    }
+
+    /** Advances past the top-level values that have arrived in full. */
+    private void scan()
+    {
+        for (;;)
+        {
+            long length = value_length(_complete);
+            if (length < 0 || length > _data_limit - _complete)
+            {
+                break;
+            }
+            _complete += (int) length;
+        }
+    }
+
+    /**
+     * Determines the encoded length of the top-level value (or version
+     * marker) at a position from its header.
+     *
+     * @return the length, or -1 if the header hasn't fully arrived.
+     */
+    private long value_length(int pos)
+    {
+        if (pos >= _data_limit)
+        {
+            return -1;
+        }
+        int td = _data[pos] & 0xff;
+        if (td == (PrivateIonConstants.BINARY_VERSION_MARKER_1_0[0] & 0xff))
+        {
+            return BINARY_VERSION_MARKER_SIZE;
+        }
+
+        int tid = PrivateIonConstants.getTypeCode(td);
+        int ln = PrivateIonConstants.getLowNibble(td);
+        if (tid == tidBoolean || ln == lnIsNull)
+        {
+            return 1;
+        }
+        if (ln != lnIsVarLen && !(tid == tidStruct && ln == lnIsOrderedStruct))
+        {
+            return 1 + ln;
+        }
+
+        long len = 0;
+        int end = pos + 1;
+        for (;;)
+        {
+            if (end >= _data_limit)
+            {
+                return -1;
+            }
+            int b = _data[end++] & 0xff;
+            len = (len << 7) | (b & 0x7f);
+            // checked for every byte, including the last, so the value fits in an array
+            if ((end - pos) + len > Integer.MAX_VALUE)
+            {
+                throw new IonException("Value exceeds the maximum buffer size");
+            }
+            if ((b & 0x80) != 0)
+            {
+                break;
+            }
+        }
+        return (end - pos) + len;
+    }
+
+    @Override
+    public IonType next()
+    {
+        IonType t = super.next();
+        if (t == null && getDepth() == 0)
+        {
+            _drained = true;
+            if (_complete > _released)
+            {
+                resume();
+                t = super.next();
+            }
+        }
+        return t;
+    }
+
+    /**
+     * Hands the complete values that have arrived since the stream was
+     * drained over to it, discarding the consumed data.
+     */
+    private void resume()
+    {
+        int unreleased = _data_limit - _released;
+        System.arraycopy(_data, _released, _data, 0, unreleased);
+        _data_limit = unreleased;
+        _complete -= _released;
+        _released = _complete;
+
+        free_save_points();
+        _source.reset(_data, 0, _complete);
+        re_init_raw();
+        _drained = false;
+    }
+
+    @Override
+    boolean isInputOwnedByCaller()
+    {
+        // the buffer is compacted as values are consumed
+        return false;
+    }
+
+    @Override
+    public <T> T asFacet(Class<T> facetType)
+    {
+        // spans would refer to data that has been discarded
+        if (facetType == SpanProvider.class || facetType == SeekableReader.class)
+        {
+            return null;
+        }
+        return super.asFacet(facetType);
+    }
+
+    @Override
+    public void close()
+        throws IOException
+    {
+        super.close();
+        _data = null;
+    }
+}
@@ -51,6 +51,7 @@ abstract class IonReaderBinaryRawX
     static final int DEFAULT_CONTAINER_STACK_SIZE = 12; // a multiple of 3
     static final int DEFAULT_ANNOTATION_SIZE = 10;
     static final int NO_LIMIT = Integer.MIN_VALUE;
+    static final int DEFAULT_TEXT_BUFFER_SIZE = 256;
 
     protected enum State {
         S_INVALID,
@@ -80,8 +81,51 @@ abstract class IonReaderBinaryRawX
     int                 _value_lob_remaining;
     boolean             _value_lob_is_ready;
 
+    /**
+     * True when the current value is a decimal whose coefficient fits in a
+     * long, which is held in {@link #_decimal_coefficient} and
+     * {@link #_decimal_scale} instead of {@link #_v}.
+     */
+    boolean             _decimal_is_compact;
+    long                _decimal_coefficient;
+    int                 _decimal_scale;
+
+    /**
+     * True when the fields of the current timestamp have been read, and are
+     * held in the {@code _timestamp_*} fields instead of as a
+     * {@link Timestamp} in {@link #_v}.  The fields are in UTC.
+     */
+    boolean             _timestamp_is_compact;
+    Precision           _timestamp_precision;
+    int                 _timestamp_year;
+    int                 _timestamp_month;
+    int                 _timestamp_day;
+    int                 _timestamp_hour;
+    int                 _timestamp_minute;
+    int                 _timestamp_second;
+    BigDecimal          _timestamp_fraction;
+    /** The local offset in minutes, or {@link #VAR_INT_NEGATIVE_ZERO}. */
+    int                 _timestamp_offset;
+
+    /**
+     * True when the UTF-8 bytes of the current string have been read, and
+     * are held in {@link #_utf8_bytes} from {@link #_utf8_start} for
+     * {@link #_utf8_length} bytes, instead of in {@link #_v}.
+     */
+    boolean             _string_is_utf8;
+    byte[]              _utf8_bytes;
+    int                 _utf8_start;
+    int                 _utf8_length;
+
+    /** Holds the UTF-8 bytes of strings that span input pages. */
+    private byte[]      _utf8_buffer;
+    /** Holds decoded strings; reused from value to value. */
+    char[]              _chars;
+
     long                _position_start;
     long                _position_len;
+    /** The start of the current value, after any annotation wrapper. */
+    long                _value_start;
 
 
     SavePoint           _annotations;
@@ -428,6 +472,9 @@ abstract class IonReaderBinaryRawX
         _value_lob_is_ready = false;
         _annotations.clear();
         _v.clear();
+        _decimal_is_compact = false;
+        _timestamp_is_compact = false;
+        _string_is_utf8 = false;
         _annotation_count = 0;
         _value_field_id = SymbolTable.UNKNOWN_SYMBOL_ID;
     }
@@ -501,6 +548,7 @@ abstract class IonReaderBinaryRawX
         _value_len = len;
         _position_len = len + (start_of_value - start_of_tid);
         _position_start = start_of_tid;
+        _value_start = start_of_tid;
         return tid;
     }
 
@@ -958,10 +1006,16 @@ done:   for (;;) {
         return retvalue;
     }
     /**
-     * Reads an integer value, returning null to mean -0.
+     * Returned by {@link #readVarInteger()} for -0.
+     */
+    protected static final int VAR_INT_NEGATIVE_ZERO = Integer.MIN_VALUE;
+
+    /**
+     * Reads an integer value, returning {@link #VAR_INT_NEGATIVE_ZERO} to
+     * mean -0.
      * @throws IOException
      */
-    protected final Integer readVarInteger() throws IOException
+    protected final int readVarInteger() throws IOException
     {
         int     retvalue = 0;
         boolean is_negative = false;
@@ -995,16 +1049,10 @@ done:   for (;;) {
             // if we get here we have more bits than we have room for :(
             throwIntOverflowExeption();
         }
-        Integer retInteger = null;
         if (is_negative) {
-            if (retvalue != 0) {
-                retInteger = new Integer(-retvalue);
-            }
-        }
-        else {
-            retInteger = new Integer(retvalue);
+            return (retvalue != 0) ? -retvalue : VAR_INT_NEGATIVE_ZERO;
         }
-        return retInteger;
+        return retvalue;
     }
     protected final int readVarUIntOrEOF() throws IOException
     {
@@ -1136,13 +1184,90 @@ done:   for (;;) {
         return bd;
     }
 
+    /**
+     * Reads a decimal, leaving it in {@link #_decimal_coefficient} and
+     * {@link #_decimal_scale} rather than constructing a {@link Decimal}
+     * when its coefficient fits in a long.
+     *
+     * @return null if the decimal was left compact, otherwise the decimal.
+     */
+    protected final Decimal readCompactDecimal(int len) throws IOException
+    {
+        if (len == 0) {
+            _decimal_coefficient = 0;
+            _decimal_scale = 0;
+            _decimal_is_compact = true;
+            return null;
+        }
+
+        int  save_limit = _local_remaining - len;
+        _local_remaining = len;
+        int  exponent = readVarInt();
+        Decimal bd = null;
+        // a sign bit and a magnitude of up to 63 bits
+        if (_local_remaining <= Long.BYTES) {
+            boolean is_negative = false;
+            long magnitude = 0;
+            if (_local_remaining > 0) {
+                int b;
+                if ((b = read()) < 0) throwUnexpectedEOFException();
+                is_negative = (b & 0x80) != 0;
+                magnitude = b & 0x7F;
+                while (_local_remaining > 0) {
+                    if ((b = read()) < 0) throwUnexpectedEOFException();
+                    magnitude = (magnitude << 8) | b;
+                }
+            }
+            if (magnitude == 0 && is_negative) {
+                bd = Decimal.negativeZero(-exponent, MathContext.UNLIMITED);
+            }
+            else {
+                _decimal_coefficient = is_negative ? -magnitude : magnitude;
+                _decimal_scale = -exponent;
+                _decimal_is_compact = true;
+            }
+        }
+        else {
+            byte[] bits = new byte[_local_remaining];
+            readAll(bits, 0, _local_remaining);
+            int signum = 1;
+            if (bits[0] < 0)
+            {
+                // value is negative, clear the sign
+                bits[0] &= 0x7F;
+                signum = -1;
+            }
+            BigInteger value = new BigInteger(signum, bits);
+            if (value.signum() == 0 && signum == -1) {
+                bd = Decimal.negativeZero(-exponent, MathContext.UNLIMITED);
+            }
+            else {
+                bd = Decimal.valueOf(value, -exponent, MathContext.UNLIMITED);
+            }
+        }
+        _local_remaining = save_limit;
+        return bd;
+    }
+
     protected final Timestamp readTimestamp(int len) throws IOException
     {
         if (len < 1) {
             // nothing to do here - and the timestamp will be NULL
             return null;
         }
+        readTimestampFields(len);
+        return timestampFromFields();
+    }
 
+    /**
+     * Reads the fields of a timestamp into the {@code _timestamp_*} fields
+     * and sets {@link #_timestamp_is_compact}, without constructing a
+     * {@link Timestamp}.
+     *
+     * @param len must be positive.
+     */
+    protected final void readTimestampFields(int len) throws IOException
+    {
         int         year = 0, month = 0, day = 0, hour = 0, minute = 0, second = 0;
         BigDecimal  frac = null;
         int         save_limit = _local_remaining - len;
@@ -1150,7 +1275,7 @@ done:   for (;;) {
 
         // first up is the offset, which requires a special int reader
         // to return the -0 as a null Integer
-        Integer offset = readVarInteger();
+        int offset = readVarInteger();
         // now we'll read the struct values from the input stream
 
         // year is from 0001 to 9999
@@ -1177,8 +1302,14 @@ done:   for (;;) {
                         second = readVarUInt();
                         p = Precision.SECOND;
                         if (_local_remaining > 0) {
-                            // now we read in our actual "milliseconds since the epoch"
-                            frac = readDecimal(_local_remaining);
+                            // fractions up to milliseconds are shared,
+                            // rather than read as decimals
+                            frac = readCompactDecimal(_local_remaining);
+                            if (frac == null) {
+                                frac = PrivateUtils.fractionOfSecond(_decimal_coefficient,
+                                                                     _decimal_scale);
+                                _decimal_is_compact = false;
+                            }
                         }
                     }
                 }
@@ -1186,12 +1317,42 @@ done:   for (;;) {
         }
         // restore out outer limit(s)
         _local_remaining  = save_limit;
+
+        _timestamp_precision = p;
+        _timestamp_year = year;
+        _timestamp_month = month;
+        _timestamp_day = day;
+        _timestamp_hour = hour;
+        _timestamp_minute = minute;
+        _timestamp_second = second;
+        _timestamp_fraction = frac;
+        _timestamp_offset = offset;
+        _timestamp_is_compact = true;
+    }
+
+    /**
+     * Constructs the timestamp read by {@link #readTimestampFields}.
+     */
+    protected final Timestamp timestampFromFields()
+    {
         // now we let timestamp put it all together
         try {
             @SuppressWarnings("deprecation")
             Timestamp val =
-                Timestamp.createFromUtcFields(p, year, month, day, hour,
-                                              minute, second, frac, offset);
+                Timestamp.createFromUtcFields(_timestamp_precision,
+                                              _timestamp_year,
+                                              _timestamp_month,
+                                              _timestamp_day,
+                                              _timestamp_hour,
+                                              _timestamp_minute,
+                                              _timestamp_second,
+                                              _timestamp_fraction,
+                                              _timestamp_offset == VAR_INT_NEGATIVE_ZERO
+                                                  ? null
+                                                  : PrivateUtils.localOffset(_timestamp_offset));
+            if (mayOffsetLeaveRange() && !isLocalTimeInRange(val.getMillis())) {
+                throw newErrorAt("Invalid timestamp encoding: local time is out of range");
+            }
             return val;
         }
         catch (IllegalArgumentException e)
@@ -1201,18 +1362,196 @@ done:   for (;;) {
         }
     }
 
-    protected final String readString(int len) throws IOException
+    /**
+     * Returns the milliseconds from the epoch to the timestamp read by
+     * {@link #readTimestampFields}, as {@link Timestamp#getMillis()} would.
+     * Fields that are out of range are left to {@link #timestampFromFields}
+     * to report.
+     */
+    protected final long timestampMillisFromFields()
+    {
+        Precision p = _timestamp_precision;
+        int month = p == Precision.YEAR ? 1 : _timestamp_month;
+        int day = (p == Precision.YEAR || p == Precision.MONTH) ? 1 : _timestamp_day;
+        int hour = 0, minute = 0, second = 0;
+        BigDecimal frac = null;
+        if (p == Precision.MINUTE || p == Precision.SECOND) {
+            hour = _timestamp_hour;
+            minute = _timestamp_minute;
+        }
+        if (p == Precision.SECOND) {
+            second = _timestamp_second;
+            frac = _timestamp_fraction;
+        }
+        int offset = _timestamp_offset;
+        boolean valid = _timestamp_year >= 1 && _timestamp_year <= 9999
+            && month >= 1 && month <= 12
+            && day >= 1 && day <= PrivateUtils.lastDayOfMonth(_timestamp_year, month)
+            && hour < 24 && minute < 60 && second < 60
+            && (offset == VAR_INT_NEGATIVE_ZERO
+                || (offset >= -24 * 60 && offset <= 24 * 60))
+            && (frac == null
+                || (frac.signum() >= 0 && frac.compareTo(BigDecimal.ONE) < 0));
+        if (!valid) {
+            return timestampFromFields().getMillis();
+        }
+        long millis = PrivateUtils.utcMillis(_timestamp_year, month, day,
+                                             hour, minute, second, frac);
+        if (mayOffsetLeaveRange() && !isLocalTimeInRange(millis)) {
+            throw newErrorAt("Invalid timestamp encoding: local time is out of range");
+        }
+        return millis;
+    }
+
+    /** The first millisecond of 0001-01-01, as computed by {@link PrivateUtils#utcMillis}. */
+    private static final long MIN_LOCAL_MILLIS =
+        PrivateUtils.utcMillis(1, 1, 1, 0, 0, 0, null);
+
+    /** The first millisecond after 9999-12-31. */
+    private static final long END_LOCAL_MILLIS =
+        PrivateUtils.utcMillis(9999, 12, 31, 23, 59, 59, null) + 1000;
+
+    /**
+     * Determines whether the local offset of the timestamp read by
+     * {@link #readTimestampFields} may move it out of range in its local
+     * time, which is only possible in the first and last years.
+     */
+    private boolean mayOffsetLeaveRange()
+    {
+        return (_timestamp_year == 1 || _timestamp_year == 9999)
+            && (_timestamp_precision == Precision.MINUTE
+                || _timestamp_precision == Precision.SECOND)
+            && _timestamp_offset != VAR_INT_NEGATIVE_ZERO
+            && _timestamp_offset != 0;
+    }
+
+    /**
+     * Determines whether the timestamp read by {@link #readTimestampFields}
+     * is in range in its local time.
+     *
+     * @param utcMillis the milliseconds from the epoch to the timestamp.
+     */
+    private boolean isLocalTimeInRange(long utcMillis)
+    {
+        long local = utcMillis + _timestamp_offset * 60000L;
+        return local >= MIN_LOCAL_MILLIS && local < END_LOCAL_MILLIS;
+    }
+
+    /**
+     * Reads the UTF-8 bytes of the current string into {@link #_utf8_bytes}
+     * without decoding them.  When the string lies within the page the input
+     * is positioned on, the page itself is referenced instead of copied, so
+     * the bytes are only valid until the reader moves.
+     */
+    protected final void readUtf8(int len) throws IOException
+    {
+        UnifiedInputStreamX input = _input;
+        if (input._is_byte_data
+            && input._limit - input._pos >= len
+            && (_local_remaining == NO_LIMIT || _local_remaining >= len))
+        {
+            _utf8_bytes = input._bytes;
+            _utf8_start = input._pos;
+            skip(len);
+        }
+        else {
+            if (_utf8_buffer == null || _utf8_buffer.length < len) {
+                _utf8_buffer = new byte[Math.max(len, DEFAULT_TEXT_BUFFER_SIZE)];
+            }
+            readAll(_utf8_buffer, 0, len);
+            _utf8_bytes = _utf8_buffer;
+            _utf8_start = 0;
+        }
+        _utf8_length = len;
+        _string_is_utf8 = true;
+    }
+
+    /**
+     * @return true if the bytes read by {@link #readUtf8(int)} are all ASCII.
+     */
+    protected final boolean isUtf8Ascii()
+    {
+        byte[] bytes = _utf8_bytes;
+        int end = _utf8_start + _utf8_length;
+        for (int ii = _utf8_start; ii < end; ii++) {
+            if (bytes[ii] < 0) return false;
+        }
+        return true;
+    }
+
+    /** Decodes the bytes read by {@link #readUtf8(int)} into a String. */
+    protected final String decodeUtf8String() throws IOException
+    {
+        if (isUtf8Ascii()) {
+            // ascii needs no decoding, which the charset does in bulk
+            return new String(_utf8_bytes, _utf8_start, _utf8_length,
+                              PrivateUtils.ASCII_CHARSET);
+        }
+        int len = decodeUtf8();
+        return new String(_chars, 0, len);
+    }
+
+    /**
+     * Decodes the bytes read by {@link #readUtf8(int)} into {@link #_chars},
+     * which is reused from value to value.
+     *
+     * @return the number of chars decoded.
+     */
+    protected final int decodeUtf8() throws IOException
     {
         // len is bytes, which is greater than or equal to java
         // chars even after utf8 to utf16 decoding nonsense
-        // the char array is way faster than using string buffer
-        char[] chars = new char[len];
-        int    c, ii = 0;
-        int    save_limit = _local_remaining - len;
-        _local_remaining = len;
-        while (!isEOF()) {
-            c = readUnicodeScalar();
-            if (c < 0) throwUnexpectedEOFException();
+        if (_chars == null || _chars.length < _utf8_length) {
+            _chars = new char[Math.max(_utf8_length, DEFAULT_TEXT_BUFFER_SIZE)];
+        }
+        char[] chars = _chars;
+        byte[] bytes = _utf8_bytes;
+        int    pos = _utf8_start;
+        int    end = pos + _utf8_length;
+        int    ii = 0;
+
+        // ascii is copied without further tests until the first other byte
+        while (pos < end && bytes[pos] >= 0) {
+            chars[ii++] = (char) bytes[pos++];
+        }
+        while (pos < end) {
+            int b = bytes[pos++] & 0xff;
+            if (IonUTF8.isOneByteUTF8(b)) {
+                chars[ii++] = (char) b;
+                continue;
+            }
+            int c = -1, b2, b3, b4;
+            switch (IonUTF8.getUTF8LengthFromFirstByte(b)) {
+            case 2:
+                // for values from 0x80 to 0x7FF (all legal)
+                b2 = (pos < end) ? bytes[pos++] & 0xff : -1;
+                if (!IonUTF8.isContinueByteUTF8(b2)) throwUTF8Exception();
+                c = IonUTF8.twoByteScalar(b, b2);
+                break;
+            case 3:
+                // for values from 0x800 to 0xFFFFF (NOT all legal)
+                b2 = (pos < end) ? bytes[pos++] & 0xff : -1;
+                if (!IonUTF8.isContinueByteUTF8(b2)) throwUTF8Exception();
+                b3 = (pos < end) ? bytes[pos++] & 0xff : -1;
+                if (!IonUTF8.isContinueByteUTF8(b3)) throwUTF8Exception();
+                c = IonUTF8.threeByteScalar(b, b2, b3);
+                break;
+            case 4:
+                // for values from 0x010000 to 0x1FFFFF (NOT all legal)
+                b2 = (pos < end) ? bytes[pos++] & 0xff : -1;
+                if (!IonUTF8.isContinueByteUTF8(b2)) throwUTF8Exception();
+                b3 = (pos < end) ? bytes[pos++] & 0xff : -1;
+                if (!IonUTF8.isContinueByteUTF8(b3)) throwUTF8Exception();
+                b4 = (pos < end) ? bytes[pos++] & 0xff : -1;
+                if (!IonUTF8.isContinueByteUTF8(b4)) throwUTF8Exception();
+                c = IonUTF8.fourByteScalar(b, b2, b3, b4);
+                if (c > 0x10FFFF) {
+                    throw new IonException("illegal utf value encountered in input utf-8 stream");
+                }
+                break;
+            default:
+                throwUTF8Exception();
+            }
             if (c < 0x10000) {
                 chars[ii++] = (char)c;
             }
@@ -1221,53 +1560,54 @@ done:   for (;;) {
                 chars[ii++] = (char)PrivateIonConstants.makeLowSurrogate(c);
             }
         }
-        _local_remaining = save_limit;
-        return new String(chars, 0, ii);
+        return ii;
     }
-    private final int readUnicodeScalar() throws IOException
+
+    /**
+     * Compares the bytes read by {@link #readUtf8(int)} with the UTF-8
+     * encoding of some text, without decoding them.
+     */
+    protected final boolean utf8Equals(String text)
     {
-        int c = -1, b;
-        b = read();
-        // ascii is all good, even -1 (eof)
-        if (IonUTF8.isOneByteUTF8(b)) {
-            return b;
-        }
-        switch(IonUTF8.getUTF8LengthFromFirstByte(b)) {
-        case 2:
-            // now we start gluing the multi-byte value together
-            assert((b & 0xe0) == 0xc0);
-            // for values from 0x80 to 0x7FF (all legal)
-            int b2 = read();
-            if (!IonUTF8.isContinueByteUTF8(b2)) throwUTF8Exception();
-            c = IonUTF8.twoByteScalar(b, b2);
-            break;
-        case 3:
-            assert((b & 0xf0) == 0xe0);
-            // for values from 0x800 to 0xFFFFF (NOT all legal)
-            b2 = read();
-            if (!IonUTF8.isContinueByteUTF8(b2)) throwUTF8Exception();
-            int b3 = read();
-            if (!IonUTF8.isContinueByteUTF8(b3)) throwUTF8Exception();
-            c = IonUTF8.threeByteScalar(b, b2, b3);
-            break;
-        case 4:
-            assert((b & 0xf8) == 0xf0);
-            // for values from 0x010000 to 0x1FFFFF (NOT all legal)
-            b2 = read();
-            if (!IonUTF8.isContinueByteUTF8(b2)) throwUTF8Exception();
-            b3 = read();
-            if (!IonUTF8.isContinueByteUTF8(b3)) throwUTF8Exception();
-            int b4 = read();
-            if (!IonUTF8.isContinueByteUTF8(b4)) throwUTF8Exception();
-            c = IonUTF8.fourByteScalar(b, b2, b3, b4);
-            if (c > 0x10FFFF) {
-                throw new IonException("illegal utf value encountered in input utf-8 stream");
+        byte[] bytes = _utf8_bytes;
+        int    pos = _utf8_start;
+        int    end = pos + _utf8_length;
+        int    count = text.length();
+        for (int ii = 0; ii < count; ii++) {
+            int c = text.charAt(ii);
+            if (c < 0x80) {
+                if (pos >= end || bytes[pos++] != c) return false;
+                continue;
+            }
+            if (IonUTF8.isHighSurrogate(c) && ii + 1 < count
+                && IonUTF8.isLowSurrogate(text.charAt(ii + 1))) {
+                c = IonUTF8.getUnicodeScalarFromSurrogates(c, text.charAt(++ii));
+            }
+            else if (IonUTF8.isSurrogate(c)) {
+                // an unpaired surrogate has no encoding to match
+                return false;
+            }
+            int len = IonUTF8.getUTF8ByteCount(c);
+            if (end - pos < len) return false;
+            switch (len) {
+            case 2:
+                if (bytes[pos++] != IonUTF8.getByte1Of2(c)) return false;
+                if (bytes[pos++] != IonUTF8.getByte2Of2(c)) return false;
+                break;
+            case 3:
+                if (bytes[pos++] != IonUTF8.getByte1Of3(c)) return false;
+                if (bytes[pos++] != IonUTF8.getByte2Of3(c)) return false;
+                if (bytes[pos++] != IonUTF8.getByte3Of3(c)) return false;
+                break;
+            default:
+                if (bytes[pos++] != IonUTF8.getByte1Of4(c)) return false;
+                if (bytes[pos++] != IonUTF8.getByte2Of4(c)) return false;
+                if (bytes[pos++] != IonUTF8.getByte3Of4(c)) return false;
+                if (bytes[pos++] != IonUTF8.getByte4Of4(c)) return false;
+                break;
             }
-            break;
-        default:
-            throwUTF8Exception();
         }
-        return c;
+        return pos == end;
     }
     private final void throwUTF8Exception() throws IOException
     {
@@ -20,10 +20,14 @@ import static software.amazon.ion.SymbolTable.UNKNOWN_SYMBOL_ID;
 import java.io.IOException;
 import java.math.BigDecimal;
 import java.math.BigInteger;
+import java.math.MathContext;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
 import java.util.Date;
 import java.util.Iterator;
 import software.amazon.ion.Decimal;
 import software.amazon.ion.IntegerSize;
+import software.amazon.ion.IonException;
 import software.amazon.ion.IonSystem;
 import software.amazon.ion.IonType;
 import software.amazon.ion.NullValueException;
@@ -40,6 +44,12 @@ class IonReaderBinarySystemX
 {
     IonSystem _system;
     SymbolTable _symbols;
+
+    // views of the current string, rewrapped only when their array changes
+    private ByteBuffer _utf8_view;
+    private byte[]     _utf8_view_array;
+    private CharBuffer _chars_view;
+    private char[]     _chars_view_array;
     // ValueVariant _v; actually owned by the raw reader so it can be cleared at appropriate times
 
     IonReaderBinarySystemX(IonSystem system, UnifiedInputStreamX in)
@@ -79,7 +89,7 @@ class IonReaderBinarySystemX
 
     private void load_once()
     {
-        if (_v.isEmpty()) {
+        if (_v.isEmpty() && !_decimal_is_compact && !_timestamp_is_compact) {
             try {
                 load_scalar_value();
             }
@@ -94,6 +104,22 @@ class IonReaderBinarySystemX
     //
     protected final void prepare_value(int as_type) {
         load_once();
+        if (_decimal_is_compact && as_type != 0 && !_v.hasValueOfType(as_type)) {
+            if (load_compact_decimal_as(as_type)) {
+                return;
+            }
+            // construct the decimal, which the value is converted from below
+            _v.addValue(Decimal.valueOf(BigInteger.valueOf(_decimal_coefficient),
+                                        _decimal_scale, MathContext.UNLIMITED));
+            _v.setAuthoritativeType(AS_TYPE.decimal_value);
+            _decimal_is_compact = false;
+        }
+        if (_timestamp_is_compact && as_type != 0) {
+            // the fields were read for their millis; now they're needed
+            _v.setValue(timestampFromFields());
+            _v.setAuthoritativeType(AS_TYPE.timestamp_value);
+            _timestamp_is_compact = false;
+        }
         if (as_type != 0 && !_v.hasValueOfType(as_type)) {
             // we should never get here with a symbol asking for anything other
             // than a numeric cast (from some other numeric already loaded)
@@ -126,7 +152,7 @@ class IonReaderBinarySystemX
      */
     protected final void load_cached_value(int value_type) throws IOException
     {
-        if (_v.isEmpty()) {
+        if (_v.isEmpty() && !_decimal_is_compact && !_timestamp_is_compact) {
             load_scalar_value();
         }
     }
@@ -147,6 +173,104 @@ class IonReaderBinarySystemX
         return new BigInteger(signum, magnitude);
     }
 
+    /** Every power of ten that fits in a long, by exponent. */
+    private static final long[] LONG_POWERS_OF_TEN = new long[19];
+
+    /** Every power of ten that's exactly representable as a double, by exponent. */
+    private static final double[] DOUBLE_POWERS_OF_TEN = new double[23];
+
+    static
+    {
+        long power = 1;
+        for (int i = 0; i < LONG_POWERS_OF_TEN.length; i++, power *= 10)
+        {
+            LONG_POWERS_OF_TEN[i] = power;
+            if (i < DOUBLE_POWERS_OF_TEN.length)
+            {
+                DOUBLE_POWERS_OF_TEN[i] = power;
+            }
+        }
+        for (int i = LONG_POWERS_OF_TEN.length; i < DOUBLE_POWERS_OF_TEN.length; i++)
+        {
+            DOUBLE_POWERS_OF_TEN[i] = DOUBLE_POWERS_OF_TEN[i - 1] * 10;
+        }
+    }
+
+    /** The largest magnitude below which every long is exactly representable as a double. */
+    private static final long MAX_EXACT_DOUBLE_INTEGER = 1L << 53;
+
+    /**
+     * Converts the compact decimal to an int, long or double without
+     * constructing a {@link Decimal}, when the result is sure to be what
+     * converting the {@link Decimal} would give.
+     *
+     * @return false if the decimal must be constructed to convert it.
+     */
+    private boolean load_compact_decimal_as(int as_type)
+    {
+        long coefficient = _decimal_coefficient;
+        int  scale = _decimal_scale;
+
+        switch (as_type) {
+        case AS_TYPE.int_value:
+        case AS_TYPE.long_value:
+            long v;
+            boolean has_fraction;
+            if (scale <= 0) {
+                has_fraction = false;
+                if (coefficient == 0) {
+                    v = 0;
+                }
+                else {
+                    if (-scale >= LONG_POWERS_OF_TEN.length) return false;
+                    long power = LONG_POWERS_OF_TEN[-scale];
+                    if (Math.abs(coefficient) > Long.MAX_VALUE / power) return false;
+                    v = coefficient * power;
+                }
+            }
+            else if (scale < LONG_POWERS_OF_TEN.length) {
+                long power = LONG_POWERS_OF_TEN[scale];
+                v = coefficient / power; // truncates, as BigDecimal does
+                has_fraction = (v * power != coefficient);
+            }
+            else {
+                // the coefficient is less than 10^19
+                v = 0;
+                has_fraction = (coefficient != 0);
+            }
+
+            if (as_type == AS_TYPE.long_value) {
+                _v.addValue(v);
+                return true;
+            }
+            if (v <= Integer.MIN_VALUE || v >= Integer.MAX_VALUE) {
+                // at the boundaries, any fraction puts the decimal out of range
+                if (has_fraction || v < Integer.MIN_VALUE || v > Integer.MAX_VALUE) {
+                    return false;
+                }
+            }
+            _v.addValue((int) v);
+            return true;
+        case AS_TYPE.double_value:
+            // one correctly rounded operation on exact operands
+            if (Math.abs(coefficient) > MAX_EXACT_DOUBLE_INTEGER) return false;
+            double d;
+            if (scale <= 0 && -scale < DOUBLE_POWERS_OF_TEN.length) {
+                d = coefficient * DOUBLE_POWERS_OF_TEN[-scale];
+            }
+            else if (scale > 0 && scale < DOUBLE_POWERS_OF_TEN.length) {
+                d = coefficient / DOUBLE_POWERS_OF_TEN[scale];
+            }
+            else {
+                return false;
+            }
+            _v.addValue(d);
+            return true;
+        default:
+            return false;
+        }
+    }
+
     static final BigInteger MIN_LONG_VALUE = BigInteger.valueOf(Long.MIN_VALUE);
     static final BigInteger MAX_LONG_VALUE = BigInteger.valueOf(Long.MAX_VALUE);
 
@@ -238,9 +362,13 @@ class IonReaderBinarySystemX
             _v.setAuthoritativeType(AS_TYPE.double_value);
             break;
         case DECIMAL:
-            Decimal dec = readDecimal(_value_len);
-            _v.setValue(dec);
-            _v.setAuthoritativeType(AS_TYPE.decimal_value);
+            // decimals that fit in a long are left compact, which is enough
+            // to convert them to primitives without constructing a Decimal
+            Decimal dec = readCompactDecimal(_value_len);
+            if (dec != null) {
+                _v.setValue(dec);
+                _v.setAuthoritativeType(AS_TYPE.decimal_value);
+            }
             break;
         case TIMESTAMP:
             // TODO: it looks like a 0 length return a null timestamp - is that right?
@@ -264,8 +392,11 @@ class IonReaderBinarySystemX
             _v.setAuthoritativeType(AS_TYPE.int_value);
             break;
         case STRING:
-            String s = readString(_value_len);
-            _v.setValue(s);
+            // the bytes may have been read already to be used undecoded
+            if (!_string_is_utf8) {
+                readUtf8(_value_len);
+            }
+            _v.setValue(decodeUtf8String());
             _v.setAuthoritativeType(AS_TYPE.string_value);
             break;
         }
@@ -427,6 +558,149 @@ class IonReaderBinarySystemX
         return _v.getInt();
     }
 
+    /**
+     * Returns the SID of the current field name, without resolving it.
+     *
+     * @return {@link SymbolTable#UNKNOWN_SYMBOL_ID} if the reader isn't
+     * positioned on a struct field.
+     */
+    final int getFieldNameSid()
+    {
+        return _value_field_id;
+    }
+
+    final int getTypeAnnotationSidCount()
+    {
+        return load_annotations();
+    }
+
+    /**
+     * Returns the SID of one of the current value's annotations, without
+     * resolving it.
+     *
+     * @param index must be less than {@link #getTypeAnnotationSidCount()}.
+     */
+    final int getTypeAnnotationSid(int index)
+    {
+        if (index < 0 || index >= load_annotations()) {
+            throw new IndexOutOfBoundsException(Integer.toString(index));
+        }
+        return _annotation_ids[index];
+    }
+
+    /**
+     * Reads the UTF-8 bytes of the current string, unless they have been
+     * already.
+     *
+     * @return false if the current value is {@code null.string}.
+     */
+    private boolean load_utf8()
+    {
+        if (_value_type != IonType.STRING) throw new IllegalStateException();
+        if (_value_is_null) return false;
+        if (!_string_is_utf8) {
+            try {
+                readUtf8(_value_len);
+            }
+            catch (IOException e) {
+                error(e);
+            }
+            _state = State.S_AFTER_VALUE;
+        }
+        return true;
+    }
+
+    /**
+     * Returns a read-only view of the UTF-8 bytes of the current string,
+     * from its position to its limit.  The view is reused, and is only
+     * valid until the reader moves.
+     *
+     * @return null if the current value is {@code null.string}.
+     */
+    final ByteBuffer stringValueUtf8()
+    {
+        if (!load_utf8()) return null;
+        if (_utf8_view_array != _utf8_bytes) {
+            _utf8_view_array = _utf8_bytes;
+            _utf8_view = ByteBuffer.wrap(_utf8_bytes).asReadOnlyBuffer();
+        }
+        _utf8_view.clear();
+        _utf8_view.position(_utf8_start);
+        _utf8_view.limit(_utf8_start + _utf8_length);
+        return _utf8_view;
+    }
+
+    /**
+     * Returns the text of the current value, decoding strings into a
+     * reused buffer rather than a new String.  The view is only valid until
+     * the reader moves.
+     */
+    final CharSequence stringValueChars()
+    {
+        if (_value_type != IonType.STRING || !_v.isEmpty()) {
+            // symbol text is already held by the symbol table
+            return stringValue();
+        }
+        if (!load_utf8()) return null;
+        int len;
+        try {
+            len = decodeUtf8();
+        }
+        catch (IOException e) {
+            throw new IonException(e);
+        }
+        if (_chars_view_array != _chars) {
+            _chars_view_array = _chars;
+            _chars_view = CharBuffer.wrap(_chars).asReadOnlyBuffer();
+        }
+        _chars_view.clear();
+        _chars_view.limit(len);
+        return _chars_view;
+    }
+
+    /**
+     * Compares the text of the current value with the given text, without
+     * decoding strings.
+     *
+     * @return false if the current value is null.
+     */
+    final boolean stringValueEquals(String text)
+    {
+        if (_value_type != IonType.STRING || !_v.isEmpty()) {
+            return text.equals(stringValue());
+        }
+        if (!load_utf8()) return false;
+        return utf8Equals(text);
+    }
+
+    /**
+     * Returns the milliseconds from the epoch to the current timestamp,
+     * reading its fields without constructing a {@link Timestamp}.  A later
+     * call to {@link #timestampValue()} constructs it from the fields.
+     *
+     * @see Timestamp#getMillis()
+     */
+    final long timestampValueMillis()
+    {
+        if (_value_type != IonType.TIMESTAMP) throw new IllegalStateException();
+        if (_value_is_null) {
+            throw new NullValueException();
+        }
+        if (!_v.isEmpty()) {
+            return _v.getTimestamp().getMillis();
+        }
+        if (!_timestamp_is_compact) {
+            try {
+                readTimestampFields(_value_len);
+            }
+            catch (IOException e) {
+                error(e);
+            }
+            _state = State.S_AFTER_VALUE;
+        }
+        return timestampMillisFromFields();
+    }
+
     public final String getFieldName()
     {
         String name;
@@ -29,9 +29,10 @@ import software.amazon.ion.SpanProvider;
 import software.amazon.ion.SymbolTable;
 import software.amazon.ion.impl.PrivateScalarConversions.AS_TYPE;
 import software.amazon.ion.impl.UnifiedInputStreamX.FromByteArray;
+import software.amazon.ion.impl.UnifiedInputStreamX.FromRandomAccessBytes;
 import software.amazon.ion.impl.UnifiedSavePointManagerX.SavePoint;
 
-final class IonReaderBinaryUserX
+class IonReaderBinaryUserX
     extends IonReaderBinarySystemX
     implements PrivateReaderWriter
 {
@@ -82,6 +83,19 @@ final class IonReaderBinaryUserX
         init_user(catalog);
     }
 
+    /**
+     * Creates a reader over binary data without a version marker, whose
+     * symbols are resolved by the given table.
+     */
+    IonReaderBinaryUserX(IonSystem system,
+                         IonCatalog catalog,
+                         UnifiedInputStreamX userBytes,
+                         SymbolTable symbols)
+    {
+        this(system, catalog, userBytes);
+        _symbols = symbols;
+    }
+
     //FIXME: PERF_TEST was :private
     final void init_user(IonCatalog catalog)
     {
@@ -131,6 +145,90 @@ final class IonReaderBinaryUserX
     }
 
 
+    /**
+     * Returns the encoded bytes of the current value, without its field
+     * name or annotations.
+     * The slice refers to the input array when it belongs to the caller;
+     * otherwise, the bytes are copied, since the array may be reused once
+     * the reader moves on or is closed.
+     *
+     * @return null if the reader isn't positioned on a value, or if its
+     * input isn't held in a contiguous array.
+     */
+    PrivateBinarySlice currentSlice()
+    {
+        if (getType() == null || !(_input instanceof FromByteArray))
+        {
+            return null;
+        }
+        int start = (int) _value_start;
+        int length = (int) (_position_start + _position_len) - start;
+        if (!isInputOwnedByCaller())
+        {
+            byte[] copy = new byte[length];
+            System.arraycopy(_input._bytes, start, copy, 0, length);
+            return new PrivateBinarySlice(copy, 0, length, _symbols);
+        }
+        return new PrivateBinarySlice(_input._bytes, start, length, _symbols);
+    }
+
+    /**
+     * Determines whether the input array was handed to the reader by the
+     * caller, who must not modify it while values refer to it.
+     * Arrays that back a {@link java.nio.ByteBuffer}, which may be pooled,
+     * or that the reader manages itself are not.
+     */
+    boolean isInputOwnedByCaller()
+    {
+        return _input.getClass() == FromByteArray.class;
+    }
+
+
+    /**
+     * Returns a span covering everything from the start of {@code first}
+     * through the end of {@code last}, in the symbol table context of
+     * {@code first}.
+     * Hoisting the result produces every top-level value in between,
+     * including any symbol tables that change the context along the way.
+     *
+     * @throws IllegalArgumentException if either span isn't from a binary
+     * reader, or if {@code last} precedes {@code first}.
+     */
+    static Span spanThrough(Span first, Span last)
+    {
+        if (! (first instanceof IonReaderBinarySpan)
+            || ! (last instanceof IonReaderBinarySpan))
+        {
+            throw new IllegalArgumentException("Spans aren't from a binary reader");
+        }
+        IonReaderBinarySpan start = (IonReaderBinarySpan) first;
+        IonReaderBinarySpan finish = (IonReaderBinarySpan) last;
+        if (finish._limit < start._offset)
+        {
+            throw new IllegalArgumentException("Spans are out of order");
+        }
+
+        IonReaderBinarySpan pos = new IonReaderBinarySpan();
+        pos._offset = start._offset;
+        pos._limit = finish._limit;
+        pos._symbol_table = start._symbol_table;
+        return pos;
+    }
+
+
+    // TODO: these (eof and save points) should be put into
+    //       a re-init method on the input stream
+    final void free_save_points()
+    {
+        for (;;) {
+            SavePoint sp = _input._save_points._active_stack;
+            if (sp == null) break;
+            _input._save_points.savePointPopActive(sp);
+            sp.free();
+        }
+    }
+
+
     public void seek(IonReaderBinarySpan position)
     {
         IonReaderBinarySpan pos = position;
@@ -139,26 +237,36 @@ final class IonReaderBinaryUserX
         {
             throw new IllegalArgumentException("Position invalid for binary reader");
         }
-        if (!(_input instanceof FromByteArray))
+        if (!(_input instanceof FromByteArray || _input instanceof FromRandomAccessBytes))
         {
             throw new UnsupportedOperationException("Binary seek not implemented for non-byte array backed sources");
         }
 
-        // TODO test that span is within the bounds of the input byte[]
+        free_save_points();
 
-        // manually reset the input specific type of input stream
-        FromByteArray input = (FromByteArray)_input;
-        input._pos   = (int) (pos._offset + _physical_start_offset);
-        input._limit = (int) (pos._limit  + _physical_start_offset);
+        if (_input instanceof FromRandomAccessBytes)
+        {
+            // Release the pages pinned by any pending annotations, since
+            // the stream is about to discard them.
+            _annotations.clear();
+            try
+            {
+                ((FromRandomAccessBytes)_input).seek(pos._offset, pos._limit);
+            }
+            catch (IOException e)
+            {
+                error(e);
+            }
+        }
+        else
+        {
+            // TODO test that span is within the bounds of the input byte[]
 
-        // TODO: these (eof and save points) should be put into
-        //       a re-init method on the input stream
-        input._eof = false;
-        for (;;) {
-            SavePoint sp = input._save_points._active_stack;
-            if (sp == null) break;
-            input._save_points.savePointPopActive(sp);
-            sp.free();
+            // manually reset the input specific type of input stream
+            FromByteArray input = (FromByteArray)_input;
+            input._pos   = (int) (pos._offset + _physical_start_offset);
+            input._limit = (int) (pos._limit  + _physical_start_offset);
+            input._eof = false;
         }
 
         // reset the raw reader
@@ -297,7 +405,7 @@ final class IonReaderBinaryUserX
         }
 
         // TODO amzn/ion-java#17 support seeking over InputStream
-        if (_input instanceof FromByteArray)
+        if (_input instanceof FromByteArray || _input instanceof FromRandomAccessBytes)
         {
             if (facetType == SeekableReader.class)
             {
@@ -60,6 +60,9 @@ class IonReaderTextSystemX
 
     protected IonSystem _system;
 
+    /** Receives ints as they're accumulated from the token buffer. */
+    private final long[] _long_value = new long[1];
+
 
     protected IonReaderTextSystemX(IonSystem system, UnifiedInputStreamX iis)
     {
@@ -118,95 +121,6 @@ class IonReaderTextSystemX
         }
     }
 
-    enum Radix
-    {
-        DECIMAL
-        {
-
-            @Override
-            boolean isInt(String image, int len)
-            {
-                return valueWithinBounds(image, len, MIN_INT_IMAGE, MAX_INT_IMAGE);
-            }
-
-            @Override
-            boolean isLong(String image, int len)
-            {
-                return valueWithinBounds(image, len, MIN_LONG_IMAGE, MAX_LONG_IMAGE);
-            }
-
-        },
-        HEX
-        {
-
-            @Override
-            boolean isInt(String image, int len)
-            {
-                return valueWithinBounds(image, len, MIN_HEX_INT_IMAGE, MAX_HEX_INT_IMAGE);
-            }
-
-            @Override
-            boolean isLong(String image, int len)
-            {
-                return valueWithinBounds(image, len, MIN_HEX_LONG_IMAGE, MAX_HEX_LONG_IMAGE);
-            }
-
-        },
-        BINARY
-        {
-
-            @Override
-            boolean isInt(String image, int len)
-            {
-                return valueWithinBounds(image, len, MIN_BINARY_INT_IMAGE, MAX_BINARY_INT_IMAGE);
-            }
-
-            @Override
-            boolean isLong(String image, int len)
-            {
-                return valueWithinBounds(image, len, MIN_BINARY_LONG_IMAGE, MAX_BINARY_LONG_IMAGE);
-            }
-
-        };
-
-        private static final char[] MAX_INT_IMAGE = Integer.toString(Integer.MAX_VALUE).toCharArray();
-        private static final char[] MIN_INT_IMAGE = Integer.toString(Integer.MIN_VALUE).toCharArray();
-        private static final char[] MAX_LONG_IMAGE = Long.toString(Long.MAX_VALUE).toCharArray();
-        private static final char[] MIN_LONG_IMAGE = Long.toString(Long.MIN_VALUE).toCharArray();
-        private static final char[] MAX_BINARY_INT_IMAGE = Integer.toBinaryString(Integer.MAX_VALUE).toCharArray();
-        private static final char[] MIN_BINARY_INT_IMAGE = ("-" + Integer.toBinaryString(Integer.MIN_VALUE)).toCharArray();
-        private static final char[] MAX_BINARY_LONG_IMAGE = Long.toBinaryString(Long.MAX_VALUE).toCharArray();
-        private static final char[] MIN_BINARY_LONG_IMAGE = ("-" + Long.toBinaryString(Long.MIN_VALUE)).toCharArray();
-        private static final char[] MAX_HEX_INT_IMAGE = Integer.toHexString(Integer.MAX_VALUE).toCharArray();
-        private static final char[] MIN_HEX_INT_IMAGE = ("-" + Integer.toHexString(Integer.MIN_VALUE)).toCharArray();
-        private static final char[] MAX_HEX_LONG_IMAGE = Long.toHexString(Long.MAX_VALUE).toCharArray();
-        private static final char[] MIN_HEX_LONG_IMAGE = ("-" + Long.toHexString(Long.MIN_VALUE)).toCharArray();
-
-        abstract boolean isInt(String image, int len);
-        abstract boolean isLong(String image, int len);
-
-        private static boolean valueWithinBounds(String value, int len, char[] minImage, char[] maxImage)
-        {
-            boolean negative = value.charAt(0) == '-';
-            char[] boundaryImage = negative ? minImage : maxImage;
-            int maxImageLength = boundaryImage.length;
-            return len < maxImageLength || (len == maxImageLength && magnitudeLessThanOrEqualTo(value, len, boundaryImage));
-        }
-
-        private static boolean magnitudeLessThanOrEqualTo(String lhs, int lhsLen, char[] rhs)
-        {
-            assert lhsLen == rhs.length;
-            for (int i = lhsLen - 1; i >= 0; i--)
-            {
-                if (lhs.charAt(i) > rhs[i])
-                {
-                    return false;
-                }
-            }
-            return true;
-        }
-    }
-
     private final void load_scalar_value() throws IOException {
         // make sure we're trying to load a scalar value here
         switch(_value_type) {
@@ -230,6 +144,10 @@ class IonReaderTextSystemX
 
         int token_type = _scanner.getToken();
 
+        if (load_numeric_value(cs, token_type)) {
+            return;
+        }
+
         if (_value_type == IonType.DECIMAL) {
             // we do this here (instead of in the case below
             // so that we can modify the value while it's not
@@ -242,29 +160,6 @@ class IonReaderTextSystemX
                 }
             }
         }
-        else if (token_type == IonTokenConstsX.TOKEN_HEX) {
-            boolean is_negative = (cs.charAt(0) == '-');
-            // prefix = is_negative ? "-0x" : "0x";
-            int pos;
-            if (is_negative) {
-                pos = 1;
-            }
-            else {
-                pos = 0;
-            }
-            assert((cs.length() > 2) && (cs.charAt(pos) == '0') && (cs.charAt(pos+1) == 'x' || cs.charAt(pos+1) == 'X'));
-            cs.deleteCharAt(pos);
-            cs.deleteCharAt(pos);
-        }
-        else if (token_type == IonTokenConstsX.TOKEN_BINARY) {
-            boolean isNegative = (cs.charAt(0) == '-');
-            int position = isNegative ? 1 : 0;
-            cs.deleteCharAt(position);
-            cs.deleteCharAt(position);
-        }
-
-
-        int          len = cs.length();
         String       s  = cs.toString();
 
         clear_current_value_buffer();
@@ -272,17 +167,6 @@ class IonReaderTextSystemX
         switch (token_type) {
         case IonTokenConstsX.TOKEN_UNKNOWN_NUMERIC:
             switch (_value_type) {
-            case INT:
-                if (Radix.DECIMAL.isInt(s, len)) {
-                    _v.setValue(Integer.parseInt(s));
-                }
-                else if (Radix.DECIMAL.isLong(s, len)) {
-                    _v.setValue(Long.parseLong(s));
-                }
-                else {
-                    _v.setValue(new BigInteger(s));
-                }
-                break;
             case DECIMAL:
                 // note that the string was modified above when it was a charsequence
                 try {
@@ -292,14 +176,6 @@ class IonReaderTextSystemX
                     parse_error(e);
                 }
                 break;
-            case FLOAT:
-                try {
-                    _v.setValue(Double.parseDouble(s));
-                }
-                catch (NumberFormatException e) {
-                    parse_error(e);
-                }
-                break;
             case TIMESTAMP:
                 _v.setValue(Timestamp.valueOf(s));
                 break;
@@ -310,42 +186,6 @@ class IonReaderTextSystemX
                 parse_error(message);
             }
             break;
-        case IonTokenConstsX.TOKEN_INT:
-            if (Radix.DECIMAL.isInt(s, len)) {
-                _v.setValue(Integer.parseInt(s));
-            }
-            else if (Radix.DECIMAL.isLong(s, len)) {
-                _v.setValue(Long.parseLong(s));
-            }
-            else {
-                _v.setValue(new BigInteger(s));
-            }
-            break;
-        case IonTokenConstsX.TOKEN_BINARY:
-            if (Radix.BINARY.isInt(s, len)) {
-                _v.setValue(Integer.parseInt(s, 2));
-            }
-            else if (Radix.BINARY.isLong(s, len)) {
-                _v.setValue(Long.parseLong(s, 2));
-            }
-            else {
-                _v.setValue(new BigInteger(s, 2));
-            }
-            break;
-        case IonTokenConstsX.TOKEN_HEX:
-            if (Radix.HEX.isInt(s, len)) {
-                int v_int = Integer.parseInt(s, 16);
-                _v.setValue(v_int);
-            }
-            else if (Radix.HEX.isLong(s, len)) {
-                long v_long = Long.parseLong(s, 16);
-                _v.setValue(v_long);
-            }
-            else {
-                BigInteger v_big_int = new BigInteger(s, 16);
-                _v.setValue(v_big_int);
-            }
-            break;
         case IonTokenConstsX.TOKEN_DECIMAL:
             try {
             _v.setValue(Decimal.valueOf(s));
@@ -353,15 +193,6 @@ class IonReaderTextSystemX
             catch (NumberFormatException e) {
                 parse_error(e);
             }
-            break;
-        case IonTokenConstsX.TOKEN_FLOAT:
-            try {
-                _v.setValue(Double.parseDouble(s));
-            }
-            catch (NumberFormatException e) {
-                parse_error(e);
-            }
-
             break;
         case IonTokenConstsX.TOKEN_TIMESTAMP:
             Timestamp t = null;
@@ -443,6 +274,88 @@ class IonReaderTextSystemX
             parse_error("scalar token "+IonTokenConstsX.getTokenName(_scanner.getToken())+"isn't a recognized type");
         }
     }
+    /**
+     * Parses ints and floats directly from the token buffer, accumulating
+     * the digits of ints that fit in a long instead of converting the
+     * buffer to a string and parsing it again.
+     *
+     * @return false if the token isn't an int or a float.
+     */
+    private final boolean load_numeric_value(StringBuilder cs, int token_type)
+    {
+        if (token_type == IonTokenConstsX.TOKEN_UNKNOWN_NUMERIC) {
+            // the scanner has already decided the type
+            if (_value_type == IonType.FLOAT) {
+                token_type = IonTokenConstsX.TOKEN_FLOAT;
+            }
+            else if (_value_type == IonType.INT) {
+                token_type = IonTokenConstsX.TOKEN_INT;
+            }
+            else {
+                return false;
+            }
+        }
+
+        int radix;
+        int start;
+        switch (token_type) {
+        case IonTokenConstsX.TOKEN_INT:
+            radix = 10;
+            start = 0;
+            break;
+        case IonTokenConstsX.TOKEN_HEX:
+            radix = 16;
+            start = 2; // skip the 0x prefix
+            break;
+        case IonTokenConstsX.TOKEN_BINARY:
+            radix = 2;
+            start = 2; // skip the 0b prefix
+            break;
+        case IonTokenConstsX.TOKEN_FLOAT:
+            load_float_value(cs);
+            return true;
+        default:
+            return false;
+        }
+
+        boolean is_negative = (cs.charAt(0) == '-');
+        if (is_negative) {
+            start++;
+        }
+
+        int fits = IonTextNumbers.accumulateLong(cs, start, radix, is_negative,
+                                                 _long_value);
+        if (fits == IonTextNumbers.NOT_A_LONG) {
+            BigInteger value = IonTextNumbers.bigIntegerValue(cs, start, radix,
+                                                              is_negative);
+            clear_current_value_buffer();
+            _v.setValue(value);
+        }
+        else {
+            clear_current_value_buffer();
+            if (fits == 1) {
+                _v.setValue((int) _long_value[0]);
+            }
+            else {
+                _v.setValue(_long_value[0]);
+            }
+        }
+        return true;
+    }
+
+    private final void load_float_value(StringBuilder cs)
+    {
+        double value = 0;
+        try {
+            value = IonTextNumbers.parseDouble(cs);
+        }
+        catch (NumberFormatException e) {
+            parse_error(e);
+        }
+        clear_current_value_buffer();
+        _v.setValue(value);
+    }
+
     private final void cast_cached_value(int new_type)
     {
         // this should only be called when it actually has to do some work
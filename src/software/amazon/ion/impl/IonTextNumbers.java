@@ -0,0 +1,347 @@
+/*
+ * Copyright 2017 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at:
+ *
+ *     http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+
+package software.amazon.ion.impl;
+
+import java.math.BigInteger;
+
+/**
+ * Parses the images of numeric tokens, as loaded by
+ * {@link IonReaderTextRawTokensX}, directly from the token buffer.
+ * Images have no underscores, and hex and binary images are in lower case.
+ */
+final class IonTextNumbers
+{
+    private IonTextNumbers() { }
+
+    /** Returned by {@link #accumulateLong} when the image doesn't fit. */
+    static final int NOT_A_LONG = -1;
+
+    /**
+     * Accumulates the digits of an integer image into a negative magnitude,
+     * as {@link Long#parseLong(String, int)} does, so that
+     * {@link Long#MIN_VALUE} doesn't overflow.
+     *
+     * @param image the token buffer.
+     * @param start the offset of the first digit, after any sign and radix
+     * prefix.
+     * @param radix 2, 10 or 16.
+     * @param negative whether the image has a minus sign.
+     * @param result receives the value at index 0.
+     *
+     * @return {@link #NOT_A_LONG} if the value doesn't fit in a long;
+     * otherwise 1 if it fits in an int, or 0.
+     */
+    static int accumulateLong(CharSequence image, int start, int radix,
+                              boolean negative, long[] result)
+    {
+        long limit = negative ? Long.MIN_VALUE : -Long.MAX_VALUE;
+        long multmin = limit / radix;
+        long value = 0;
+        int len = image.length();
+        for (int i = start; i < len; i++)
+        {
+            int digit = Character.digit(image.charAt(i), radix);
+            if (value < multmin)
+            {
+                return NOT_A_LONG;
+            }
+            value *= radix;
+            if (value < limit + digit)
+            {
+                return NOT_A_LONG;
+            }
+            value -= digit;
+        }
+        if (!negative)
+        {
+            value = -value;
+        }
+        result[0] = value;
+        return (value >= Integer.MIN_VALUE && value <= Integer.MAX_VALUE) ? 1 : 0;
+    }
+
+    /**
+     * Parses an integer image that doesn't fit in a long.
+     */
+    static BigInteger bigIntegerValue(CharSequence image, int start, int radix,
+                                      boolean negative)
+    {
+        BigInteger value =
+            new BigInteger(image.subSequence(start, image.length()).toString(),
+                           radix);
+        return negative ? value.negate() : value;
+    }
+
+
+    //=========================================================================
+    // Floats
+
+    /**
+     * Parses a float image, such as {@code -1.25e3}, to the nearest double.
+     * <p>
+     * Images with up to 19 significant digits are parsed from their
+     * significand and decimal exponent: exactly, using one floating-point
+     * operation, when both are small enough (Clinger's fast path); or else by
+     * the Eisel-Lemire algorithm, which multiplies the significand by a
+     * 128-bit approximation of the power of ten and only gives up when the
+     * product is too close to halfway between two doubles to round
+     * correctly.  Everything else, which includes very long significands,
+     * subnormals and overflow, is handed to
+     * {@link Double#parseDouble(String)}.
+     *
+     * @throws NumberFormatException if the image isn't a number.
+     */
+    static double parseDouble(CharSequence image)
+    {
+        int len = image.length();
+        int i = 0;
+        boolean negative = false;
+        if (i < len && (image.charAt(i) == '-' || image.charAt(i) == '+'))
+        {
+            negative = image.charAt(i) == '-';
+            i++;
+        }
+
+        long significand = 0;
+        int digits = 0;
+        int exponent = 0;
+        boolean truncated = false;
+        boolean hasDigits = false;
+        boolean inFraction = false;
+        for (; i < len; i++)
+        {
+            char c = image.charAt(i);
+            if (c >= '0' && c <= '9')
+            {
+                hasDigits = true;
+                if (significand == 0 && c == '0')
+                {
+                    // leading zeros aren't significant
+                    if (inFraction) exponent--;
+                }
+                else if (digits < 19)
+                {
+                    significand = significand * 10 + (c - '0');
+                    digits++;
+                    if (inFraction) exponent--;
+                }
+                else
+                {
+                    truncated |= c != '0';
+                    if (!inFraction) exponent++;
+                }
+            }
+            else if (c == '.' && !inFraction)
+            {
+                inFraction = true;
+            }
+            else
+            {
+                break;
+            }
+        }
+
+        if (hasDigits && i < len && (image.charAt(i) == 'e' || image.charAt(i) == 'E'))
+        {
+            i++;
+            boolean negativeExponent = false;
+            if (i < len && (image.charAt(i) == '-' || image.charAt(i) == '+'))
+            {
+                negativeExponent = image.charAt(i) == '-';
+                i++;
+            }
+            int start = i;
+            int e = 0;
+            for (; i < len; i++)
+            {
+                char c = image.charAt(i);
+                if (c < '0' || c > '9') break;
+                if (e < 100000) e = e * 10 + (c - '0');
+            }
+            if (i == start)
+            {
+                hasDigits = false;
+            }
+            exponent += negativeExponent ? -e : e;
+        }
+
+        if (hasDigits && i == len && !truncated)
+        {
+            if (significand == 0)
+            {
+                return negative ? -0.0d : 0.0d;
+            }
+            double value = fastPath(significand, exponent);
+            if (Double.isNaN(value))
+            {
+                value = eiselLemire(significand, exponent);
+            }
+            if (!Double.isNaN(value))
+            {
+                return negative ? -value : value;
+            }
+        }
+        return Double.parseDouble(image.toString());
+    }
+
+    private static final double[] POWERS_OF_TEN = {
+        1e0,  1e1,  1e2,  1e3,  1e4,  1e5,  1e6,  1e7,
+        1e8,  1e9,  1e10, 1e11, 1e12, 1e13, 1e14, 1e15,
+        1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22,
+    };
+
+    /**
+     * Both the significand and the power of ten are exact doubles, so one
+     * correctly-rounded operation gives the correctly-rounded result.
+     *
+     * @return NaN if the operands aren't exact.
+     */
+    private static double fastPath(long significand, int exponent)
+    {
+        if (significand < 0 || significand > (1L << 53)
+            || exponent < -22 || exponent > 22)
+        {
+            return Double.NaN;
+        }
+        double value = significand;
+        return exponent < 0
+            ? value / POWERS_OF_TEN[-exponent]
+            : value * POWERS_OF_TEN[exponent];
+    }
+
+    private static final int MIN_EXPONENT = -342;
+    private static final int MAX_EXPONENT = 308;
+
+    /**
+     * The 128 most significant bits of each power of ten from
+     * {@link #MIN_EXPONENT} to {@link #MAX_EXPONENT}, truncated, except that
+     * the inexact ones down to 1e-27 are rounded up.
+     */
+    private static final long[] POWERS_HIGH = new long[MAX_EXPONENT - MIN_EXPONENT + 1];
+    private static final long[] POWERS_LOW  = new long[MAX_EXPONENT - MIN_EXPONENT + 1];
+
+    static
+    {
+        BigInteger five = BigInteger.valueOf(5);
+        for (int q = MIN_EXPONENT; q <= MAX_EXPONENT; q++)
+        {
+            BigInteger power;
+            if (q >= 0)
+            {
+                // the powers of two in 10^q only shift the bits
+                power = five.pow(q);
+                int shift = 128 - power.bitLength();
+                power = shift >= 0 ? power.shiftLeft(shift) : power.shiftRight(-shift);
+            }
+            else
+            {
+                BigInteger divisor = five.pow(-q);
+                int z = divisor.bitLength();
+                int b = (q >= -27) ? z + 127 : 2 * z + 128;
+                power = BigInteger.ONE.shiftLeft(b).divide(divisor).add(BigInteger.ONE);
+                int excess = power.bitLength() - 128;
+                if (excess > 0)
+                {
+                    power = power.shiftRight(excess);
+                }
+            }
+            POWERS_HIGH[q - MIN_EXPONENT] = power.shiftRight(64).longValue();
+            POWERS_LOW[q - MIN_EXPONENT] = power.longValue();
+        }
+    }
+
+    /**
+     * @param significand an unsigned, non-zero significand.
+     *
+     * @return NaN if the result can't be determined, or would be subnormal
+     * or infinite.
+     */
+    private static double eiselLemire(long significand, int exponent)
+    {
+        if (exponent < MIN_EXPONENT || exponent > MAX_EXPONENT)
+        {
+            return Double.NaN;
+        }
+
+        int lz = Long.numberOfLeadingZeros(significand);
+        long w = significand << lz;
+        long binaryExponent = ((217706L * exponent) >> 16) + 64 + 1023 - lz;
+
+        int index = exponent - MIN_EXPONENT;
+        long high = multiplyHigh(w, POWERS_HIGH[index]);
+        long low = w * POWERS_HIGH[index];
+        if ((high & 0x1FF) == 0x1FF && unsignedLessThan(low + w, w))
+        {
+            // the truncated product may be off by one in its last bit, so
+            // take the next 64 bits of the power into account
+            long high2 = multiplyHigh(w, POWERS_LOW[index]);
+            long low2 = w * POWERS_LOW[index];
+            long mergedHigh = high;
+            long mergedLow = low + high2;
+            if (unsignedLessThan(mergedLow, low))
+            {
+                mergedHigh++;
+            }
+            if ((mergedHigh & 0x1FF) == 0x1FF && mergedLow + 1 == 0
+                && unsignedLessThan(low2 + w, w))
+            {
+                return Double.NaN;
+            }
+            high = mergedHigh;
+            low = mergedLow;
+        }
+
+        long msb = high >>> 63;
+        long mantissa = high >>> (msb + 9);
+        binaryExponent -= 1 ^ msb;
+
+        if (low == 0 && (high & 0x1FF) == 0 && (mantissa & 3) == 1)
+        {
+            // exactly halfway, and we can't tell which way to round
+            return Double.NaN;
+        }
+
+        mantissa += mantissa & 1;
+        mantissa >>>= 1;
+        if ((mantissa >>> 53) != 0)
+        {
+            mantissa >>>= 1;
+            binaryExponent++;
+        }
+        if (binaryExponent < 1 || binaryExponent >= 0x7FF)
+        {
+            return Double.NaN;
+        }
+        return Double.longBitsToDouble((binaryExponent << 52)
+                                       | (mantissa & 0xFFFFFFFFFFFFFL));
+    }
+
+    /** The high 64 bits of the unsigned 128-bit product. */
+    private static long multiplyHigh(long x, long y)
+    {
+        long x0 = x & 0xFFFFFFFFL;
+        long x1 = x >>> 32;
+        long y0 = y & 0xFFFFFFFFL;
+        long y1 = y >>> 32;
+        long p01 = x0 * y1;
+        long middle = x1 * y0 + ((x0 * y0) >>> 32) + (p01 & 0xFFFFFFFFL);
+        return x1 * y1 + (middle >>> 32) + (p01 >>> 32);
+    }
+
+    private static boolean unsignedLessThan(long x, long y)
+    {
+        return (x + Long.MIN_VALUE) < (y + Long.MIN_VALUE);
+    }
+}
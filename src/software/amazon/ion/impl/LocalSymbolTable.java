@@ -32,11 +32,11 @@ import static software.amazon.ion.impl.PrivateUtils.safeEquals;
 
 import java.io.IOException;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
-import java.util.Map;
 import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import software.amazon.ion.IonCatalog;
 import software.amazon.ion.IonException;
 import software.amazon.ion.IonList;
@@ -54,13 +54,18 @@ import software.amazon.ion.util.IonTextUtils;
 /**
  * A local symbol table.
  * <p>
- * Instances of this class are safe for use by multiple threads.
+ * Instances of this class are safe for use by multiple threads.  Lookups
+ * don't lock: the local symbols are published as an immutable
+ * {@link Symbols} snapshot, and their sids are kept in a concurrent map
+ * that is only ever added to.  Changes are made while holding the lock on
+ * this table, and a symbol is published in the snapshot before it's added
+ * to the map, so any sid found in the map is within the current snapshot.
  */
 final class LocalSymbolTable
     implements SymbolTable
 {
     /**
-     * The initial length of {@link #mySymbolNames}.
+     * The initial length of {@link Symbols#names}.
      */
     private static final int DEFAULT_CAPACITY = 16;
 
@@ -83,12 +88,12 @@ final class LocalSymbolTable
      * Map of symbol names to symbol ids of local symbols that are not in
      * imports.
      */
-    private final Map<String, Integer> mySymbolsMap;
+    private final ConcurrentMap<String, Integer> mySymbolsMap;
 
     /**
      * Whether this symbol table is read only, and thus, immutable.
      */
-    private boolean isReadOnly;
+    private volatile boolean isReadOnly;
 
     /**
      * Memoized result of {@link #getIonRepresentation(ValueFactory)};
@@ -98,22 +103,46 @@ final class LocalSymbolTable
 
     /**
      * The local symbol names declared in this symtab; never null.
-     * The sid of the first element is {@link #myFirstLocalSid}.
-     * Only the first {@link #mySymbolsCount} elements are valid.
+     * Replaced, never modified, as symbols are added.
      */
-    private String[] mySymbolNames;
+    private volatile Symbols mySymbols;
 
     /**
-     * This is the number of symbols defined in this symbol table
-     * locally, that is not imported from some other table.
+     * The sid of the first local symbol, which is stored at
+     * {@link Symbols#names}[0].
      */
-    private int mySymbolsCount;
+    private final int myFirstLocalSid;
 
     /**
-     * The sid of the first local symbol, which is stored at
-     * {@link #mySymbolNames}[0].
+     * The local symbols of a symtab at some point in time.
+     * <p>
+     * Symbols are only ever appended, so a snapshot stays valid: later
+     * symbols may be stored in the unused tail of its array, but only the
+     * first {@link #count} elements belong to it.
      */
-    private final int myFirstLocalSid;
+    private static final class Symbols
+    {
+        static final Symbols EMPTY =
+            new Symbols(PrivateUtils.EMPTY_STRING_ARRAY, 0);
+
+        /**
+         * The symbol names; never null.  The sid of the first element is
+         * {@link LocalSymbolTable#myFirstLocalSid}.
+         */
+        final String[] names;
+
+        /**
+         * This is the number of symbols defined in this symbol table
+         * locally, that is not imported from some other table.
+         */
+        final int count;
+
+        Symbols(String[] names, int count)
+        {
+            this.names = names;
+            this.count = count;
+        }
+    }
 
     //==========================================================================
     // Private constructor(s) and static factory methods
@@ -121,10 +150,11 @@ final class LocalSymbolTable
 
     private void buildSymbolsMap()
     {
+        Symbols symbols = mySymbols;
         int sid = myFirstLocalSid;
-        for (int i = 0; i < mySymbolNames.length; i++, sid++)
+        for (int i = 0; i < symbols.count; i++, sid++)
         {
-            String symbolText = mySymbolNames[i];
+            String symbolText = symbols.names[i];
             if (symbolText != null)
             {
                 putToMapIfNotThere(mySymbolsMap, symbolText, sid);
@@ -144,13 +174,13 @@ final class LocalSymbolTable
     {
         if (symbolsList == null || symbolsList.isEmpty())
         {
-            mySymbolsCount = 0;
-            mySymbolNames  = PrivateUtils.EMPTY_STRING_ARRAY;
+            mySymbols = Symbols.EMPTY;
         }
         else
         {
-            mySymbolsCount = symbolsList.size();
-            mySymbolNames  = symbolsList.toArray(new String[mySymbolsCount]);
+            int count = symbolsList.size();
+            mySymbols = new Symbols(symbolsList.toArray(new String[count]),
+                                    count);
         }
 
         myImageFactory = imageFactory;
@@ -158,7 +188,7 @@ final class LocalSymbolTable
         myFirstLocalSid = myImportsList.getMaxId() + 1;
 
         // Copy locally declared symbols to mySymbolsMap
-        mySymbolsMap = new HashMap<String, Integer>();
+        mySymbolsMap = new ConcurrentHashMap<String, Integer>();
         buildSymbolsMap();
     }
 
@@ -173,19 +203,20 @@ final class LocalSymbolTable
         myImage         = null;
         myImageFactory  = other.myImageFactory;
         myImportsList   = other.myImportsList;
-        mySymbolsCount  = maxId - myImportsList.getMaxId();
-
-        mySymbolNames   = copyOf(other.mySymbolNames, mySymbolsCount);
+        int count       = maxId - myImportsList.getMaxId();
+        mySymbols       = new Symbols(copyOf(other.mySymbols.names, count),
+                                      count);
 
         // Copy locally declared symbols to mySymbolsMap
         if (maxId == other.getMaxId())
         {
             // Shallow copy
-            mySymbolsMap = new HashMap<String, Integer>(other.mySymbolsMap);
+            mySymbolsMap =
+                new ConcurrentHashMap<String, Integer>(other.mySymbolsMap);
         }
         else
         {
-            mySymbolsMap = new HashMap<String, Integer>(mySymbolsCount);
+            mySymbolsMap = new ConcurrentHashMap<String, Integer>(count);
             buildSymbolsMap();
         }
     }
@@ -299,6 +330,9 @@ final class LocalSymbolTable
         List<SymbolTable> importsList = new ArrayList<SymbolTable>();
         importsList.add(systemSymbolTable);
 
+        // the current table, when this one appends to it
+        LocalSymbolTable appendedTable = null;
+
         IonType fieldType;
         boolean foundImportList = false;
         boolean foundLocalSymbolList = false;
@@ -365,9 +399,17 @@ final class LocalSymbolTable
                     else if (fieldType == IonType.SYMBOL)
                     {
                         // trying to import the current table
-                        if(reader.getSymbolTable().isLocalTable() && ION_SYMBOL_TABLE.equals(reader.stringValue()))
+                        SymbolTable current = reader.getSymbolTable();
+                        if(current.isLocalTable() && ION_SYMBOL_TABLE.equals(reader.stringValue()))
                         {
-                            importsList.add(reader.getSymbolTable());
+                            if (current instanceof LocalSymbolTable)
+                            {
+                                appendedTable = (LocalSymbolTable) current;
+                            }
+                            else
+                            {
+                                importsList.add(current);
+                            }
                         }
                     }
                     break;
@@ -382,6 +424,24 @@ final class LocalSymbolTable
 
         reader.stepOut();
 
+        if (appendedTable != null)
+        {
+            // Rather than importing the current table, which would chain a
+            // copy of every previous table in a long stream of appends,
+            // take over its imports and prepend its local symbols.
+            Symbols appended = appendedTable.mySymbols;
+            List<String> allSymbols =
+                new ArrayList<String>(appended.count + symbolsList.size());
+            for (int i = 0; i < appended.count; i++)
+            {
+                allSymbols.add(appended.names[i]);
+            }
+            allSymbols.addAll(symbolsList);
+            return new LocalSymbolTable(imageFactory,
+                                        appendedTable.myImportsList,
+                                        allSymbols);
+        }
+
         LocalSymbolTableImports imports =
             new LocalSymbolTableImports(importsList);
 
@@ -419,7 +479,7 @@ final class LocalSymbolTable
         return false;
     }
 
-    public synchronized boolean isReadOnly()
+    public boolean isReadOnly()
     {
         return isReadOnly;
     }
@@ -434,9 +494,9 @@ final class LocalSymbolTable
         return myImportsList.getMaxId();
     }
 
-    public synchronized int getMaxId()
+    public int getMaxId()
     {
-        int maxid = mySymbolsCount + myImportsList.getMaxId();
+        int maxid = mySymbols.count + myImportsList.getMaxId();
         return maxid;
     }
 
@@ -456,9 +516,10 @@ final class LocalSymbolTable
         return system_table.getIonVersionId();
     }
 
-    public synchronized Iterator<String> iterateDeclaredSymbolNames()
+    public Iterator<String> iterateDeclaredSymbolNames()
     {
-        return new SymbolIterator(mySymbolNames, mySymbolsCount);
+        Symbols symbols = mySymbols;
+        return new SymbolIterator(symbols.names, symbols.count);
     }
 
     public String findKnownSymbol(int id)
@@ -478,15 +539,10 @@ final class LocalSymbolTable
         {
             int offset = id - myFirstLocalSid;
 
-            String[] names;
-            synchronized (this)
-            {
-                names = mySymbolNames;
-            }
-
-            if (offset < names.length)
+            Symbols symbols = mySymbols;
+            if (offset < symbols.count)
             {
-                name = names[offset];
+                name = symbols.names[offset];
             }
         }
 
@@ -509,11 +565,7 @@ final class LocalSymbolTable
 
     private int findLocalSymbol(String name)
     {
-        Integer isid;
-        synchronized (this)
-        {
-            isid = mySymbolsMap.get(name);
-        }
+        Integer isid = mySymbolsMap.get(name);
 
         if (isid != null)
         {
@@ -524,14 +576,22 @@ final class LocalSymbolTable
     }
 
 
-    public synchronized SymbolToken intern(String text)
+    public SymbolToken intern(String text)
     {
         SymbolToken is = find(text);
         if (is == null)
         {
-            validateSymbol(text);
-            int sid = putSymbol(text);
-            is = new SymbolTokenImpl(text, sid);
+            synchronized (this)
+            {
+                // another thread may have added it since the lookup
+                is = find(text);
+                if (is == null)
+                {
+                    validateSymbol(text);
+                    int sid = putSymbol(text);
+                    is = new SymbolTokenImpl(text, sid);
+                }
+            }
         }
         return is;
     }
@@ -546,18 +606,12 @@ final class LocalSymbolTable
         // Look in local symbols
         if (symTok == null)
         {
-            Integer  sid;
-            String[] names;
-            synchronized (this)
-            {
-                sid = mySymbolsMap.get(text);
-                names = mySymbolNames;
-            }
-
+            Integer sid = mySymbolsMap.get(text);
             if (sid != null)
             {
+                // the symbol was published before it was mapped
                 int offset = sid - myFirstLocalSid;
-                String internedText = names[offset];
+                String internedText = mySymbols.names[offset];
                 assert internedText != null;
                 symTok = new SymbolTokenImpl(internedText, sid);
             }
@@ -613,25 +667,28 @@ final class LocalSymbolTable
             throw new ReadOnlyValueException(SymbolTable.class);
         }
 
-        if (mySymbolsCount == mySymbolNames.length)
+        Symbols symbols = mySymbols;
+        int count = symbols.count;
+        String[] names = symbols.names;
+        if (count == names.length)
         {
-            int newlen = mySymbolsCount * 2;
+            int newlen = count * 2;
             if (newlen < DEFAULT_CAPACITY)
             {
                 newlen = DEFAULT_CAPACITY;
             }
-            String[] temp = new String[newlen];
-            System.arraycopy(mySymbolNames, 0, temp, 0, mySymbolsCount);
-            mySymbolNames = temp;
+            names = copyOf(names, newlen);
         }
 
-        int sid = mySymbolsCount + myFirstLocalSid;
+        int sid = count + myFirstLocalSid;
         assert sid == getMaxId() + 1;
 
-        putToMapIfNotThere(mySymbolsMap, symbolName, sid);
+        // Readers of the current snapshot never look at this slot, and the
+        // new snapshot must be published before the sid can be found.
+        names[count] = symbolName;
+        mySymbols = new Symbols(names, count + 1);
 
-        mySymbolNames[mySymbolsCount] = symbolName;
-        mySymbolsCount++;
+        putToMapIfNotThere(mySymbolsMap, symbolName, sid);
 
         if (myImage != null)
         {
@@ -641,20 +698,16 @@ final class LocalSymbolTable
         return sid;
     }
 
-    private static void putToMapIfNotThere(Map<String, Integer> symbolsMap,
+    private static void putToMapIfNotThere(ConcurrentMap<String, Integer> symbolsMap,
                                            String text,
                                            int sid)
     {
         // When there's a duplicate name, don't replace the lower sid.
-        // This pattern avoids double-lookup in the normal happy case
-        // and only requires a second lookup when there's a duplicate.
-        Integer extantSid = symbolsMap.put(text, sid);
-        if (extantSid != null)
-        {
-            // We always insert symbols with increasing sids
-            assert extantSid < sid;
-            symbolsMap.put(text, extantSid);
-        }
+        // Readers must never see the higher one, even briefly.
+        Integer extantSid = symbolsMap.putIfAbsent(text, sid);
+
+        // We always insert symbols with increasing sids
+        assert extantSid == null || extantSid < sid;
     }
 
     public SymbolTable getSystemSymbolTable()
@@ -772,12 +825,13 @@ final class LocalSymbolTable
             ionRep.add(IMPORTS, importsList);
         }
 
-        if (mySymbolsCount > 0)
+        Symbols symbols = mySymbols;
+        if (symbols.count > 0)
         {
             int sid = myFirstLocalSid;
-            for (int offset = 0; offset < mySymbolsCount; offset++, sid++)
+            for (int offset = 0; offset < symbols.count; offset++, sid++)
             {
-                String symbolName = mySymbolNames[offset];
+                String symbolName = symbols.names[offset];
                 recordLocalSymbolInIonRep(ionRep, symbolName, sid);
             }
         }
@@ -1044,19 +1098,22 @@ final class LocalSymbolTable
         if (! myImportsList.equalImports(subset.myImportsList))
             return false;
 
-        int subLocalSymbolCount = subset.mySymbolsCount;
+        Symbols symbols = mySymbols;
+        Symbols subsetSnapshot = subset.mySymbols;
+        int subLocalSymbolCount = subsetSnapshot.count;
 
         // Superset extends subset if subset doesn't have any declared symbols.
         if (subLocalSymbolCount == 0) return true;
 
         // Superset must have same/more declared (local) symbols than subset.
-        if (mySymbolsCount < subLocalSymbolCount) return false;
+        if (symbols.count < subLocalSymbolCount) return false;
 
-        String[] subsetSymbols = subset.mySymbolNames;
+        String[] symbolNames = symbols.names;
+        String[] subsetSymbols = subsetSnapshot.names;
 
         // Before we go through the expensive iteration from the front,
         // check the last (largest) declared symbol in subset beforehand
-        if (! safeEquals(mySymbolNames[subLocalSymbolCount- 1],
+        if (! safeEquals(symbolNames[subLocalSymbolCount- 1],
                                   subsetSymbols[subLocalSymbolCount- 1]))
         {
             return false;
@@ -1066,7 +1123,7 @@ final class LocalSymbolTable
         // iteration below is O(n)!
         for (int i = 0; i < subLocalSymbolCount - 1; i++)
         {
-            if (! safeEquals(mySymbolNames[i], subsetSymbols[i]))
+            if (! safeEquals(symbolNames[i], subsetSymbols[i]))
                 return false;
         }
 
@@ -53,6 +53,14 @@ final class LocalSymbolTableImports
      */
     private final int[]         myBaseSids;
 
+    /**
+     * The symbol indexes of the imported tables, parallel to
+     * {@link #myImports}.  An element is null when its table is not a
+     * {@link SharedSymbolTable}, and must be searched through its
+     * {@link SymbolTable#find(String)} method instead.
+     */
+    private final PrivateSymbolIndex[] myIndexes;
+
     //==========================================================================
     // Constructor(s) and static factory methods
     //==========================================================================
@@ -95,6 +103,7 @@ final class LocalSymbolTableImports
 
         myBaseSids = new int[importTablesSize];
         myMaxId = prepBaseSids(myBaseSids, myImports);
+        myIndexes = prepIndexes(myImports);
     }
 
     /**
@@ -180,6 +189,7 @@ final class LocalSymbolTableImports
 
         myBaseSids = new int[myImports.length];
         myMaxId = prepBaseSids(myBaseSids, myImports);
+        myIndexes = prepIndexes(myImports);
     }
 
     /**
@@ -218,6 +228,19 @@ final class LocalSymbolTableImports
         return total;
     }
 
+    private static PrivateSymbolIndex[] prepIndexes(SymbolTable[] imports)
+    {
+        PrivateSymbolIndex[] indexes = new PrivateSymbolIndex[imports.length];
+        for (int i = 0; i < imports.length; i++)
+        {
+            if (imports[i] instanceof SharedSymbolTable)
+            {
+                indexes[i] = ((SharedSymbolTable) imports[i]).getSymbolIndex();
+            }
+        }
+        return indexes;
+    }
+
     //==========================================================================
 
     String findKnownSymbol(int sid)
@@ -247,8 +270,18 @@ final class LocalSymbolTableImports
 
     int findSymbol(String name)
     {
-        SymbolToken tok = find(name);
-        return (tok == null ? UNKNOWN_SYMBOL_ID : tok.getSid());
+        for (int i = 0; i < myImports.length; i++)
+        {
+            PrivateSymbolIndex index = myIndexes[i];
+            int sid = (index != null
+                       ? index.findSymbol(name)
+                       : myImports[i].findSymbol(name));
+            if (sid != UNKNOWN_SYMBOL_ID)
+            {
+                return sid + myBaseSids[i];
+            }
+        }
+        return UNKNOWN_SYMBOL_ID;
     }
 
     /**
@@ -268,6 +301,19 @@ final class LocalSymbolTableImports
     {
         for (int i = 0; i < myImports.length; i++)
         {
+            PrivateSymbolIndex index = myIndexes[i];
+            if (index != null)
+            {
+                int sid = index.findSymbol(text);
+                if (sid != UNKNOWN_SYMBOL_ID)
+                {
+                    // Use interned instance
+                    return new SymbolTokenImpl(index.findKnownSymbol(sid),
+                                               sid + myBaseSids[i]);
+                }
+                continue;
+            }
+
             SymbolTable importedTable = myImports[i];
             SymbolToken tok = importedTable.find(text);
 
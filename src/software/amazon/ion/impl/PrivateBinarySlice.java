@@ -0,0 +1,74 @@
+/*
+ * Copyright 2017 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at:
+ *
+ *     http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+
+package software.amazon.ion.impl;
+
+import software.amazon.ion.IonCatalog;
+import software.amazon.ion.IonReader;
+import software.amazon.ion.IonSystem;
+import software.amazon.ion.SymbolTable;
+
+/**
+ * The binary encoding of a single value, without its field name or
+ * annotations, along with the symbol table needed to decode it.
+ * <p>
+ * A slice of a byte array the caller gave to a reader refers to that array
+ * rather than copying it, so the array must not be modified while the slice
+ * is in use.  Slices of any other input hold a copy of the value's bytes.
+ *
+ * @deprecated This is an internal API that is subject to change without notice.
+ */
+@Deprecated
+public final class PrivateBinarySlice
+{
+    private final byte[]      myBytes;
+    private final int         myOffset;
+    private final int         myLength;
+    private final SymbolTable mySymbolTable;
+
+    PrivateBinarySlice(byte[] bytes, int offset, int length,
+                       SymbolTable symbolTable)
+    {
+        myBytes = bytes;
+        myOffset = offset;
+        myLength = length;
+        mySymbolTable = symbolTable;
+    }
+
+    /**
+     * Returns the slice holding a reader's current value.
+     *
+     * @return null if the reader isn't positioned on a value, or if it
+     * isn't decoding uncompressed binary data held in a contiguous array.
+     */
+    public static PrivateBinarySlice currentSlice(IonReader reader)
+    {
+        if (reader instanceof IonReaderBinaryUserX)
+        {
+            return ((IonReaderBinaryUserX) reader).currentSlice();
+        }
+        return null;
+    }
+
+    /**
+     * Creates a reader over this slice.  Its first call to
+     * {@link IonReader#next()} positions it on the value.
+     */
+    public IonReader newReader(IonSystem system, IonCatalog catalog)
+    {
+        UnifiedInputStreamX input =
+            UnifiedInputStreamX.makeStream(myBytes, myOffset, myLength);
+        return new IonReaderBinaryUserX(system, catalog, input, mySymbolTable);
+    }
+}
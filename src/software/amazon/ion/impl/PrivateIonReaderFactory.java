@@ -22,9 +22,13 @@ import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
 import java.util.zip.GZIPInputStream;
 import software.amazon.ion.IonCatalog;
 import software.amazon.ion.IonException;
+import software.amazon.ion.IonIncrementalReader;
 import software.amazon.ion.IonReader;
 import software.amazon.ion.IonSystem;
 import software.amazon.ion.IonValue;
@@ -49,6 +53,13 @@ public final class PrivateIonReaderFactory
     }
 
 
+    public static IonIncrementalReader makeIncrementalReader(IonSystem system,
+                                                             IonCatalog catalog)
+    {
+        return new IonReaderBinaryIncrementalX(system, catalog);
+    }
+
+
     public static final IonReader makeReader(IonSystem system,
                                              IonCatalog catalog,
                                              byte[] bytes,
@@ -180,6 +191,34 @@ public final class PrivateIonReaderFactory
     }
 
 
+    public static final IonReader makeReader(IonSystem system,
+                                             IonCatalog catalog,
+                                             FileChannel channel)
+    {
+        try {
+            UnifiedInputStreamX uis = makeUnifiedStream(channel);
+            return makeReader(system, catalog, uis, 0);
+        }
+        catch (IOException e) {
+            throw new IonException(e);
+        }
+    }
+
+
+    public static final IonReader makeReader(IonSystem system,
+                                             IonCatalog catalog,
+                                             ByteBuffer buffer)
+    {
+        try {
+            UnifiedInputStreamX uis = makeUnifiedStream(buffer);
+            return makeReader(system, catalog, uis, physicalOffset(buffer));
+        }
+        catch (IOException e) {
+            throw new IonException(e);
+        }
+    }
+
+
     public static final IonReader makeReader(IonSystem system,
                                              IonCatalog catalog,
                                              Reader chars)
@@ -297,6 +336,75 @@ public final class PrivateIonReaderFactory
     }
 
 
+    private static UnifiedInputStreamX makeUnifiedStream(FileChannel channel)
+        throws IOException
+    {
+        channel.getClass(); // Force NPE
+
+        // Peek at the header without disturbing the channel's position.
+        ByteBuffer header = ByteBuffer.allocate(BINARY_VERSION_MARKER_SIZE);
+        long position = channel.position();
+        while (header.hasRemaining()) {
+            int read = channel.read(header, position + header.position());
+            if (read < 0) break;
+        }
+
+        UnifiedInputStreamX uis;
+        if (IonStreamUtils.isGzip(header.array(), 0, header.position()))
+        {
+            // Compressed data has to be inflated as a stream.
+            InputStream in = Channels.newInputStream(channel);
+            uis = UnifiedInputStreamX.makeStream(new GZIPInputStream(in));
+        }
+        else
+        {
+            uis = UnifiedInputStreamX.makeStream(channel);
+        }
+        return uis;
+    }
+
+
+    private static UnifiedInputStreamX makeUnifiedStream(ByteBuffer buffer)
+        throws IOException
+    {
+        buffer.getClass(); // Force NPE
+
+        // Peek at the header without disturbing the buffer's position.
+        byte[] header = new byte[Math.min(BINARY_VERSION_MARKER_SIZE,
+                                          buffer.remaining())];
+        for (int i = 0; i < header.length; i++) {
+            header[i] = buffer.get(buffer.position() + i);
+        }
+
+        UnifiedInputStreamX uis;
+        if (IonStreamUtils.isGzip(header, 0, header.length))
+        {
+            // Compressed data has to be inflated as a stream.
+            byte[] bytes = new byte[buffer.remaining()];
+            buffer.duplicate().get(bytes);
+            InputStream in = new ByteArrayInputStream(bytes);
+            uis = UnifiedInputStreamX.makeStream(new GZIPInputStream(in));
+        }
+        else
+        {
+            uis = UnifiedInputStreamX.makeStream(buffer);
+        }
+        return uis;
+    }
+
+    /**
+     * Heap buffers are read in place from their backing array, so positions
+     * within them are offset like those of a {@code byte[]} slice.
+     */
+    private static int physicalOffset(ByteBuffer buffer)
+    {
+        if (buffer.hasArray()) {
+            return buffer.arrayOffset() + buffer.position();
+        }
+        return 0;
+    }
+
+
     private static final boolean has_binary_cookie(UnifiedInputStreamX uis)
         throws IOException
     {
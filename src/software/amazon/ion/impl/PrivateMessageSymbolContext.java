@@ -0,0 +1,100 @@
+/*
+ * Copyright 2017 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at:
+ *
+ *     http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+
+package software.amazon.ion.impl;
+
+import software.amazon.ion.IonCatalog;
+import software.amazon.ion.IonReader;
+import software.amazon.ion.IonSystem;
+import software.amazon.ion.SymbolTable;
+
+/**
+ * Reads a sequence of binary messages, each held in its own array, that
+ * share one symbol table: the table in effect at the end of a message is in
+ * effect at the start of the next.  This is how messages are written by a
+ * managed binary writer with local symbol table appends enabled, where only
+ * the first message (or the first after the writer drops its table) starts
+ * with an Ion version marker.
+ * <p>
+ * Messages must be read in the order they were written, and each must be
+ * read to its end, at top-level, before a reader is created for the next;
+ * otherwise symbols declared at the end of a message aren't seen.
+ * Instances of this class are not safe for use by multiple threads.
+ *
+ * @deprecated This is an internal API that is subject to change without notice.
+ */
+@Deprecated
+public final class PrivateMessageSymbolContext
+{
+    private final IonSystem  mySystem;
+    private final IonCatalog myCatalog;
+
+    /** The table in effect before {@link #myReader} was created. */
+    private SymbolTable mySymbolTable;
+
+    /** The reader of the last message; null if there's none. */
+    private IonReader   myReader;
+
+    /**
+     * @param system must not be null.
+     * @param catalog resolves the shared symbol tables imported by the
+     * messages; must not be null.
+     */
+    public PrivateMessageSymbolContext(IonSystem system, IonCatalog catalog)
+    {
+        mySystem = system;
+        myCatalog = catalog;
+        mySymbolTable = system.getSystemSymbolTable();
+    }
+
+    /**
+     * Creates a reader over the next message, starting with the symbol
+     * table in effect at the end of the last one.
+     * <p>
+     * The array is read in place, so it must not be modified until the
+     * reader is done with it.
+     */
+    public IonReader newReader(byte[] bytes, int offset, int length)
+    {
+        mySymbolTable = getSymbolTable();
+        UnifiedInputStreamX input =
+            UnifiedInputStreamX.makeStream(bytes, offset, length);
+        myReader = new IonReaderBinaryUserX(mySystem, myCatalog, input,
+                                            mySymbolTable);
+        return myReader;
+    }
+
+    /**
+     * Returns the symbol table in effect at the current position of the
+     * last message's reader, or before the first message.
+     */
+    public SymbolTable getSymbolTable()
+    {
+        if (myReader == null)
+        {
+            return mySymbolTable;
+        }
+        return myReader.getSymbolTable();
+    }
+
+    /**
+     * Forgets the symbol table, so that the next message must start with an
+     * Ion version marker.  This is needed when messages are lost or skipped.
+     */
+    public void reset()
+    {
+        mySymbolTable = mySystem.getSystemSymbolTable();
+        myReader = null;
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright 2017 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at:
+ *
+ *     http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+
+package software.amazon.ion.impl;
+
+import static software.amazon.ion.SymbolTable.UNKNOWN_SYMBOL_ID;
+
+import software.amazon.ion.IonReader;
+import software.amazon.ion.IonType;
+import software.amazon.ion.SymbolToken;
+
+/**
+ * Reads the SIDs of a reader's field names, annotations and symbol values
+ * without allocating {@link SymbolToken}s or arrays, when the reader is
+ * decoding binary data.  Other readers fall back to the equivalent
+ * {@link SymbolToken} accessors.
+ * <p>
+ * As with {@link SymbolToken#getSid()}, the SIDs are relative to the
+ * reader's current symbol table, and may be
+ * {@link software.amazon.ion.SymbolTable#UNKNOWN_SYMBOL_ID} when a
+ * symbol's text isn't backed by a SID.
+ *
+ * @deprecated This is an internal API that is subject to change without notice.
+ */
+@Deprecated
+public final class PrivateReaderSids
+{
+    private PrivateReaderSids() { }
+
+    /**
+     * Returns the SID of the reader's current field name.
+     *
+     * @return {@link software.amazon.ion.SymbolTable#UNKNOWN_SYMBOL_ID} if
+     * the reader isn't positioned on a struct field.
+     *
+     * @see IonReader#getFieldNameSymbol()
+     */
+    public static int getFieldNameSid(IonReader reader)
+    {
+        if (reader instanceof IonReaderBinarySystemX)
+        {
+            return ((IonReaderBinarySystemX) reader).getFieldNameSid();
+        }
+        SymbolToken token = reader.getFieldNameSymbol();
+        return (token == null) ? UNKNOWN_SYMBOL_ID : token.getSid();
+    }
+
+    /**
+     * Returns the number of annotations on the reader's current value.
+     *
+     * @see IonReader#getTypeAnnotationSymbols()
+     */
+    public static int getTypeAnnotationSidCount(IonReader reader)
+    {
+        if (reader instanceof IonReaderBinarySystemX)
+        {
+            return ((IonReaderBinarySystemX) reader).getTypeAnnotationSidCount();
+        }
+        return reader.getTypeAnnotationSymbols().length;
+    }
+
+    /**
+     * Returns the SID of one of the annotations on the reader's current
+     * value.
+     *
+     * @param index must be less than
+     * {@link #getTypeAnnotationSidCount(IonReader)}.
+     *
+     * @throws IndexOutOfBoundsException if the value doesn't have that many
+     * annotations.
+     */
+    public static int getTypeAnnotationSid(IonReader reader, int index)
+    {
+        if (reader instanceof IonReaderBinarySystemX)
+        {
+            return ((IonReaderBinarySystemX) reader).getTypeAnnotationSid(index);
+        }
+        return reader.getTypeAnnotationSymbols()[index].getSid();
+    }
+
+    /**
+     * Returns the SID of the reader's current symbol value.
+     *
+     * @return {@link software.amazon.ion.SymbolTable#UNKNOWN_SYMBOL_ID} if
+     * the value is {@code null.symbol}.
+     *
+     * @throws IllegalStateException if the current value isn't a symbol.
+     *
+     * @see IonReader#symbolValue()
+     */
+    public static int getSymbolValueSid(IonReader reader)
+    {
+        if (reader instanceof IonReaderBinarySystemX)
+        {
+            if (reader.getType() != IonType.SYMBOL)
+            {
+                throw new IllegalStateException();
+            }
+            if (reader.isNullValue()) return UNKNOWN_SYMBOL_ID;
+            return ((IonReaderBinarySystemX) reader).getSymbolId();
+        }
+        SymbolToken token = reader.symbolValue();
+        return (token == null) ? UNKNOWN_SYMBOL_ID : token.getSid();
+    }
+}
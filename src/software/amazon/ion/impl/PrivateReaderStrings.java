@@ -0,0 +1,98 @@
+/*
+ * Copyright 2017 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at:
+ *
+ *     http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+
+package software.amazon.ion.impl;
+
+import static software.amazon.ion.impl.PrivateUtils.utf8;
+
+import java.nio.ByteBuffer;
+import software.amazon.ion.IonReader;
+import software.amazon.ion.IonType;
+
+/**
+ * Reads the text of a reader's current value without materializing a
+ * {@link String}, when the reader is decoding binary data.  This suits
+ * strings that are only compared or hashed.  Other readers, and symbols,
+ * whose text is already held by the symbol table, fall back to
+ * {@link IonReader#stringValue()}.
+ * <p>
+ * The buffers returned are reused by the reader, and may even be its
+ * input, so they must not be held after the reader moves.
+ *
+ * @deprecated This is an internal API that is subject to change without notice.
+ */
+@Deprecated
+public final class PrivateReaderStrings
+{
+    private PrivateReaderStrings() { }
+
+    /**
+     * Returns the UTF-8 encoded bytes of the reader's current string, from
+     * the buffer's position to its limit.
+     *
+     * @return null if the value is {@code null.string}.
+     *
+     * @throws IllegalStateException if the current value isn't a string.
+     */
+    public static ByteBuffer stringValueUtf8(IonReader reader)
+    {
+        if (reader instanceof IonReaderBinarySystemX)
+        {
+            return ((IonReaderBinarySystemX) reader).stringValueUtf8();
+        }
+        if (reader.getType() != IonType.STRING)
+        {
+            throw new IllegalStateException();
+        }
+        String text = reader.stringValue();
+        return (text == null) ? null : ByteBuffer.wrap(utf8(text));
+    }
+
+    /**
+     * Returns the text of the reader's current value.
+     *
+     * @return null if the value is null.
+     *
+     * @throws IllegalStateException if the current value isn't text.
+     *
+     * @see IonReader#stringValue()
+     */
+    public static CharSequence stringValueChars(IonReader reader)
+    {
+        if (reader instanceof IonReaderBinarySystemX)
+        {
+            return ((IonReaderBinarySystemX) reader).stringValueChars();
+        }
+        return reader.stringValue();
+    }
+
+    /**
+     * Determines whether the text of the reader's current value is the
+     * given text, without decoding it.
+     *
+     * @param text must not be null.
+     *
+     * @return false if the value is null.
+     *
+     * @throws IllegalStateException if the current value isn't text.
+     */
+    public static boolean stringValueEquals(IonReader reader, String text)
+    {
+        if (reader instanceof IonReaderBinarySystemX)
+        {
+            return ((IonReaderBinarySystemX) reader).stringValueEquals(text);
+        }
+        return text.equals(reader.stringValue());
+    }
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright 2017 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at:
+ *
+ *     http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+
+package software.amazon.ion.impl;
+
+import software.amazon.ion.IonReader;
+import software.amazon.ion.IonType;
+import software.amazon.ion.NullValueException;
+import software.amazon.ion.Timestamp;
+
+/**
+ * Reads the point in time of a reader's current timestamp without
+ * constructing a {@link Timestamp}, when the reader is decoding binary data.
+ * Other readers fall back to {@link IonReader#timestampValue()}.
+ *
+ * @deprecated This is an internal API that is subject to change without notice.
+ */
+@Deprecated
+public final class PrivateReaderTimestamps
+{
+    private PrivateReaderTimestamps() { }
+
+    /**
+     * Returns the milliseconds from the epoch to the reader's current
+     * timestamp, ignoring any fractional milliseconds.
+     *
+     * @throws IllegalStateException if the current value isn't a timestamp.
+     * @throws NullValueException if the value is {@code null.timestamp}.
+     *
+     * @see Timestamp#getMillis()
+     */
+    public static long timestampValueMillis(IonReader reader)
+    {
+        if (reader instanceof IonReaderBinarySystemX)
+        {
+            return ((IonReaderBinarySystemX) reader).timestampValueMillis();
+        }
+        if (reader.getType() != IonType.TIMESTAMP)
+        {
+            throw new IllegalStateException();
+        }
+        Timestamp value = reader.timestampValue();
+        if (value == null)
+        {
+            throw new NullValueException();
+        }
+        return value.getMillis();
+    }
+}
@@ -0,0 +1,537 @@
+/*
+ * Copyright 2017 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at:
+ *
+ *     http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+
+package software.amazon.ion.impl;
+
+import static software.amazon.ion.SymbolTable.UNKNOWN_SYMBOL_ID;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import software.amazon.ion.SymbolTable;
+
+/**
+ * An immutable index of the symbols declared by a shared symbol table,
+ * built on a perfect hash of their text.
+ * <p>
+ * Lookups don't allocate, and text can be looked up as a {@link String}, any
+ * other {@link CharSequence}, or a slice of UTF-8 bytes, without building a
+ * {@code String} first.  Each lookup hashes the text as
+ * {@link String#hashCode()} does (so a {@code String}'s cached hash code is
+ * reused), finds a bucket from that hash, and uses the bucket's
+ * seed to pick the one slot the text could occupy.  The slot's symbol is
+ * then compared with the text.
+ * <p>
+ * The index holds about one and a half {@code int}s for each symbol, in
+ * place of a map entry and boxed sid.  The rare symbols whose hash codes
+ * collide exactly with another's, or whose bucket couldn't be placed, are
+ * kept in a small overflow array, sorted by hash.
+ *
+ * @deprecated This is an internal API that is subject to change without notice.
+ */
+@Deprecated
+public final class PrivateSymbolIndex
+{
+    /** The average number of symbols per bucket. */
+    private static final int BUCKET_SIZE = 4;
+
+    /**
+     * The number of slots for each eight symbols.  Leaving some slots empty
+     * keeps the last few buckets from failing to find room.
+     */
+    private static final int SLOTS_PER_8_SYMBOLS = 9;
+
+    /** The number of displacements to try before giving up on a bucket. */
+    private static final int MAX_DISPLACEMENT = 1 << 14;
+
+    /**
+     * The declared symbols; the sid of the first element is 1.  May hold
+     * nulls and duplicates, which aren't indexed.
+     */
+    private final String[] mySymbolNames;
+
+    /**
+     * For each bucket, either the seed used to hash its symbols into slots,
+     * or for a bucket of one symbol, the negated slot minus one.
+     */
+    private final int[] mySeeds;
+
+    /** The sid in each slot, or 0 if the slot is empty. */
+    private final int[] mySlots;
+
+    /** The hash codes of the overflowing symbols, in ascending order. */
+    private final int[] myOverflowHashes;
+
+    /** The sids of the overflowing symbols, parallel to the hashes. */
+    private final int[] myOverflowSids;
+
+
+    /**
+     * @param symbolNames the declared symbols, which must not be modified
+     * afterwards; the sid of the first element is 1.
+     */
+    PrivateSymbolIndex(String[] symbolNames)
+    {
+        mySymbolNames = symbolNames;
+
+        // Only the lowest sid of each text is indexed
+        Set<String> seen = new HashSet<String>();
+        int[] keys = new int[symbolNames.length];
+        int count = 0;
+        for (int i = 0; i < symbolNames.length; i++)
+        {
+            String text = symbolNames[i];
+            if (text != null && seen.add(text))
+            {
+                keys[count++] = i + 1;
+            }
+        }
+
+        int bucketCount = Math.max(1, count / BUCKET_SIZE);
+        mySeeds = new int[bucketCount];
+        mySlots = new int[1 + count / 8 * SLOTS_PER_8_SYMBOLS + count % 8];
+
+        // Sort the sids and their mixed hashes by bucket
+        int[] bucketStarts = new int[bucketCount + 1];
+        for (int k = 0; k < count; k++)
+        {
+            int m = mix(symbolNames[keys[k] - 1].hashCode());
+            bucketStarts[reduce(m, bucketCount) + 1]++;
+        }
+        int maxSize = 0;
+        for (int b = 0; b < bucketCount; b++)
+        {
+            maxSize = Math.max(maxSize, bucketStarts[b + 1]);
+            bucketStarts[b + 1] += bucketStarts[b];
+        }
+        int[] sids = new int[count];
+        int[] mixes = new int[count];
+        int[] next = Arrays.copyOf(bucketStarts, bucketCount);
+        for (int k = 0; k < count; k++)
+        {
+            int m = mix(symbolNames[keys[k] - 1].hashCode());
+            int pos = next[reduce(m, bucketCount)]++;
+            sids[pos] = keys[k];
+            mixes[pos] = m;
+        }
+
+        // Place the biggest buckets first, while there's the most room
+        int[] sizeStarts = new int[maxSize + 2];
+        for (int b = 0; b < bucketCount; b++)
+        {
+            int size = bucketStarts[b + 1] - bucketStarts[b];
+            sizeStarts[maxSize - size + 1]++;
+        }
+        for (int n = 0; n <= maxSize; n++)
+        {
+            sizeStarts[n + 1] += sizeStarts[n];
+        }
+        int[] order = new int[bucketCount];
+        for (int b = 0; b < bucketCount; b++)
+        {
+            int size = bucketStarts[b + 1] - bucketStarts[b];
+            order[sizeStarts[maxSize - size]++] = b;
+        }
+
+        boolean[] taken = new boolean[mySlots.length];
+        int[] placed = new int[maxSize];
+        int[] overflow = new int[count];
+        int overflowCount = 0;
+        int nextFree = 0;
+        for (int b : order)
+        {
+            int start = bucketStarts[b];
+            int end = bucketStarts[b + 1];
+
+            // Symbols with equal hash codes can't be told apart by any
+            // displacement, so all but the first of them overflow
+            for (int k = start + 1; k < end; k++)
+            {
+                for (int l = start; l < k; l++)
+                {
+                    if (mixes[k] == mixes[l])
+                    {
+                        overflow[overflowCount++] = sids[k];
+                        end--;
+                        sids[k] = sids[end];
+                        mixes[k] = mixes[end];
+                        k--;
+                        break;
+                    }
+                }
+            }
+
+            int size = end - start;
+            if (size == 0) continue;
+
+            if (size == 1)
+            {
+                while (taken[nextFree]) nextFree++;
+                taken[nextFree] = true;
+                mySlots[nextFree] = sids[start];
+                mySeeds[b] = -(nextFree + 1);
+                continue;
+            }
+
+            int seed = place(mixes, start, end, taken, placed);
+            if (seed < 0)
+            {
+                System.arraycopy(sids, start, overflow, overflowCount, size);
+                overflowCount += size;
+                continue;
+            }
+            mySeeds[b] = seed;
+            for (int k = 0; k < size; k++)
+            {
+                taken[placed[k]] = true;
+                mySlots[placed[k]] = sids[start + k];
+            }
+        }
+
+        // Sort the overflow by hash code, keeping each with its sid
+        long[] hashesAndSids = new long[overflowCount];
+        for (int k = 0; k < overflowCount; k++)
+        {
+            long h = symbolNames[overflow[k] - 1].hashCode();
+            hashesAndSids[k] = (h << 32) | overflow[k];
+        }
+        Arrays.sort(hashesAndSids);
+        myOverflowHashes = new int[overflowCount];
+        myOverflowSids = new int[overflowCount];
+        for (int k = 0; k < overflowCount; k++)
+        {
+            myOverflowHashes[k] = (int) (hashesAndSids[k] >> 32);
+            myOverflowSids[k] = (int) hashesAndSids[k];
+        }
+    }
+
+    /**
+     * Finds a displacement that puts each of a bucket's symbols in a
+     * different free slot.
+     *
+     * @param placed receives the slot of each symbol.
+     *
+     * @return the seed derived from the displacement, or -1 if none was
+     * found.
+     */
+    private int place(int[] mixes, int start, int end, boolean[] taken,
+                      int[] placed)
+    {
+        next_displacement:
+        for (int d = 0; d < MAX_DISPLACEMENT; d++)
+        {
+            int seed = seedOf(d);
+            for (int k = start; k < end; k++)
+            {
+                int slot = slotOf(mixes[k], seed, mySlots.length);
+                if (taken[slot]) continue next_displacement;
+                for (int l = 0; l < k - start; l++)
+                {
+                    if (placed[l] == slot) continue next_displacement;
+                }
+                placed[k - start] = slot;
+            }
+            return seed;
+        }
+        return -1;
+    }
+
+
+    /**
+     * Returns the index of a shared symbol table, building one if the table
+     * doesn't have one already.
+     *
+     * @param table must be a shared table.
+     *
+     * @throws IllegalArgumentException if the table isn't shared.
+     */
+    public static PrivateSymbolIndex of(SymbolTable table)
+    {
+        if (table instanceof SharedSymbolTable)
+        {
+            return ((SharedSymbolTable) table).getSymbolIndex();
+        }
+        if (! table.isSharedTable())
+        {
+            throw new IllegalArgumentException("table is not shared: " + table);
+        }
+
+        List<String> names = new ArrayList<String>(table.getMaxId());
+        Iterator<String> iter = table.iterateDeclaredSymbolNames();
+        while (iter.hasNext())
+        {
+            names.add(iter.next());
+        }
+        return new PrivateSymbolIndex(names.toArray(new String[names.size()]));
+    }
+
+
+    /** Spreads the bits of a hash code cheaply. */
+    private static int mix(int h)
+    {
+        h *= 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    /** Maps a 32-bit value onto [0, n) without division. */
+    private static int reduce(int h, int n)
+    {
+        return (int) (((h & 0xFFFFFFFFL) * n) >>> 32);
+    }
+
+    /** @return a seed for {@link #slotOf}, which is never negative. */
+    private static int seedOf(int displacement)
+    {
+        return (displacement * 0x9E3779B9) >>> 1;
+    }
+
+    private static int slotOf(int m, int seed, int slotCount)
+    {
+        // The shift keeps symbols in a bucket from landing at the same
+        // offsets from each other whatever the seed
+        int x = (m ^ seed) * 0x85EBCA6B;
+        x ^= x >>> 15;
+        return reduce(x * 0xC2B2AE35, slotCount);
+    }
+
+    /** @return the sid in the text's slot, which may hold other text. */
+    private int candidate(int h)
+    {
+        int m = mix(h);
+        int seed = mySeeds[reduce(m, mySeeds.length)];
+        int slot = (seed < 0 ? -(seed + 1) : slotOf(m, seed, mySlots.length));
+        return mySlots[slot];
+    }
+
+    /**
+     * @return the position of the first overflowing symbol with the hash,
+     * or -1 if there's none.
+     */
+    private int firstOverflow(int h)
+    {
+        if (myOverflowHashes.length == 0) return -1;
+
+        int i = Arrays.binarySearch(myOverflowHashes, h);
+        if (i < 0) return -1;
+        while (i > 0 && myOverflowHashes[i - 1] == h) i--;
+        return i;
+    }
+
+
+    /**
+     * Returns the number of symbol IDs declared by the indexed table.
+     */
+    public int getMaxId()
+    {
+        return mySymbolNames.length;
+    }
+
+    /**
+     * Finds the text of a symbol.
+     *
+     * @return null if the sid isn't declared, or its text is unknown.
+     */
+    public String findKnownSymbol(int sid)
+    {
+        if (sid < 1 || sid > mySymbolNames.length) return null;
+        return mySymbolNames[sid - 1];
+    }
+
+    /**
+     * Finds the lowest sid of a symbol.
+     *
+     * @return the sid, or {@link SymbolTable#UNKNOWN_SYMBOL_ID} if the
+     * text isn't declared.
+     */
+    public int findSymbol(String text)
+    {
+        int h = text.hashCode();
+        int sid = candidate(h);
+        if (sid != 0 && text.equals(mySymbolNames[sid - 1]))
+        {
+            return sid;
+        }
+
+        for (int i = firstOverflow(h);
+             i >= 0 && i < myOverflowHashes.length && myOverflowHashes[i] == h;
+             i++)
+        {
+            sid = myOverflowSids[i];
+            if (text.equals(mySymbolNames[sid - 1])) return sid;
+        }
+        return UNKNOWN_SYMBOL_ID;
+    }
+
+    /**
+     * Finds the lowest sid of a symbol.
+     *
+     * @return the sid, or {@link SymbolTable#UNKNOWN_SYMBOL_ID} if the
+     * text isn't declared.
+     */
+    public int findSymbol(CharSequence text)
+    {
+        if (text instanceof String)
+        {
+            return findSymbol((String) text);
+        }
+
+        int length = text.length();
+        int h = 0;
+        for (int i = 0; i < length; i++)
+        {
+            h = 31 * h + text.charAt(i);
+        }
+
+        int sid = candidate(h);
+        if (sid != 0 && contentEquals(mySymbolNames[sid - 1], text))
+        {
+            return sid;
+        }
+
+        for (int i = firstOverflow(h);
+             i >= 0 && i < myOverflowHashes.length && myOverflowHashes[i] == h;
+             i++)
+        {
+            sid = myOverflowSids[i];
+            if (contentEquals(mySymbolNames[sid - 1], text)) return sid;
+        }
+        return UNKNOWN_SYMBOL_ID;
+    }
+
+    private static boolean contentEquals(String symbol, CharSequence text)
+    {
+        int length = text.length();
+        if (symbol.length() != length) return false;
+        for (int i = 0; i < length; i++)
+        {
+            if (symbol.charAt(i) != text.charAt(i)) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Finds the lowest sid of a symbol from its UTF-8 encoding.
+     *
+     * @return the sid, or {@link SymbolTable#UNKNOWN_SYMBOL_ID} if the
+     * text isn't declared or isn't valid UTF-8.
+     */
+    public int findSymbol(byte[] utf8, int offset, int length)
+    {
+        // hash the UTF-16 code units, as String.hashCode() does
+        int h = 0;
+        int end = offset + length;
+        for (int i = offset; i < end; )
+        {
+            int c = utf8[i] & 0xFF;
+            int n = sequenceLength(c);
+            if (n == 0 || i + n > end) return UNKNOWN_SYMBOL_ID;
+            int cp = decode(utf8, i, n);
+            if (cp < 0) return UNKNOWN_SYMBOL_ID;
+            if (cp < 0x10000)
+            {
+                h = 31 * h + cp;
+            }
+            else
+            {
+                h = 31 * h + Character.highSurrogate(cp);
+                h = 31 * h + Character.lowSurrogate(cp);
+            }
+            i += n;
+        }
+
+        int sid = candidate(h);
+        if (sid != 0 && utf8Equals(mySymbolNames[sid - 1], utf8, offset, end))
+        {
+            return sid;
+        }
+
+        for (int i = firstOverflow(h);
+             i >= 0 && i < myOverflowHashes.length && myOverflowHashes[i] == h;
+             i++)
+        {
+            sid = myOverflowSids[i];
+            if (utf8Equals(mySymbolNames[sid - 1], utf8, offset, end))
+            {
+                return sid;
+            }
+        }
+        return UNKNOWN_SYMBOL_ID;
+    }
+
+    /**
+     * @return the length of the UTF-8 sequence starting with a byte, or 0
+     * if the byte can't start one.
+     */
+    private static int sequenceLength(int c)
+    {
+        if (c < 0x80) return 1;
+        if (c < 0xC2) return 0;
+        if (c < 0xE0) return 2;
+        if (c < 0xF0) return 3;
+        if (c < 0xF5) return 4;
+        return 0;
+    }
+
+    /**
+     * @return the code point of a well-formed UTF-8 sequence, or -1.
+     */
+    private static int decode(byte[] utf8, int i, int n)
+    {
+        int c = utf8[i] & 0xFF;
+        if (n == 1) return c;
+
+        int cp = c & (0x7F >> n);
+        for (int k = 1; k < n; k++)
+        {
+            int b = utf8[i + k] & 0xFF;
+            if ((b & 0xC0) != 0x80) return -1;
+            cp = (cp << 6) | (b & 0x3F);
+        }
+
+        // reject overlong encodings, surrogates and out-of-range values
+        if (n == 3 && (cp < 0x800 || (cp >= 0xD800 && cp <= 0xDFFF))) return -1;
+        if (n == 4 && (cp < 0x10000 || cp > 0x10FFFF)) return -1;
+        return cp;
+    }
+
+    /** Compares a symbol with well-formed UTF-8 data. */
+    private static boolean utf8Equals(String symbol, byte[] utf8, int i, int end)
+    {
+        int j = 0;
+        int symbolLength = symbol.length();
+        while (i < end)
+        {
+            int n = sequenceLength(utf8[i] & 0xFF);
+            int cp = decode(utf8, i, n);
+            if (cp < 0x10000)
+            {
+                if (j >= symbolLength || symbol.charAt(j++) != cp) return false;
+            }
+            else
+            {
+                if (j + 1 >= symbolLength
+                    || symbol.charAt(j++) != Character.highSurrogate(cp)
+                    || symbol.charAt(j++) != Character.lowSurrogate(cp))
+                {
+                    return false;
+                }
+            }
+            i += n;
+        }
+        return j == symbolLength;
+    }
+}
@@ -33,6 +33,7 @@ import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.PushbackInputStream;
+import java.math.BigDecimal;
 import java.nio.ByteBuffer;
 import java.nio.CharBuffer;
 import java.nio.charset.CharacterCodingException;
@@ -53,6 +54,7 @@ import software.amazon.ion.IonStruct;
 import software.amazon.ion.IonSystem;
 import software.amazon.ion.IonType;
 import software.amazon.ion.IonValue;
+import software.amazon.ion.Span;
 import software.amazon.ion.SubstituteSymbolTableException;
 import software.amazon.ion.SymbolTable;
 import software.amazon.ion.SymbolToken;
@@ -609,6 +611,21 @@ public final class PrivateUtils
     }
 
 
+    /**
+     * Returns a span covering everything from the start of {@code first}
+     * through the end of {@code last}, in the symbol table context of
+     * {@code first}.  Both spans must come from binary readers over the same
+     * data, positioned on top-level values.
+     *
+     * @throws IllegalArgumentException if either span isn't from a binary
+     * reader, or if {@code last} precedes {@code first}.
+     */
+    public static Span binarySpanThrough(Span first, Span last)
+    {
+        return IonReaderBinaryUserX.spanThrough(first, last);
+    }
+
+
     public static boolean streamIsIonBinary(PushbackInputStream pushback)
         throws IonException, IOException
     {
@@ -1158,6 +1175,171 @@ public final class PrivateUtils
     }
 
 
+    //========================================================================
+    // Timestamps
+
+
+    /** Powers of ten up to the nanosecond digits of a fraction of a second. */
+    private static final long[] POWERS_OF_TEN = {
+        1L, 10L, 100L, 1000L, 10000L, 100000L, 1000000L, 10000000L,
+        100000000L, 1000000000L,
+    };
+
+    /**
+     * Fractions of a second with one to three digits, indexed by the number
+     * of digits and then by their value, so that millisecond timestamps
+     * needn't construct their fractions.
+     */
+    private static final BigDecimal[][] SECOND_FRACTIONS = new BigDecimal[4][];
+
+    static
+    {
+        for (int scale = 1; scale <= 3; scale++)
+        {
+            BigDecimal[] fractions = new BigDecimal[(int) POWERS_OF_TEN[scale]];
+            for (int i = 0; i < fractions.length; i++)
+            {
+                fractions[i] = BigDecimal.valueOf(i, scale);
+            }
+            SECOND_FRACTIONS[scale] = fractions;
+        }
+    }
+
+    /**
+     * Local offsets that are whole quarter hours, which covers every offset
+     * in use, from -24:00 to +24:00.
+     */
+    private static final Integer[] QUARTER_HOUR_OFFSETS = new Integer[193];
+
+    static
+    {
+        for (int i = 0; i < QUARTER_HOUR_OFFSETS.length; i++)
+        {
+            QUARTER_HOUR_OFFSETS[i] = Integer.valueOf((i - 96) * 15);
+        }
+    }
+
+    /**
+     * Returns the fraction of a second with the given coefficient and scale,
+     * which is shared when it has one to three digits.
+     */
+    public static BigDecimal fractionOfSecond(long coefficient, int scale)
+    {
+        if (scale >= 1 && scale <= 3
+            && coefficient >= 0 && coefficient < POWERS_OF_TEN[scale])
+        {
+            return SECOND_FRACTIONS[scale][(int) coefficient];
+        }
+        return BigDecimal.valueOf(coefficient, scale);
+    }
+
+    /**
+     * Returns the boxed local offset, which is shared when it's a whole
+     * number of quarter hours.
+     *
+     * @param minutes the local offset from UTC, in minutes.
+     */
+    public static Integer localOffset(int minutes)
+    {
+        if (minutes % 15 == 0 && minutes >= -24 * 60 && minutes <= 24 * 60)
+        {
+            return QUARTER_HOUR_OFFSETS[minutes / 15 + 96];
+        }
+        return Integer.valueOf(minutes);
+    }
+
+    /**
+     * Returns the digits of a fraction of a second with one to nine digits,
+     * without constructing anything.
+     *
+     * @param fraction must be in the range [0, 1), with a scale of one to
+     * nine.
+     */
+    public static long fractionDigits(BigDecimal fraction)
+    {
+        int scale = fraction.scale();
+        assert scale >= 1 && scale <= 9;
+        // the double is within an ulp of the exact quotient, so the
+        // digits are the nearest whole number
+        return Math.round(fraction.doubleValue() * POWERS_OF_TEN[scale]);
+    }
+
+    /**
+     * Returns the whole milliseconds in a fraction of a second.
+     *
+     * @param fraction must be in the range [0, 1); may be null.
+     */
+    public static int fractionMillis(BigDecimal fraction)
+    {
+        if (fraction == null)
+        {
+            return 0;
+        }
+        int scale = fraction.scale();
+        if (scale >= 1 && scale <= 9)
+        {
+            long digits = fractionDigits(fraction);
+            return (int) (scale <= 3
+                ? digits * POWERS_OF_TEN[3 - scale]
+                : digits / POWERS_OF_TEN[scale - 3]);
+        }
+        return fraction.movePointRight(3).intValue();
+    }
+
+    /**
+     * Returns the number of days in the month, in the Gregorian calendar.
+     *
+     * @param month from 1 to 12.
+     */
+    public static int lastDayOfMonth(int year, int month)
+    {
+        if (month == 2)
+        {
+            boolean isLeap = (year % 4 == 0)
+                && (year % 100 != 0 || year % 400 == 0);
+            return isLeap ? 29 : 28;
+        }
+        return (month == 4 || month == 6 || month == 9 || month == 11) ? 30 : 31;
+    }
+
+    /** The first year that's entirely Gregorian in {@link java.util.Date}. */
+    private static final int FIRST_GREGORIAN_YEAR = 1583;
+
+    /**
+     * Returns the milliseconds from the epoch to the given time in UTC,
+     * ignoring leap seconds, as {@link java.util.Date#UTC} does.  Dates from
+     * 1583 on are computed directly; earlier ones are left to
+     * {@link java.util.Date}, which uses the Julian calendar for them.
+     *
+     * @param fraction must be in the range [0, 1); may be null.
+     */
+    @SuppressWarnings("deprecation")
+    public static long utcMillis(int year, int month, int day,
+                                 int hour, int minute, int second,
+                                 BigDecimal fraction)
+    {
+        long millis;
+        if (year >= FIRST_GREGORIAN_YEAR)
+        {
+            // days from the civil date, counting years from March so that
+            // the leap day comes last
+            int y = (month <= 2) ? year - 1 : year;
+            int era = y / 400;
+            int yearOfEra = y - era * 400;
+            int dayOfYear = (153 * (month + (month > 2 ? -3 : 9)) + 2) / 5 + day - 1;
+            int dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+            long days = era * 146097L + dayOfEra - 719468;
+            millis = ((days * 24 + hour) * 60 + minute) * 60000L + second * 1000L;
+        }
+        else
+        {
+            millis = java.util.Date.UTC(year - 1900, month - 1, day,
+                                        hour, minute, second);
+        }
+        return millis + fractionMillis(fraction);
+    }
+
+
     //========================================================================
 
 
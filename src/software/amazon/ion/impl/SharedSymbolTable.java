@@ -73,15 +73,8 @@ final class SharedSymbolTable
     private static final SymbolTable ION_1_0_SYSTEM_SYMTAB;
     static
     {
-        Map<String, Integer> systemSymbolsMap = new HashMap<String, Integer>();
-
-        for (int i = 0; i < SYSTEM_SYMBOLS.length; i++)
-        {
-            systemSymbolsMap.put(SYSTEM_SYMBOLS[i], i+1);
-        }
-
         ION_1_0_SYSTEM_SYMTAB =
-            new SharedSymbolTable(ION, 1, SYSTEM_SYMBOLS, systemSymbolsMap);
+            new SharedSymbolTable(ION, 1, SYSTEM_SYMBOLS);
     }
 
     /**
@@ -106,35 +99,29 @@ final class SharedSymbolTable
     private final String[]                      mySymbolNames;
 
     /**
-     * Map of symbol names to symbol ids of declared symbols.
+     * Index of symbol names to symbol ids of declared symbols.
      */
-    private final Map<String, Integer>          mySymbolsMap;
+    private final PrivateSymbolIndex            mySymbolIndex;
 
     //==========================================================================
     // Private constructor(s) and static factory methods
     //==========================================================================
 
     private SharedSymbolTable(String name, int version,
-                              List<String> symbolsList,
-                              Map<String, Integer> symbolsMap)
+                              List<String> symbolsList)
     {
-        myName          = name;
-        myVersion       = version;
-        mySymbolsMap    = symbolsMap;
-
         // Construct primitive fixed-length array from the passed-in List
-        mySymbolNames   = symbolsList.toArray(new String[symbolsList.size()]);
+        this(name, version,
+             symbolsList.toArray(new String[symbolsList.size()]));
     }
 
     private SharedSymbolTable(String name, int version,
-                              String[] symbolNames,
-                              Map<String, Integer> symbolsMap)
+                              String[] symbolNames)
     {
         myName          = name;
         myVersion       = version;
-        mySymbolsMap    = symbolsMap;
-
         mySymbolNames   = symbolNames;
+        mySymbolIndex   = new PrivateSymbolIndex(symbolNames);
     }
 
     /**
@@ -173,7 +160,7 @@ final class SharedSymbolTable
         prepSymbolsListAndMap(priorSymtab, symbols, symbolsList, symbolsMap);
 
         // We have all necessary data, pass it over to the private constructor.
-        return new SharedSymbolTable(name, version, symbolsList, symbolsMap);
+        return new SharedSymbolTable(name, version, symbolsList);
     }
 
     /**
@@ -302,20 +289,9 @@ final class SharedSymbolTable
         // least 1, treat it as 1.
         version = (version < 1) ? 1 : version;
 
-        Map<String, Integer> symbolsMap = null;
-        if (! symbolsList.isEmpty())
-        {
-            symbolsMap = new HashMap<String, Integer>();
-            transferNonExistingSymbols(symbolsList, symbolsMap);
-        }
-        else
-        {
-            // Empty Map is more efficient than an empty HashMap
-            symbolsMap = Collections.emptyMap();
-        }
-
         // We have all necessary data, pass it over to the private constructor.
-        return new SharedSymbolTable(name, version, symbolsList, symbolsMap);
+        // The index keeps the lowest sid of any duplicate symbol text.
+        return new SharedSymbolTable(name, version, symbolsList);
     }
 
     /**
@@ -407,28 +383,6 @@ final class SharedSymbolTable
         }
     }
 
-    /**
-     * Transfer symbols from {@code symbolsList} to {@code symbolsMap} that
-     * doesn't already exist in the map.
-     */
-    private static void
-    transferNonExistingSymbols(List<String> symbolsList,
-                               Map<String, Integer> symbolsMap)
-    {
-        int sid = 1;
-        for (String text : symbolsList)
-        {
-            assert text == null || text.length() > 0;
-
-            if (text != null)
-            {
-                putToMapIfNotThere(symbolsMap, text, sid);
-            }
-
-            sid++;
-        }
-    }
-
     //==========================================================================
     // Public methods
     //==========================================================================
@@ -512,6 +466,15 @@ final class SharedSymbolTable
         return mySymbolNames.length;
     }
 
+    /**
+     * Returns the index of this table's declared symbols, which can be
+     * used to look them up without allocating.
+     */
+    PrivateSymbolIndex getSymbolIndex()
+    {
+        return mySymbolIndex;
+    }
+
     public SymbolToken intern(String text)
     {
         SymbolToken symTok = find(text);
@@ -527,11 +490,9 @@ final class SharedSymbolTable
     {
         text.getClass(); // fast null check
 
-        Integer sid = mySymbolsMap.get(text);
-        if (sid != null)
+        int sid = mySymbolIndex.findSymbol(text);
+        if (sid != UNKNOWN_SYMBOL_ID)
         {
-            assert sid != UNKNOWN_SYMBOL_ID;
-
             int offset = sid - 1;
             String internedText = mySymbolNames[offset];
 
@@ -545,13 +506,7 @@ final class SharedSymbolTable
 
     public int findSymbol(String name)
     {
-        Integer sid = mySymbolsMap.get(name);
-        if (sid != null)
-        {
-            return sid;
-        }
-
-        return UNKNOWN_SYMBOL_ID;
+        return mySymbolIndex.findSymbol(name);
     }
 
     public String findKnownSymbol(int id)
@@ -17,6 +17,7 @@ package software.amazon.ion.impl;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.Reader;
+import java.nio.ByteBuffer;
 
 /**
  * this base class and it's two children (below) manage
@@ -96,6 +97,29 @@ abstract class UnifiedDataPageX
         return read;
     }
 
+    /**
+     * Copies as many of the remaining bytes of {@code buffer} as fit into
+     * this page, advancing the buffer's position past them.
+     */
+    int load(ByteBuffer buffer, int start_offset, long file_position)
+    {
+        if (!isBytes()) {
+            throw new UnsupportedOperationException("character pages can't load bytes");
+        }
+        int read = _bytes.length - start_offset;
+        if (read > buffer.remaining()) {
+            read = buffer.remaining();
+        }
+        buffer.get(_bytes, start_offset, read);
+        if (read > 0) {
+            _base_offset = start_offset;
+            _unread_count = 0;
+            _page_limit = start_offset + read;
+            setFilePosition(file_position, start_offset);
+        }
+        return read;
+    }
+
     public int getBufferLimit()    { return _page_limit; }
     public int getOriginalStartingOffset() { return _base_offset; }
 
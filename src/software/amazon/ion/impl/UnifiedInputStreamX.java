@@ -18,6 +18,9 @@ import java.io.Closeable;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
 import software.amazon.ion.impl.IonReaderTextRawTokensX.IonReaderTextTokenException;
 import software.amazon.ion.impl.UnifiedSavePointManagerX.SavePoint;
 
@@ -57,6 +60,9 @@ abstract class UnifiedInputStreamX
     private static final boolean _debug = false;
             static final int     UNREAD_LIMIT = 10;
 
+    /** The largest region of a file that is mapped into memory at once. */
+    static final int     DEFAULT_MAPPED_WINDOW_SIZE = 256*1024*1024;
+
     static int DEFAULT_PAGE_SIZE;
     static {
         if (_debug) {
@@ -116,6 +122,18 @@ abstract class UnifiedInputStreamX
     public static UnifiedInputStreamX makeStream(InputStream stream) throws IOException {
         return new FromByteStream(stream);
     }
+    public static UnifiedInputStreamX makeStream(FileChannel channel) throws IOException {
+        return new FromFileChannel(channel, DEFAULT_MAPPED_WINDOW_SIZE);
+    }
+    static UnifiedInputStreamX makeStream(FileChannel channel, int windowSize) throws IOException {
+        return new FromFileChannel(channel, windowSize);
+    }
+    public static UnifiedInputStreamX makeStream(ByteBuffer buffer) throws IOException {
+        if (buffer.hasArray()) {
+            return new FromHeapByteBuffer(buffer);
+        }
+        return new FromByteBuffer(buffer);
+    }
     public final InputStream getInputStream() { return _stream; }
     public final Reader      getReader()      { return _reader; }
     public final byte[]      getByteArray()   { return _bytes; }
@@ -344,6 +362,9 @@ abstract class UnifiedInputStreamX
                 _pos += ready;
                 remaining -= ready;
                 if (remaining > 0) {
+                    // sources that can reposition themselves don't
+                    // need the skipped bytes to be paged in
+                    remaining -= skip_input(remaining);
                     if (refill_helper()) {
                         break;
                     }
@@ -447,7 +468,8 @@ abstract class UnifiedInputStreamX
             curr = _buffer.getCurrentPage();
             boolean needs_new_page = (curr == null);
             new_idx = _buffer.getCurrentPageIdx();
-            if (_save_points.isSavePointOpen()) {
+            if (_eof
+                || _save_points.isSavePointOpen()) {
                 new_idx++;
                 needs_new_page = true;
             }
@@ -489,7 +511,7 @@ abstract class UnifiedInputStreamX
         assert(isEOF() ^ (_limit > 0));  // xor: either we're at eof or we have data to read
         return _limit;
     }
-    private void set_current_page(int new_page_idx, UnifiedDataPageX new_page, int pos)
+    final void set_current_page(int new_page_idx, UnifiedDataPageX new_page, int pos)
     {
         assert(new_page != null && new_page_idx >= 0 && new_page_idx <= _buffer.getPageCount() + 1);
 
@@ -506,7 +528,7 @@ abstract class UnifiedInputStreamX
 
         return;
     }
-    private int refill_is_eof() {
+    final int refill_is_eof() {
         _eof = true;
         _limit = -1;
         return _limit;
@@ -516,7 +538,22 @@ abstract class UnifiedInputStreamX
         return _is_stream;
     }
 
-    protected final int load(UnifiedDataPageX curr, int start_pos, long file_position) throws IOException
+    /**
+     * Advances past bytes that have not yet been loaded into a page, without
+     * loading them.  This is only called once the current page has been
+     * consumed, and the next {@link #refill()} will load from the resulting
+     * position.  Sources that can't reposition themselves return zero, in
+     * which case the caller pages through the skipped bytes instead.
+     *
+     * @param distance the number of bytes the caller needs to skip.
+     * @return the number of bytes skipped, at most {@code distance}.
+     */
+    protected int skip_input(int distance) throws IOException
+    {
+        return 0;
+    }
+
+    protected int load(UnifiedDataPageX curr, int start_pos, long file_position) throws IOException
     {
         int read = 0;
         if (can_fill_new_page()) {
@@ -591,6 +628,19 @@ static class FromByteArray extends UnifiedInputStreamX
             make_page_current(curr, 0, offset, offset+length);
             super.init();
         }
+
+        /**
+         * Replaces the data of this stream, as if it had just been
+         * constructed over the new data.  The caller must ensure that no
+         * save points are active.
+         */
+        final void reset(byte[] bytes, int offset, int length)
+        {
+            // the save point manager shares the page buffer, so it's kept
+            UnifiedDataPageX curr = new UnifiedDataPageX.Bytes(bytes, offset, length);
+            _buffer.setPage(0, curr, false);
+            make_page_current(curr, 0, offset, offset+length);
+        }
     }
 
     private static class FromByteStream extends UnifiedInputStreamX
@@ -613,4 +663,230 @@ static class FromByteArray extends UnifiedInputStreamX
             _stream.close();
         }
     }
+
+    /**
+     * Base class for byte sources that can be read from any position.  Pages
+     * are filled with bulk copies from the source, and skipped data is never
+     * copied (or even touched) unless a save point needs it.  Since the
+     * source is random access these streams also support {@link #seek}.
+     * <p>
+     * Stream positions are relative to the start of the input, which is not
+     * necessarily the start of the underlying source.
+     */
+    abstract static class FromRandomAccessBytes extends UnifiedInputStreamX
+    {
+        /** The length of the input. */
+        final long        _input_size;
+        /** The stream position at which the source reports EOF. */
+        long              _input_limit;
+
+        FromRandomAccessBytes(long inputSize)
+        {
+            _is_byte_data = true;
+            _is_stream = true;
+            _input_size = inputSize;
+            _input_limit = inputSize;
+            _buffer = UnifiedInputBufferX.makePageBuffer(UnifiedInputBufferX.BufferType.BYTES, DEFAULT_PAGE_SIZE);
+            super.init();
+        }
+
+        /**
+         * Returns a buffer positioned at {@code position} whose limit is no
+         * greater than {@link #_input_limit}.
+         */
+        abstract ByteBuffer source(long position) throws IOException;
+
+        /**
+         * Discards all buffered data and repositions this stream so that it
+         * reads from {@code position} up to, but not including,
+         * {@code limit}.  The caller is responsible for releasing any save
+         * points.
+         */
+        void seek(long position, long limit) throws IOException
+        {
+            if (position < 0 || position > limit || limit > _input_size) {
+                throw new IllegalArgumentException("invalid position: " + position + " to " + limit);
+            }
+            _input_limit = limit;
+            _buffer.clear();
+
+            UnifiedDataPageX curr = _buffer.getCurrentPage();
+            if (curr == null) {
+                curr = _buffer.getEmptyPageIdx();
+            }
+            int start_pos = (position == 0) ? 0 : UNREAD_LIMIT;
+            int read = load(curr, start_pos, position);
+            if (read < 1) {
+                // leave an empty page so positions are still defined
+                curr.reset(start_pos);
+                curr.setFilePosition(position, start_pos);
+                _buffer.setCurrentPage(0, curr);
+                _pos = start_pos;
+                refill_is_eof();
+            }
+            else {
+                set_current_page(0, curr, start_pos);
+            }
+        }
+
+        @Override
+        protected int skip_input(int distance) throws IOException
+        {
+            // Buffered pages following this one, and save points, both
+            // require the skipped data to be loaded into pages.
+            if (_save_points.isSavePointOpen()
+                || _save_points.savePointActiveTop() != null
+                || _buffer.getCurrentPageIdx() + 1 < _buffer.getPageCount()) {
+                return 0;
+            }
+            long position = _buffer.getCurrentPage().getFilePosition(_pos);
+            long available = _input_limit - position;
+            int skipped = (distance < available) ? distance : (int) available;
+            if (skipped > 0) {
+                _pos += skipped;
+            }
+            return skipped;
+        }
+
+        @Override
+        protected int load(UnifiedDataPageX curr, int start_pos, long file_position) throws IOException
+        {
+            if (file_position >= _input_limit) {
+                return 0;
+            }
+            return curr.load(source(file_position), start_pos, file_position);
+        }
+    }
+
+    /**
+     * Reads a file by mapping it into memory, a window at a time, rather than
+     * through {@link InputStream#read}.
+     * <p>
+     * File positions are relative to the channel's position when this stream
+     * was created.
+     */
+    static final class FromFileChannel extends FromRandomAccessBytes
+    {
+        private final FileChannel _channel;
+        private final long        _channel_start;
+        private final int         _window_size;
+
+        private MappedByteBuffer  _window;
+        /** The stream position of the start of {@link #_window}. */
+        private long              _window_start;
+
+        FromFileChannel(FileChannel channel, int windowSize) throws IOException
+        {
+            super(channel.size() - channel.position());
+            if (windowSize < 1) {
+                throw new IllegalArgumentException("window size must be > 0");
+            }
+            _channel = channel;
+            _channel_start = channel.position();
+            _window_size = windowSize;
+            _limit = refill();
+        }
+
+        /**
+         * Returns a mapping positioned at {@code position} and limited to the
+         * end of the input, remapping if the current window doesn't contain
+         * that position.
+         */
+        @Override
+        ByteBuffer source(long position) throws IOException
+        {
+            if (_window == null
+                || position < _window_start
+                || position >= _window_start + _window.capacity()) {
+                long size = _input_size - position;
+                if (size > _window_size) {
+                    size = _window_size;
+                }
+                _window = _channel.map(FileChannel.MapMode.READ_ONLY,
+                                       _channel_start + position,
+                                       size);
+                _window_start = position;
+            }
+            long limit = _input_limit - _window_start;
+            if (limit > _window.capacity()) {
+                limit = _window.capacity();
+            }
+            _window.limit((int) limit);
+            _window.position((int) (position - _window_start));
+            return _window;
+        }
+
+        @Override
+        public void close()
+            throws IOException
+        {
+            super.close();
+            // The mapping is released when it's garbage collected.
+            _window = null;
+            _channel.close();
+        }
+    }
+
+    /**
+     * Reads the remaining bytes of a {@link ByteBuffer} that has no
+     * accessible backing array, typically a direct buffer.  The caller's
+     * position and limit are left untouched, and the buffer is released when
+     * this stream is closed.
+     */
+    static final class FromByteBuffer extends FromRandomAccessBytes
+    {
+        private final int   _source_start;
+        private ByteBuffer  _source;
+
+        FromByteBuffer(ByteBuffer buffer) throws IOException
+        {
+            super(buffer.remaining());
+            _source = buffer.duplicate();
+            _source_start = buffer.position();
+            _limit = refill();
+        }
+
+        @Override
+        ByteBuffer source(long position) throws IOException
+        {
+            if (_source == null) {
+                throw new IOException("stream is closed");
+            }
+            _source.limit(_source_start + (int) _input_limit);
+            _source.position(_source_start + (int) position);
+            return _source;
+        }
+
+        @Override
+        public void close()
+            throws IOException
+        {
+            super.close();
+            _source = null;
+        }
+    }
+
+    /**
+     * Reads the remaining bytes of a heap {@link ByteBuffer} in place, from
+     * its backing array.  The array is released when this stream is closed.
+     */
+    static final class FromHeapByteBuffer extends FromByteArray
+    {
+        FromHeapByteBuffer(ByteBuffer buffer)
+        {
+            super(buffer.array(),
+                  buffer.arrayOffset() + buffer.position(),
+                  buffer.remaining());
+        }
+
+        @Override
+        public void close()
+            throws IOException
+        {
+            super.close();
+            // The page buffer keeps its current page, which wraps the array.
+            _buffer = UnifiedInputBufferX.makePageBuffer(UnifiedInputBufferX.BufferType.BYTES, 0);
+            _bytes = null;
+        }
+    }
 }
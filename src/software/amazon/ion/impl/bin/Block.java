@@ -15,24 +15,154 @@
 package software.amazon.ion.impl.bin;
 
 import java.io.Closeable;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
 
 
 /**
  * An abstraction for a block of managed memory.  A {@link Block} is acquired by a caller via
  * {@link BlockAllocator#allocateBlock()} and released by {@link #close()}.
  * <p>
+ * The memory may be on the heap, in which case it is directly accessible as {@link #data}, or direct, in which case
+ * it is only accessible through {@link #buffer}.  Callers should only use absolute accessors on {@link #buffer}, and
+ * may use its position as scratch state for bulk transfers.
+ * <p>
  * This class and its implementations are <b>not</b> thread-safe.
  */
 /*package*/ abstract class Block implements Closeable
 {
-    /** The data backing this block. */
+    /** Where the memory backing a block comes from. */
+    /*package*/ enum Memory
+    {
+        HEAP
+        {
+            @Override
+            ByteBuffer allocate(final int size)
+            {
+                return ByteBuffer.allocate(size);
+            }
+        },
+        DIRECT
+        {
+            @Override
+            ByteBuffer allocate(final int size)
+            {
+                return ByteBuffer.allocateDirect(size);
+            }
+
+            @Override
+            void free(final ByteBuffer buffer)
+            {
+                DirectMemory.free(buffer);
+            }
+        };
+
+        /*package*/ abstract ByteBuffer allocate(int size);
+
+        /**
+         * Releases memory from {@link #allocate(int)} that will never be used again.
+         * By default, this is left to the garbage collector.
+         */
+        /*package*/ void free(final ByteBuffer buffer) {}
+    }
+
+    /**
+     * Frees direct memory eagerly rather than waiting for the garbage collector, which only notices the small heap
+     * object that refers to it.  There is no portable way to do this, so the JDK's internal cleaner is used where
+     * it can be found; elsewhere, freeing is left to the garbage collector.
+     */
+    private static final class DirectMemory
+    {
+        /** {@code sun.misc.Unsafe.invokeCleaner(ByteBuffer)} on Java 9 and later. */
+        private static final Method INVOKE_CLEANER;
+        /** The {@code sun.misc.Unsafe} instance, or {@code null} if unavailable. */
+        private static final Object UNSAFE;
+        /** {@code DirectByteBuffer.cleaner()} on Java 8 and earlier. */
+        private static final Method CLEANER;
+        /** {@code sun.misc.Cleaner.clean()} on Java 8 and earlier. */
+        private static final Method CLEAN;
+
+        static
+        {
+            Method invokeCleaner = null;
+            Object unsafe = null;
+            Method cleaner = null;
+            Method clean = null;
+            try
+            {
+                final Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+                invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+                final Field field = unsafeClass.getDeclaredField("theUnsafe");
+                field.setAccessible(true);
+                unsafe = field.get(null);
+            }
+            catch (final Throwable e)
+            {
+                invokeCleaner = null;
+                unsafe = null;
+                try
+                {
+                    final ByteBuffer probe = ByteBuffer.allocateDirect(1);
+                    cleaner = probe.getClass().getMethod("cleaner");
+                    cleaner.setAccessible(true);
+                    clean = cleaner.getReturnType().getMethod("clean");
+                    clean.setAccessible(true);
+                    clean.invoke(cleaner.invoke(probe));
+                }
+                catch (final Throwable e2)
+                {
+                    cleaner = null;
+                    clean = null;
+                }
+            }
+            INVOKE_CLEANER = invokeCleaner;
+            UNSAFE = unsafe;
+            CLEANER = cleaner;
+            CLEAN = clean;
+        }
+
+        /** Frees a direct buffer that is not a slice or duplicate, and that must never be accessed again. */
+        static void free(final ByteBuffer buffer)
+        {
+            try
+            {
+                if (INVOKE_CLEANER != null)
+                {
+                    INVOKE_CLEANER.invoke(UNSAFE, buffer);
+                }
+                else if (CLEANER != null)
+                {
+                    final Object cleaner = CLEANER.invoke(buffer);
+                    if (cleaner != null)
+                    {
+                        CLEAN.invoke(cleaner);
+                    }
+                }
+            }
+            catch (final Throwable e)
+            {
+                // leave it to the garbage collector
+            }
+        }
+    }
+
+    /** The data backing this block, or {@code null} if the block is not backed by a heap array. */
     public final byte[] data;
+    /** The memory backing this block, which wraps {@link #data} for heap blocks. */
+    public final ByteBuffer buffer;
     /** The first index for which data has not been written to or read from. */
     public int limit;
 
     /*package*/ Block(final byte[] data)
     {
-        this.data = data;
+        this(ByteBuffer.wrap(data));
+    }
+
+    /*package*/ Block(final ByteBuffer buffer)
+    {
+        this.data = buffer.hasArray() && buffer.arrayOffset() == 0 ? buffer.array() : null;
+        this.buffer = buffer;
         this.limit = 0;
     }
 
@@ -42,16 +172,49 @@ import java.io.Closeable;
         limit = 0;
     }
 
-    /** Returns the unused amount of bytes from the limit to the capacity of the data array. */
+    /** Returns the unused amount of bytes from the limit to the capacity of the block. */
     public final int remaining()
     {
-        return data.length - limit;
+        return buffer.capacity() - limit;
     }
 
-    /** Returns the underlying data array's capacity. */
+    /** Returns the block's capacity. */
     public final int capacity()
     {
-        return data.length;
+        return buffer.capacity();
+    }
+
+    /** Returns the octet at the given index. */
+    public final byte get(final int index)
+    {
+        return data != null ? data[index] : buffer.get(index);
+    }
+
+    /** Sets the octet at the given index. */
+    public final void put(final int index, final byte octet)
+    {
+        if (data != null)
+        {
+            data[index] = octet;
+        }
+        else
+        {
+            buffer.put(index, octet);
+        }
+    }
+
+    /** Copies octets into the block starting at the given index. */
+    public final void put(final int index, final byte[] bytes, final int off, final int len)
+    {
+        if (data != null)
+        {
+            System.arraycopy(bytes, off, data, index, len);
+        }
+        else
+        {
+            buffer.position(index);
+            buffer.put(bytes, off, len);
+        }
     }
 
     /**
@@ -0,0 +1,138 @@
+/*
+ * Copyright 2017 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at:
+ *
+ *     http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+
+package software.amazon.ion.impl.bin;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.GatheringByteChannel;
+import java.nio.channels.IllegalBlockingModeException;
+import java.nio.channels.SelectableChannel;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * An {@link OutputStream} that forwards to a {@link GatheringByteChannel} without copying.
+ * <p>
+ * Written arrays are wrapped rather than copied, and are handed to the channel in a single gathering write on
+ * {@link #flush()}.  Callers <b>must not</b> modify an array passed to {@link #write(byte[], int, int)} until the
+ * stream has been flushed--the {@link IonRawBinaryWriter} guarantees this by flushing before its blocks are reset.
+ * <p>
+ * The channel must be in blocking mode, since {@link #flush()} must write everything before it returns.
+ * A {@link SelectableChannel} in non-blocking mode is rejected, and a write that makes no progress fails.
+ * <p>
+ * This class is <b>not</b> thread-safe.
+ */
+/*package*/ final class GatheringOutputStream extends OutputStream
+{
+    private final GatheringByteChannel channel;
+    private final List<ByteBuffer> pending;
+    private final byte[] singleByte = new byte[1];
+    private boolean singleBytePending;
+
+    /**
+     * @throws IllegalBlockingModeException if the channel is a {@link SelectableChannel} in non-blocking mode.
+     */
+    public GatheringOutputStream(final GatheringByteChannel channel)
+    {
+        if (channel == null) { throw new NullPointerException(); }
+        if (channel instanceof SelectableChannel && !((SelectableChannel) channel).isBlocking())
+        {
+            throw new IllegalBlockingModeException();
+        }
+
+        this.channel = channel;
+        this.pending = new ArrayList<ByteBuffer>();
+    }
+
+    @Override
+    public void write(final int b) throws IOException
+    {
+        if (singleBytePending)
+        {
+            // the scratch byte is still queued, so it can't be overwritten yet
+            flush();
+        }
+        singleByte[0] = (byte) b;
+        singleBytePending = true;
+        pending.add(ByteBuffer.wrap(singleByte));
+    }
+
+    @Override
+    public void write(final byte[] b, final int off, final int len) throws IOException
+    {
+        if (len > 0)
+        {
+            pending.add(ByteBuffer.wrap(b, off, len));
+        }
+    }
+
+    /**
+     * Queues a buffer to be written without copying it.  The buffer's contents <b>must not</b> be modified until
+     * the stream has been flushed.
+     */
+    public void write(final ByteBuffer buffer)
+    {
+        if (buffer.hasRemaining())
+        {
+            pending.add(buffer);
+        }
+    }
+
+    /**
+     * Writes everything queued to the channel.
+     *
+     * @throws IOException if the channel accepts nothing from a write, as a non-blocking channel may.
+     */
+    @Override
+    public void flush() throws IOException
+    {
+        if (pending.isEmpty())
+        {
+            return;
+        }
+        final ByteBuffer[] buffers = pending.toArray(new ByteBuffer[pending.size()]);
+        // the wrappers can't outlive this call since the arrays are about to be reused
+        pending.clear();
+        singleBytePending = false;
+
+        int offset = 0;
+        while (offset < buffers.length)
+        {
+            if (channel.write(buffers, offset, buffers.length - offset) == 0)
+            {
+                // a blocking channel never returns before writing something
+                throw new IOException("Channel accepted no bytes; it must be in blocking mode");
+            }
+            while (offset < buffers.length && !buffers[offset].hasRemaining())
+            {
+                offset++;
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException
+    {
+        try
+        {
+            flush();
+        }
+        finally
+        {
+            channel.close();
+        }
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright 2017 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at:
+ *
+ *     http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+
+package software.amazon.ion.impl.bin;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import software.amazon.ion.IonWriter;
+
+/**
+ * Reuses binary {@link IonWriter}s across streams, for applications that encode many small messages.
+ * <p>
+ * A writer from {@link #newWriter(OutputStream)} behaves just like one constructed by its builder, but closing it
+ * returns it to this pool instead of releasing its buffers.  The next call to {@link #newWriter(OutputStream)} resets
+ * it to write to the new stream: its local symbols, open containers and any pending annotations are discarded, while
+ * its buffers and the builder's import context are kept.  A writer must not be used once it has been closed, since
+ * it may already be writing another stream.
+ * <p>
+ * This class is thread-safe, but each {@link IonWriter} is not, and must only be used by one thread at a time.
+ *
+ * @deprecated This is an internal API that is subject to change without notice.
+ */
+@Deprecated
+public final class IonBinaryWriterPool implements Closeable
+{
+    private final PrivateIonManagedBinaryWriterBuilder builder;
+    private final int maxIdleWriters;
+
+    /** Writers that have been closed, most recently closed last.  Guarded by {@code this}. */
+    private final ArrayDeque<IonManagedBinaryWriter> idle;
+    private boolean closed;
+
+    /*package*/ IonBinaryWriterPool(final PrivateIonManagedBinaryWriterBuilder builder, final int maxIdleWriters)
+    {
+        if (maxIdleWriters < 0)
+        {
+            throw new IllegalArgumentException("maxIdleWriters must not be negative: " + maxIdleWriters);
+        }
+        this.builder = builder.copy();
+        this.maxIdleWriters = maxIdleWriters;
+        this.idle = new ArrayDeque<IonManagedBinaryWriter>();
+    }
+
+    /**
+     * Returns a writer for the given stream, reusing one that has been closed if there is one.
+     * Closing the writer closes the stream.
+     *
+     * @throws IllegalStateException if this pool has been closed.
+     */
+    public IonWriter newWriter(final OutputStream out) throws IOException
+    {
+        if (out == null) { throw new NullPointerException(); }
+
+        final IonManagedBinaryWriter writer;
+        synchronized (this)
+        {
+            if (closed)
+            {
+                throw new IllegalStateException("Cannot get a writer from a closed pool");
+            }
+            // reuse the most recently closed writer, whose blocks are the most likely to still be cached
+            writer = idle.pollLast();
+        }
+
+        if (writer == null)
+        {
+            return new IonManagedBinaryWriter(builder, out, this);
+        }
+        writer.reset(out);
+        return writer;
+    }
+
+    /** Invoked when a writer from this pool is closed. */
+    /*package*/ void release(final IonManagedBinaryWriter writer)
+    {
+        synchronized (this)
+        {
+            if (!closed && idle.size() < maxIdleWriters)
+            {
+                idle.addLast(writer);
+                return;
+            }
+        }
+        writer.free();
+    }
+
+    /** Returns the number of closed writers kept for reuse. */
+    /*package*/ synchronized int getIdleCount()
+    {
+        return idle.size();
+    }
+
+    /**
+     * Releases the buffers of the writers kept for reuse.  Writers that are still open may continue to be used, and
+     * release their buffers when they are closed.
+     */
+    public void close()
+    {
+        final IonManagedBinaryWriter[] writers;
+        synchronized (this)
+        {
+            closed = true;
+            writers = idle.toArray(new IonManagedBinaryWriter[idle.size()]);
+            idle.clear();
+        }
+        for (final IonManagedBinaryWriter writer : writers)
+        {
+            writer.free();
+        }
+    }
+}
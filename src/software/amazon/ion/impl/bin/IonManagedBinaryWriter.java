@@ -32,6 +32,7 @@ import static software.amazon.ion.impl.bin.Symbols.systemSymbols;
 
 import java.io.IOException;
 import java.io.OutputStream;
+import java.nio.channels.GatheringByteChannel;
 import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.util.ArrayList;
@@ -48,6 +49,7 @@ import software.amazon.ion.IonType;
 import software.amazon.ion.SymbolTable;
 import software.amazon.ion.SymbolToken;
 import software.amazon.ion.Timestamp;
+import software.amazon.ion.impl.PrivateSymbolIndex;
 import software.amazon.ion.impl.PrivateUtils;
 import software.amazon.ion.impl.bin.IonRawBinaryWriter.StreamCloseMode;
 import software.amazon.ion.impl.bin.IonRawBinaryWriter.StreamFlushMode;
@@ -87,48 +89,88 @@ import software.amazon.ion.impl.bin.IonRawBinaryWriter.StreamFlushMode;
         }
     }
 
+    /** An imported table's symbol index, with the tokens resolved through it so far. */
+    private static final class IndexedImport
+    {
+        public final PrivateSymbolIndex index;
+        public final int startId;
+
+        /**
+         * Tokens by table-scoped SID minus one, filled in lazily.  Racing threads may each create a token for
+         * the same symbol, which is harmless since the tokens are immutable and equivalent.
+         */
+        private final SymbolToken[] tokens;
+
+        public IndexedImport(final PrivateSymbolIndex index, final int startId)
+        {
+            this.index = index;
+            this.startId = startId;
+            this.tokens = new SymbolToken[index.getMaxId()];
+        }
+
+        public SymbolToken token(final int sid)
+        {
+            SymbolToken token = tokens[sid - 1];
+            if (token == null)
+            {
+                token = symbol(index.findKnownSymbol(sid), startId + sid - 1);
+                tokens[sid - 1] = token;
+            }
+            return token;
+        }
+    }
+
     /** Determines how imported symbols are resolved (including system symbols). */
     /*package*/ enum ImportedSymbolResolverMode
     {
-        /** Symbols are copied into a flat map, this is useful if the context can be reused across builders. */
+        /**
+         * Symbols are resolved through the compiled index of each table, this is useful if the context can be
+         * reused across builders.  The tokens are created on first use and cached.
+         */
         FLAT
         {
             @Override
             /*package*/ SymbolResolverBuilder createBuilder()
             {
-                final Map<String, SymbolToken> symbols = new HashMap<String, SymbolToken>();
+                final Map<String, SymbolToken> systemTokens = new HashMap<String, SymbolToken>();
 
                 // add in system tokens
                 for (final SymbolToken token : systemSymbols())
                 {
-                    symbols.put(token.getText(), token);
+                    systemTokens.put(token.getText(), token);
                 }
 
+                final List<IndexedImport> imports = new ArrayList<IndexedImport>();
                 return new SymbolResolverBuilder()
                 {
                     public int addSymbolTable(final SymbolTable table, final int startSid)
                     {
-                        int maxSid = startSid;
-                        final Iterator<String> iter = table.iterateDeclaredSymbolNames();
-                        while (iter.hasNext())
-                        {
-                            final String text = iter.next();
-                            if (text != null && !symbols.containsKey(text))
-                            {
-                                symbols.put(text, symbol(text, maxSid));
-                            }
-                            maxSid++;
-                        }
-                        return maxSid;
+                        final IndexedImport tableImport = new IndexedImport(PrivateSymbolIndex.of(table), startSid);
+                        imports.add(tableImport);
+                        return startSid + tableImport.index.getMaxId();
                     }
 
                     public SymbolResolver build()
                     {
+                        final IndexedImport[] tableImports = imports.toArray(new IndexedImport[imports.size()]);
                         return new SymbolResolver()
                         {
                             public SymbolToken get(final String text)
                             {
-                                return symbols.get(text);
+                                final SymbolToken token = systemTokens.get(text);
+                                if (token != null)
+                                {
+                                    return token;
+                                }
+                                for (final IndexedImport tableImport : tableImports)
+                                {
+                                    final int sid = tableImport.index.findSymbol(text);
+                                    if (sid != SymbolTable.UNKNOWN_SYMBOL_ID)
+                                    {
+                                        return tableImport.token(sid);
+                                    }
+                                }
+                                return null;
                             }
                         };
                     }
@@ -368,7 +410,7 @@ import software.amazon.ion.impl.bin.IonRawBinaryWriter.StreamFlushMode;
                     self.user.truncate(self.userSymbolTablePosition);
 
                     // flush out the pre-existing symbol and user content before the user provided symbol table
-                    self.finish();
+                    self.finish(/*retainSymbols*/ false);
 
                     // replace the symbol table context with the user provided one
                     // TODO determine if the resolver mode should be configurable for this use case
@@ -622,6 +664,11 @@ import software.amazon.ion.impl.bin.IonRawBinaryWriter.StreamFlushMode;
 
     private final IonCatalog                    catalog;
     private final ImportedSymbolContext         bootstrapImports;
+    private final SymbolTable                   initialSymbolTable;
+    /** The most local symbols kept across {@link #finish()}, or {@code -1} if local symbols are never kept. */
+    private final int                           maxAppendedLocalSymbols;
+    /** The pool this writer is returned to when closed, or {@code null} if it isn't pooled. */
+    private final IonBinaryWriterPool           pool;
 
     private ImportedSymbolContext               imports;
     private final Map<String, SymbolToken>      locals;
@@ -646,6 +693,21 @@ import software.amazon.ion.impl.bin.IonRawBinaryWriter.StreamFlushMode;
     /*package*/ IonManagedBinaryWriter(final PrivateIonManagedBinaryWriterBuilder builder,
                                        final OutputStream out)
                                        throws IOException
+    {
+        this(builder, out, null);
+    }
+
+    /*package*/ IonManagedBinaryWriter(final PrivateIonManagedBinaryWriterBuilder builder,
+                                       final GatheringByteChannel out)
+                                       throws IOException
+    {
+        this(builder, new GatheringOutputStream(out), null);
+    }
+
+    /*package*/ IonManagedBinaryWriter(final PrivateIonManagedBinaryWriterBuilder builder,
+                                       final OutputStream out,
+                                       final IonBinaryWriterPool pool)
+                                       throws IOException
     {
         super(builder.optimization);
         this.symbols = new IonRawBinaryWriter(
@@ -671,6 +733,9 @@ import software.amazon.ion.impl.bin.IonRawBinaryWriter.StreamFlushMode;
 
         this.catalog = builder.catalog;
         this.bootstrapImports = builder.imports;
+        this.initialSymbolTable = builder.initialSymbolTable;
+        this.maxAppendedLocalSymbols = builder.maxAppendedLocalSymbols;
+        this.pool = pool;
 
         this.locals = new LinkedHashMap<String, SymbolToken>();
         this.localsLocked = false;
@@ -687,8 +752,13 @@ import software.amazon.ion.impl.bin.IonRawBinaryWriter.StreamFlushMode;
         this.userSymbols = new ArrayList<String>();
         this.userCurrentImport = new ImportDescriptor();
 
+        startWithInitialSymbolTable();
+    }
+
+    private void startWithInitialSymbolTable() throws IOException
+    {
         // TODO decide if initial LST should survive finish() and seed the next LST
-        final SymbolTable lst = builder.initialSymbolTable;
+        final SymbolTable lst = initialSymbolTable;
         if (lst != null)
         {
             // build import context from seeded LST
@@ -710,7 +780,50 @@ import software.amazon.ion.impl.bin.IonRawBinaryWriter.StreamFlushMode;
         }
         else
         {
-            this.imports = builder.imports;
+            this.imports = bootstrapImports;
+        }
+    }
+
+    /**
+     * Makes a pooled writer that has been closed ready to write to another stream, as if it had just been
+     * constructed.  Its buffers and import context are kept, but all symbol and container state is discarded.
+     */
+    /*package*/ void reset(final OutputStream out) throws IOException
+    {
+        if (!closed)
+        {
+            throw new IllegalStateException("Cannot reset a writer that is still open");
+        }
+        symbols.reset(out);
+        user.reset(out);
+
+        locals.clear();
+        localsLocked = false;
+        symbolState = SymbolState.SYSTEM_SYMBOLS;
+
+        forceSystemOutput = false;
+        closed = false;
+
+        userState = UserState.NORMAL;
+
+        userSymbolTablePosition = 0L;
+        userImports.clear();
+        userSymbols.clear();
+        userCurrentImport.reset();
+
+        startWithInitialSymbolTable();
+    }
+
+    /** Releases the buffers of a pooled writer that has been closed and won't be reset again. */
+    /*package*/ void free()
+    {
+        try
+        {
+            symbols.free();
+        }
+        finally
+        {
+            user.free();
         }
     }
 
@@ -729,7 +842,7 @@ import software.amazon.ion.impl.bin.IonRawBinaryWriter.StreamFlushMode;
     public void writeIonVersionMarker() throws IOException
     {
         // this has to force a reset of symbol table context
-        finish();
+        finish(/*retainSymbols*/ false);
     }
 
     public int getDepth()
@@ -775,6 +888,20 @@ import software.amazon.ion.impl.bin.IonRawBinaryWriter.StreamFlushMode;
         }
     }
 
+    private void startAppendedLocalSymbolTableIfNeeded() throws IOException
+    {
+        if (symbolState == SymbolState.LOCAL_SYMBOLS_FLUSHED && maxAppendedLocalSymbols >= 0)
+        {
+            // the table kept from the last message is still in effect, so import it and only declare new symbols
+            symbols.addTypeAnnotationSymbol(systemSymbol(ION_SYMBOL_TABLE_SID));
+            symbols.stepIn(STRUCT);
+            symbols.setFieldNameSymbol(systemSymbol(IMPORTS_SID));
+            symbols.writeSymbolToken(systemSymbol(ION_SYMBOL_TABLE_SID));
+            // the struct stays open so the symbols list can follow; closeTable() steps out of it
+            symbolState = SymbolState.LOCAL_SYMBOLS_WITH_IMPORTS_ONLY;
+        }
+    }
+
     private void startLocalSymbolTableSymbolListIfNeeded() throws IOException
     {
         if (symbolState == SymbolState.LOCAL_SYMBOLS_WITH_IMPORTS_ONLY)
@@ -815,6 +942,7 @@ import software.amazon.ion.impl.bin.IonRawBinaryWriter.StreamFlushMode;
                 }
 
                 // if we got here, this is a new symbol and we better start up the locals
+                startAppendedLocalSymbolTableIfNeeded();
                 startLocalSymbolTableIfNeeded(/*writeIVM*/ true);
                 startLocalSymbolTableSymbolListIfNeeded();
 
@@ -998,10 +1126,15 @@ import software.amazon.ion.impl.bin.IonRawBinaryWriter.StreamFlushMode;
             if (user.hasWrittenValuesSinceFinished())
             {
                 // this explicitly translates SID 2 to an IVM and flushes out local symbol state
-                finish();
+                finish(/*retainSymbols*/ false);
             }
             else
             {
+                if (symbolState == SymbolState.LOCAL_SYMBOLS_FLUSHED)
+                {
+                    // drop the table kept from the last message so that the IVM isn't swallowed
+                    finish(/*retainSymbols*/ false);
+                }
                 // TODO determine if redundant IVM writes need to actually be surfaced
                 // we need to signal that we need to write out the IVM even if nothing else is written
                 forceSystemOutput = true;
@@ -1065,20 +1198,43 @@ import software.amazon.ion.impl.bin.IonRawBinaryWriter.StreamFlushMode;
         // make sure that until the local symbol state changes we no-op the table closing routine
         symbolState = SymbolState.LOCAL_SYMBOLS_FLUSHED;
         forceSystemOutput = false;
-        // push the data out
-        symbols.finish();
-        user.finish();
+        // push the data out--the symbol blocks are released only after the user writer flushes the stream, so that
+        // a gathering stream hands both to its channel in one write
+        symbols.writeFinished();
+        try
+        {
+            user.finish();
+        }
+        finally
+        {
+            symbols.resetFinished();
+        }
     }
 
     public void finish() throws IOException
+    {
+        finish(/*retainSymbols*/ maxAppendedLocalSymbols >= 0);
+    }
+
+    /**
+     * @param retainSymbols whether the local symbol table may stay in effect for the next message, which it does
+     *                      only if one was emitted and it doesn't hold more than the configured number of symbols.
+     */
+    private void finish(final boolean retainSymbols) throws IOException
     {
         if (getDepth() != 0)
         {
             throw new IllegalStateException("IonWriter.finish() can only be called at top-level.");
         }
+        final boolean tableEmitted = symbolState != SymbolState.SYSTEM_SYMBOLS;
         unsafeFlush();
+        if (retainSymbols && tableEmitted && locals.size() <= maxAppendedLocalSymbols)
+        {
+            // keep the locals and imports, the next new symbol appends to the table that was flushed
+            localsLocked = false;
+            return;
+        }
         // Reset local symbols
-        // TODO be more configurable with respect to local symbol table caching
         locals.clear();
         localsLocked = false;
         symbolState = SymbolState.SYSTEM_SYMBOLS;
@@ -1102,13 +1258,34 @@ import software.amazon.ion.impl.bin.IonRawBinaryWriter.StreamFlushMode;
         }
         finally
         {
-            try
+            if (pool == null)
             {
-                symbols.close();
+                try
+                {
+                    symbols.close();
+                }
+                finally
+                {
+                    user.close();
+                }
             }
-            finally
+            else
             {
-                user.close();
+                try
+                {
+                    try
+                    {
+                        symbols.closeStream();
+                    }
+                    finally
+                    {
+                        user.closeStream();
+                    }
+                }
+                finally
+                {
+                    pool.release(this);
+                }
             }
         }
     }
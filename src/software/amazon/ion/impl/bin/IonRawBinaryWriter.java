@@ -455,7 +455,7 @@ import software.amazon.ion.Timestamp;
     }
 
     private final BlockAllocator                allocator;
-    private final OutputStream                  out;
+    private OutputStream                        out;
     private final StreamCloseMode               streamCloseMode;
     private final StreamFlushMode               streamFlushMode;
     private final PreallocationMode             preallocationMode;
@@ -1431,6 +1431,16 @@ import software.amazon.ion.Timestamp;
     public void flush() throws IOException {}
 
     public void finish() throws IOException
+    {
+        writeFinished();
+        resetFinished();
+    }
+
+    /**
+     * Writes out the data since the last finish without releasing the blocks holding it, flushing the stream only if
+     * this writer is configured to; {@link #resetFinished()} must follow once the stream is done with the data.
+     */
+    /*package*/ void writeFinished() throws IOException
     {
         if (!containers.isEmpty())
         {
@@ -1460,14 +1470,20 @@ import software.amazon.ion.Timestamp;
             }
             buffer.writeTo(out, bufferPosition, buffer.position() - bufferPosition);
         }
-        patchPoints.clear();
-        patchBuffer.reset();
-        buffer.reset();
 
+        // flush before the blocks are released since a gathering stream holds onto them until then
         if (streamFlushMode == StreamFlushMode.FLUSH)
         {
             out.flush();
         }
+    }
+
+    /** Releases the data written out by {@link #writeFinished()}. */
+    /*package*/ void resetFinished()
+    {
+        patchPoints.clear();
+        patchBuffer.reset();
+        buffer.reset();
 
         hasWrittenValuesSinceFinished = false;
     }
@@ -1478,22 +1494,34 @@ import software.amazon.ion.Timestamp;
         {
             return;
         }
-        closed = true;
         try
         {
-            try
-            {
-                finish();
-            }
-            catch (final IllegalStateException e)
-            {
-                // callers don't expect this...
-            }
+            closeStream();
+        }
+        finally
+        {
+            free();
+        }
+    }
 
-            // release all of our blocks -- these should never throw
-            buffer.close();
-            patchBuffer.close();
-            allocator.close();
+    /**
+     * Finishes the current stream and closes it according to the {@link StreamCloseMode}, but keeps this writer's
+     * buffers so that it can be {@linkplain #reset(OutputStream) reset} to write to another stream.
+     */
+    /*package*/ void closeStream() throws IOException
+    {
+        if (closed)
+        {
+            return;
+        }
+        closed = true;
+        try
+        {
+            finish();
+        }
+        catch (final IllegalStateException e)
+        {
+            // callers don't expect this...
         }
         finally
         {
@@ -1504,4 +1532,42 @@ import software.amazon.ion.Timestamp;
             }
         }
     }
+
+    /** Releases all of our blocks, which must only be done once. */
+    /*package*/ void free()
+    {
+        // these should never throw
+        buffer.close();
+        patchBuffer.close();
+        allocator.close();
+    }
+
+    /**
+     * Makes a writer closed by {@link #closeStream()} ready to write to another stream, discarding any state left
+     * over from the previous stream.  The first block of each buffer is kept.
+     */
+    /*package*/ void reset(final OutputStream out)
+    {
+        if (out == null) { throw new NullPointerException(); }
+        if (!closed)
+        {
+            throw new IllegalStateException("Cannot reset a writer that is still open");
+        }
+
+        this.out = out;
+        buffer.reset();
+        patchBuffer.reset();
+        patchPoints.clear();
+        containers.clear();
+
+        depth = 0;
+        hasWrittenValuesSinceFinished = false;
+        hasWrittenValuesSinceConstructed = false;
+
+        currentFieldName = null;
+        currentAnnotations.clear();
+        hasTopLevelSymbolTableAnnotation = false;
+
+        closed = false;
+    }
 }
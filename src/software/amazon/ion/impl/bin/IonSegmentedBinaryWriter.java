@@ -0,0 +1,161 @@
+/*
+ * Copyright 2017 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at:
+ *
+ *     http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+
+package software.amazon.ion.impl.bin;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.LinkedList;
+import software.amazon.ion.IonWriter;
+
+/**
+ * Assembles a single binary Ion stream from segments of top-level values that are encoded independently, typically
+ * by different threads.
+ * <p>
+ * Each call to {@link #newSegment()} returns a binary {@link IonWriter} with its own local symbol table and its own
+ * buffer.  Segments appear in the output in the order they were created, regardless of the order in which they are
+ * closed.  Every segment begins with an Ion version marker, which resets the symbol table context, so the encoded
+ * segments are concatenated as is without re-encoding any values.  A segment's data is written to the output as soon
+ * as it and every segment before it have been closed.
+ * <p>
+ * This class is thread-safe, but each segment's {@link IonWriter} is not, and must only be used by one thread at a
+ * time.
+ *
+ * @deprecated This is an internal API that is subject to change without notice.
+ */
+@Deprecated
+public final class IonSegmentedBinaryWriter implements Closeable
+{
+    /** Buffers the encoded output of a single segment writer until the segment can be written out. */
+    private final class Segment extends OutputStream
+    {
+        private final BlockAllocator allocator;
+        private final WriteBuffer buffer;
+        private final IonWriter writer;
+        private boolean complete;
+
+        Segment() throws IOException
+        {
+            this.allocator = builder.provider.vendAllocator(builder.userBlockSize);
+            this.buffer = new WriteBuffer(allocator);
+            this.writer = builder.newWriter(this);
+        }
+
+        @Override
+        public void write(final int b) throws IOException
+        {
+            buffer.writeByte((byte) b);
+        }
+
+        @Override
+        public void write(final byte[] b, final int off, final int len) throws IOException
+        {
+            buffer.writeBytes(b, off, len);
+        }
+
+        /** Invoked when the segment's writer is closed. */
+        @Override
+        public void close() throws IOException
+        {
+            segmentCompleted(this);
+        }
+
+        private void writeTo(final OutputStream out) throws IOException
+        {
+            buffer.writeTo(out);
+        }
+
+        private void free()
+        {
+            buffer.close();
+            allocator.close();
+        }
+    }
+
+    private final PrivateIonManagedBinaryWriterBuilder builder;
+    private final OutputStream out;
+
+    /** Segments that have not been written out yet, in order of creation.  Guarded by {@code this}. */
+    private final LinkedList<Segment> pending;
+    private boolean closed;
+
+    /*package*/ IonSegmentedBinaryWriter(final PrivateIonManagedBinaryWriterBuilder builder, final OutputStream out)
+    {
+        if (out == null) { throw new NullPointerException(); }
+
+        this.builder = builder.copy();
+        this.out = out;
+        this.pending = new LinkedList<Segment>();
+    }
+
+    /**
+     * Starts a new segment, which is placed in the output after every segment started before it.
+     * The segment is complete when its writer is closed.
+     *
+     * @throws IllegalStateException if this writer has been closed.
+     */
+    public synchronized IonWriter newSegment() throws IOException
+    {
+        if (closed)
+        {
+            throw new IllegalStateException("Cannot start a segment after the writer is closed");
+        }
+        final Segment segment = new Segment();
+        pending.add(segment);
+        return segment.writer;
+    }
+
+    private synchronized void segmentCompleted(final Segment segment) throws IOException
+    {
+        if (segment.complete)
+        {
+            return;
+        }
+        segment.complete = true;
+
+        // write out the completed prefix of the segments
+        while (!pending.isEmpty() && pending.getFirst().complete)
+        {
+            final Segment head = pending.removeFirst();
+            try
+            {
+                head.writeTo(out);
+            }
+            finally
+            {
+                head.free();
+            }
+        }
+    }
+
+    /**
+     * Flushes the output and closes it.
+     *
+     * @throws IllegalStateException if the writer of any segment has not been closed.
+     */
+    public synchronized void close() throws IOException
+    {
+        if (closed)
+        {
+            return;
+        }
+        if (!pending.isEmpty())
+        {
+            throw new IllegalStateException(pending.size() + " segment(s) have not been closed");
+        }
+        closed = true;
+        out.close();
+    }
+}
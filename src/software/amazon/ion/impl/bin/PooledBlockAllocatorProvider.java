@@ -17,11 +17,18 @@ package software.amazon.ion.impl.bin;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * A simple pooling implementation of {@link BlockAllocatorProvider} with a global thread-safe free block list
  * for each block size.
  * <p>
+ * Blocks are backed by heap or direct memory depending on the {@link Block.Memory} the provider is constructed with.
+ * Pooling matters most for direct memory, which is expensive to allocate.  Each free list holds at most
+ * {@code maxRetainedBytes} worth of blocks; {@link Block#close()} returns a block to its free list while there is room
+ * and otherwise {@linkplain Block.Memory#free(java.nio.ByteBuffer) frees} its memory, so that the direct memory
+ * allocated during a burst is released once the burst is over.  By default, only direct memory is bounded.
+ * <p>
  * This implementation is thread-safe.
  */
 /*package*/ final class PooledBlockAllocatorProvider extends BlockAllocatorProvider
@@ -34,12 +41,17 @@ import java.util.concurrent.ConcurrentMap;
     private final class PooledBlockAllocator extends BlockAllocator
     {
         private final int blockSize;
+        private final int maxFreeBlocks;
         private final ConcurrentLinkedQueue<Block> freeBlocks;
+        /** The size of {@link #freeBlocks}, which is expensive to compute. */
+        private final AtomicInteger freeBlockCount;
 
         public PooledBlockAllocator(final int blockSize)
         {
             this.blockSize = blockSize;
+            this.maxFreeBlocks = (int) Math.min(Integer.MAX_VALUE, maxRetainedBytes / blockSize);
             this.freeBlocks = new ConcurrentLinkedQueue<Block>();
+            this.freeBlockCount = new AtomicInteger();
         }
 
         @Override
@@ -48,19 +60,41 @@ import java.util.concurrent.ConcurrentMap;
             Block block = freeBlocks.poll();
             if (block == null)
             {
-                block = new Block(new byte[blockSize])
+                block = new Block(memory.allocate(blockSize))
                 {
                     @Override
                     public void close()
                     {
                         reset();
-                        freeBlocks.add(this);
+                        release(this);
                     }
                 };
             }
+            else
+            {
+                freeBlockCount.decrementAndGet();
+            }
             return block;
         }
 
+        private void release(final Block block)
+        {
+            if (freeBlockCount.incrementAndGet() <= maxFreeBlocks)
+            {
+                freeBlocks.add(block);
+            }
+            else
+            {
+                freeBlockCount.decrementAndGet();
+                memory.free(block.buffer);
+            }
+        }
+
+        /*package*/ int getFreeBlockCount()
+        {
+            return freeBlockCount.get();
+        }
+
         @Override
         public int getBlockSize()
         {
@@ -71,11 +105,36 @@ import java.util.concurrent.ConcurrentMap;
         public void close() {}
     }
 
-    private final ConcurrentMap<Integer, BlockAllocator> allocators;
+    /** The default bound on the bytes of direct memory held by each free list. */
+    public static final long DEFAULT_MAX_RETAINED_DIRECT_BYTES = 16L * 1024 * 1024;
+
+    private final Block.Memory memory;
+    private final long maxRetainedBytes;
+    private final ConcurrentMap<Integer, PooledBlockAllocator> allocators;
 
     public PooledBlockAllocatorProvider()
     {
-        allocators = new ConcurrentHashMap<Integer, BlockAllocator>();
+        this(Block.Memory.HEAP);
+    }
+
+    public PooledBlockAllocatorProvider(final Block.Memory memory)
+    {
+        this(memory, memory == Block.Memory.DIRECT ? DEFAULT_MAX_RETAINED_DIRECT_BYTES : Long.MAX_VALUE);
+    }
+
+    /**
+     * @param memory            the kind of memory blocks are backed by.
+     * @param maxRetainedBytes  the bound on the bytes held by the free list for each block size.
+     */
+    public PooledBlockAllocatorProvider(final Block.Memory memory, final long maxRetainedBytes)
+    {
+        if (maxRetainedBytes < 0)
+        {
+            throw new IllegalArgumentException("Invalid maximum retained bytes: " + maxRetainedBytes);
+        }
+        this.memory = memory;
+        this.maxRetainedBytes = maxRetainedBytes;
+        allocators = new ConcurrentHashMap<Integer, PooledBlockAllocator>();
     }
 
     @Override
@@ -86,11 +145,11 @@ import java.util.concurrent.ConcurrentMap;
             throw new IllegalArgumentException("Invalid block size: " + blockSize);
         }
 
-        BlockAllocator allocator = allocators.get(blockSize);
+        PooledBlockAllocator allocator = allocators.get(blockSize);
         if (allocator == null)
         {
             allocator = new PooledBlockAllocator(blockSize);
-            final BlockAllocator existingAllocator = allocators.putIfAbsent(blockSize, allocator);
+            final PooledBlockAllocator existingAllocator = allocators.putIfAbsent(blockSize, allocator);
             if (existingAllocator != null)
             {
                 allocator = existingAllocator;
@@ -98,4 +157,15 @@ import java.util.concurrent.ConcurrentMap;
         }
         return allocator;
     }
+
+    /** Returns the number of blocks held by the free lists. */
+    /*package*/ int getFreeBlockCount()
+    {
+        int count = 0;
+        for (final PooledBlockAllocator allocator : allocators.values())
+        {
+            count += allocator.getFreeBlockCount();
+        }
+        return count;
+    }
 }
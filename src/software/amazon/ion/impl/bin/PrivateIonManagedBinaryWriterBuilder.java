@@ -18,6 +18,8 @@ import static software.amazon.ion.impl.bin.IonManagedBinaryWriter.ONLY_SYSTEM_IM
 
 import java.io.IOException;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.GatheringByteChannel;
 import java.util.Arrays;
 import java.util.List;
 import software.amazon.ion.IonCatalog;
@@ -60,14 +62,92 @@ public final class PrivateIonManagedBinaryWriterBuilder
             {
                 return BlockAllocatorProviders.basicProvider();
             }
+        },
+        /**
+         * Like {@link #POOLED}, but blocks are backed by direct memory so that buffered data stays off of the heap.
+         * This pairs well with {@link PrivateIonManagedBinaryWriterBuilder#newWriter(GatheringByteChannel)}, since
+         * direct memory can be handed to a channel without being copied.
+         * <p>
+         * Each block size's free list retains a bounded amount of memory, and blocks closed beyond that bound have
+         * their direct memory freed.
+         */
+        POOLED_DIRECT
+        {
+            @Override
+            BlockAllocatorProvider createAllocatorProvider()
+            {
+                return new PooledBlockAllocatorProvider(Block.Memory.DIRECT);
+            }
+        },
+        /**
+         * Pools blocks in per-thread caches backed by striped free lists, so writers on many threads don't contend
+         * on the pool.  Unlike {@link #POOLED}, the memory the shared free lists retain is bounded and idle blocks
+         * are eventually released; each thread's cache is outside that bound.
+         * <p>
+         * Each builder created with this mode has its own pool, and so its own thread caches, so this mode suits
+         * a builder that is created once and reused, and is never the default.
+         * <p>
+         * The pool's bounds can be set with {@link PrivateIonManagedBinaryWriterBuilder#withStripedAllocator(long, long)}
+         * and its usage read with {@link PrivateIonManagedBinaryWriterBuilder#getAllocatorStats()}.
+         */
+        STRIPED
+        {
+            @Override
+            BlockAllocatorProvider createAllocatorProvider()
+            {
+                return new StripedBlockAllocatorProvider();
+            }
         };
 
         /*package*/ abstract BlockAllocatorProvider createAllocatorProvider();
     }
 
+    /**
+     * A snapshot of the usage of a builder's block pool.
+     *
+     * @see PrivateIonManagedBinaryWriterBuilder#getAllocatorStats()
+     */
+    public static final class AllocatorStats
+    {
+        private final long hits;
+        private final long misses;
+        private final long retainedBytes;
+
+        private AllocatorStats(final long hits, final long misses, final long retainedBytes)
+        {
+            this.hits = hits;
+            this.misses = misses;
+            this.retainedBytes = retainedBytes;
+        }
+
+        /** Returns the number of block allocations satisfied by a pooled block. */
+        public long getHits()
+        {
+            return hits;
+        }
+
+        /** Returns the number of block allocations that required new memory. */
+        public long getMisses()
+        {
+            return misses;
+        }
+
+        /** Returns the number of bytes held by the pool's shared free lists. */
+        public long getRetainedBytes()
+        {
+            return retainedBytes;
+        }
+
+        @Override
+        public String toString()
+        {
+            return "AllocatorStats(hits=" + hits + ", misses=" + misses + ", retainedBytes=" + retainedBytes + ")";
+        }
+    }
+
     public static final int DEFAULT_BLOCK_SIZE = 32768;
 
-    /*package*/ final    BlockAllocatorProvider provider;
+    /*package*/ volatile BlockAllocatorProvider provider;
     /*package*/ volatile int                    symbolsBlockSize;
     /*package*/ volatile int                    userBlockSize;
     /*package*/ volatile PreallocationMode      preallocationMode;
@@ -76,6 +156,7 @@ public final class PrivateIonManagedBinaryWriterBuilder
     /*package*/ volatile WriteValueOptimization optimization;
     /*package*/ volatile SymbolTable            initialSymbolTable;
     /*package*/ volatile boolean                isFloatBinary32Enabled;
+    /*package*/ volatile int                    maxAppendedLocalSymbols;
 
     private PrivateIonManagedBinaryWriterBuilder(final BlockAllocatorProvider provider)
     {
@@ -87,6 +168,7 @@ public final class PrivateIonManagedBinaryWriterBuilder
         this.catalog = new SimpleCatalog();
         this.optimization = WriteValueOptimization.NONE;
         this.isFloatBinary32Enabled = false;
+        this.maxAppendedLocalSymbols = -1;
     }
 
     private PrivateIonManagedBinaryWriterBuilder(final PrivateIonManagedBinaryWriterBuilder other)
@@ -100,6 +182,7 @@ public final class PrivateIonManagedBinaryWriterBuilder
         this.optimization       = other.optimization;
         this.initialSymbolTable = other.initialSymbolTable;
         this.isFloatBinary32Enabled = other.isFloatBinary32Enabled;
+        this.maxAppendedLocalSymbols = other.maxAppendedLocalSymbols;
     }
 
     public PrivateIonManagedBinaryWriterBuilder copy()
@@ -109,6 +192,20 @@ public final class PrivateIonManagedBinaryWriterBuilder
 
     // Parameter Setting Methods
 
+    /**
+     * Replaces this builder's block pool with one like {@link AllocatorMode#STRIPED}, but with the given bounds.
+     * Writers already constructed by this builder, or builders copied from it, keep the pool they were given.
+     *
+     * @param maxRetainedBytes  the most memory the pool's shared free lists retain.
+     * @param idleTrimMillis    the interval after which unused blocks are released from the shared free lists.
+     */
+    public PrivateIonManagedBinaryWriterBuilder withStripedAllocator(final long maxRetainedBytes,
+                                                                     final long idleTrimMillis)
+    {
+        this.provider = new StripedBlockAllocatorProvider(maxRetainedBytes, idleTrimMillis);
+        return this;
+    }
+
     public PrivateIonManagedBinaryWriterBuilder withSymbolsBlockSize(final int blockSize)
     {
         if (blockSize < 1)
@@ -144,8 +241,8 @@ public final class PrivateIonManagedBinaryWriterBuilder
     }
 
     /**
-     * Adds imports, flattening them to make lookup more efficient.  This is particularly useful
-     * when a builder instance is long lived.
+     * Adds imports, resolving symbols through each table's compiled symbol index to make lookup more
+     * efficient.  This is particularly useful when a builder instance is long lived.
      */
     public PrivateIonManagedBinaryWriterBuilder withFlatImports(final SymbolTable... tables)
     {
@@ -201,6 +298,34 @@ public final class PrivateIonManagedBinaryWriterBuilder
         return this;
     }
 
+    /**
+     * Keeps the local symbol table in effect across {@link IonWriter#finish()}, so that each message after the first
+     * only declares the symbols it adds, in a local symbol table that imports {@code $ion_symbol_table}.
+     * Messages written this way can only be read in order, by a reader that retains the symbol table from one message
+     * to the next.
+     * <p>
+     * The table is dropped, and the next message starts with an Ion version marker, whenever it holds more than
+     * {@code maxLocalSymbols} symbols when a message is finished, or when the user writes an Ion version marker or a
+     * local symbol table.
+     *
+     * @param maxLocalSymbols the most local symbols the table may hold and still be carried to the next message.
+     */
+    public PrivateIonManagedBinaryWriterBuilder withLocalSymbolTableAppendEnabled(final int maxLocalSymbols)
+    {
+        if (maxLocalSymbols < 0)
+        {
+            throw new IllegalArgumentException("Maximum local symbols cannot be negative: " + maxLocalSymbols);
+        }
+        this.maxAppendedLocalSymbols = maxLocalSymbols;
+        return this;
+    }
+
+    public PrivateIonManagedBinaryWriterBuilder withLocalSymbolTableAppendDisabled()
+    {
+        this.maxAppendedLocalSymbols = -1;
+        return this;
+    }
+
     public PrivateIonManagedBinaryWriterBuilder withInitialSymbolTable(SymbolTable symbolTable)
     {
         if (symbolTable != null)
@@ -236,6 +361,36 @@ public final class PrivateIonManagedBinaryWriterBuilder
         return this;
     }
 
+    // Allocator Management
+
+    /**
+     * Returns the usage of this builder's block pool, or {@code null} if the pool doesn't keep statistics.
+     * Only {@link AllocatorMode#STRIPED} and {@link #withStripedAllocator(long, long)} pools do.
+     */
+    public AllocatorStats getAllocatorStats()
+    {
+        final BlockAllocatorProvider current = provider;
+        if (current instanceof StripedBlockAllocatorProvider)
+        {
+            final StripedBlockAllocatorProvider striped = (StripedBlockAllocatorProvider) current;
+            return new AllocatorStats(striped.getHits(), striped.getMisses(), striped.getRetainedBytes());
+        }
+        return null;
+    }
+
+    /**
+     * Releases the blocks held by the shared free lists of this builder's block pool, if it is a
+     * {@link AllocatorMode#STRIPED} pool.  Other pools are unaffected.
+     */
+    public void trimAllocator()
+    {
+        final BlockAllocatorProvider current = provider;
+        if (current instanceof StripedBlockAllocatorProvider)
+        {
+            ((StripedBlockAllocatorProvider) current).trim();
+        }
+    }
+
     // Construction
 
     public IonWriter newWriter(final OutputStream out) throws IOException
@@ -243,6 +398,47 @@ public final class PrivateIonManagedBinaryWriterBuilder
         return new IonManagedBinaryWriter(this, out);
     }
 
+    /**
+     * Constructs a writer that hands its output to a channel when finished.
+     * <p>
+     * Each {@link IonWriter#finish()} passes the encoded data to {@link GatheringByteChannel#write(ByteBuffer[])}
+     * as buffers that wrap the writer's blocks, so no intermediate copy is made.  The buffers are only valid for the
+     * duration of the call, so a channel that doesn't consume them immediately must copy them.
+     * Closing the writer closes the channel.
+     * <p>
+     * The channel must be in blocking mode.  A non-blocking {@link java.nio.channels.SelectableChannel} is rejected
+     * with an {@link java.nio.channels.IllegalBlockingModeException}, and a write to the channel that accepts no
+     * bytes fails with an {@link IOException}.
+     */
+    public IonWriter newWriter(final GatheringByteChannel out) throws IOException
+    {
+        return new IonManagedBinaryWriter(this, out);
+    }
+
+    /**
+     * Constructs a writer that assembles a single stream from segments that may be encoded in parallel.
+     * Each segment is written with the configuration of this builder at the time of this call.
+     *
+     * @see IonSegmentedBinaryWriter
+     */
+    public IonSegmentedBinaryWriter newSegmentedWriter(final OutputStream out)
+    {
+        return new IonSegmentedBinaryWriter(this, out);
+    }
+
+    /**
+     * Constructs a pool of writers that are reused from one stream to the next, keeping their buffers and import
+     * context.  The writers are configured by this builder at the time of this call.
+     *
+     * @param maxIdleWriters the most closed writers the pool keeps for reuse.
+     *
+     * @see IonBinaryWriterPool
+     */
+    public IonBinaryWriterPool newWriterPool(final int maxIdleWriters)
+    {
+        return new IonBinaryWriterPool(this, maxIdleWriters);
+    }
+
     // Static Factories
 
     /**
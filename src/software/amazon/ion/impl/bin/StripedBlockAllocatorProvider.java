@@ -0,0 +1,374 @@
+/*
+ * Copyright 2017 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at:
+ *
+ *     http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+
+package software.amazon.ion.impl.bin;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A pooling implementation of {@link BlockAllocatorProvider} that avoids contending on a single free list.  Blocks are
+ * backed by heap arrays.
+ * <p>
+ * Each thread caches a handful of free blocks of each size, so a writer that allocates and closes blocks on one
+ * thread rarely touches shared state at all.  When a thread's cache is empty or full, blocks move in batches to or
+ * from a <i>magazine</i>, a lock-protected free list of which there is one per stripe.  Threads are spread across
+ * the stripes, so on a large host many writers can run in parallel without serializing on the pool.
+ * <p>
+ * The shared magazines retain at most {@code maxRetainedBytes} worth of blocks--blocks closed beyond that are left for
+ * the garbage collector.  Magazines are also trimmed when they sit idle: blocks that go unused for a whole trim
+ * interval are released the next time their magazine is accessed, and {@link #trim()} releases every block the
+ * magazines hold.  Thread caches are not included in the bound, but hold at most {@link #LOCAL_CACHE_BYTES} per
+ * block size (and at least one block).
+ * <p>
+ * Hit, miss and retained counters are kept so the pool can be sized.  Hits are counted by each thread and published
+ * in batches, so {@link #getHits()} may lag slightly behind.
+ * <p>
+ * This implementation is thread-safe.
+ */
+/*package*/ final class StripedBlockAllocatorProvider extends BlockAllocatorProvider
+{
+    /** The default bound on the bytes held by the shared magazines. */
+    public static final long DEFAULT_MAX_RETAINED_BYTES = 64L * 1024 * 1024;
+
+    /** The default interval after which unused blocks are released from the shared magazines. */
+    public static final long DEFAULT_IDLE_TRIM_MILLIS = 60 * 1000;
+
+    /** The most memory each thread caches for a given block size. */
+    public static final int LOCAL_CACHE_BYTES = 256 * 1024;
+
+    /** The most blocks each thread caches for a given block size. */
+    private static final int MAX_LOCAL_CACHE_BLOCKS = 16;
+
+    /** How many hits a thread counts before publishing them. */
+    private static final int HIT_PUBLISH_INTERVAL = 64;
+
+    /**
+     * A shared free list for one stripe.  The blocks that stay at the bottom of the stack for a whole trim interval
+     * are the ones that are not being used, so the low watermark of the stack over the interval is what gets trimmed.
+     * <p>
+     * Access is guarded by the instance's monitor.
+     */
+    private static final class Magazine
+    {
+        final List<Block> blocks = new ArrayList<Block>();
+        int lowWatermark;
+        long intervalStart = System.nanoTime();
+    }
+
+    /**
+     * A single thread's cache of free blocks for one {@link StripedBlockAllocator}.
+     * <p>
+     * This implementation is <b>not</b> thread-safe--it is only ever accessed by its owning thread.
+     */
+    private static final class LocalCache
+    {
+        final Block[] blocks;
+        final Magazine magazine;
+        int size;
+        int hits;
+
+        LocalCache(final int capacity, final Magazine magazine)
+        {
+            this.blocks = new Block[capacity];
+            this.magazine = magazine;
+        }
+    }
+
+    /**
+     * A {@link BlockAllocator} for a particular size with per-thread caches backed by striped magazines.
+     * <p>
+     * This implementation is thread-safe.
+     */
+    private final class StripedBlockAllocator extends BlockAllocator
+    {
+        private final int blockSize;
+        private final Magazine[] magazines;
+        private final ThreadLocal<LocalCache> localCache;
+
+        public StripedBlockAllocator(final int blockSize)
+        {
+            this.blockSize = blockSize;
+            this.magazines = new Magazine[stripes];
+            for (int i = 0; i < magazines.length; i++)
+            {
+                magazines[i] = new Magazine();
+            }
+
+            final int localCapacity = Math.max(1, Math.min(MAX_LOCAL_CACHE_BLOCKS, LOCAL_CACHE_BYTES / blockSize));
+            this.localCache = new ThreadLocal<LocalCache>()
+            {
+                @Override
+                protected LocalCache initialValue()
+                {
+                    // thread IDs are handed out sequentially, so this spreads threads evenly across the stripes
+                    final int stripe = (int) (Thread.currentThread().getId() & (magazines.length - 1));
+                    return new LocalCache(localCapacity, magazines[stripe]);
+                }
+            };
+        }
+
+        @Override
+        public Block allocateBlock()
+        {
+            final LocalCache cache = localCache.get();
+            if (cache.size == 0)
+            {
+                refill(cache);
+            }
+            if (cache.size == 0)
+            {
+                misses.incrementAndGet();
+                return newBlock();
+            }
+
+            if (++cache.hits == HIT_PUBLISH_INTERVAL)
+            {
+                hits.addAndGet(cache.hits);
+                cache.hits = 0;
+            }
+            final Block block = cache.blocks[--cache.size];
+            cache.blocks[cache.size] = null;
+            return block;
+        }
+
+        private Block newBlock()
+        {
+            return new Block(new byte[blockSize])
+            {
+                @Override
+                public void close()
+                {
+                    reset();
+                    release(this);
+                }
+            };
+        }
+
+        private void release(final Block block)
+        {
+            final LocalCache cache = localCache.get();
+            if (cache.size == cache.blocks.length)
+            {
+                spill(cache);
+            }
+            cache.blocks[cache.size++] = block;
+        }
+
+        /** Moves up to half of a cache's capacity from its magazine into an empty cache. */
+        private void refill(final LocalCache cache)
+        {
+            final Magazine magazine = cache.magazine;
+            int count = 0;
+            synchronized (magazine)
+            {
+                trimIfIdle(magazine);
+
+                final List<Block> blocks = magazine.blocks;
+                count = Math.min(blocks.size(), (cache.blocks.length + 1) / 2);
+                for (int i = 0; i < count; i++)
+                {
+                    cache.blocks[i] = blocks.remove(blocks.size() - 1);
+                }
+                magazine.lowWatermark = Math.min(magazine.lowWatermark, blocks.size());
+            }
+            cache.size = count;
+            retainedBytes.addAndGet(-((long) count * blockSize));
+        }
+
+        /**
+         * Moves the older half of a full cache to its magazine, as much of it as the retention bound allows.
+         * Blocks that don't fit are dropped.
+         */
+        private void spill(final LocalCache cache)
+        {
+            final int count = (cache.blocks.length + 1) / 2;
+            final long allowed = (maxRetainedBytes - retainedBytes.get()) / blockSize;
+            final int kept = (int) Math.max(0, Math.min(count, allowed));
+            if (kept > 0)
+            {
+                final Magazine magazine = cache.magazine;
+                synchronized (magazine)
+                {
+                    trimIfIdle(magazine);
+
+                    for (int i = 0; i < kept; i++)
+                    {
+                        magazine.blocks.add(cache.blocks[i]);
+                    }
+                }
+                // racing threads may briefly overshoot the bound by a batch each, which is fine for sizing purposes
+                retainedBytes.addAndGet((long) kept * blockSize);
+            }
+
+            System.arraycopy(cache.blocks, count, cache.blocks, 0, cache.size - count);
+            for (int i = cache.size - count; i < cache.size; i++)
+            {
+                cache.blocks[i] = null;
+            }
+            cache.size -= count;
+        }
+
+        /** Releases the blocks that went unused for the last trim interval.  Must be called with the lock held. */
+        private void trimIfIdle(final Magazine magazine)
+        {
+            final long now = System.nanoTime();
+            if (now - magazine.intervalStart >= idleTrimNanos)
+            {
+                trim(magazine, magazine.lowWatermark);
+                magazine.lowWatermark = magazine.blocks.size();
+                magazine.intervalStart = now;
+            }
+        }
+
+        /** Releases some blocks from a magazine.  Must be called with the lock held. */
+        private void trim(final Magazine magazine, final int count)
+        {
+            final List<Block> blocks = magazine.blocks;
+            for (int i = 0; i < count; i++)
+            {
+                blocks.remove(blocks.size() - 1);
+            }
+            retainedBytes.addAndGet(-((long) count * blockSize));
+        }
+
+        /** Releases every block from the magazines. */
+        private void trim()
+        {
+            for (final Magazine magazine : magazines)
+            {
+                synchronized (magazine)
+                {
+                    trim(magazine, magazine.blocks.size());
+                    magazine.lowWatermark = 0;
+                }
+            }
+        }
+
+        @Override
+        public int getBlockSize()
+        {
+            return blockSize;
+        }
+
+        @Override
+        public void close() {}
+    }
+
+    private final long maxRetainedBytes;
+    private final long idleTrimNanos;
+    private final int stripes;
+    private final ConcurrentMap<Integer, StripedBlockAllocator> allocators;
+
+    private final AtomicLong hits;
+    private final AtomicLong misses;
+    private final AtomicLong retainedBytes;
+
+    public StripedBlockAllocatorProvider()
+    {
+        this(DEFAULT_MAX_RETAINED_BYTES, DEFAULT_IDLE_TRIM_MILLIS);
+    }
+
+    /**
+     * @param maxRetainedBytes  the bound on the bytes held by the shared magazines.
+     * @param idleTrimMillis    the interval after which unused blocks are released from the shared magazines.
+     */
+    public StripedBlockAllocatorProvider(final long maxRetainedBytes,
+                                         final long idleTrimMillis)
+    {
+        if (maxRetainedBytes < 0)
+        {
+            throw new IllegalArgumentException("Invalid maximum retained bytes: " + maxRetainedBytes);
+        }
+        if (idleTrimMillis < 0)
+        {
+            throw new IllegalArgumentException("Invalid idle trim interval: " + idleTrimMillis);
+        }
+
+        this.maxRetainedBytes = maxRetainedBytes;
+        this.idleTrimNanos = TimeUnit.MILLISECONDS.toNanos(idleTrimMillis);
+        this.stripes = stripesFor(Runtime.getRuntime().availableProcessors());
+        this.allocators = new ConcurrentHashMap<Integer, StripedBlockAllocator>();
+
+        this.hits = new AtomicLong();
+        this.misses = new AtomicLong();
+        this.retainedBytes = new AtomicLong();
+    }
+
+    /** Returns the smallest power of two that is at least the number of processors. */
+    private static int stripesFor(final int processors)
+    {
+        int stripes = 1;
+        while (stripes < processors)
+        {
+            stripes <<= 1;
+        }
+        return stripes;
+    }
+
+    @Override
+    public BlockAllocator vendAllocator(final int blockSize)
+    {
+        if (blockSize <= 0)
+        {
+            throw new IllegalArgumentException("Invalid block size: " + blockSize);
+        }
+
+        StripedBlockAllocator allocator = allocators.get(blockSize);
+        if (allocator == null)
+        {
+            allocator = new StripedBlockAllocator(blockSize);
+            final StripedBlockAllocator existingAllocator = allocators.putIfAbsent(blockSize, allocator);
+            if (existingAllocator != null)
+            {
+                allocator = existingAllocator;
+            }
+        }
+        return allocator;
+    }
+
+    /**
+     * Releases every block held by the shared magazines to the garbage collector.
+     * Blocks cached by individual threads are not affected.
+     */
+    public void trim()
+    {
+        for (final StripedBlockAllocator allocator : allocators.values())
+        {
+            allocator.trim();
+        }
+    }
+
+    /** Returns the number of allocations satisfied by a pooled block. */
+    public long getHits()
+    {
+        return hits.get();
+    }
+
+    /** Returns the number of allocations that required new memory. */
+    public long getMisses()
+    {
+        return misses.get();
+    }
+
+    /** Returns the number of bytes currently held by the shared magazines. */
+    public long getRetainedBytes()
+    {
+        return retainedBytes.get();
+    }
+}
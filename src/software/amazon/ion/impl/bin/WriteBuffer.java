@@ -17,6 +17,7 @@ package software.amazon.ion.impl.bin;
 import java.io.Closeable;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -25,10 +26,15 @@ import java.util.List;
  */
 /*package*/ final class WriteBuffer implements Closeable
 {
+    /** The largest amount of direct memory copied to a stream at a time. */
+    private static final int MAX_TRANSFER_SIZE = 8192;
+
     private final BlockAllocator allocator;
     private final List<Block> blocks;
     private Block current;
     private int index;
+    /** Scratch space for copying direct memory to streams, allocated on demand. */
+    private byte[] transfer;
 
     public WriteBuffer(final BlockAllocator allocator)
     {
@@ -59,11 +65,22 @@ import java.util.List;
         return (int) (position % allocator.getBlockSize());
     }
 
-    /** Resets the write buffer to empty. */
+    /** Resets the write buffer to empty, keeping its first block. */
     public void reset()
     {
-        close();
-        allocateNewBlock();
+        if (blocks.isEmpty())
+        {
+            allocateNewBlock();
+        }
+        else
+        {
+            // free all but the first block, which is all that small streams need
+            for (int i = blocks.size() - 1; i > 0; i--)
+            {
+                blocks.remove(i).close();
+            }
+            blocks.get(0).reset();
+        }
         index = 0;
         current = blocks.get(index);
     }
@@ -97,6 +114,16 @@ import java.util.List;
         return current.remaining();
     }
 
+    /**
+     * Returns the amount of capacity left in the current block for the fast paths that write to its array directly.
+     * Blocks that aren't backed by a heap array have none, and are always written through the slow paths.
+     */
+    private int arrayRemaining()
+    {
+        final Block block = current;
+        return block.data == null ? 0 : block.remaining();
+    }
+
     /** Returns the logical position in the current block. */
     public long position()
     {
@@ -111,7 +138,7 @@ import java.util.List;
         final int index = index(position);
         final int offset = offset(position);
         final Block block = blocks.get(index);
-        return block.data[offset] & OCTET_MASK;
+        return block.get(offset) & OCTET_MASK;
     }
 
     /** Writes a single octet to the buffer, expanding if necessary. */
@@ -127,7 +154,7 @@ import java.util.List;
             current = blocks.get(index);
         }
         final Block block = current;
-        block.data[block.limit] = octet;
+        block.put(block.limit, octet);
         block.limit++;
     }
 
@@ -138,7 +165,7 @@ import java.util.List;
         {
             final Block block = current;
             final int amount = Math.min(len, block.remaining());
-            System.arraycopy(bytes, off, block.data, block.limit, amount);
+            block.put(block.limit, bytes, off, amount);
             block.limit += amount;
             off += amount;
             len -= amount;
@@ -165,7 +192,7 @@ import java.util.List;
         }
 
         final Block block = current;
-        System.arraycopy(bytes, off, block.data, block.limit, len);
+        block.put(block.limit, bytes, off, len);
         block.limit += len;
     }
 
@@ -263,7 +290,7 @@ import java.util.List;
     private int writeUTF8UpTo3Byte(final CharSequence chars, int off, int len)
     {
         // fast path if we fit in the block assuming optimistically for all three-byte
-        if ((len * 3) > remaining())
+        if ((len * 3) > arrayRemaining())
         {
             return writeUTF8Slow(chars, off, len);
         }
@@ -318,7 +345,7 @@ import java.util.List;
     private int writeUTF8UpTo2Byte(final CharSequence chars, int off, int len)
     {
         // fast path if we fit in the block assuming optimistically for all two-byte
-        if ((len * 2) > remaining())
+        if ((len * 2) > arrayRemaining())
         {
             return writeUTF8Slow(chars, off, len);
         }
@@ -374,7 +401,7 @@ import java.util.List;
     public int writeUTF8(final CharSequence chars, int off, int len)
     {
         // fast path if we fit in the block assuming optimistically for all ASCII
-        if (len > remaining())
+        if (len > arrayRemaining())
         {
             return writeUTF8Slow(chars, off, len);
         }
@@ -450,7 +477,7 @@ import java.util.List;
 
     public void writeUInt16(long value)
     {
-        if (remaining() < 2)
+        if (arrayRemaining() < 2)
         {
             writeUInt16Slow(value);
             return;
@@ -473,7 +500,7 @@ import java.util.List;
 
     public void writeUInt24(long value)
     {
-        if (remaining() < 3)
+        if (arrayRemaining() < 3)
         {
             writeUInt24Slow(value);
             return;
@@ -498,7 +525,7 @@ import java.util.List;
 
     public void writeUInt32(long value)
     {
-        if (remaining() < 4)
+        if (arrayRemaining() < 4)
         {
             writeUInt32Slow(value);
             return;
@@ -525,7 +552,7 @@ import java.util.List;
 
     public void writeUInt40(long value)
     {
-        if (remaining() < 5)
+        if (arrayRemaining() < 5)
         {
             writeUInt40Slow(value);
             return;
@@ -554,7 +581,7 @@ import java.util.List;
 
     public void writeUInt48(long value)
     {
-        if (remaining() < 6)
+        if (arrayRemaining() < 6)
         {
             writeUInt48Slow(value);
             return;
@@ -585,7 +612,7 @@ import java.util.List;
 
     public void writeUInt56(long value)
     {
-        if (remaining() < 7)
+        if (arrayRemaining() < 7)
         {
             writeUInt56Slow(value);
             return;
@@ -618,7 +645,7 @@ import java.util.List;
 
     public void writeUInt64(long value)
     {
-        if (remaining() < 8)
+        if (arrayRemaining() < 8)
         {
             writeUInt64Slow(value);
             return;
@@ -870,7 +897,7 @@ import java.util.List;
         }
         if (value < VAR_UINT_3_OCTET_MIN_VALUE)
         {
-            if (remaining() < 2)
+            if (arrayRemaining() < 2)
             {
                 return writeVarUIntSlow(value);
             }
@@ -878,7 +905,7 @@ import java.util.List;
         }
         if (value < VAR_UINT_4_OCTET_MIN_VALUE)
         {
-            if (remaining() < 3)
+            if (arrayRemaining() < 3)
             {
                 return writeVarUIntSlow(value);
             }
@@ -886,7 +913,7 @@ import java.util.List;
         }
         if (value < VAR_UINT_5_OCTET_MIN_VALUE)
         {
-            if (remaining() < 4)
+            if (arrayRemaining() < 4)
             {
                 return writeVarUIntSlow(value);
             }
@@ -894,7 +921,7 @@ import java.util.List;
         }
         if (value < VAR_UINT_6_OCTET_MIN_VALUE)
         {
-            if (remaining() < 5)
+            if (arrayRemaining() < 5)
             {
                 return writeVarUIntSlow(value);
             }
@@ -1003,7 +1030,7 @@ import java.util.List;
             return 1;
         }
         final long signBit = value < 0 ? 1 : 0;
-        final int remaining = remaining();
+        final int remaining = arrayRemaining();
         if (magnitude < VAR_INT_3_OCTET_MIN_VALUE && remaining >= 2)
         {
             return writeVarUIntDirect2(magnitude | (signBit << VAR_SINT_2_OCTET_SHIFT));
@@ -1037,9 +1064,9 @@ import java.util.List;
     {
         // XXX we're stradling a block
         final Block block1 = blocks.get(index);
-        block1.data[offset] = (byte) ((value >> VAR_UINT_2_OCTET_SHIFT) & VAR_INT_MASK);
+        block1.put(offset, (byte) ((value >> VAR_UINT_2_OCTET_SHIFT) & VAR_INT_MASK));
         final Block block2 = blocks.get(index + 1);
-        block2.data[0]      = (byte) ((value                            & VAR_INT_MASK) | VAR_INT_FINAL_OCTET_SIGNAL_MASK);
+        block2.put(0,      (byte) ((value                            & VAR_INT_MASK) | VAR_INT_FINAL_OCTET_SIGNAL_MASK));
     }
 
     public void writeVarUIntDirect2At(long position, long value)
@@ -1054,8 +1081,8 @@ import java.util.List;
         }
 
         final Block block = blocks.get(index);
-        block.data[offset    ] = (byte) ((value >> VAR_UINT_2_OCTET_SHIFT) & VAR_INT_MASK);
-        block.data[offset + 1] = (byte) ((value                            & VAR_INT_MASK) | VAR_INT_FINAL_OCTET_SIGNAL_MASK);
+        block.put(offset,     (byte) ((value >> VAR_UINT_2_OCTET_SHIFT) & VAR_INT_MASK));
+        block.put(offset + 1, (byte) ((value                            & VAR_INT_MASK) | VAR_INT_FINAL_OCTET_SIGNAL_MASK));
     }
 
     public void writeUInt8At(final long position, final long value)
@@ -1065,7 +1092,7 @@ import java.util.List;
 
         // XXX we'll never overrun a block unless we're given a position past our block array
         final Block block = blocks.get(index);
-        block.data[offset] = (byte) value;
+        block.put(offset, (byte) value);
     }
 
     /** Write the entire buffer to output stream. */
@@ -1073,7 +1100,7 @@ import java.util.List;
     {
         for (final Block block : blocks)
         {
-            out.write(block.data, 0, block.limit);
+            writeTo(out, block, 0, block.limit);
         }
     }
 
@@ -1085,11 +1112,46 @@ import java.util.List;
             final int index = index(position);
             final int offset = offset(position);
             final Block block = blocks.get(index);
-            final int amount = (int) Math.min(block.data.length - offset, length);
-            out.write(block.data, offset, amount);
+            final int amount = (int) Math.min(block.capacity() - offset, length);
+            writeTo(out, block, offset, amount);
 
             position += amount;
             length -= amount;
         }
     }
+
+    private void writeTo(final OutputStream out, final Block block, final int offset, final int length)
+        throws IOException
+    {
+        if (block.data != null)
+        {
+            out.write(block.data, offset, length);
+        }
+        else if (out instanceof GatheringOutputStream)
+        {
+            // hand the memory over as is--the view is valid until the stream is flushed
+            final ByteBuffer view = block.buffer.duplicate();
+            view.limit(offset + length);
+            view.position(offset);
+            ((GatheringOutputStream) out).write(view);
+        }
+        else
+        {
+            // streams only accept arrays, so the memory has to be copied out
+            if (transfer == null)
+            {
+                transfer = new byte[Math.min(allocator.getBlockSize(), MAX_TRANSFER_SIZE)];
+            }
+            final ByteBuffer buffer = block.buffer;
+            buffer.position(offset);
+            int remaining = length;
+            while (remaining > 0)
+            {
+                final int amount = Math.min(remaining, transfer.length);
+                buffer.get(transfer, 0, amount);
+                out.write(transfer, 0, amount);
+                remaining -= amount;
+            }
+        }
+    }
 }
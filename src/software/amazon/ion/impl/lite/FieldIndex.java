@@ -0,0 +1,447 @@
+/*
+ * Copyright 2017 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at:
+ *
+ *     http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+
+package software.amazon.ion.impl.lite;
+
+import java.util.Arrays;
+
+/**
+ * Maps the field names of a struct to the positions of its fields.
+ * <p>
+ * Fields are identified by their position in the struct, from 0 up to
+ * {@link #size()}, and are keyed by the text of their name, or by its
+ * symbol ID when the text is unknown.  Lookups are by text, and a lite
+ * value's SID depends on the symbol table it was read with, so the text is
+ * the only key that's stable.  Each key occupies one bucket of an
+ * open-addressing table with linear probing, holding the slot of its first
+ * field.  Fields sharing a key are chained in position order through
+ * {@link #myNext}, so duplicates cost nothing until they are removed.
+ * <p>
+ * New fields are always added at the end of the struct.  Removing a field
+ * shifts the positions of the fields after it down by one, as it does in
+ * the struct.  Rather than renumbering the other fields, a removed field's
+ * slot is left dead, and the dead slots are counted by a Fenwick tree that
+ * maps between slots and positions in logarithmic time.  The dead slots are
+ * compacted away once they're half of all the slots.  Until a field is
+ * removed, each field's slot is its position.
+ */
+final class FieldIndex
+{
+    private static final int NONE = -1;
+    /** Marks a dead slot in {@link #myNext}. */
+    private static final int DEAD = -2;
+    private static final int MIN_BUCKETS = 16;
+
+    /** The text of each slot's field name, or null if unknown. */
+    private String[] myNames;
+    /** The symbol ID of each slot's field name, used when its text is unknown. */
+    private int[]    mySids;
+    /**
+     * The slot of the next live field with the same key, NONE, or DEAD if
+     * the slot's field has been removed.
+     */
+    private int[]    myNext;
+    /** The number of slots in use, live or dead. */
+    private int      mySlots;
+    /** The number of dead slots. */
+    private int      myDead;
+    /**
+     * A Fenwick tree, indexed from 1, of the dead slots; empty while
+     * {@link #myDead} is zero.  Its length is one more than the capacity.
+     */
+    private int[]    myDeadTree;
+
+    /**
+     * The slot of the first field with each key, or NONE.  The length
+     * is a power of two, at least twice {@link #myKeyCount}.
+     */
+    private int[]    myBuckets;
+    /** Thirty-two minus the base-two logarithm of the number of buckets. */
+    private int      myShift;
+    /** The number of distinct keys. */
+    private int      myKeyCount;
+
+    /**
+     * @param capacity the expected number of fields.
+     */
+    FieldIndex(int capacity)
+    {
+        capacity = Math.max(capacity, 1);
+        myNames = new String[capacity];
+        mySids = new int[capacity];
+        myNext = new int[capacity];
+        myDeadTree = new int[capacity + 1];
+        setBuckets(bucketsFor(capacity));
+    }
+
+    private FieldIndex(FieldIndex that)
+    {
+        myNames = that.myNames.clone();
+        mySids = that.mySids.clone();
+        myNext = that.myNext.clone();
+        mySlots = that.mySlots;
+        myDead = that.myDead;
+        myDeadTree = that.myDeadTree.clone();
+        myBuckets = that.myBuckets.clone();
+        myShift = that.myShift;
+        myKeyCount = that.myKeyCount;
+    }
+
+    FieldIndex copy()
+    {
+        return new FieldIndex(this);
+    }
+
+    int size()
+    {
+        return mySlots - myDead;
+    }
+
+    private static int bucketsFor(int keys)
+    {
+        int buckets = MIN_BUCKETS;
+        while (buckets < 2 * keys)
+        {
+            buckets <<= 1;
+        }
+        return buckets;
+    }
+
+    private void setBuckets(int length)
+    {
+        myBuckets = new int[length];
+        Arrays.fill(myBuckets, NONE);
+        myShift = Integer.numberOfLeadingZeros(length) + 1;
+    }
+
+    /**
+     * Picks the home bucket of a key from the high bits of its hash, spread
+     * by a multiplicative (Fibonacci) hash, since the hash codes of similar
+     * field names differ only in their low bits.
+     */
+    private int home(String name, int sid)
+    {
+        int h = (name != null ? name.hashCode() : sid);
+        return (h * 0x9E3779B9) >>> myShift;
+    }
+
+    private int homeOf(int field)
+    {
+        return home(myNames[field], mySids[field]);
+    }
+
+    private boolean hasKey(int field, String name, int sid)
+    {
+        String text = myNames[field];
+        if (name != null)
+        {
+            return name == text || name.equals(text);
+        }
+        return text == null && mySids[field] == sid;
+    }
+
+    /**
+     * @return the bucket holding the key, or the empty bucket where it
+     * belongs.
+     */
+    private int bucketOf(String name, int sid)
+    {
+        int mask = myBuckets.length - 1;
+        int b = home(name, sid);
+        for (;;)
+        {
+            int head = myBuckets[b];
+            if (head == NONE || hasKey(head, name, sid))
+            {
+                return b;
+            }
+            b = (b + 1) & mask;
+        }
+    }
+
+    /**
+     * Finds the first field with the given name.
+     *
+     * @param name must not be null.
+     *
+     * @return the position of the field, or -1 if there's none.
+     */
+    int find(String name)
+    {
+        int head = myBuckets[bucketOf(name, 0)];
+        return (head == NONE) ? NONE : positionOf(head);
+    }
+
+
+    /** @return the number of dead slots before the given slot. */
+    private int deadBefore(int slot)
+    {
+        int count = 0;
+        for (int i = slot; i > 0; i -= i & -i)
+        {
+            count += myDeadTree[i];
+        }
+        return count;
+    }
+
+    private int positionOf(int slot)
+    {
+        return (myDead == 0) ? slot : slot - deadBefore(slot);
+    }
+
+    /** @return the slot of the live field at a position. */
+    private int slotOf(int position)
+    {
+        if (myDead == 0) return position;
+
+        // descend the tree for the last slot with no more than
+        // position live slots before it
+        int n = myDeadTree.length - 1;
+        int slot = 0;
+        int remaining = position;
+        for (int step = Integer.highestOneBit(n); step > 0; step >>= 1)
+        {
+            int next = slot + step;
+            if (next <= n)
+            {
+                int live = step - myDeadTree[next];
+                if (live <= remaining)
+                {
+                    slot = next;
+                    remaining -= live;
+                }
+            }
+        }
+        return slot;
+    }
+
+    private void markDead(int slot)
+    {
+        myDead++;
+        for (int i = slot + 1; i < myDeadTree.length; i += i & -i)
+        {
+            myDeadTree[i]++;
+        }
+    }
+
+    /**
+     * Drops the dead slots, so that each field's slot is its position again.
+     * The keys don't change, so neither do their buckets.
+     */
+    private void compact()
+    {
+        for (int b = 0; b < myBuckets.length; b++)
+        {
+            if (myBuckets[b] != NONE)
+            {
+                myBuckets[b] = positionOf(myBuckets[b]);
+            }
+        }
+
+        int live = 0;
+        for (int slot = 0; slot < mySlots; slot++)
+        {
+            int next = myNext[slot];
+            if (next != DEAD)
+            {
+                myNames[live] = myNames[slot];
+                mySids[live] = mySids[slot];
+                myNext[live] = (next == NONE) ? NONE : positionOf(next);
+                live++;
+            }
+        }
+        Arrays.fill(myNames, live, mySlots, null);
+        mySlots = live;
+        myDead = 0;
+        Arrays.fill(myDeadTree, 0);
+    }
+
+    /**
+     * Adds a field after all the others.
+     *
+     * @param name the text of the field name, or null if it's unknown.
+     * @param sid the symbol ID of the field name, used if the text is null.
+     */
+    void add(String name, int sid)
+    {
+        if (mySlots == myNames.length)
+        {
+            if (myDead != 0)
+            {
+                compact();
+            }
+            if (mySlots == myNames.length)
+            {
+                int capacity = mySlots * 2;
+                myNames = Arrays.copyOf(myNames, capacity);
+                mySids = Arrays.copyOf(mySids, capacity);
+                myNext = Arrays.copyOf(myNext, capacity);
+                myDeadTree = new int[capacity + 1];
+            }
+        }
+        int field = mySlots++;
+        myNames[field] = name;
+        mySids[field] = sid;
+        myNext[field] = NONE;
+
+        int b = bucketOf(name, sid);
+        int head = myBuckets[b];
+        if (head != NONE)
+        {
+            // a duplicate goes at the end of its chain
+            while (myNext[head] != NONE)
+            {
+                head = myNext[head];
+            }
+            myNext[head] = field;
+            return;
+        }
+
+        myBuckets[b] = field;
+        if (2 * ++myKeyCount > myBuckets.length)
+        {
+            rehash(myBuckets.length * 2);
+        }
+    }
+
+    private void rehash(int length)
+    {
+        int[] old = myBuckets;
+        setBuckets(length);
+        int mask = length - 1;
+        for (int head : old)
+        {
+            if (head != NONE)
+            {
+                int b = homeOf(head);
+                while (myBuckets[b] != NONE)
+                {
+                    b = (b + 1) & mask;
+                }
+                myBuckets[b] = head;
+            }
+        }
+    }
+
+    /**
+     * Removes a field, moving the fields after it down by one position.
+     */
+    void remove(int position)
+    {
+        assert position >= 0 && position < size();
+
+        int field = slotOf(position);
+        int b = bucketOf(myNames[field], mySids[field]);
+        int head = myBuckets[b];
+        assert head != NONE;
+        if (head == field)
+        {
+            if (myNext[field] != NONE)
+            {
+                myBuckets[b] = myNext[field];
+            }
+            else
+            {
+                deleteBucket(b);
+            }
+        }
+        else
+        {
+            int prior = head;
+            while (myNext[prior] != field)
+            {
+                prior = myNext[prior];
+            }
+            myNext[prior] = myNext[field];
+        }
+        myNames[field] = null;
+
+        if (field == mySlots - 1)
+        {
+            // nothing follows the last slot, so it's simply dropped, along
+            // with any dead slots before it, which are then unmarked so
+            // that they're live when they're reused
+            mySlots--;
+            while (mySlots > 0 && myNext[mySlots - 1] == DEAD)
+            {
+                unmarkDead(--mySlots);
+            }
+            return;
+        }
+
+        myNext[field] = DEAD;
+        markDead(field);
+        if (2 * myDead > mySlots)
+        {
+            compact();
+        }
+    }
+
+    private void unmarkDead(int slot)
+    {
+        myDead--;
+        for (int i = slot + 1; i < myDeadTree.length; i += i & -i)
+        {
+            myDeadTree[i]--;
+        }
+    }
+
+    /**
+     * Empties a bucket, moving later buckets of the same probe sequence
+     * back so that lookups don't stop short of them.
+     */
+    private void deleteBucket(int b)
+    {
+        myKeyCount--;
+        int mask = myBuckets.length - 1;
+        int hole = b;
+        int next = b;
+        for (;;)
+        {
+            myBuckets[hole] = NONE;
+            int head;
+            int home;
+            do
+            {
+                next = (next + 1) & mask;
+                head = myBuckets[next];
+                if (head == NONE) return;
+                home = homeOf(head);
+            }
+            // skip keys whose home lies cyclically within (hole, next]
+            while (hole <= next
+                   ? hole < home && home <= next
+                   : hole < home || home <= next);
+            myBuckets[hole] = head;
+            hole = next;
+        }
+    }
+
+    @Override
+    public String toString()
+    {
+        StringBuilder buf = new StringBuilder("[");
+        for (int head : myBuckets)
+        {
+            if (head == NONE) continue;
+            if (buf.length() > 1) buf.append(',');
+            buf.append(myNames[head] != null ? myNames[head] : "$" + mySids[head]);
+            for (int f = head; f != NONE; f = myNext[f])
+            {
+                buf.append(':').append(positionOf(f));
+            }
+        }
+        return buf.append(']').toString();
+    }
+}
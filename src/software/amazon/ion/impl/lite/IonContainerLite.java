@@ -14,7 +14,7 @@
 
 package software.amazon.ion.impl.lite;
 
-import java.util.HashMap;
+import java.io.IOException;
 import java.util.Iterator;
 import java.util.ListIterator;
 import java.util.NoSuchElementException;
@@ -22,13 +22,17 @@ import software.amazon.ion.ContainedValueException;
 import software.amazon.ion.IonContainer;
 import software.amazon.ion.IonDatagram;
 import software.amazon.ion.IonException;
+import software.amazon.ion.IonReader;
 import software.amazon.ion.IonValue;
+import software.amazon.ion.IonWriter;
 import software.amazon.ion.NullValueException;
 import software.amazon.ion.ReadOnlyValueException;
 import software.amazon.ion.SymbolTable;
 import software.amazon.ion.ValueVisitor;
+import software.amazon.ion.impl.PrivateBinarySlice;
 import software.amazon.ion.impl.PrivateIonConstants;
 import software.amazon.ion.impl.PrivateIonContainer;
+import software.amazon.ion.impl.PrivateIonWriter;
 import software.amazon.ion.impl.PrivateUtils;
 
 abstract class IonContainerLite
@@ -39,6 +43,19 @@ abstract class IonContainerLite
     protected int            _child_count;
     protected IonValueLite[] _children;
 
+    /**
+     * The encoded value this container was loaded from, until its children
+     * are materialized from it.  Null once that has happened, or if the
+     * container wasn't loaded lazily.
+     */
+    private PrivateBinarySlice _encoded;
+
+    /**
+     * The hash code of this container, kept once it's read-only since it
+     * can't change after that.  Zero until then, or until it's computed.
+     */
+    private int _hashCode;
+
     protected IonContainerLite(ContainerlessContext context, boolean isNull)
     {
         // we'll let IonValueLite handle this work as we always need to know
@@ -48,6 +65,8 @@ abstract class IonContainerLite
 
     IonContainerLite(IonContainerLite existing, IonContext context, boolean isStruct) {
         super(existing, context);
+        // the encoding is immutable, so the copy can materialize it later too
+        this._encoded = existing._encoded;
         int childCount = existing._child_count;
         this._child_count = childCount;
         // when cloning the children we establish 'this' the cloned outer container as the context
@@ -90,6 +109,9 @@ abstract class IonContainerLite
     {
         checkForLock();
 
+        // there's no need to materialize children that are being discarded
+        _encoded = null;
+
         if (_isNullValue())
         {
             assert _children == null;
@@ -173,6 +195,7 @@ abstract class IonContainerLite
 
         public SequenceContentIterator(int index, boolean readOnly)
         {
+            materialize();
             if (_isLocked() && !readOnly) {
                 throw new IllegalStateException("you can't open an updatable iterator on a read only value");
             }
@@ -384,6 +407,9 @@ abstract class IonContainerLite
     {
         if (_isLocked()) return;
 
+        // read-only values must not change state when they're read
+        materialize();
+
         if (_children != null) {
             for (int ii=0; ii<_child_count; ii++) {
                 IonValueLite child = _children[ii];
@@ -400,6 +426,40 @@ abstract class IonContainerLite
         _isLocked(true);
     }
 
+    @Override
+    public int hashCode()
+    {
+        // avoids the symbol table provider when the hash code is kept
+        int result = _hashCode;
+        if (result != 0) return result;
+        return super.hashCode();
+    }
+
+    /**
+     * Computes the hash code of this container and its children, which is
+     * kept when this container is read-only, so that hashing a tree of
+     * read-only values walks each subtree only once.
+     */
+    @Override
+    int hashCode(SymbolTableProvider symbolTableProvider)
+    {
+        int result = _hashCode;
+        if (result == 0) {
+            result = containerHashCode(symbolTableProvider);
+            if (_isLocked()) {
+                _hashCode = result;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Computes the hash code of this container and its children.
+     *
+     * @see #hashCode(SymbolTableProvider)
+     */
+    abstract int containerHashCode(SymbolTableProvider symbolTableProvider);
+
     /*
      * IonContext methods
      *
@@ -433,6 +493,10 @@ abstract class IonContainerLite
     void clearSymbolIDValues()
     {
         super.clearSymbolIDValues();
+
+        // children that haven't been materialized have no symbol IDs
+        if (_encoded != null) return;
+
         for (int ii=0; ii<get_child_count(); ii++) {
             IonValueLite child = get_child(ii);
             child.clearSymbolIDValues();
@@ -595,7 +659,7 @@ abstract class IonContainerLite
     }
 
     /**
-     * This is overriden in {@link IonStructLite} to add the {@link HashMap} of
+     * This is overriden in {@link IonStructLite} to add the {@link FieldIndex} of
      * field names when the struct becomes moderately large.
      *
      * @param size
@@ -606,10 +670,12 @@ abstract class IonContainerLite
     }
 
     public final int get_child_count() {
+        if (_encoded != null) materialize();
         return _child_count;
     }
 
     public final IonValueLite get_child(int idx) {
+        if (_encoded != null) materialize();
         if (idx < 0 || idx >= _child_count) {
             throw new IndexOutOfBoundsException(Integer.toString(idx));
         }
@@ -619,6 +685,7 @@ abstract class IonContainerLite
 
     final IonValueLite set_child(int idx, IonValueLite child)
     {
+        if (_encoded != null) materialize();
         if (idx < 0 || idx >= _child_count) {
             throw new IndexOutOfBoundsException(Integer.toString(idx));
         }
@@ -638,6 +705,7 @@ abstract class IonContainerLite
      */
     protected int add_child(int idx, IonValueLite child)
     {
+        if (_encoded != null) materialize();
         _isNullValue(false); // if we add children we're not null anymore
         child.setContext(this.getContextForIndex(child, idx));
         if (_children == null || _child_count >= _children.length) {
@@ -661,6 +729,65 @@ abstract class IonContainerLite
     }
 
 
+    /**
+     * Defers loading this container's children until they're needed.
+     * The container must be empty.
+     *
+     * @param encoded the binary encoding of this container.
+     */
+    final void setEncoded(PrivateBinarySlice encoded)
+    {
+        assert _child_count == 0;
+        _encoded = encoded;
+    }
+
+    /**
+     * Loads this container's children from its encoded value, if that hasn't
+     * happened yet.
+     */
+    final void materialize()
+    {
+        PrivateBinarySlice encoded = _encoded;
+        if (encoded != null) {
+            // cleared first, since adding the children checks it
+            _encoded = null;
+            getSystem().load_encoded_children(this, encoded);
+        }
+    }
+
+    /**
+     * Writes the content of this container straight from its encoded value,
+     * if its children haven't been materialized.  Any field name and
+     * annotations must already be set on the writer.
+     *
+     * @return false if the children must be written instead.
+     */
+    final boolean writeEncodedBodyTo(IonWriter writer)
+        throws IOException
+    {
+        PrivateBinarySlice encoded = _encoded;
+        if (encoded == null) {
+            return false;
+        }
+
+        IonSystemLite system = getSystem();
+        IonReader reader = encoded.newReader(system, system.getCatalog());
+        reader.next();
+        if (((PrivateIonWriter) writer).isStreamCopyOptimized()) {
+            // the encoding has no field name or annotations, so those set on
+            // the writer are kept, and the bytes may be copied as they are
+            writer.writeValue(reader);
+        }
+        else {
+            writer.stepIn(getType());
+            reader.stepIn();
+            writer.writeValues(reader);
+            reader.stepOut();
+            writer.stepOut();
+        }
+        return true;
+    }
+
     IonContext getContextForIndex(IonValue element, int index){
         return this;
     }
@@ -670,6 +797,7 @@ abstract class IonContainerLite
      */
     void remove_child(int idx)
     {
+        if (_encoded != null) materialize();
         assert(idx >=0);
         assert(idx < get_child_count()); // this also asserts child count > 0
         assert get_child(idx) != null : "No child at index " + idx;
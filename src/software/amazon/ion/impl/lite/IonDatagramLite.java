@@ -301,6 +301,12 @@ final class IonDatagramLite
 
     @Override
     public int hashCode() {
+        // the children resolve their own symbol tables, so none is provided
+        return super.hashCode(null);
+    }
+
+    @Override
+    int containerHashCode(SymbolTableProvider symbolTableProvider) {
         int prime  = 8191;
         int result = HASH_SIGNATURE;
 
@@ -75,7 +75,7 @@ final class IonListLite
     }
 
     @Override
-    int hashCode(SymbolTableProvider symbolTableProvider) {
+    int containerHashCode(SymbolTableProvider symbolTableProvider) {
         return sequenceHashCode(HASH_SIGNATURE, symbolTableProvider);
     }
 
@@ -28,7 +28,9 @@ import software.amazon.ion.IonLoader;
 import software.amazon.ion.IonReader;
 import software.amazon.ion.IonSystem;
 import software.amazon.ion.IonWriter;
+import software.amazon.ion.SymbolTable;
 import software.amazon.ion.impl.PrivateIonWriterFactory;
+import software.amazon.ion.util.IonStreamUtils;
 
 final class IonLoaderLite
     implements IonLoader
@@ -76,6 +78,29 @@ final class IonLoaderLite
         return datagram;
     }
 
+    /**
+     * Loads each top-level value individually, so that containers loaded
+     * from binary can defer decoding their children.
+     *
+     * @return a new datagram; not null.
+     */
+    private IonDatagramLite load_lazy_helper(IonReader reader)
+    {
+        IonDatagramLite datagram = new IonDatagramLite(_system, _catalog);
+        SymbolTable symtab = null;
+        while (reader.next() != null)
+        {
+            SymbolTable current = reader.getSymbolTable();
+            if (current != symtab)
+            {
+                datagram.appendTrailingSymbolTable(current);
+                symtab = current;
+            }
+            datagram.add(_system.newValue(reader));
+        }
+        return datagram;
+    }
+
     public IonDatagram load(File ionFile) throws IonException, IOException
     {
         InputStream ionData = new FileInputStream(ionFile);
@@ -120,7 +145,10 @@ final class IonLoaderLite
     {
         try {
             IonReader reader = makeReader(_system, _catalog, ionData, 0, ionData.length);
-            IonDatagramLite datagram = load_helper(reader);
+            IonDatagramLite datagram =
+                _system.isLazyBinaryLoading() && IonStreamUtils.isIonBinary(ionData)
+                    ? load_lazy_helper(reader)
+                    : load_helper(reader);
             return datagram;
         }
         catch (IOException e) {
@@ -14,13 +14,12 @@
 
 package software.amazon.ion.impl.lite;
 
+import static software.amazon.ion.SymbolTable.UNKNOWN_SYMBOL_ID;
+
 import java.io.IOException;
 import java.io.PrintWriter;
 import java.util.Arrays;
-import java.util.HashMap;
 import java.util.HashSet;
-import java.util.Iterator;
-import java.util.ListIterator;
 import java.util.Map;
 import java.util.Map.Entry;
 import software.amazon.ion.ContainedValueException;
@@ -52,18 +51,16 @@ final class IonStructLite
     private IonStructLite(IonStructLite existing, IonContext context)
     {
         super(existing, context, true);
-        // field map can be shallow cloned due to it dealing with String and Integer
-        // values - both of which are immutable constructs and so safe to retain as references
-        this._field_map = null == _field_map
+        this._field_index = (existing._field_index == null)
                                 ? null
-                                : new HashMap<String, Integer>(existing._field_map);
-        this._field_map_duplicate_count = existing._field_map_duplicate_count;
+                                : existing._field_index.copy();
     }
 
-    private Map<String, Integer> _field_map;
-
-
-    public int                      _field_map_duplicate_count;
+    /**
+     * Finds fields by name once the struct is large enough to make a
+     * linear scan slow; null until then.
+     */
+    private FieldIndex _field_index;
 
     @Override
     IonStructLite clone(IonContext parentContext)
@@ -80,111 +77,41 @@ final class IonStructLite
     @Override
     protected void transitionToLargeSize(int size)
     {
-        if (_field_map != null) return;
+        if (_field_index != null) return;
 
-        build_field_map();
+        build_field_index(size);
         return;
     }
-    protected void build_field_map()
+    private void build_field_index(int size)
     {
-        int size = (_children == null) ? 0 : _children.length;
-
-        _field_map = new HashMap<String, Integer>(size);
-        _field_map_duplicate_count = 0;
+        // this happens while a child is being added, before it's in place
+        _field_index = new FieldIndex(size);
 
         int count = get_child_count();
         for (int ii=0; ii<count; ii++) {
             IonValueLite v = get_child(ii);
-            SymbolToken fieldNameSymbol = v.getFieldNameSymbol();
-            String name = fieldNameSymbol.getText();
-            if (_field_map.get(name) != null) {
-                _field_map_duplicate_count++;
-            }
-            _field_map.put(name, ii); // this causes the map to have the largest index value stored
+            add_field(v.getFieldNameSymbol().getText(), v);
         }
         return;
     }
-    private void add_field(String fieldName, int newFieldIdx)
+    private void add_field(String fieldName, IonValueLite child)
     {
-        Integer idx = _field_map.get(fieldName);
-        if (idx != null) {
-            _field_map_duplicate_count++;
-            if (idx.intValue() > newFieldIdx) {
-                newFieldIdx = idx.intValue();
-            }
-        }
-        _field_map.put(fieldName, newFieldIdx);
+        int sid = (fieldName == null)
+                ? child.getFieldNameSymbol().getSid()
+                : UNKNOWN_SYMBOL_ID;
+        _field_index.add(fieldName, sid);
     }
-    private void remove_field(String fieldName, int lowest_idx, int copies)
-    {
-        if (_field_map == null) {
-            return;
-        }
 
-        Integer field_idx = _field_map.get(fieldName);
-        assert(field_idx != null);
-        _field_map.remove(fieldName);
-        _field_map_duplicate_count -= (copies - 1);
-    }
-
-    private void remove_field_from_field_map(String fieldName, int idx)
-    {
-        Integer field_idx = _field_map.get(fieldName);
-        assert(field_idx != null);
-
-        if (field_idx.intValue() != idx) {
-            // if the map has a different index, this must
-            // be a duplicate, and this copy isn't in the map
-            assert(_field_map_duplicate_count > 0);
-            _field_map_duplicate_count--;
-        }
-        else if (_field_map_duplicate_count > 0) {
-            // if we have any duplicates we have to check
-            // every time since we don't track which field
-            // is duplicated - so any dup can be expensive
-            int ii = find_last_duplicate(fieldName, idx);
-
-            if (ii == -1) {
-                // this is the last copy of this key
-                _field_map.remove(fieldName);
-            }
-            else {
-                // replaces this fields (the one being
-                // removed) array idx in the map with
-                // the preceding duplicates index
-                _field_map.put(fieldName, ii);
-                _field_map_duplicate_count--;
-            }
-        }
-        else {
-            // since there are not dup's we can just update
-            // the map by removing this fieldname
-            _field_map.remove(fieldName);
-        }
-    }
-
-    private void patch_map_elements_helper(int removed_idx)
+    /**
+     * Does not check locks.  Keeps the field index in step with every
+     * removal, including those made by the inherited iterators.
+     */
+    @Override
+    void remove_child(int idx)
     {
-        if (_field_map == null) {
-            return;
-        }
-
-        if (removed_idx >= get_child_count()) {
-            // if this was the at the end of the list
-            // there's nothing to change
-            return;
-        }
-
-        for (int ii=removed_idx; ii<get_child_count(); ii++) {
-            IonValueLite value = get_child(ii);
-            String  field_name = value.getFieldName();
-            Integer map_idx = _field_map.get(field_name);
-            if (map_idx.intValue() != ii) {
-                // if this is a field that to the right of
-                // the removed (in process of removing) value
-                // we need to patch the index value
-                _field_map.put(field_name, ii);
-            }
+        super.remove_child(idx);
+        if (_field_index != null) {
+            _field_index.remove(idx);
         }
     }
 
@@ -193,93 +120,37 @@ final class IonStructLite
     {
         super.dump(out);
 
-        if (_field_map == null) {
+        if (_field_index == null) {
             return;
         }
 
-        out.println("   dups: "+_field_map_duplicate_count);
-        Iterator<Entry<String, Integer>> it = _field_map.entrySet().iterator();
-        out.print("   map: [");
-        boolean first = true;
-        while (it.hasNext()) {
-            Entry<String, Integer> e = it.next();
-            if (!first) {
-                out.print(",");
-            }
-            out.print(e.getKey()+":"+e.getValue());
-            first = false;
-        }
-        out.println("]");
+        out.println("   map: "+_field_index);
     }
 
     @Override
     public String validate()
     {
-        if (_field_map == null) {
+        if (_field_index == null) {
             return null;
         }
         String error = "";
-        Iterator<Entry<String, Integer>> it = _field_map.entrySet().iterator();
-        while (it.hasNext()) {
-            Entry<String, Integer> e = it.next();
-            int idx = e.getValue().intValue();
-            IonValueLite v = (idx >= 0 && idx < get_child_count()) ? get_child(idx) : null;
-            if (v == null || idx != v._elementid() || (e.getKey().equals(v.getFieldName()) == false)) {
-                error += "map entry ["+e+"] doesn't match list value ["+v+"]\n";
-            }
-        }
-
-        return (error == "") ? null : error;
-    }
-
-    private int find_last_duplicate(String fieldName, int existing_idx)
-    {
-        for (int ii=existing_idx; ii>0; ) {
-            ii--;
-            IonValueLite field = get_child(ii);
-            if (fieldName.equals(field.getFieldName())) {
-                return ii;
-            }
+        int count = get_child_count();
+        if (_field_index.size() != count) {
+            error += "index has "+_field_index.size()+" fields, list has "+count+"\n";
         }
-        assert(there_is_only_one(fieldName, existing_idx));
-        return -1;
-    }
-    private boolean there_is_only_one(String fieldName, int existing_idx)
-    {
-        int count = 0;
-        for (int ii=0; ii<get_child_count(); ii++) {
+        for (int ii=0; ii<count; ii++) {
             IonValueLite v = get_child(ii);
-            if (v.getFieldName().equals(fieldName)) {
-                count++;
+            String name = v.getFieldName();
+            if (name == null) continue;
+            int idx = _field_index.find(name);
+            IonValueLite first = (idx >= 0 && idx <= ii) ? get_child(idx) : null;
+            if (first == null || !name.equals(first.getFieldName())) {
+                error += "index entry ["+name+":"+idx+"] doesn't match list value ["+v+"]\n";
             }
         }
-        if (count == 1 || count == 0) {
-            return true;
-        }
-        return false;
+
+        return (error == "") ? null : error;
     }
-//
-//    updateFieldName is unnecessary since field names are immutable
-//    (except when the value is unattached to any struct)
-//
-//    protected void updateFieldName(String oldname, String name, IonValue field)
-//    {
-//        assert(name != null && name.equals(field.getFieldName()));
-//
-//        if (oldname == null) return;
-//        if (_field_map == null) return;
-//
-//        Integer idx = _field_map.get(oldname);
-//        if (idx == null) return;
-//
-//        IonValue oldfield = get_child(idx);
-//
-//        // yes, we want object identity in this test
-//        if (oldfield == field) {
-//            remove_field(oldname, idx);
-//            add_field(name, idx);
-//        }
-//    }
 
     /**
      * Implements {@link Object#hashCode()} consistent with equals.
@@ -292,7 +163,7 @@ final class IonStructLite
      *          {@link Object#hashCode()} and {@link Object#equals(Object)}.
      */
     @Override
-    int hashCode(SymbolTableProvider symbolTableProvider)
+    int containerHashCode(SymbolTableProvider symbolTableProvider)
     {
         final int nameHashSalt  = 16777619; // prime to salt name of each Field
         final int valueHashSalt = 8191;     // prime to salt value of each Field
@@ -417,14 +288,12 @@ final class IonStructLite
         if (isNullValue()) {
             // nothing to see here, move along
         }
-        else if (_field_map != null) {
-            Integer idx = _field_map.get(fieldName);
-            if (idx != null) {
-                return idx.intValue();
-            }
-        }
         else {
+            // this loads the children of a lazy struct, and with them the index
             int ii, size = get_child_count();
+            if (_field_index != null) {
+                return _field_index.find(fieldName);
+            }
             for (ii=0; ii<size; ii++) {
                 IonValue field = get_child(ii);
                 if (fieldName.equals(field.getFieldName())) {
@@ -439,8 +308,7 @@ final class IonStructLite
     public void clear()
     {
         super.clear();
-        _field_map = null;
-        _field_map_duplicate_count = 0;
+        _field_index = null;
     }
 
     @Override
@@ -488,9 +356,9 @@ final class IonStructLite
         // add this to the Container child collection
         add(size, child);
 
-        // if we have a hash map we need to update it now
-        if (_field_map != null) {
-            add_field(fieldName, child._elementid());
+        // if we have an index we need to update it now
+        if (_field_index != null) {
+            add_field(fieldName, child);
         }
     }
 
@@ -572,26 +440,25 @@ final class IonStructLite
 
         // first we remove the any existing fields
         // associated with fieldName (which may be none)
-        if (_field_map != null && _field_map_duplicate_count == 0)
+        if (_field_index != null)
         {
-            // we have a map and no duplicates so the index
-            // (aka map) is all we need to find the only
-            // value associated with fieldName, if there is one
-            Integer idx = _field_map.get(fieldName);
-            if (idx != null) {
-                lowestRemovedIndex = idx.intValue();
-                remove_field_from_field_map(fieldName, lowestRemovedIndex);
-                remove_child(lowestRemovedIndex);
-                any_removed = true;
+            // the index finds the first remaining copy each time,
+            // so the first one removed has the lowest index
+            int idx;
+            while ((idx = _field_index.find(fieldName)) >= 0)
+            {
+                if (!any_removed) {
+                    lowestRemovedIndex = idx;
+                    any_removed = true;
+                }
+                remove_child(idx);
             }
         }
         else {
-            // either we don't have a map (index) or there
-            // are duplicates in both cases we have to
+            // we don't have an index so we have to
             // scan the child list directly.
             // Walk backwards to minimize array movement
             // as we remove fields as we encounter them.
-            int copies_removed = 0;
             for (int ii = get_child_count(); ii > 0; )
             {
                 ii--;
@@ -601,16 +468,11 @@ final class IonStructLite
                     // done by remove_child: child.detachFromContainer();
                     remove_child(ii);
                     lowestRemovedIndex = ii;
-                    copies_removed++;
                     any_removed = true;
                 }
             }
-            if (any_removed) {
-                remove_field(fieldName, lowestRemovedIndex, copies_removed);
-            }
         }
         if (any_removed) {
-            patch_map_elements_helper(lowestRemovedIndex);
             patch_elements_helper(lowestRemovedIndex);
         }
 
@@ -631,41 +493,6 @@ final class IonStructLite
         }
     }
 
-    @Override
-    public ListIterator<IonValue> listIterator(int index) {
-        return new SequenceContentIterator(index, isReadOnly()) {
-            @Override
-            public void remove() {
-                if (__readOnly) {
-                    throw new UnsupportedOperationException();
-                }
-                force_position_sync();
-
-                int idx = __pos;
-                if (!__lastMoveWasPrevious) {
-                    // position is 1 ahead of the array index
-                    idx--;
-                }
-                if (idx < 0) {
-                    throw new ArrayIndexOutOfBoundsException();
-                }
-
-                IonValueLite concrete = __current;
-                int concrete_idx = concrete._elementid();
-                assert(concrete_idx == idx);
-
-                if (_field_map != null) {
-                    remove_field_from_field_map(concrete.getFieldName(), idx);
-                }
-                super.remove();
-
-                if (_field_map != null) {
-                    patch_map_elements_helper(idx);
-                }
-            }
-        };
-    }
-
     public IonValue remove(String fieldName)
     {
         checkForLock();
@@ -675,60 +502,10 @@ final class IonStructLite
             return null;
         }
 
-        int idx = ((IonValueLite)field)._elementid();
-
-        // update the hash map first we don't want
-        // the child list changed until we've done
-        // this since the map update expects the
-        // index value of the remove field to be
-        // correct and unchanged.
-        if (_field_map != null) {
-            remove_field_from_field_map(fieldName, idx);
-        }
-
         super.remove(field);
-
-        if (_field_map != null) {
-            patch_map_elements_helper(idx);
-        }
-
         return field;
     }
 
-    @Override
-    public boolean remove(IonValue element)
-    {
-        if (element == null) {
-            throw new NullPointerException();
-        }
-
-        checkForLock();
-
-        if (element.getContainer() != this) {
-            return false;
-        }
-
-        IonValueLite concrete = (IonValueLite) element;
-        int idx = concrete._elementid();
-
-        // update the hash map first we don't want
-        // the child list changed until we've done
-        // this since the map update expects the
-        // index value of the remove field to be
-        // correct and unchanged.
-        if (_field_map != null) {
-            remove_field_from_field_map(concrete.getFieldName(), idx);
-        }
-
-        super.remove(concrete);
-
-        if (_field_map != null) {
-            patch_map_elements_helper(idx);
-        }
-
-        return true;
-    }
-
     public boolean removeAll(String... fieldNames)
     {
         boolean removedAny = false;
@@ -806,7 +583,7 @@ final class IonStructLite
         {
             writer.writeNull(IonType.STRUCT);
         }
-        else
+        else if (! writeEncodedBodyTo(writer))
         {
             writer.stepIn(IonType.STRUCT);
             writeChildren(writer, this, symbolTableProvider);
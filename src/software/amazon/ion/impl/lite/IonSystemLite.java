@@ -48,6 +48,7 @@ import software.amazon.ion.SymbolTable;
 import software.amazon.ion.SymbolToken;
 import software.amazon.ion.UnexpectedEofException;
 import software.amazon.ion.UnsupportedIonVersionException;
+import software.amazon.ion.impl.PrivateBinarySlice;
 import software.amazon.ion.impl.PrivateIonBinaryWriterBuilder;
 import software.amazon.ion.impl.PrivateIonSystem;
 import software.amazon.ion.impl.PrivateIonWriterFactory;
@@ -69,9 +70,15 @@ final class IonSystemLite
     private final IonTextWriterBuilder myTextWriterBuilder;
     /** Immutable. */
     private final PrivateIonBinaryWriterBuilder myBinaryWriterBuilder;
+    /**
+     * Whether containers loaded from binary byte arrays defer decoding
+     * their children until they're needed.
+     */
+    private final boolean myLazyBinaryLoading;
 
     public IonSystemLite(IonTextWriterBuilder twb,
-                          PrivateIonBinaryWriterBuilder bwb)
+                          PrivateIonBinaryWriterBuilder bwb,
+                          boolean lazyBinaryLoading)
     {
         IonCatalog catalog = twb.getCatalog();
         assert catalog != null;
@@ -90,6 +97,7 @@ final class IonSystemLite
 
         bwb.setSymtabValueFactory(_value_factory);
         myBinaryWriterBuilder = bwb.immutable();
+        myLazyBinaryLoading = lazyBinaryLoading;
     }
 
     //==========================================================================
@@ -101,6 +109,11 @@ final class IonSystemLite
         return myBinaryWriterBuilder.isStreamCopyOptimized();
     }
 
+    boolean isLazyBinaryLoading()
+    {
+        return myLazyBinaryLoading;
+    }
+
     @SuppressWarnings("unchecked")
     public <T extends IonValue> T clone(T value) throws IonException
     {
@@ -393,9 +406,18 @@ final class IonSystemLite
             case LIST:
             case SEXP:
             case STRUCT:
+                PrivateBinarySlice encoded = myLazyBinaryLoading
+                    ? PrivateBinarySlice.currentSlice(reader)
+                    : null;
+                if (encoded != null) {
+                    // the children are loaded when they're first needed,
+                    // and may well contain symbols
+                    ((IonContainerLite)v).setEncoded(encoded);
+                    symbol_is_present = true;
+                }
                 // we have to load the children after we grabbed the
                 // fieldname and annotations off of the parent container
-                if (load_children((IonContainerLite)v, reader)) {
+                else if (load_children((IonContainerLite)v, reader)) {
                     symbol_is_present = true;
                 }
                 break;
@@ -436,6 +458,19 @@ final class IonSystemLite
         return symbol_is_present;
     }
 
+    /**
+     * Loads the children of a lazily loaded container.
+     *
+     * @param encoded the binary encoding of the container.
+     */
+    void load_encoded_children(IonContainerLite container,
+                               PrivateBinarySlice encoded)
+    {
+        IonReader reader = encoded.newReader(this, _catalog);
+        reader.next();
+        load_children(container, reader);
+    }
+
     IonValueLite newValue(IonType valueType)
     {
         IonValueLite v;
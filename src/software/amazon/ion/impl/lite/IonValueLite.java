@@ -42,10 +42,11 @@ import software.amazon.ion.system.IonTextWriterBuilder;
  *  Ion values.
  *
  *  This implementation is not backed by a buffer
- *  and is therefore fully materialized.  If you need
- *  only a few values from a large datagram this
- *  implementation may be more expensive than the
- *  original implementation.
+ *  and is therefore fully materialized, unless the
+ *  system loads binary data lazily.  In that case a
+ *  container loaded from binary keeps its encoding
+ *  and only materializes its children when they are
+ *  first needed; see {@link IonContainerLite}.
  */
 abstract class IonValueLite
     implements PrivateIonValue
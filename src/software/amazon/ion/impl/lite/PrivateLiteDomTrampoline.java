@@ -28,9 +28,10 @@ import software.amazon.ion.system.IonTextWriterBuilder;
 public final class PrivateLiteDomTrampoline
 {
     public static IonSystem newLiteSystem(IonTextWriterBuilder twb,
-                                          PrivateIonBinaryWriterBuilder bwb)
+                                          PrivateIonBinaryWriterBuilder bwb,
+                                          boolean lazyBinaryLoading)
     {
-        return new IonSystemLite(twb, bwb);
+        return new IonSystemLite(twb, bwb, lazyBinaryLoading);
     }
 
     public static boolean isLiteSystem(IonSystem system)
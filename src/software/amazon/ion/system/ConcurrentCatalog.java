@@ -0,0 +1,273 @@
+/*
+ * Copyright 2017 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at:
+ *
+ *     http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+
+package software.amazon.ion.system;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+import software.amazon.ion.IonCatalog;
+import software.amazon.ion.IonMutableCatalog;
+import software.amazon.ion.SymbolTable;
+
+
+/**
+ * An implementation of {@link IonCatalog} for catalogs that are read by many
+ * threads at once, such as the catalog shared by readers decoding streams
+ * with shared symbol table imports in parallel.  There is no automatic
+ * removal of entries.
+ * <p>
+ * Lookups never block.  The catalog's content is an immutable snapshot that
+ * every change replaces as a whole, so a lookup sees either all or none of
+ * the tables added by {@link #putTables(Collection)}.  Within a snapshot,
+ * each name's versions are kept sorted, so both exact and best matches are
+ * found by binary search; in exchange, changes take time proportional to
+ * the number of names in the catalog.
+ * <p>
+ * Lookups resolve versions exactly as {@link SimpleCatalog} does.
+ */
+public class ConcurrentCatalog
+    implements IonMutableCatalog, Iterable<SymbolTable>
+{
+    /**
+     * The versions of the tables with one name, in ascending order.
+     * Never modified once it's in a snapshot.
+     */
+    private static final class Versions
+    {
+        static final Versions EMPTY =
+            new Versions(new int[0], new SymbolTable[0]);
+
+        final int[]         myVersions;
+        final SymbolTable[] myTables;
+
+        private Versions(int[] versions, SymbolTable[] tables)
+        {
+            myVersions = versions;
+            myTables = tables;
+        }
+
+        SymbolTable highest()
+        {
+            return myTables[myTables.length - 1];
+        }
+
+        /**
+         * Finds the requested version if it's here.  Otherwise, finds the
+         * lowest version that's newer, or failing that the highest version.
+         */
+        SymbolTable bestMatch(int version)
+        {
+            int i = Arrays.binarySearch(myVersions, version);
+            if (i < 0)
+            {
+                i = Math.min(-(i + 1), myVersions.length - 1);
+            }
+            return myTables[i];
+        }
+
+        /** @return a copy holding the table, replacing any same version. */
+        Versions with(SymbolTable table)
+        {
+            int i = Arrays.binarySearch(myVersions, table.getVersion());
+            if (i >= 0)
+            {
+                SymbolTable[] tables = myTables.clone();
+                tables[i] = table;
+                return new Versions(myVersions, tables);
+            }
+
+            i = -(i + 1);
+            int length = myVersions.length;
+            int[] versions = new int[length + 1];
+            SymbolTable[] tables = new SymbolTable[length + 1];
+            System.arraycopy(myVersions, 0, versions, 0, i);
+            System.arraycopy(myTables, 0, tables, 0, i);
+            versions[i] = table.getVersion();
+            tables[i] = table;
+            System.arraycopy(myVersions, i, versions, i + 1, length - i);
+            System.arraycopy(myTables, i, tables, i + 1, length - i);
+            return new Versions(versions, tables);
+        }
+
+        /** @return a copy without the table at the given index. */
+        Versions without(int i)
+        {
+            int length = myVersions.length - 1;
+            int[] versions = new int[length];
+            SymbolTable[] tables = new SymbolTable[length];
+            System.arraycopy(myVersions, 0, versions, 0, i);
+            System.arraycopy(myTables, 0, tables, 0, i);
+            System.arraycopy(myVersions, i + 1, versions, i, length - i);
+            System.arraycopy(myTables, i + 1, tables, i, length - i);
+            return new Versions(versions, tables);
+        }
+    }
+
+
+    /**
+     * The current content of this catalog.  The map is never modified once
+     * it's been published here, and it never holds empty {@link Versions}.
+     */
+    private final AtomicReference<Map<String, Versions>> myTablesByName =
+        new AtomicReference<Map<String, Versions>>(
+            Collections.<String, Versions>emptyMap());
+
+
+    private static void validateName(String name)
+    {
+        if (name == null)
+        {
+            throw new IllegalArgumentException("name is null");
+        }
+        if (name.length() == 0)
+        {
+            throw new IllegalArgumentException("name is empty");
+        }
+    }
+
+    private static void validateTable(SymbolTable table)
+    {
+        if (table.isLocalTable() || table.isSystemTable() || table.isSubstitute())
+        {
+            throw new IllegalArgumentException("table cannot be local or system or substitute table");
+        }
+        assert table.getVersion() >= 0;
+    }
+
+
+    public SymbolTable getTable(String name)
+    {
+        validateName(name);
+
+        Versions versions = myTablesByName.get().get(name);
+        if (versions == null) return null;
+        return versions.highest();
+    }
+
+    public SymbolTable getTable(String name, int version)
+    {
+        validateName(name);
+        if (version < 1)
+        {
+            throw new IllegalArgumentException("version is < 1");
+        }
+
+        Versions versions = myTablesByName.get().get(name);
+        if (versions == null) return null;
+        return versions.bestMatch(version);
+    }
+
+
+    public void putTable(SymbolTable table)
+    {
+        putTables(Collections.singleton(table));
+    }
+
+    /**
+     * Adds a number of symbol tables to this catalog at once.  Concurrent
+     * lookups see either all of them or none of them.  A table replaces any
+     * other with the same name and version.
+     *
+     * @param tables must be shared but not system or substitute tables.
+     *
+     * @throws IllegalArgumentException if any of the tables is local,
+     * system, or substitute, in which case none of them are added.
+     */
+    public void putTables(Collection<? extends SymbolTable> tables)
+    {
+        for (SymbolTable table : tables)
+        {
+            validateTable(table);
+        }
+
+        for (;;)
+        {
+            Map<String, Versions> current = myTablesByName.get();
+            Map<String, Versions> updated = new HashMap<String, Versions>(current);
+            for (SymbolTable table : tables)
+            {
+                String name = table.getName();
+                Versions versions = updated.get(name);
+                if (versions == null)
+                {
+                    versions = Versions.EMPTY;
+                }
+                updated.put(name, versions.with(table));
+            }
+            if (myTablesByName.compareAndSet(current, updated)) return;
+        }
+    }
+
+
+    /**
+     * Removes a symbol table from this catalog.
+     *
+     * @return the removed table, or <code>null</code> if this catalog has
+     * no matching table.
+     */
+    public SymbolTable removeTable(String name, int version)
+    {
+        for (;;)
+        {
+            Map<String, Versions> current = myTablesByName.get();
+            Versions versions = current.get(name);
+            if (versions == null) return null;
+
+            int i = Arrays.binarySearch(versions.myVersions, version);
+            if (i < 0) return null;
+
+            Map<String, Versions> updated = new HashMap<String, Versions>(current);
+            if (versions.myTables.length == 1)
+            {
+                // Remove empty intermediate table
+                updated.remove(name);
+            }
+            else
+            {
+                updated.put(name, versions.without(i));
+            }
+            if (myTablesByName.compareAndSet(current, updated))
+            {
+                return versions.myTables[i];
+            }
+        }
+    }
+
+
+    /**
+     * Constructs an iterator that enumerates all of the shared symbol tables
+     * in this catalog, at the time of method invocation. The result represents
+     * a snapshot of the state of this catalog.
+     *
+     * @return a non-null, but potentially empty, iterator.
+     */
+    public Iterator<SymbolTable> iterator()
+    {
+        Map<String, Versions> current = myTablesByName.get();
+        List<SymbolTable> tables =
+            new ArrayList<SymbolTable>(current.size());
+        for (Versions versions : current.values())
+        {
+            tables.addAll(Arrays.asList(versions.myTables));
+        }
+        return Collections.unmodifiableList(tables).iterator();
+    }
+}
@@ -0,0 +1,490 @@
+/*
+ * Copyright 2017 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at:
+ *
+ *     http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+
+package software.amazon.ion.system;
+
+import static software.amazon.ion.SystemSymbols.NAME;
+import static software.amazon.ion.SystemSymbols.VERSION;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import software.amazon.ion.IonCatalog;
+import software.amazon.ion.IonException;
+import software.amazon.ion.IonReader;
+import software.amazon.ion.IonSystem;
+import software.amazon.ion.IonType;
+import software.amazon.ion.SymbolTable;
+
+
+/**
+ * An {@link IonCatalog} of the shared symbol tables serialized in the files
+ * of a directory, which are only loaded when they're needed.
+ * <p>
+ * Each file holds a sequence of shared symbol table structs, as read by
+ * {@link IonSystem#newSharedSymbolTable(IonReader, boolean)}, in text or
+ * binary.  When the catalog is constructed, it reads just the name and
+ * version of each table, skipping over their symbols.  A table is loaded
+ * from its file the first time it's requested, and is kept until the
+ * estimated size of all the loaded tables exceeds the memory budget, at
+ * which point the least recently used tables are dropped.  A dropped table
+ * is loaded again the next time it's requested, so the catalog may return
+ * different (but equivalent) instances of the same table over time.
+ * <p>
+ * The directory's content is indexed once; files added, removed or changed
+ * afterwards aren't noticed.  Lookups resolve versions exactly as
+ * {@link SimpleCatalog} does.  Instances of this class are safe for use by
+ * multiple threads.  Tables are read without holding any lock, so lookups
+ * of tables that are already loaded don't wait on those that aren't, and
+ * concurrent requests for the same table share a single read.
+ */
+public class DirectoryCatalog
+    implements IonCatalog
+{
+    /**
+     * Rough heap cost of a shared symbol table, apart from its symbols.
+     */
+    private static final long TABLE_OVERHEAD = 128;
+
+    /**
+     * Rough heap cost of each symbol, apart from its characters: its
+     * {@link String}, its slot in the symbol list, and its map entry.
+     */
+    private static final long SYMBOL_OVERHEAD = 96;
+
+    /** Where to find a table: the file, and its position among the values. */
+    private static final class Location
+    {
+        final File file;
+        final int  ordinal;
+        final String name;
+        final int  version;
+
+        Location(File file, int ordinal, String name, int version)
+        {
+            this.file = file;
+            this.ordinal = ordinal;
+            this.name = name;
+            this.version = version;
+        }
+    }
+
+    /** A table that has been loaded, with its estimated size in bytes. */
+    private static final class Loaded
+    {
+        final FutureTask<SymbolTable> task;
+        final long                    size;
+
+        Loaded(FutureTask<SymbolTable> task, long size)
+        {
+            this.task = task;
+            this.size = size;
+        }
+    }
+
+
+    private final IonSystem mySystem;
+    private final long myMemoryBudget;
+
+    /** Never modified once the constructor returns. */
+    private final Map<String, TreeMap<Integer, Location>> myIndex =
+        new HashMap<String, TreeMap<Integer, Location>>();
+
+    /**
+     * The tables that are loaded or being loaded.  A task is only run by the
+     * thread that put it here; the others wait for its result.
+     */
+    private final ConcurrentHashMap<Location, FutureTask<SymbolTable>> myTables =
+        new ConcurrentHashMap<Location, FutureTask<SymbolTable>>();
+
+    /**
+     * The sizes of the loaded tables, from least to most recently used, for
+     * eviction.  Guarded by {@code this}, as is {@link #myLoadedSize}.
+     */
+    private final LinkedHashMap<Location, Loaded> myLoaded =
+        new LinkedHashMap<Location, Loaded>(16, 0.75f, true);
+
+    private long myLoadedSize;
+
+
+    /**
+     * Indexes a directory of shared symbol tables, keeping every table
+     * that's loaded.
+     *
+     * @param system the system used to read the files.
+     * Must not be null.
+     * @param directory must not be null.
+     *
+     * @throws IOException if the directory or any of its files can't be
+     * read.
+     * @throws IonException if any of its files isn't a sequence of valid
+     * shared symbol tables.
+     */
+    public DirectoryCatalog(IonSystem system, File directory)
+        throws IOException
+    {
+        this(system, directory, Long.MAX_VALUE);
+    }
+
+    /**
+     * Indexes a directory of shared symbol tables.
+     *
+     * @param system the system used to read the files.
+     * Must not be null.
+     * @param directory must not be null.
+     * @param memoryBudget the estimated number of bytes of heap the loaded
+     * tables may occupy.  The most recently used table is kept even if it
+     * exceeds the budget on its own.
+     *
+     * @throws IOException if the directory or any of its files can't be
+     * read.
+     * @throws IonException if any of its files isn't a sequence of valid
+     * shared symbol tables.
+     */
+    public DirectoryCatalog(IonSystem system, File directory,
+                            long memoryBudget)
+        throws IOException
+    {
+        if (system == null)
+        {
+            throw new NullPointerException("system is null");
+        }
+        if (memoryBudget < 0)
+        {
+            throw new IllegalArgumentException("memoryBudget is negative");
+        }
+        File[] files = directory.listFiles();
+        if (files == null)
+        {
+            throw new IOException("Can't list the files in " + directory);
+        }
+
+        // Later files win, as if their tables were put in a SimpleCatalog
+        Arrays.sort(files);
+
+        mySystem = system;
+        myMemoryBudget = memoryBudget;
+        for (File file : files)
+        {
+            if (file.isFile())
+            {
+                index(file);
+            }
+        }
+    }
+
+
+    private InputStream open(File file)
+        throws IOException
+    {
+        return new BufferedInputStream(new FileInputStream(file));
+    }
+
+    /** Reads the names and versions of the tables in a file. */
+    private void index(File file)
+        throws IOException
+    {
+        InputStream in = open(file);
+        try
+        {
+            IonReader reader = mySystem.newReader(in);
+            IonType type;
+            for (int ordinal = 0; (type = reader.next()) != null; ordinal++)
+            {
+                if (type != IonType.STRUCT)
+                {
+                    throw new IonException("invalid symbol table image in "
+                                           + file + ", " + type
+                                           + " encountered when a struct"
+                                           + " was expected");
+                }
+
+                String name = null;
+                int version = -1;
+                reader.stepIn();
+                while ((type = reader.next()) != null)
+                {
+                    if (reader.isNullValue()) continue;
+
+                    String fieldName = reader.getFieldName();
+                    if (type == IonType.STRING && NAME.equals(fieldName))
+                    {
+                        name = reader.stringValue();
+                    }
+                    else if (type == IonType.INT && VERSION.equals(fieldName))
+                    {
+                        version = reader.intValue();
+                    }
+                }
+                reader.stepOut();
+
+                if (name == null || name.length() == 0)
+                {
+                    throw new IonException("shared symbol table in " + file
+                                           + " is malformed: field 'name'"
+                                           + " must be a non-empty string.");
+                }
+
+                // As per the Spec, if 'version' field is missing or not at
+                // least 1, treat it as 1.
+                version = (version < 1) ? 1 : version;
+
+                TreeMap<Integer, Location> versions = myIndex.get(name);
+                if (versions == null)
+                {
+                    versions = new TreeMap<Integer, Location>();
+                    myIndex.put(name, versions);
+                }
+                versions.put(version,
+                             new Location(file, ordinal, name, version));
+            }
+        }
+        finally
+        {
+            in.close();
+        }
+    }
+
+
+    public SymbolTable getTable(String name)
+    {
+        if (name == null)
+        {
+            throw new IllegalArgumentException("name is null");
+        }
+        if (name.length() == 0)
+        {
+            throw new IllegalArgumentException("name is empty");
+        }
+
+        TreeMap<Integer, Location> versions = myIndex.get(name);
+        if (versions == null) return null;
+
+        return load(versions.lastEntry().getValue());
+    }
+
+    public SymbolTable getTable(String name, int version)
+    {
+        if (name == null)
+        {
+            throw new IllegalArgumentException("name is null");
+        }
+        if (name.length() == 0)
+        {
+            throw new IllegalArgumentException("name is empty");
+        }
+        if (version < 1)
+        {
+            throw new IllegalArgumentException("version is < 1");
+        }
+
+        TreeMap<Integer, Location> versions = myIndex.get(name);
+        if (versions == null) return null;
+
+        Location location = versions.get(version);
+        if (location == null)
+        {
+            Integer best = SimpleCatalog.bestMatch(version, versions.keySet());
+            location = versions.get(best);
+        }
+        return load(location);
+    }
+
+
+    /**
+     * Returns the estimated number of bytes of heap occupied by the tables
+     * that are currently loaded.
+     */
+    public synchronized long getLoadedSize()
+    {
+        return myLoadedSize;
+    }
+
+    private SymbolTable load(final Location location)
+    {
+        FutureTask<SymbolTable> task = myTables.get(location);
+        if (task != null)
+        {
+            touch(location);
+        }
+        else
+        {
+            FutureTask<SymbolTable> newTask =
+                new FutureTask<SymbolTable>(new Callable<SymbolTable>()
+                {
+                    public SymbolTable call()
+                        throws IOException
+                    {
+                        return read(location);
+                    }
+                });
+            task = myTables.putIfAbsent(location, newTask);
+            if (task == null)
+            {
+                task = newTask;
+                task.run();
+                loaded(location, task);
+            }
+        }
+
+        boolean interrupted = false;
+        try
+        {
+            while (true)
+            {
+                try
+                {
+                    return task.get();
+                }
+                catch (InterruptedException e)
+                {
+                    interrupted = true;
+                }
+                catch (ExecutionException e)
+                {
+                    // Let the next request try again
+                    myTables.remove(location, task);
+
+                    Throwable cause = e.getCause();
+                    if (cause instanceof RuntimeException)
+                    {
+                        throw (RuntimeException) cause;
+                    }
+                    if (cause instanceof Error)
+                    {
+                        throw (Error) cause;
+                    }
+                    throw new IonException("Error loading shared symbol table "
+                                           + location.name + "@"
+                                           + location.version
+                                           + " from " + location.file, cause);
+                }
+            }
+        }
+        finally
+        {
+            if (interrupted)
+            {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /** Marks a table as the most recently used. */
+    private void touch(Location location)
+    {
+        if (myMemoryBudget == Long.MAX_VALUE)
+        {
+            // Nothing is ever evicted, so the order doesn't matter
+            return;
+        }
+        synchronized (this)
+        {
+            myLoaded.get(location);
+        }
+    }
+
+    /**
+     * Accounts for a table that has just been read, and drops the least
+     * recently used tables until the rest fit in the budget.
+     */
+    private void loaded(Location location, FutureTask<SymbolTable> task)
+    {
+        SymbolTable table;
+        try
+        {
+            table = task.get();
+        }
+        catch (Exception e)
+        {
+            // Reported, and removed, by load()
+            return;
+        }
+        Loaded loaded = new Loaded(task, estimateSize(table));
+
+        synchronized (this)
+        {
+            myLoaded.put(location, loaded);
+            myLoadedSize += loaded.size;
+
+            // Keep the table that was just loaded, even if it's too big
+            Iterator<Map.Entry<Location, Loaded>> lru =
+                myLoaded.entrySet().iterator();
+            while (myLoadedSize > myMemoryBudget && myLoaded.size() > 1)
+            {
+                Map.Entry<Location, Loaded> eldest = lru.next();
+                myLoadedSize -= eldest.getValue().size;
+                myTables.remove(eldest.getKey(), eldest.getValue().task);
+                lru.remove();
+            }
+        }
+    }
+
+    private SymbolTable read(Location location)
+        throws IOException
+    {
+        InputStream in = open(location.file);
+        try
+        {
+            IonReader reader = mySystem.newReader(in);
+            for (int i = 0; i <= location.ordinal; i++)
+            {
+                if (reader.next() == null)
+                {
+                    throw new IonException(location.file + " has changed");
+                }
+            }
+
+            SymbolTable table = mySystem.newSharedSymbolTable(reader, true);
+            if (! location.name.equals(table.getName())
+                || location.version != table.getVersion())
+            {
+                throw new IonException(location.file + " has changed");
+            }
+            return table;
+        }
+        finally
+        {
+            in.close();
+        }
+    }
+
+    private static long estimateSize(SymbolTable table)
+    {
+        long size = TABLE_OVERHEAD;
+        Iterator<String> names = table.iterateDeclaredSymbolNames();
+        while (names.hasNext())
+        {
+            String name = names.next();
+            size += SYMBOL_OVERHEAD;
+            if (name != null)
+            {
+                size += 2L * name.length();
+            }
+        }
+        return size;
+    }
+}
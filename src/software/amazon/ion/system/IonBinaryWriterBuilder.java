@@ -14,6 +14,12 @@
 
 package software.amazon.ion.system;
 
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.GatheringByteChannel;
+import java.nio.channels.IllegalBlockingModeException;
+import java.nio.channels.SelectableChannel;
 import software.amazon.ion.IonCatalog;
 import software.amazon.ion.IonReader;
 import software.amazon.ion.IonWriter;
@@ -283,4 +289,41 @@ public abstract class IonBinaryWriterBuilder
         b.setStreamCopyOptimized(optimized);
         return b;
     }
+
+
+    //=========================================================================
+
+
+    /**
+     * Builds a new writer that hands its output to a channel, based on this
+     * builder's configuration properties.
+     * <p>
+     * This implementation wraps the channel with
+     * {@link Channels#newOutputStream(java.nio.channels.WritableByteChannel)}
+     * and passes it to {@link #build(OutputStream)}.
+     * The builders returned by {@link #standard()} override it so that each
+     * {@link IonWriter#finish()} passes the encoded data to
+     * {@link GatheringByteChannel#write(ByteBuffer[])} as buffers that wrap
+     * the writer's internal blocks, so no intermediate copy is made.
+     * The buffers are only valid for the duration of that call, so a channel
+     * that doesn't consume them immediately must copy them.
+     * Closing the writer closes the channel.
+     *
+     * @param out the channel that will receive Ion data.
+     * Must not be null, and must be in blocking mode.
+     *
+     * @throws IllegalBlockingModeException if the channel is a
+     * {@link SelectableChannel} in non-blocking mode.
+     *
+     * @return a new {@link IonWriter} instance; not {@code null}.
+     */
+    public IonWriter build(GatheringByteChannel out)
+    {
+        if (out instanceof SelectableChannel
+            && ! ((SelectableChannel) out).isBlocking())
+        {
+            throw new IllegalBlockingModeException();
+        }
+        return build(Channels.newOutputStream(out));
+    }
 }
@@ -17,8 +17,10 @@ package software.amazon.ion.system;
 import static software.amazon.ion.impl.lite.PrivateLiteDomTrampoline.newLiteSystem;
 
 import software.amazon.ion.IonCatalog;
+import software.amazon.ion.IonLoader;
 import software.amazon.ion.IonReader;
 import software.amazon.ion.IonSystem;
+import software.amazon.ion.IonValue;
 import software.amazon.ion.IonWriter;
 import software.amazon.ion.SymbolTable;
 import software.amazon.ion.impl.PrivateIonBinaryWriterBuilder;
@@ -68,7 +70,8 @@ import software.amazon.ion.impl.PrivateUtils;
  *   <li>
  *     <b>catalog</b>: The {@link IonCatalog} used as a default when reading Ion
  *     data. If null, each system will be built with a new
- *     {@link SimpleCatalog}.
+ *     {@link SimpleCatalog}.  Systems shared by many threads may prefer a
+ *     {@link ConcurrentCatalog}, whose lookups never block.
  *   </li>
  *   <li>
  *     <b>streamCopyOptimized</b>: When true, this enables optimizations when
@@ -78,6 +81,13 @@ import software.amazon.ion.impl.PrivateUtils;
  *     conditions are met. <b>This feature is experimental! Please test
  *     thoroughly and report any issues.</b>
  *   </li>
+ *   <li>
+ *     <b>lazyBinaryLoading</b>: When true, containers loaded from binary Ion
+ *     held in a byte array only decode their children when those are first
+ *     needed, and are written by copying their original encoding until then.
+ *     This is much cheaper when only a few values of large documents are
+ *     used.
+ *   </li>
  * </ul>
  */
 public class IonSystemBuilder
@@ -100,6 +110,7 @@ public class IonSystemBuilder
 
     IonCatalog myCatalog;
     boolean myStreamCopyOptimized = false;
+    boolean myLazyBinaryLoading = false;
 
 
     /** You no touchy. */
@@ -109,6 +120,7 @@ public class IonSystemBuilder
     {
         this.myCatalog      = that.myCatalog;
         this.myStreamCopyOptimized = that.myStreamCopyOptimized;
+        this.myLazyBinaryLoading = that.myLazyBinaryLoading;
     }
 
     //=========================================================================
@@ -257,6 +269,70 @@ public class IonSystemBuilder
     }
 
 
+    //=========================================================================
+
+
+    /**
+     * Indicates whether built systems load containers from binary data
+     * lazily.
+     * By default, this property is false.
+     *
+     * @see #setLazyBinaryLoading(boolean)
+     * @see #withLazyBinaryLoading(boolean)
+     */
+    public final boolean isLazyBinaryLoading()
+    {
+        return myLazyBinaryLoading;
+    }
+
+    /**
+     * Declares whether built systems load containers from binary data
+     * lazily.
+     * By default, this property is false.
+     * <p>
+     * When enabled, a container that {@link IonLoader#load(byte[])} or
+     * {@link IonSystem#newValue(IonReader)} loads from uncompressed binary
+     * Ion held in a byte array keeps a reference to its encoded bytes, and
+     * only decodes its children when they are first accessed.  Until then,
+     * writing the container copies its encoding; when the writer is
+     * {@linkplain #isStreamCopyOptimized() stream copy optimized} and its
+     * symbol table is compatible, the bytes are copied as they are.
+     * <p>
+     * The byte array must not be modified while any value loaded from it
+     * is in use.  Values read from a heap {@link java.nio.ByteBuffer} or
+     * any other array the reader doesn't receive from the caller copy their
+     * encoding instead, so that array may be reused.
+     * <p>
+     * Since decoding changes a container's state, lazily loaded values
+     * must be {@linkplain IonValue#makeReadOnly() made read-only} before
+     * they are shared between threads, which decodes them in full.
+     *
+     * @throws UnsupportedOperationException if this is immutable.
+     *
+     * @see #isLazyBinaryLoading()
+     * @see #withLazyBinaryLoading(boolean)
+     */
+    public final void setLazyBinaryLoading(boolean lazy)
+    {
+        mutationCheck();
+        myLazyBinaryLoading = lazy;
+    }
+
+    /**
+     * Declares whether built systems load containers from binary data
+     * lazily, returning a new mutable builder if this is immutable.
+     *
+     * @see #isLazyBinaryLoading()
+     * @see #setLazyBinaryLoading(boolean)
+     */
+    public final IonSystemBuilder withLazyBinaryLoading(boolean lazy)
+    {
+        IonSystemBuilder b = mutable();
+        b.setLazyBinaryLoading(lazy);
+        return b;
+    }
+
+
 
     //=========================================================================
 
@@ -286,7 +362,7 @@ public class IonSystemBuilder
         // This is what we need, more or less.
 //        bwb = bwb.fillDefaults();
 
-        return newLiteSystem(twb, bwb);
+        return newLiteSystem(twb, bwb, myLazyBinaryLoading);
     }
 
     //=========================================================================
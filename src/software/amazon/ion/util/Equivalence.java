@@ -166,13 +166,14 @@ public final class Equivalence {
      * and cannot contain duplicate elements, hence we cannot use it.
      */
     private static final Map<Field, Field>
-        convertToMultiSet(final IonStruct struct, final boolean strict) {
+        convertToMultiSet(final IonStruct struct, final boolean strict,
+                          final boolean hashValues) {
 
         final Map<Field, Field> structMultiSet =
             new HashMap<Field, Field>();
 
         for (final IonValue val : struct) {
-            final Field item = new Field(val, strict);
+            final Field item = new Field(val, strict, hashValues);
             Field curr = structMultiSet.put(item, item);
             // curr will be non-null if the multi-set already contains the
             // name/value pair
@@ -197,11 +198,18 @@ public final class Equivalence {
     {
         int result = s1.size() - s2.size();
         if (result == 0) {
+            // Read-only values keep their hash codes, so hashing them is
+            // cheap enough to tell apart fields that share a name. Those
+            // hash codes include annotations, so they can only be used
+            // when annotations are compared.
+            final boolean hashValues =
+                strict && s1.isReadOnly() && s2.isReadOnly();
+
             // We convert IonStruct s1 to a multi-set (which is a
             // Map<Field, Field>). Refer to convertToMultiSet()'s
             // documentation for more info
             final Map<Field, Field> s1MultiSet
-                    = convertToMultiSet(s1, strict);
+                    = convertToMultiSet(s1, strict, hashValues);
 
             // Iterates through each name/value pair in IonStruct s2 and
             // determine if it also occurs in s1MultiSet.
@@ -209,7 +217,7 @@ public final class Equivalence {
             //          If it does, remove an occurrence from s1MultiSet
             //          If it doesn't, the two IonStructs aren't equal
             for (IonValue val : s2) {
-                Field field = new Field(val, strict);
+                Field field = new Field(val, strict, hashValues);
 
                 // Find an occurrence of the name/value pair in s1MultiSet
                 Field mappedValue = s1MultiSet.get(field);
@@ -315,7 +323,7 @@ public final class Equivalence {
      * a single {@code Field} -> {@code Field} with {@code occurrences} of 2.
      * <p>
      * Refer to
-     * {@link Equivalence#convertToMultiSet(IonStruct, boolean)} and
+     * {@link Equivalence#convertToMultiSet(IonStruct, boolean, boolean)} and
      * {@link Field#equals(Object)} for more info.
      * <p>
      * NOTE: This class should only be instantiated for the sole purpose of
@@ -325,6 +333,7 @@ public final class Equivalence {
         private final String    name; // aka field name
         private final IonValue  value;
         private final boolean   strict;
+        private final int       hashCode;
 
         /**
          * Number of times that this specific field (with the same name
@@ -333,6 +342,16 @@ public final class Equivalence {
         private int occurrences;
 
         Field(final IonValue value, final boolean strict)
+        {
+            this(value, strict, false);
+        }
+
+        /**
+         * @param hashValues whether the value is part of the hash code,
+         * which must be consistent with {@code strict}.
+         */
+        Field(final IonValue value, final boolean strict,
+              final boolean hashValues)
         {
             SymbolToken tok = value.getFieldNameSymbol();
             String name = tok.getText();
@@ -343,6 +362,9 @@ public final class Equivalence {
             this.name = name;
             this.value = value;
             this.strict = strict;
+            this.hashCode = hashValues
+                ? (31 * name.hashCode()) + value.hashCode()
+                : name.hashCode();
 
             // Occurrences of this name/value pair is 0 initially
             this.occurrences = 0;
@@ -350,14 +372,11 @@ public final class Equivalence {
 
         @Override
         public int hashCode() {
-            return name.hashCode();
             // TODO amzn/ion-java#58 : implement hash code such that it respects
-            // 'strict'. The prevously attempted fix is commented out below but
-            // is not sufficient because value.hasCode will always include
-            // type annotations in the hash computation. Type annotations
-            // should not be part of the hash computation if strict=true.
-//            result = (31 * result) + value.hashCode();
-//            return result;
+            // 'strict' for all values. value.hashCode always includes type
+            // annotations, so it's only used when they're compared, and when
+            // it's kept by read-only values.
+            return hashCode;
         }
 
         /**
@@ -0,0 +1,449 @@
+/*
+ * Copyright 2017 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at:
+ *
+ *     http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+
+package software.amazon.ion.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import software.amazon.ion.IonReader;
+import software.amazon.ion.IonSystem;
+import software.amazon.ion.OffsetSpan;
+import software.amazon.ion.SeekableReader;
+import software.amazon.ion.Span;
+import software.amazon.ion.SpanProvider;
+import software.amazon.ion.impl.PrivateUtils;
+
+/**
+ * Utility methods for processing binary Ion data in parallel.
+ * <p>
+ * Top-level binary values are length-prefixed, so a reader can step over them
+ * by looking at little more than their headers.  {@link #split} makes one
+ * such pass to divide the data into <em>chunks</em> of consecutive top-level
+ * values at value boundaries.  Each chunk is a {@link Span} that also carries
+ * the symbol table in effect at its start, so it can be
+ * {@linkplain SeekableReader#hoist hoisted} by any reader over the same data
+ * and decoded independently of the other chunks.
+ * <p>
+ * {@link #scan(IonSystem, File, long, ExecutorService, ChunkProcessor) scan}
+ * does both steps, handing each chunk to a {@link ChunkProcessor} on an
+ * {@link ExecutorService}.
+ * {@link #stream(IonSystem, File, long) stream} instead returns a parallel
+ * {@link Stream} with a reader per chunk, backed by a {@link Spliterator}
+ * that divides the chunks between the threads of the fork/join pool.
+ * <p>
+ * Only uncompressed binary Ion is supported.
+ */
+@SuppressWarnings("deprecation")
+public final class IonBinaryChunks
+{
+    private IonBinaryChunks() {}
+
+    /**
+     * Processes the values of a single chunk.
+     *
+     * @param <T> the type of the result of processing a chunk.
+     */
+    public interface ChunkProcessor<T>
+    {
+        /**
+         * Processes a chunk, which is read as if its values were at
+         * top-level.  The reader is closed once this method returns.
+         *
+         * @param reader is positioned before the first value of the chunk;
+         *  not null.
+         */
+        public T process(IonReader reader) throws Exception;
+    }
+
+
+    /**
+     * Divides the remaining top-level values of a binary reader into chunks.
+     * Each chunk holds consecutive values spanning at least
+     * {@code chunkSize} bytes, except perhaps the last one.
+     * The reader is left at the end of its input.
+     *
+     * @param reader must be a binary reader at top-level that supports
+     *  {@link SpanProvider}.
+     * @param chunkSize the minimum number of bytes in a chunk.
+     *
+     * @return the chunks, in order; not null.
+     *
+     * @throws IllegalArgumentException if the reader isn't a binary reader
+     *  at top-level, or if {@code chunkSize} is not positive.
+     */
+    public static List<Span> split(IonReader reader, long chunkSize)
+    {
+        if (chunkSize <= 0)
+        {
+            throw new IllegalArgumentException("Invalid chunk size: " + chunkSize);
+        }
+        if (reader.getDepth() != 0)
+        {
+            throw new IllegalArgumentException("Reader isn't at top-level");
+        }
+        SpanProvider provider = reader.asFacet(SpanProvider.class);
+        if (provider == null)
+        {
+            throw new IllegalArgumentException("Reader doesn't provide spans");
+        }
+
+        List<Span> chunks = new ArrayList<Span>();
+        Span first = null;
+        Span last = null;
+        long start = 0;
+        while (reader.next() != null)
+        {
+            last = provider.currentSpan();
+            OffsetSpan offsets = last.asFacet(OffsetSpan.class);
+            if (first == null)
+            {
+                first = last;
+                start = offsets.getStartOffset();
+            }
+            if (offsets.getFinishOffset() - start >= chunkSize)
+            {
+                chunks.add(PrivateUtils.binarySpanThrough(first, last));
+                first = null;
+            }
+        }
+        if (first != null)
+        {
+            chunks.add(PrivateUtils.binarySpanThrough(first, last));
+        }
+        return chunks;
+    }
+
+
+    /**
+     * Divides a binary Ion file into chunks and processes them in parallel.
+     * Each chunk is read by its own reader over the file.
+     *
+     * @param system the system used to create readers.
+     * @param file the binary Ion file.
+     * @param chunkSize the minimum number of bytes in a chunk.
+     * @param executor runs the processor for each chunk.
+     * @param processor is invoked concurrently, once per chunk.
+     *
+     * @return the results of processing each chunk, in order.
+     *
+     * @see #split(IonReader, long)
+     */
+    public static <T> List<Future<T>> scan(final IonSystem system,
+                                           final File file,
+                                           long chunkSize,
+                                           ExecutorService executor,
+                                           ChunkProcessor<T> processor)
+        throws IOException
+    {
+        return scan(fileSource(system, file), chunkSize, executor, processor);
+    }
+
+
+    /**
+     * Divides a buffer of binary Ion into chunks and processes them in
+     * parallel.  Each chunk is read by its own reader over the buffer.
+     *
+     * @param system the system used to create readers.
+     * @param data the binary Ion data, which must not be modified until
+     *  every chunk has been processed.
+     * @param chunkSize the minimum number of bytes in a chunk.
+     * @param executor runs the processor for each chunk.
+     * @param processor is invoked concurrently, once per chunk.
+     *
+     * @return the results of processing each chunk, in order.
+     *
+     * @see #split(IonReader, long)
+     */
+    public static <T> List<Future<T>> scan(final IonSystem system,
+                                           final byte[] data,
+                                           long chunkSize,
+                                           ExecutorService executor,
+                                           ChunkProcessor<T> processor)
+        throws IOException
+    {
+        return scan(bytesSource(system, data), chunkSize, executor, processor);
+    }
+
+
+    /**
+     * Divides a binary Ion file into chunks, and returns a parallel stream
+     * with a reader for each chunk, in order.
+     * <p>
+     * Each reader is positioned before the first value of its chunk, and is
+     * read as if the chunk's values were at top-level.  It's closed once the
+     * stream's operations have consumed it, so it must not escape the stream:
+     * map it to a result, as in
+     * <pre>
+     *     IonBinaryChunks.stream(system, file, 1 &lt;&lt; 20)
+     *                    .mapToLong(reader -&gt; count(reader))
+     *                    .sum();
+     * </pre>
+     *
+     * @param system the system used to create readers.
+     * @param file the binary Ion file.
+     * @param chunkSize the minimum number of bytes in a chunk.
+     *
+     * @return a parallel stream; not null.
+     *
+     * @throws IOException if the file can't be divided into chunks.
+     * An error opening a chunk is thrown by the stream as an
+     * {@link UncheckedIOException}.
+     *
+     * @see #split(IonReader, long)
+     */
+    public static Stream<IonReader> stream(IonSystem system, File file,
+                                           long chunkSize)
+        throws IOException
+    {
+        return StreamSupport.stream(spliterator(system, file, chunkSize), true);
+    }
+
+
+    /**
+     * Divides a buffer of binary Ion into chunks, and returns a parallel
+     * stream with a reader for each chunk, in order.
+     * The readers are used as described by
+     * {@link #stream(IonSystem, File, long)}.
+     *
+     * @param system the system used to create readers.
+     * @param data the binary Ion data, which must not be modified until
+     *  the stream has been consumed.
+     * @param chunkSize the minimum number of bytes in a chunk.
+     *
+     * @return a parallel stream; not null.
+     *
+     * @see #split(IonReader, long)
+     */
+    public static Stream<IonReader> stream(IonSystem system, byte[] data,
+                                           long chunkSize)
+    {
+        return StreamSupport.stream(spliterator(system, data, chunkSize), true);
+    }
+
+
+    /**
+     * Divides a binary Ion file into chunks, and returns a spliterator
+     * with a reader for each chunk, in order.
+     * The readers are used as described by
+     * {@link #stream(IonSystem, File, long)}.
+     *
+     * @throws IOException if the file can't be divided into chunks.
+     */
+    public static Spliterator<IonReader> spliterator(IonSystem system,
+                                                     File file,
+                                                     long chunkSize)
+        throws IOException
+    {
+        ChunkSource source = fileSource(system, file);
+        return new ChunkSpliterator(source, chunks(source, chunkSize));
+    }
+
+
+    /**
+     * Divides a buffer of binary Ion into chunks, and returns a spliterator
+     * with a reader for each chunk, in order.
+     * The readers are used as described by
+     * {@link #stream(IonSystem, File, long)}.
+     */
+    public static Spliterator<IonReader> spliterator(IonSystem system,
+                                                     byte[] data,
+                                                     long chunkSize)
+    {
+        ChunkSource source = bytesSource(system, data);
+        try
+        {
+            return new ChunkSpliterator(source, chunks(source, chunkSize));
+        }
+        catch (IOException e)
+        {
+            // Readers over a buffer don't do I/O
+            throw new UncheckedIOException(e);
+        }
+    }
+
+
+    /** Creates readers over the data being processed. */
+    private static abstract class ChunkSource
+    {
+        abstract IonReader newReader() throws IOException;
+
+        /** Creates a reader positioned before the first value of a chunk. */
+        IonReader open(Span chunk) throws IOException
+        {
+            IonReader reader = newReader();
+            reader.asFacet(SeekableReader.class).hoist(chunk);
+            return reader;
+        }
+    }
+
+    private static ChunkSource fileSource(final IonSystem system,
+                                          final File file)
+    {
+        return new ChunkSource()
+        {
+            @Override
+            IonReader newReader() throws IOException
+            {
+                return IonReaders.newReader(system,
+                                             new RandomAccessFile(file, "r").getChannel());
+            }
+        };
+    }
+
+    private static ChunkSource bytesSource(final IonSystem system,
+                                           final byte[] data)
+    {
+        return new ChunkSource()
+        {
+            @Override
+            IonReader newReader()
+            {
+                return system.newReader(data);
+            }
+        };
+    }
+
+    private static List<Span> chunks(ChunkSource source, long chunkSize)
+        throws IOException
+    {
+        IonReader reader = source.newReader();
+        try
+        {
+            return split(reader, chunkSize);
+        }
+        finally
+        {
+            reader.close();
+        }
+    }
+
+
+    private static <T> List<Future<T>> scan(final ChunkSource source,
+                                            long chunkSize,
+                                            ExecutorService executor,
+                                            final ChunkProcessor<T> processor)
+        throws IOException
+    {
+        List<Span> chunks = chunks(source, chunkSize);
+
+        List<Future<T>> results = new ArrayList<Future<T>>(chunks.size());
+        for (final Span chunk : chunks)
+        {
+            results.add(executor.submit(new Callable<T>()
+            {
+                public T call() throws Exception
+                {
+                    IonReader reader = source.open(chunk);
+                    try
+                    {
+                        return processor.process(reader);
+                    }
+                    finally
+                    {
+                        reader.close();
+                    }
+                }
+            }));
+        }
+        return results;
+    }
+
+
+    /**
+     * Hands out a reader for each of a range of chunks, closing it once the
+     * action has consumed it.  Splits by halving the range.
+     */
+    private static final class ChunkSpliterator
+        implements Spliterator<IonReader>
+    {
+        private final ChunkSource source;
+        private final List<Span>  chunks;
+        private int               index;
+        private final int         end;
+
+        ChunkSpliterator(ChunkSource source, List<Span> chunks)
+        {
+            this(source, chunks, 0, chunks.size());
+        }
+
+        private ChunkSpliterator(ChunkSource source, List<Span> chunks,
+                                 int index, int end)
+        {
+            this.source = source;
+            this.chunks = chunks;
+            this.index = index;
+            this.end = end;
+        }
+
+        public boolean tryAdvance(Consumer<? super IonReader> action)
+        {
+            if (index >= end)
+            {
+                return false;
+            }
+            Span chunk = chunks.get(index++);
+            try
+            {
+                IonReader reader = source.open(chunk);
+                try
+                {
+                    action.accept(reader);
+                }
+                finally
+                {
+                    reader.close();
+                }
+            }
+            catch (IOException e)
+            {
+                throw new UncheckedIOException(e);
+            }
+            return true;
+        }
+
+        public Spliterator<IonReader> trySplit()
+        {
+            int middle = (index + end) >>> 1;
+            if (middle <= index)
+            {
+                return null;
+            }
+            Spliterator<IonReader> prefix =
+                new ChunkSpliterator(source, chunks, index, middle);
+            index = middle;
+            return prefix;
+        }
+
+        public long estimateSize()
+        {
+            return end - index;
+        }
+
+        public int characteristics()
+        {
+            return ORDERED | SIZED | SUBSIZED | NONNULL | IMMUTABLE;
+        }
+    }
+}
@@ -0,0 +1,579 @@
+/*
+ * Copyright 2017 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at:
+ *
+ *     http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+
+package software.amazon.ion.util;
+
+import static software.amazon.ion.impl.PrivateUtils.utf8;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigInteger;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import software.amazon.ion.Decimal;
+import software.amazon.ion.IntegerSize;
+import software.amazon.ion.IonException;
+import software.amazon.ion.IonReader;
+import software.amazon.ion.IonSystem;
+import software.amazon.ion.IonType;
+import software.amazon.ion.IonValue;
+import software.amazon.ion.IonWriter;
+import software.amazon.ion.SymbolToken;
+import software.amazon.ion.impl.bin.PrivateIonManagedBinaryWriterBuilder;
+import software.amazon.ion.impl.bin.PrivateIonManagedBinaryWriterBuilder.AllocatorMode;
+
+/**
+ * Computes digests of Ion data that depend only on its content, and writes
+ * Ion data in a canonical binary encoding.  Both agree with
+ * {@link Equivalence#ionEquals(IonValue, IonValue)}: equivalent data has
+ * the same digest and the same canonical encoding, whatever the order of
+ * its struct fields, its symbol tables, or how it was encoded.
+ * <p>
+ * Digests are computed as the data is read, without materializing it.
+ * Each value is fed to the digest as a type byte followed by a
+ * length-prefixed representation of its content, with symbols represented
+ * by their text.  Sequences are delimited by their type byte and an end
+ * byte.  Each struct field is digested separately, and the struct is
+ * represented by the sorted digests of its fields, so only those digests
+ * are held while a struct is read.
+ * <p>
+ * The canonical encoding is Ion binary without imports, whose local
+ * symbols are declared in the order they're first written, with minimal
+ * lengths and 64-bit floats, and whose struct fields are sorted by name
+ * and then by digest.  Sorting requires each struct to be loaded as it's
+ * written.
+ * <p>
+ * Symbols with unknown text are digested by their SIDs, which makes their
+ * digests depend on the symbol tables they came from.
+ */
+public final class IonDigest
+{
+    /** Orders the fields of canonical structs that have the same name. */
+    private static final String CANONICAL_ORDER_ALGORITHM = "SHA-256";
+
+    private static final int TYPE_ANNOTATIONS    = 0xE0;
+    private static final int TYPE_SYMBOL_TEXT    = 0x71;
+    private static final int TYPE_SYMBOL_SID     = 0x72;
+    private static final int END_OF_SEQUENCE     = 0xF0;
+
+    private static final PrivateIonManagedBinaryWriterBuilder CANONICAL_WRITER_BUILDER =
+        PrivateIonManagedBinaryWriterBuilder
+            .create(AllocatorMode.POOLED)
+            .withPaddedLengthPreallocation(0)
+            .withFloatBinary32Disabled()
+            .withLocalSymbolTableAppendDisabled();
+
+    private IonDigest() { }
+
+
+    /**
+     * Digests the rest of the reader's values, at its current depth.
+     *
+     * @param digest is reset before it's used.
+     *
+     * @return the digest of the values.
+     */
+    public static byte[] of(IonReader reader, MessageDigest digest)
+    {
+        digest.reset();
+        new Digester(digest).digestValues(reader, digest);
+        return digest.digest();
+    }
+
+    /**
+     * Digests a value, or the values of a datagram.
+     *
+     * @param digest is reset before it's used.
+     *
+     * @return the digest of the value.
+     */
+    public static byte[] of(IonValue value, MessageDigest digest)
+    {
+        IonReader reader = value.getSystem().newReader(value);
+        try
+        {
+            return of(reader, digest);
+        }
+        finally
+        {
+            close(reader);
+        }
+    }
+
+    /**
+     * Writes the rest of the reader's values, at its current depth, in the
+     * canonical binary encoding.
+     *
+     * @param system loads each struct so that its fields can be sorted.
+     */
+    public static void writeCanonical(IonSystem system, IonReader reader,
+                                      OutputStream out)
+        throws IOException
+    {
+        IonWriter writer = CANONICAL_WRITER_BUILDER.newWriter(out);
+        new CanonicalWriter(system).writeValues(reader, writer);
+        writer.close();
+    }
+
+
+    /**
+     * The digests of the struct fields being read, one per depth of struct
+     * nesting, and a buffer for encoding representations.
+     */
+    private static final class Digester
+    {
+        private final MessageDigest       myPrototype;
+        private final List<MessageDigest> myFieldDigests = new ArrayList<MessageDigest>();
+        private int                       myStructDepth;
+        private byte[]                    myBytes = new byte[64];
+
+        Digester(MessageDigest prototype)
+        {
+            myPrototype = prototype;
+        }
+
+        void digestValues(IonReader reader, MessageDigest out)
+        {
+            IonType type;
+            while ((type = reader.next()) != null)
+            {
+                digestValue(reader, type, out);
+            }
+        }
+
+        private void digestValue(IonReader reader, IonType type, MessageDigest out)
+        {
+            SymbolToken[] annotations = reader.getTypeAnnotationSymbols();
+            if (annotations.length > 0)
+            {
+                out.update((byte) TYPE_ANNOTATIONS);
+                updateVarUInt(out, annotations.length);
+                for (SymbolToken annotation : annotations)
+                {
+                    digestSymbol(annotation, out);
+                }
+            }
+
+            int typeByte = typeByte(type);
+            if (reader.isNullValue())
+            {
+                out.update((byte) (typeByte | 0x0F));
+                return;
+            }
+            switch (type)
+            {
+                case BOOL:
+                    out.update((byte) (typeByte | (reader.booleanValue() ? 1 : 0)));
+                    break;
+                case INT:
+                    digestInt(reader, out);
+                    break;
+                case FLOAT:
+                {
+                    // all NaNs are equivalent, so they're collapsed
+                    long bits = Double.doubleToLongBits(reader.doubleValue());
+                    out.update((byte) typeByte);
+                    for (int shift = 56; shift >= 0; shift -= 8)
+                    {
+                        out.update((byte) (bits >>> shift));
+                    }
+                    break;
+                }
+                case DECIMAL:
+                    digestDecimal(reader.decimalValue(), out);
+                    break;
+                case TIMESTAMP:
+                    // the text keeps the precision and offset, which
+                    // equivalent timestamps share
+                    digestBytes(typeByte, utf8(reader.timestampValue().toString()), out);
+                    break;
+                case SYMBOL:
+                    out.update((byte) typeByte);
+                    digestSymbol(reader.symbolValue(), out);
+                    break;
+                case STRING:
+                    digestBytes(typeByte, utf8(reader.stringValue()), out);
+                    break;
+                case CLOB:
+                case BLOB:
+                {
+                    int size = reader.byteSize();
+                    ensureCapacity(size);
+                    reader.getBytes(myBytes, 0, size);
+                    digestBytes(typeByte, myBytes, size, out);
+                    break;
+                }
+                case LIST:
+                case SEXP:
+                    out.update((byte) typeByte);
+                    reader.stepIn();
+                    digestValues(reader, out);
+                    reader.stepOut();
+                    out.update((byte) END_OF_SEQUENCE);
+                    break;
+                case STRUCT:
+                    digestStruct(reader, typeByte, out);
+                    break;
+                default:
+                    throw new IllegalStateException("unexpected type " + type);
+            }
+        }
+
+        private void digestStruct(IonReader reader, int typeByte, MessageDigest out)
+        {
+            MessageDigest fieldDigest = fieldDigest(myStructDepth++);
+            List<byte[]> fields = new ArrayList<byte[]>();
+            reader.stepIn();
+            IonType type;
+            while ((type = reader.next()) != null)
+            {
+                fieldDigest.reset();
+                digestSymbol(reader.getFieldNameSymbol(), fieldDigest);
+                digestValue(reader, type, fieldDigest);
+                fields.add(fieldDigest.digest());
+            }
+            reader.stepOut();
+            myStructDepth--;
+
+            Collections.sort(fields, UNSIGNED_BYTES_ORDER);
+            out.update((byte) typeByte);
+            updateVarUInt(out, fields.size());
+            for (byte[] field : fields)
+            {
+                out.update(field);
+            }
+        }
+
+        private MessageDigest fieldDigest(int depth)
+        {
+            if (depth == myFieldDigests.size())
+            {
+                myFieldDigests.add(newDigest(myPrototype));
+            }
+            return myFieldDigests.get(depth);
+        }
+
+        private void digestInt(IonReader reader, MessageDigest out)
+        {
+            int length;
+            boolean negative;
+            if (reader.getIntegerSize() == IntegerSize.BIG_INTEGER)
+            {
+                BigInteger value = reader.bigIntegerValue();
+                negative = value.signum() < 0;
+                byte[] magnitude = value.abs().toByteArray();
+                // skip the sign byte, if there is one
+                int start = (magnitude[0] == 0) ? 1 : 0;
+                length = magnitude.length - start;
+                ensureCapacity(length);
+                System.arraycopy(magnitude, start, myBytes, 0, length);
+            }
+            else
+            {
+                long value = reader.longValue();
+                negative = value < 0;
+                // the magnitude of Long.MIN_VALUE is read as unsigned
+                long magnitude = negative ? -value : value;
+                length = (64 - Long.numberOfLeadingZeros(magnitude) + 7) / 8;
+                for (int i = 0; i < length; i++)
+                {
+                    myBytes[i] = (byte) (magnitude >>> (8 * (length - 1 - i)));
+                }
+            }
+            digestBytes(negative ? 0x30 : 0x20, myBytes, length, out);
+        }
+
+        private void digestDecimal(Decimal value, MessageDigest out)
+        {
+            // equivalent decimals have the same scale, coefficient and sign,
+            // including the sign of zero
+            BigInteger coefficient = value.unscaledValue();
+            byte[] magnitude = coefficient.abs().toByteArray();
+            int length = 5 + magnitude.length;
+            ensureCapacity(length);
+            int scale = value.scale();
+            myBytes[0] = (byte) (scale >>> 24);
+            myBytes[1] = (byte) (scale >>> 16);
+            myBytes[2] = (byte) (scale >>> 8);
+            myBytes[3] = (byte) scale;
+            myBytes[4] = (byte) ((coefficient.signum() < 0 || value.isNegativeZero()) ? 1 : 0);
+            System.arraycopy(magnitude, 0, myBytes, 5, magnitude.length);
+            digestBytes(0x50, myBytes, length, out);
+        }
+
+        private void digestSymbol(SymbolToken token, MessageDigest out)
+        {
+            String text = token.getText();
+            if (text == null)
+            {
+                out.update((byte) TYPE_SYMBOL_SID);
+                updateVarUInt(out, token.getSid());
+            }
+            else
+            {
+                digestBytes(TYPE_SYMBOL_TEXT, utf8(text), out);
+            }
+        }
+
+        private void ensureCapacity(int length)
+        {
+            if (myBytes.length < length)
+            {
+                myBytes = new byte[Math.max(length, myBytes.length * 2)];
+            }
+        }
+    }
+
+    private static void digestBytes(int typeByte, byte[] bytes, MessageDigest out)
+    {
+        digestBytes(typeByte, bytes, bytes.length, out);
+    }
+
+    private static void digestBytes(int typeByte, byte[] bytes, int length,
+                                    MessageDigest out)
+    {
+        out.update((byte) typeByte);
+        updateVarUInt(out, length);
+        out.update(bytes, 0, length);
+    }
+
+    private static void updateVarUInt(MessageDigest out, long value)
+    {
+        // the same as Ion binary's VarUInt: 7 bits per byte, most significant
+        // first, with the high bit set on the last byte
+        int shift = 7 * ((63 - Long.numberOfLeadingZeros(value | 1)) / 7);
+        for (; shift > 0; shift -= 7)
+        {
+            out.update((byte) ((value >>> shift) & 0x7F));
+        }
+        out.update((byte) ((value & 0x7F) | 0x80));
+    }
+
+    private static int typeByte(IonType type)
+    {
+        switch (type)
+        {
+            case NULL:      return 0x00;
+            case BOOL:      return 0x10;
+            case INT:       return 0x20;
+            case FLOAT:     return 0x40;
+            case DECIMAL:   return 0x50;
+            case TIMESTAMP: return 0x60;
+            case SYMBOL:    return 0x70;
+            case STRING:    return 0x80;
+            case CLOB:      return 0x90;
+            case BLOB:      return 0xA0;
+            case LIST:      return 0xB0;
+            case SEXP:      return 0xC0;
+            case STRUCT:    return 0xD0;
+            default:
+                throw new IllegalStateException("unexpected type " + type);
+        }
+    }
+
+    private static MessageDigest newDigest(MessageDigest prototype)
+    {
+        try
+        {
+            return (MessageDigest) prototype.clone();
+        }
+        catch (CloneNotSupportedException e)
+        {
+            try
+            {
+                return MessageDigest.getInstance(prototype.getAlgorithm(),
+                                                 prototype.getProvider());
+            }
+            catch (NoSuchAlgorithmException e2)
+            {
+                throw new IonException(e2);
+            }
+        }
+    }
+
+    private static final Comparator<byte[]> UNSIGNED_BYTES_ORDER =
+        new Comparator<byte[]>()
+    {
+        public int compare(byte[] a, byte[] b)
+        {
+            int length = Math.min(a.length, b.length);
+            for (int i = 0; i < length; i++)
+            {
+                int result = (a[i] & 0xFF) - (b[i] & 0xFF);
+                if (result != 0) return result;
+            }
+            return a.length - b.length;
+        }
+    };
+
+    private static void close(IonReader reader)
+    {
+        try
+        {
+            reader.close();
+        }
+        catch (IOException e)
+        {
+            throw new IonException(e);
+        }
+    }
+
+
+    /**
+     * Writes values with their struct fields sorted by name and then by
+     * digest.
+     */
+    private static final class CanonicalWriter
+    {
+        private final IonSystem     mySystem;
+        private final MessageDigest myDigest;
+
+        CanonicalWriter(IonSystem system)
+        {
+            mySystem = system;
+            try
+            {
+                myDigest = MessageDigest.getInstance(CANONICAL_ORDER_ALGORITHM);
+            }
+            catch (NoSuchAlgorithmException e)
+            {
+                throw new IonException(e);
+            }
+        }
+
+        void writeValues(IonReader reader, IonWriter writer)
+            throws IOException
+        {
+            IonType type;
+            while ((type = reader.next()) != null)
+            {
+                writeValue(reader, type, writer);
+            }
+        }
+
+        private void writeValue(IonReader reader, IonType type, IonWriter writer)
+            throws IOException
+        {
+            if (reader.isNullValue() || !IonType.isContainer(type))
+            {
+                writer.writeValue(reader);
+                return;
+            }
+            writer.setTypeAnnotationSymbols(reader.getTypeAnnotationSymbols());
+            writer.stepIn(type);
+            reader.stepIn();
+            if (type == IonType.STRUCT)
+            {
+                writeFields(reader, writer);
+            }
+            else
+            {
+                writeValues(reader, writer);
+            }
+            reader.stepOut();
+            writer.stepOut();
+        }
+
+        private void writeFields(IonReader reader, IonWriter writer)
+            throws IOException
+        {
+            List<Field> fields = new ArrayList<Field>();
+            while (reader.next() != null)
+            {
+                SymbolToken name = reader.getFieldNameSymbol();
+                fields.add(new Field(name, mySystem.newValue(reader)));
+            }
+            Collections.sort(fields);
+
+            // fields with the same name are ordered by their digests, which
+            // are only computed for them
+            int start = 0;
+            while (start < fields.size())
+            {
+                int end = start + 1;
+                while (end < fields.size()
+                       && fields.get(end).compareTo(fields.get(start)) == 0)
+                {
+                    end++;
+                }
+                if (end - start > 1)
+                {
+                    List<Field> run = fields.subList(start, end);
+                    for (Field field : run)
+                    {
+                        field.myDigest = of(field.myValue, myDigest);
+                    }
+                    Collections.sort(run, DIGEST_ORDER);
+                }
+                start = end;
+            }
+
+            for (Field field : fields)
+            {
+                writer.setFieldNameSymbol(field.myName);
+                IonReader fieldReader = mySystem.newReader(field.myValue);
+                try
+                {
+                    writeValue(fieldReader, fieldReader.next(), writer);
+                }
+                finally
+                {
+                    fieldReader.close();
+                }
+            }
+        }
+    }
+
+    /** A loaded struct field, ordered by name. */
+    private static final class Field
+        implements Comparable<Field>
+    {
+        final SymbolToken myName;
+        final IonValue    myValue;
+        byte[]            myDigest;
+
+        Field(SymbolToken name, IonValue value)
+        {
+            myName = name;
+            myValue = value;
+        }
+
+        public int compareTo(Field other)
+        {
+            String text = myName.getText();
+            String otherText = other.myName.getText();
+            if (text == null || otherText == null)
+            {
+                // symbols with unknown text sort first, by SID
+                if (text != null) return 1;
+                if (otherText != null) return -1;
+                return myName.getSid() - other.myName.getSid();
+            }
+            return text.compareTo(otherText);
+        }
+    }
+
+    private static final Comparator<Field> DIGEST_ORDER =
+        new Comparator<Field>()
+    {
+        public int compare(Field a, Field b)
+        {
+            return UNSIGNED_BYTES_ORDER.compare(a.myDigest, b.myDigest);
+        }
+    };
+}
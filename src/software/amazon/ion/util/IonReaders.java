@@ -0,0 +1,168 @@
+/*
+ * Copyright 2017 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at:
+ *
+ *     http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+
+package software.amazon.ion.util;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import software.amazon.ion.IonException;
+import software.amazon.ion.IonIncrementalReader;
+import software.amazon.ion.IonReader;
+import software.amazon.ion.IonSystem;
+import software.amazon.ion.SeekableReader;
+import software.amazon.ion.impl.PrivateIonReaderFactory;
+
+/**
+ * Factory methods for the {@link IonReader}s that {@link IonSystem} doesn't
+ * create directly.
+ * <p>
+ * Each reader is created as if by the given system: it uses the system's
+ * catalog, and values created from it belong to that system.
+ */
+@SuppressWarnings("deprecation")
+public final class IonReaders
+{
+    private IonReaders() {}
+
+
+    /**
+     * Creates a new {@link IonReader} instance over a file of Ion data,
+     * detecting whether it's text or binary data.
+     * <p>
+     * The file is memory-mapped rather than read through a stream, so values
+     * that are skipped over are never copied into the heap.
+     * The reader starts at the channel's current position, and reads to the
+     * end of the file as it was sized when this method was called.
+     * Binary readers created by this method support the
+     * {@link SeekableReader} facet.
+     * <p>
+     * This method will auto-detect and uncompress GZIPped Ion data, in which
+     * case the file is streamed instead of mapped.
+     *
+     * @param system the system that creates the reader.
+     * Must not be null.
+     * @param ionData must not be null.
+     *
+     * @return a new reader instance.
+     * Callers must call {@link IonReader#close()} when finished with it,
+     * which also closes the channel.
+     *
+     * @throws IonException if the source throws {@link IOException}.
+     */
+    public static IonReader newReader(IonSystem system, FileChannel ionData)
+    {
+        return PrivateIonReaderFactory.makeReader(system, system.getCatalog(),
+                                                  ionData);
+    }
+
+    /**
+     * Creates a new {@link IonReader} instance over a file of Ion data,
+     * detecting whether it's text or binary data.
+     * The file is opened for reading and read as by
+     * {@link #newReader(IonSystem, FileChannel)}.
+     *
+     * @param system the system that creates the reader.
+     * Must not be null.
+     * @param ionData must not be null.
+     *
+     * @return a new reader instance.
+     * Callers must call {@link IonReader#close()} when finished with it,
+     * which also closes the file.
+     *
+     * @throws IonException if the file can't be opened or read.
+     */
+    public static IonReader newReader(IonSystem system, Path ionData)
+    {
+        FileChannel channel;
+        try
+        {
+            channel = FileChannel.open(ionData, StandardOpenOption.READ);
+        }
+        catch (IOException e)
+        {
+            throw new IonException(e);
+        }
+
+        boolean opened = false;
+        try
+        {
+            IonReader reader = newReader(system, channel);
+            opened = true;
+            return reader;
+        }
+        finally
+        {
+            if (!opened)
+            {
+                try
+                {
+                    channel.close();
+                }
+                catch (IOException e)
+                {
+                    // The original failure is more interesting
+                }
+            }
+        }
+    }
+
+    /**
+     * Creates a new {@link IonReader} instance over the remaining bytes of a
+     * buffer, detecting whether it's text or binary data.
+     * <p>
+     * Heap buffers are read in place from their backing array. Direct and
+     * read-only buffers are copied a page at a time as the reader advances,
+     * so values that are skipped over are never copied into the heap.
+     * The reader reads from the buffer's position up to its limit as they
+     * were when this method was called, and never modifies them.
+     * Binary readers created by this method support the
+     * {@link SeekableReader} facet.
+     * <p>
+     * This method will auto-detect and uncompress GZIPped Ion data.
+     *
+     * @param system the system that creates the reader.
+     * Must not be null.
+     * @param ionData must not be null.
+     * The buffer's contents must not be modified while the reader is in use.
+     *
+     * @return a new reader instance.
+     * Callers must call {@link IonReader#close()} when finished with it,
+     * after which the reader no longer refers to the buffer.
+     */
+    public static IonReader newReader(IonSystem system, ByteBuffer ionData)
+    {
+        return PrivateIonReaderFactory.makeReader(system, system.getCatalog(),
+                                                  ionData);
+    }
+
+    /**
+     * Creates a new {@link IonIncrementalReader} over binary Ion data that
+     * will be {@linkplain IonIncrementalReader#feed fed} to it as it arrives.
+     * The reader initially has no data.
+     *
+     * @param system the system that creates the reader.
+     * Must not be null.
+     *
+     * @return a new reader instance.
+     * Callers must call {@link IonReader#close()} when finished with it.
+     */
+    public static IonIncrementalReader newIncrementalReader(IonSystem system)
+    {
+        return PrivateIonReaderFactory.makeIncrementalReader(system,
+                                                             system.getCatalog());
+    }
+}
@@ -0,0 +1,599 @@
+/*
+ * Copyright 2017 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at:
+ *
+ *     http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+
+package software.amazon.ion.util;
+
+import static software.amazon.ion.impl.PrivateIonConstants.UNKNOWN_SYMBOL_TEXT_PREFIX;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import software.amazon.ion.Decimal;
+import software.amazon.ion.IntegerSize;
+import software.amazon.ion.IonException;
+import software.amazon.ion.IonReader;
+import software.amazon.ion.IonSystem;
+import software.amazon.ion.IonType;
+import software.amazon.ion.IonValue;
+import software.amazon.ion.SymbolToken;
+
+/**
+ * Compares the values of two {@link IonReader}s as they're read, without
+ * materializing them, using the same notion of equivalence as
+ * {@link Equivalence}.  Comparison stops at the first difference, which is
+ * reported along with its path.
+ * <p>
+ * Struct fields are compared in the order they're read, for as long as
+ * both structs have the same field names in the same order.  From the first
+ * field that doesn't match, the rest of both structs are loaded and
+ * compared as multi-sets, up to a limit on the number of fields loaded.
+ * Structs whose fields are in the same order therefore take no more memory
+ * than their largest scalar, however deeply they're nested.  Two fields
+ * with the same name and container values are compared with each other as
+ * they're read, so when they differ the rest of both structs is scanned: if
+ * the name recurs, the containers might match other fields, and the
+ * comparison is inconclusive.
+ * <p>
+ * Instances of this class are immutable and safe for use by multiple threads.
+ *
+ * @see Equivalence
+ */
+public final class ReaderEquivalence
+{
+    /** The default limit on the number of struct fields loaded at once. */
+    public static final int DEFAULT_MAX_BUFFERED_FIELDS = 10000;
+
+    private final IonSystem mySystem;
+    private final boolean   myStrict;
+    private final int       myMaxBufferedFields;
+
+    /**
+     * Creates a comparator that includes annotations, like
+     * {@link Equivalence#ionEquals(IonValue, IonValue)}.
+     *
+     * @param system loads struct fields that are out of order; must not be
+     * null.
+     */
+    public ReaderEquivalence(IonSystem system)
+    {
+        this(system, true, DEFAULT_MAX_BUFFERED_FIELDS);
+    }
+
+    /**
+     * @param system loads struct fields that are out of order; must not be
+     * null.
+     * @param strict whether annotations, and the precision and offsets of
+     * timestamps, are compared, as by
+     * {@link Equivalence#ionEquals(IonValue, IonValue)}; otherwise values
+     * are compared by content, as by
+     * {@link Equivalence#ionEqualsByContent(IonValue, IonValue)}.
+     * @param maxBufferedFields the largest number of fields loaded from
+     * each struct whose fields are in different orders.
+     */
+    public ReaderEquivalence(IonSystem system, boolean strict,
+                             int maxBufferedFields)
+    {
+        if (system == null)
+        {
+            throw new NullPointerException("system is null");
+        }
+        if (maxBufferedFields < 1)
+        {
+            throw new IllegalArgumentException("maxBufferedFields must be positive");
+        }
+        mySystem = system;
+        myStrict = strict;
+        myMaxBufferedFields = maxBufferedFields;
+    }
+
+
+    /**
+     * A difference between the values of two readers.
+     */
+    public static final class Difference
+    {
+        private final String myPath;
+        private final String myMessage;
+
+        private Difference(String path, String message)
+        {
+            myPath = path;
+            myMessage = message;
+        }
+
+        /**
+         * Returns the path of the first value that differs, such as
+         * {@code [3].a.b[2]}, where the leading index is that of the
+         * top-level value.
+         */
+        public String getPath()
+        {
+            return myPath;
+        }
+
+        /**
+         * Returns a description of how the values differ.
+         */
+        public String getMessage()
+        {
+            return myMessage;
+        }
+
+        @Override
+        public String toString()
+        {
+            return myPath + ": " + myMessage;
+        }
+    }
+
+
+    /**
+     * Reads both readers to their ends, or to the first difference between
+     * their values.  The readers should be positioned before their first
+     * values; after a difference they're left where it was found, or at the
+     * end of the struct holding a field whose containers differ.
+     *
+     * @return null if the readers' values are equivalent.
+     *
+     * @throws IonException if structs whose fields are in different orders
+     * have more fields than can be loaded, or if fields with the same name
+     * hold containers that differ and the name recurs in the same structs.
+     */
+    public Difference compare(IonReader r1, IonReader r2)
+    {
+        return new Comparison(r1, r2).compareTopLevel();
+    }
+
+    /**
+     * Determines whether the readers' values are equivalent.
+     *
+     * @see #compare(IonReader, IonReader)
+     */
+    public boolean equivalent(IonReader r1, IonReader r2)
+    {
+        return compare(r1, r2) == null;
+    }
+
+
+    /**
+     * The state of one comparison: the path to the current values, and the
+     * buffers used to compare lobs.
+     */
+    private final class Comparison
+    {
+        private final IonReader myReader1;
+        private final IonReader myReader2;
+
+        /** Field names, or null where the path step is an index. */
+        private String[] myNames   = new String[8];
+        private int[]    myIndexes = new int[8];
+        private int      myDepth;
+
+        private byte[]   myBytes1;
+        private byte[]   myBytes2;
+
+        Comparison(IonReader r1, IonReader r2)
+        {
+            myReader1 = r1;
+            myReader2 = r2;
+        }
+
+        private void push(String name, int index)
+        {
+            if (myDepth == myNames.length)
+            {
+                String[] names = new String[myDepth * 2];
+                System.arraycopy(myNames, 0, names, 0, myDepth);
+                myNames = names;
+                int[] indexes = new int[myDepth * 2];
+                System.arraycopy(myIndexes, 0, indexes, 0, myDepth);
+                myIndexes = indexes;
+            }
+            myNames[myDepth] = name;
+            myIndexes[myDepth] = index;
+            myDepth++;
+        }
+
+        private void pop()
+        {
+            myDepth--;
+        }
+
+        private Difference difference(String message)
+        {
+            StringBuilder path = new StringBuilder();
+            for (int i = 0; i < myDepth; i++)
+            {
+                String name = myNames[i];
+                if (name == null)
+                {
+                    path.append('[').append(myIndexes[i]).append(']');
+                }
+                else
+                {
+                    path.append('.').append(IonTextUtils.printSymbol(name));
+                }
+            }
+            return new Difference(path.toString(), message);
+        }
+
+        Difference compareTopLevel()
+        {
+            for (int index = 0; ; index++)
+            {
+                IonType t1 = myReader1.next();
+                IonType t2 = myReader2.next();
+                push(null, index);
+                Difference difference = compareValues(t1, t2);
+                if (difference != null || t1 == null || t2 == null)
+                {
+                    return difference;
+                }
+                pop();
+            }
+        }
+
+        /**
+         * Compares the readers' current values, where both must have been
+         * positioned by {@link IonReader#next()}.
+         */
+        private Difference compareValues(IonType t1, IonType t2)
+        {
+            Difference difference = compareHeaders(t1, t2);
+            if (difference != null || t1 == null || myReader1.isNullValue())
+            {
+                return difference;
+            }
+            return compareContents(t1);
+        }
+
+        /**
+         * Compares the types, annotations and nullness of the readers'
+         * current values, leaving the readers on them.
+         */
+        private Difference compareHeaders(IonType t1, IonType t2)
+        {
+            if (t1 == null || t2 == null)
+            {
+                if (t1 == t2) return null;
+                return difference((t1 == null ? "only the second" : "only the first")
+                                  + " reader has a value");
+            }
+            if (t1 != t2)
+            {
+                return difference("types differ: " + t1 + " and " + t2);
+            }
+            if (myStrict)
+            {
+                SymbolToken[] a1 = myReader1.getTypeAnnotationSymbols();
+                SymbolToken[] a2 = myReader2.getTypeAnnotationSymbols();
+                boolean same = a1.length == a2.length;
+                for (int i = 0; same && i < a1.length; i++)
+                {
+                    same = symbolsEqual(a1[i], a2[i]);
+                }
+                if (!same)
+                {
+                    return difference("annotations differ");
+                }
+            }
+            boolean null1 = myReader1.isNullValue();
+            boolean null2 = myReader2.isNullValue();
+            if (null1 != null2)
+            {
+                return difference((null1 ? "only the first" : "only the second")
+                                  + " value is null");
+            }
+            return null;
+        }
+
+        /**
+         * Compares the contents of the readers' current values, which have
+         * the same type and aren't null.
+         */
+        private Difference compareContents(IonType type)
+        {
+            boolean same;
+            switch (type)
+            {
+                case BOOL:
+                    same = myReader1.booleanValue() == myReader2.booleanValue();
+                    break;
+                case INT:
+                    if (myReader1.getIntegerSize() != IntegerSize.BIG_INTEGER
+                        && myReader2.getIntegerSize() != IntegerSize.BIG_INTEGER)
+                    {
+                        same = myReader1.longValue() == myReader2.longValue();
+                    }
+                    else
+                    {
+                        same = myReader1.bigIntegerValue().equals(myReader2.bigIntegerValue());
+                    }
+                    break;
+                case FLOAT:
+                    same = Double.compare(myReader1.doubleValue(),
+                                          myReader2.doubleValue()) == 0;
+                    break;
+                case DECIMAL:
+                    same = Decimal.equals(myReader1.decimalValue(),
+                                          myReader2.decimalValue());
+                    break;
+                case TIMESTAMP:
+                    // as in Equivalence, comparing by content ignores
+                    // precision and offsets
+                    same = myStrict
+                        ? myReader1.timestampValue().equals(myReader2.timestampValue())
+                        : myReader1.timestampValue().compareTo(myReader2.timestampValue()) == 0;
+                    break;
+                case STRING:
+                    same = myReader1.stringValue().equals(myReader2.stringValue());
+                    break;
+                case SYMBOL:
+                    same = symbolsEqual(myReader1.symbolValue(),
+                                        myReader2.symbolValue());
+                    break;
+                case BLOB:
+                case CLOB:
+                    same = lobsEqual();
+                    break;
+                case LIST:
+                case SEXP:
+                    return compareSequences();
+                case STRUCT:
+                    return compareStructs();
+                default:
+                    throw new IllegalStateException("unexpected type " + type);
+            }
+            return same ? null : difference(type + " values differ");
+        }
+
+        private boolean lobsEqual()
+        {
+            int size = myReader1.byteSize();
+            if (size != myReader2.byteSize()) return false;
+            if (myBytes1 == null || myBytes1.length < size)
+            {
+                myBytes1 = new byte[size];
+                myBytes2 = new byte[size];
+            }
+            myReader1.getBytes(myBytes1, 0, size);
+            myReader2.getBytes(myBytes2, 0, size);
+            for (int i = 0; i < size; i++)
+            {
+                if (myBytes1[i] != myBytes2[i]) return false;
+            }
+            return true;
+        }
+
+        private Difference compareSequences()
+        {
+            myReader1.stepIn();
+            myReader2.stepIn();
+            for (int index = 0; ; index++)
+            {
+                IonType t1 = myReader1.next();
+                IonType t2 = myReader2.next();
+                if (t1 == null && t2 == null) break;
+                push(null, index);
+                Difference difference = compareValues(t1, t2);
+                if (difference != null) return difference;
+                pop();
+            }
+            myReader1.stepOut();
+            myReader2.stepOut();
+            return null;
+        }
+
+        private Difference compareStructs()
+        {
+            myReader1.stepIn();
+            myReader2.stepIn();
+            int depth = myReader1.getDepth();
+            for (;;)
+            {
+                IonType t1 = myReader1.next();
+                IonType t2 = myReader2.next();
+                if (t1 == null && t2 == null) break;
+                if (t1 == null || t2 == null
+                    || !fieldName(myReader1).equals(fieldName(myReader2)))
+                {
+                    return compareRemainingFields(t1, t2, null, null);
+                }
+
+                String name = fieldName(myReader1);
+                int pathDepth = myDepth;
+                push(name, 0);
+                Difference difference = compareHeaders(t1, t2);
+                IonValue v1 = null;
+                IonValue v2 = null;
+                if (difference == null && !myReader1.isNullValue())
+                {
+                    if (IonType.isLob(t1))
+                    {
+                        // reading a lob's bytes can use them up, so it's
+                        // loaded once to be compared here and, if it
+                        // differs, matched with the other fields
+                        v1 = mySystem.newValue(myReader1);
+                        v2 = mySystem.newValue(myReader2);
+                        if (!Equivalence.ionEqualsByContent(v1, v2))
+                        {
+                            difference = difference(t1 + " values differ");
+                        }
+                    }
+                    else
+                    {
+                        difference = compareContents(t1);
+                        if (difference != null && IonType.isContainer(t1))
+                        {
+                            // the containers have been stepped into, so
+                            // they can't be loaded to be matched with
+                            // other fields
+                            myDepth = pathDepth;
+                            if (fieldRecurs(name, depth))
+                            {
+                                push(name, 0);
+                                throw new IonException("repeated struct fields hold "
+                                                       + "different containers, so the "
+                                                       + "comparison is inconclusive at "
+                                                       + difference("").getPath());
+                            }
+                            return difference;
+                        }
+                    }
+                }
+                pop();
+                if (difference != null)
+                {
+                    return compareRemainingFields(t1, t2, v1, v2);
+                }
+            }
+            myReader1.stepOut();
+            myReader2.stepOut();
+            return null;
+        }
+
+        /**
+         * Steps both readers out to the struct at {@code depth}, and
+         * determines whether a field named {@code name} follows in either.
+         */
+        private boolean fieldRecurs(String name, int depth)
+        {
+            boolean recurs1 = fieldFollows(myReader1, name, depth);
+            boolean recurs2 = fieldFollows(myReader2, name, depth);
+            return recurs1 || recurs2;
+        }
+
+        /**
+         * Loads the rest of the first reader's struct, from its current
+         * field, and matches each of the rest of the second reader's fields
+         * with one of them.
+         *
+         * @param first1 the first reader's current field, if it has already
+         * been loaded; otherwise null.
+         * @param first2 the second reader's current field, if it has already
+         * been loaded; otherwise null.
+         */
+        private Difference compareRemainingFields(IonType t1, IonType t2,
+                                                  IonValue first1,
+                                                  IonValue first2)
+        {
+            Map<String, List<IonValue>> fields =
+                new LinkedHashMap<String, List<IonValue>>();
+            int count = 0;
+            for (IonType t = t1; t != null; t = myReader1.next())
+            {
+                if (++count > myMaxBufferedFields)
+                {
+                    throw new IonException("struct fields are in different "
+                                           + "orders, and there are more than "
+                                           + myMaxBufferedFields + " at "
+                                           + difference("").getPath());
+                }
+                String name = fieldName(myReader1);
+                List<IonValue> values = fields.get(name);
+                if (values == null)
+                {
+                    values = new ArrayList<IonValue>(1);
+                    fields.put(name, values);
+                }
+                values.add(first1 != null ? first1 : mySystem.newValue(myReader1));
+                first1 = null;
+            }
+
+            for (IonType t = t2; t != null; t = myReader2.next())
+            {
+                String name = fieldName(myReader2);
+                IonValue value = first2 != null ? first2 : mySystem.newValue(myReader2);
+                first2 = null;
+                if (!removeEquivalent(fields.get(name), value))
+                {
+                    push(name, 0);
+                    return difference("no equivalent field in the first struct");
+                }
+            }
+
+            for (Map.Entry<String, List<IonValue>> entry : fields.entrySet())
+            {
+                if (!entry.getValue().isEmpty())
+                {
+                    push(entry.getKey(), 0);
+                    return difference("no equivalent field in the second struct");
+                }
+            }
+            myReader1.stepOut();
+            myReader2.stepOut();
+            return null;
+        }
+
+        private boolean removeEquivalent(List<IonValue> values, IonValue value)
+        {
+            if (values == null) return false;
+            for (Iterator<IonValue> i = values.iterator(); i.hasNext(); )
+            {
+                IonValue candidate = i.next();
+                boolean same = myStrict
+                    ? Equivalence.ionEquals(candidate, value)
+                    : Equivalence.ionEqualsByContent(candidate, value);
+                if (same)
+                {
+                    i.remove();
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Steps the reader out to the struct at {@code depth}, and reads the
+     * rest of it for a field named {@code name}.
+     */
+    private static boolean fieldFollows(IonReader reader, String name,
+                                        int depth)
+    {
+        while (reader.getDepth() > depth)
+        {
+            reader.stepOut();
+        }
+        while (reader.next() != null)
+        {
+            if (fieldName(reader).equals(name)) return true;
+        }
+        return false;
+    }
+
+    private static String fieldName(IonReader reader)
+    {
+        SymbolToken token = reader.getFieldNameSymbol();
+        String name = token.getText();
+        if (name == null)
+        {
+            name = UNKNOWN_SYMBOL_TEXT_PREFIX + token.getSid();
+        }
+        return name;
+    }
+
+    private static boolean symbolsEqual(SymbolToken tok1, SymbolToken tok2)
+    {
+        String text1 = tok1.getText();
+        String text2 = tok2.getText();
+        if (text1 == null || text2 == null)
+        {
+            return text1 == text2 && tok1.getSid() == tok2.getSid();
+        }
+        return text1.equals(text2);
+    }
+}
@@ -624,4 +624,46 @@ public class HashCodeCorrectnessTest
         testTypeAnnotationHashCode("(a b c)",           IonType.SEXP);
     }
 
+    @Test
+    public void testReadOnlyHashCode()
+    {
+        String[] texts = {
+            "{a:1, b:{c:[1, 2, x::{d:e}]}, f:(g h)}",
+            "[{a:1}, {a:1}, a::[b, c]]",
+            "(a {b:c} [d])",
+            "$99::{$98:$97}",
+        };
+        for (String text : texts)
+        {
+            IonValue mutable = oneValue(text);
+            IonValue readOnly = oneValue(text);
+            readOnly.makeReadOnly();
+
+            // a read-only value keeps its hash code, which must not differ
+            // from the one computed from scratch
+            assertEquals(mutable.hashCode(), readOnly.hashCode());
+            assertEquals(mutable.hashCode(), readOnly.hashCode());
+            assertEquals(readOnly, mutable);
+            assertEquals(mutable, readOnly);
+
+            // nor may the kept hash codes of nested containers
+            IonValue nested = ((IonContainer) readOnly).iterator().next();
+            IonValue nestedCopy = ((IonContainer) mutable).iterator().next();
+            assertEquals(nestedCopy.hashCode(), nested.hashCode());
+
+            // a mutable clone starts over
+            if (text.startsWith("$")) continue; // unknown symbols can't be cloned
+            IonValue clone = readOnly.clone();
+            assertEquals(readOnly.hashCode(), clone.hashCode());
+            ((IonContainer) clone).clear();
+            assertEquals(oneValue(clone.toString()).hashCode(), clone.hashCode());
+        }
+
+        IonDatagram dg = loader().load("a {b:c} [d]");
+        int expected = dg.hashCode();
+        dg.makeReadOnly();
+        assertEquals(expected, dg.hashCode());
+        assertEquals(expected, dg.hashCode());
+    }
+
 }
@@ -18,10 +18,15 @@ import static software.amazon.ion.TestUtils.ensureBinary;
 import static software.amazon.ion.TestUtils.ensureText;
 
 import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.RandomAccessFile;
 import java.io.Reader;
 import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.EnumSet;
@@ -29,6 +34,7 @@ import software.amazon.ion.IonDatagram;
 import software.amazon.ion.IonReader;
 import software.amazon.ion.IonSystem;
 import software.amazon.ion.impl.PrivateUtils;
+import software.amazon.ion.util.IonReaders;
 
 /**
  * Abstracts the various ways that {@link IonReader}s can be created, so test
@@ -167,6 +173,100 @@ public enum ReaderMaker
     },
 
 
+    /**
+     * Invokes {@link IonReaders#newReader(IonSystem, FileChannel)} with Ion binary.
+     */
+    FROM_FILE_CHANNEL_BINARY(Feature.BINARY)
+    {
+        @Override
+        public IonReader newReader(IonSystem system, byte[] ionData)
+        {
+            ionData = ensureBinary(system, ionData);
+            return IonReaders.newReader(system, newFileChannel(ionData));
+        }
+    },
+
+
+    /**
+     * Invokes {@link IonReaders#newReader(IonSystem, FileChannel)} with Ion text.
+     */
+    FROM_FILE_CHANNEL_TEXT(Feature.TEXT)
+    {
+        @Override
+        public IonReader newReader(IonSystem system, byte[] ionData)
+        {
+            ionData = ensureText(system, ionData);
+            return IonReaders.newReader(system, newFileChannel(ionData));
+        }
+    },
+
+
+    /**
+     * Invokes {@link IonReaders#newReader(IonSystem, ByteBuffer)} with Ion binary in a
+     * heap buffer whose position and limit don't span the whole array.
+     */
+    FROM_HEAP_BYTE_BUFFER_BINARY(Feature.BINARY)
+    {
+        @Override
+        public int getOffset() { return 37; }
+
+        @Override
+        public IonReader newReader(IonSystem system, byte[] ionData)
+        {
+            ionData = ensureBinary(system, ionData);
+            return IonReaders.newReader(system, newPaddedBuffer(ionData, false));
+        }
+    },
+
+
+    /**
+     * Invokes {@link IonReaders#newReader(IonSystem, ByteBuffer)} with Ion text in a
+     * heap buffer whose position and limit don't span the whole array.
+     */
+    FROM_HEAP_BYTE_BUFFER_TEXT(Feature.TEXT)
+    {
+        @Override
+        public int getOffset() { return 37; }
+
+        @Override
+        public IonReader newReader(IonSystem system, byte[] ionData)
+        {
+            ionData = ensureText(system, ionData);
+            return IonReaders.newReader(system, newPaddedBuffer(ionData, false));
+        }
+    },
+
+
+    /**
+     * Invokes {@link IonReaders#newReader(IonSystem, ByteBuffer)} with Ion binary in a
+     * direct buffer whose position and limit don't span the whole buffer.
+     */
+    FROM_DIRECT_BYTE_BUFFER_BINARY(Feature.BINARY)
+    {
+        @Override
+        public IonReader newReader(IonSystem system, byte[] ionData)
+        {
+            ionData = ensureBinary(system, ionData);
+            return IonReaders.newReader(system, newPaddedBuffer(ionData, true));
+        }
+    },
+
+
+    /**
+     * Invokes {@link IonReaders#newReader(IonSystem, ByteBuffer)} with Ion text in a
+     * direct buffer whose position and limit don't span the whole buffer.
+     */
+    FROM_DIRECT_BYTE_BUFFER_TEXT(Feature.TEXT)
+    {
+        @Override
+        public IonReader newReader(IonSystem system, byte[] ionData)
+        {
+            ionData = ensureText(system, ionData);
+            return IonReaders.newReader(system, newPaddedBuffer(ionData, true));
+        }
+    },
+
+
     /**
      * Invokes {@link IonSystem#newReader(Reader)}.
      */
@@ -252,6 +352,52 @@ public enum ReaderMaker
     }
 
 
+    /**
+     * Writes data to a temporary file, returning a channel positioned at its
+     * start.
+     */
+    static FileChannel newFileChannel(byte[] data)
+    {
+        try
+        {
+            File file = File.createTempFile("ReaderMaker", ".ion");
+            file.deleteOnExit();
+            FileOutputStream out = new FileOutputStream(file);
+            try
+            {
+                out.write(data);
+            }
+            finally
+            {
+                out.close();
+            }
+            return new RandomAccessFile(file, "r").getChannel();
+        }
+        catch (IOException e)
+        {
+            throw new IonException(e);
+        }
+    }
+
+
+    /**
+     * Copies data into a buffer, surrounded by padding that lies outside the
+     * buffer's position and limit.
+     */
+    static ByteBuffer newPaddedBuffer(byte[] data, boolean direct)
+    {
+        int capacity = data.length + 70;
+        ByteBuffer buffer = (direct
+                             ? ByteBuffer.allocateDirect(capacity)
+                             : ByteBuffer.allocate(capacity));
+        buffer.position(37);
+        buffer.put(data);
+        buffer.flip();
+        buffer.position(37);
+        return buffer;
+    }
+
+
     public static ReaderMaker[] valuesExcluding(ReaderMaker... exclusions)
     {
         ReaderMaker[] all = values();
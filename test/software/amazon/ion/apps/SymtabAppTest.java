@@ -0,0 +1,167 @@
+/*
+ * Copyright 2017 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at:
+ *
+ *     http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+
+package software.amazon.ion.apps;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.PrintStream;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.Before;
+import org.junit.Test;
+import software.amazon.ion.IonTestCase;
+import software.amazon.ion.IonWriter;
+import software.amazon.ion.SymbolTable;
+
+public class SymtabAppTest
+    extends IonTestCase
+{
+    /** Reads its input files from memory. */
+    private static final class InMemorySymtabApp
+        extends SymtabApp
+    {
+        final Map<File, byte[]> myData = new LinkedHashMap<File, byte[]>();
+
+        @Override
+        byte[] load(File file)
+        {
+            return myData.get(file);
+        }
+    }
+
+    private InMemorySymtabApp app;
+
+    @Before
+    public void setUpApp()
+        throws Exception
+    {
+        app = new InMemorySymtabApp();
+    }
+
+    private void processCorpus(String... options)
+        throws Exception
+    {
+        String[] args = Arrays.copyOf(options, options.length + 3);
+        args[options.length] = "--name";
+        args[options.length + 1] = "corpus";
+        args[options.length + 2] = "--by-frequency";
+        assertEquals(args.length, app.processOptions(args));
+
+        // zeta and alpha occur equally often, but zeta is seen first
+        addFile("1.ion", "{ top: zeta } alpha $ion_1_0 $ion_symbol_table");
+        addFile("2.ion", "top::[zeta, alpha, top]");
+        String[] paths = new String[app.myData.size()];
+        int i = 0;
+        for (File file : app.myData.keySet())
+        {
+            paths[i++] = file.getPath();
+        }
+        assertTrue(app.optionsAreValid(paths));
+
+        for (File file : app.myData.keySet())
+        {
+            app.process(file);
+        }
+    }
+
+    private void addFile(String name, String text)
+        throws Exception
+    {
+        app.myData.put(new File(name), text.getBytes("UTF-8"));
+    }
+
+    private long encodedSize(SymbolTable... imports)
+        throws Exception
+    {
+        long total = 0;
+        for (byte[] data : app.myData.values())
+        {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            IonWriter writer = app.mySystem.newBinaryWriter(out, imports);
+            writer.writeValues(app.mySystem.newReader(data));
+            writer.close();
+            total += out.size();
+        }
+        return total;
+    }
+
+    @Test
+    public void testMostFrequentFirst()
+        throws Exception
+    {
+        processCorpus();
+        assertEquals(Arrays.asList("top", "zeta", "alpha"),
+                     app.symbolsByFrequency());
+    }
+
+    @Test
+    public void testTiesKeepFirstSeenOrder()
+        throws Exception
+    {
+        // seen once each, and in first-seen rather than alphabetical order
+        addFile("0.ion", "b a c");
+        processCorpus();
+        assertEquals(Arrays.asList("top", "zeta", "alpha", "b", "a", "c"),
+                     app.symbolsByFrequency());
+    }
+
+    @Test
+    public void testDefaultCandidateSizes()
+    {
+        // SIDs 10 through 127 take one byte, and up to 16383 take two
+        assertEquals(Arrays.asList(3, 118, 16374),
+                     Arrays.asList(app.candidateSizes(3, new SymbolTable[0])
+                                      .toArray(new Integer[0])));
+
+        SymbolTable imported =
+            system().newSharedSymbolTable("imported", 1,
+                                          Arrays.asList("x", "y").iterator());
+        assertEquals(Arrays.asList(116, 16372, 20000),
+                     Arrays.asList(app.candidateSizes(20000,
+                                                      new SymbolTable[] { imported })
+                                      .toArray(new Integer[0])));
+    }
+
+    @Test
+    public void testProjectedSizes()
+        throws Exception
+    {
+        processCorpus("--candidates", "2, 1, 9");
+        List<String> ordered = app.symbolsByFrequency();
+
+        ByteArrayOutputStream report = new ByteArrayOutputStream();
+        app.reportCandidates(ordered, new SymbolTable[0],
+                             new PrintStream(report, true, "UTF-8"));
+        String[] lines = report.toString("UTF-8").split("\\r?\\n");
+
+        // the header, the baseline, and the candidates that fit, in order
+        assertEquals(4, lines.length);
+        long baseline = encodedSize();
+        assertEquals(String.format("%7d %11d", 0, baseline), lines[1]);
+        for (int size = 1; size <= 2; size++)
+        {
+            SymbolTable candidate =
+                app.mySystem.newSharedSymbolTable("corpus", 1,
+                                                  ordered.subList(0, size).iterator());
+            long bytes = encodedSize(candidate);
+            long saved = baseline - bytes;
+            assertEquals(String.format("%7d %11d %11d (%.1f%%)", size, bytes,
+                                       saved, 100.0 * saved / baseline),
+                         lines[1 + size]);
+        }
+    }
+}
@@ -0,0 +1,200 @@
+/*
+ * Copyright 2017 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at:
+ *
+ *     http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+
+package software.amazon.ion.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static software.amazon.ion.SymbolTable.UNKNOWN_SYMBOL_ID;
+
+import java.math.BigDecimal;
+import org.junit.Test;
+import software.amazon.ion.Decimal;
+import software.amazon.ion.IonDatagram;
+import software.amazon.ion.IonException;
+import software.amazon.ion.IonReader;
+import software.amazon.ion.IonSystem;
+import software.amazon.ion.IonType;
+import software.amazon.ion.SymbolToken;
+import software.amazon.ion.Timestamp;
+import software.amazon.ion.system.IonSystemBuilder;
+
+@SuppressWarnings("deprecation")
+public class BinaryReaderPrimitivesTest
+{
+    private static final IonSystem SYSTEM = IonSystemBuilder.standard().build();
+
+    private static final String DECIMALS =
+        "0. 0d5 -0. -0d-3 1.5 -1.5 123.456 -0.001 1d10 -7d18 9d19 1d-30 "
+        + "2147483647. 2147483647.5 -2147483648. -2147483648.5 2147483648. "
+        + "9223372036854775807. -9223372036854775807.9 9223372036854775808. "
+        + "9007199254740993d-3 123456789012345678901234567890.1 "
+        + "0.1 0.3 1d22 1d23 1d-22 1d-23 4503599627370497.5";
+
+    private static IonReader binaryReader(String text)
+    {
+        IonDatagram dg = SYSTEM.getLoader().load(text);
+        return SYSTEM.newReader(dg.getBytes());
+    }
+
+    /** Expected conversions are the long-standing ones from the Decimal. */
+    private static void checkDecimal(Decimal expected, IonReader reader,
+                                     String accessor)
+    {
+        String message = expected + " " + accessor;
+        if ("double".equals(accessor))
+        {
+            assertEquals(message, Double.doubleToLongBits(expected.doubleValue()),
+                         Double.doubleToLongBits(reader.doubleValue()));
+        }
+        else if ("long".equals(accessor))
+        {
+            BigDecimal big = Decimal.bigDecimalValue(expected);
+            if (big.compareTo(BigDecimal.valueOf(Long.MIN_VALUE)) < 0
+                || big.compareTo(BigDecimal.valueOf(Long.MAX_VALUE)) > 0)
+            {
+                try
+                {
+                    reader.longValue();
+                    fail(message);
+                }
+                catch (IonException e) { }
+                return;
+            }
+            assertEquals(message, expected.longValue(), reader.longValue());
+        }
+        else if ("int".equals(accessor))
+        {
+            BigDecimal big = Decimal.bigDecimalValue(expected);
+            if (big.compareTo(BigDecimal.valueOf(Integer.MIN_VALUE)) < 0
+                || big.compareTo(BigDecimal.valueOf(Integer.MAX_VALUE)) > 0)
+            {
+                try
+                {
+                    reader.intValue();
+                    fail(message);
+                }
+                catch (IonException e) { }
+                return;
+            }
+            assertEquals(message, expected.intValue(), reader.intValue());
+        }
+        else
+        {
+            Decimal actual = reader.decimalValue();
+            assertEquals(message, expected, actual);
+            assertEquals(message, expected.isNegativeZero(), actual.isNegativeZero());
+        }
+    }
+
+    @Test
+    public void testDecimalConversions()
+    {
+        String[] accessors = { "double", "long", "int", "decimal" };
+        for (String first : accessors)
+        {
+            for (String second : accessors)
+            {
+                IonReader expected = binaryReader(DECIMALS);
+                IonReader reader = binaryReader(DECIMALS);
+                while (expected.next() != null)
+                {
+                    assertEquals(IonType.DECIMAL, reader.next());
+                    Decimal value = expected.decimalValue();
+                    checkDecimal(value, reader, first);
+                    checkDecimal(value, reader, second);
+                    checkDecimal(value, reader, "decimal");
+                }
+                assertNull(reader.next());
+            }
+        }
+    }
+
+    @Test
+    public void testSids()
+    {
+        IonReader reader = binaryReader(
+            "a::b::{ c: d, e: null.symbol, f: g::1 } h");
+        IonReader tokens = binaryReader(
+            "a::b::{ c: d, e: null.symbol, f: g::1 } h");
+
+        reader.next();
+        tokens.next();
+        assertEquals(UNKNOWN_SYMBOL_ID, PrivateReaderSids.getFieldNameSid(reader));
+        checkAnnotations(tokens.getTypeAnnotationSymbols(), reader);
+
+        reader.stepIn();
+        tokens.stepIn();
+        while (reader.next() != null)
+        {
+            tokens.next();
+            assertEquals(tokens.getFieldNameSymbol().getSid(),
+                         PrivateReaderSids.getFieldNameSid(reader));
+            checkAnnotations(tokens.getTypeAnnotationSymbols(), reader);
+            if (reader.getType() == IonType.SYMBOL)
+            {
+                SymbolToken value = tokens.symbolValue();
+                assertEquals(value == null ? UNKNOWN_SYMBOL_ID : value.getSid(),
+                             PrivateReaderSids.getSymbolValueSid(reader));
+            }
+        }
+        reader.stepOut();
+        tokens.stepOut();
+
+        reader.next();
+        tokens.next();
+        assertEquals(tokens.symbolValue().getSid(),
+                     PrivateReaderSids.getSymbolValueSid(reader));
+        assertEquals("h", tokens.stringValue());
+    }
+
+    private static void checkAnnotations(SymbolToken[] expected, IonReader reader)
+    {
+        assertEquals(expected.length, PrivateReaderSids.getTypeAnnotationSidCount(reader));
+        for (int i = 0; i < expected.length; i++)
+        {
+            assertTrue(expected[i].getSid() > 0);
+            assertEquals(expected[i].getSid(),
+                         PrivateReaderSids.getTypeAnnotationSid(reader, i));
+        }
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testAnnotationSidOutOfBounds()
+    {
+        IonReader reader = binaryReader("a::1");
+        reader.next();
+        PrivateReaderSids.getTypeAnnotationSid(reader, 1);
+    }
+
+    @Test
+    public void testTimestampOffsets()
+    {
+        String[] timestamps = {
+            "2017-01-01T00:00-00:00", "2017-01-01T00:00Z",
+            "2017-01-01T00:00+05:30", "2017-01-01T00:00-08:00",
+            "2017-01-01T00:00:00.123-23:59",
+        };
+        for (String text : timestamps)
+        {
+            IonReader reader = binaryReader(text);
+            reader.next();
+            assertEquals(Timestamp.valueOf(text), reader.timestampValue());
+            assertEquals(Timestamp.valueOf(text).getLocalOffset(),
+                         reader.timestampValue().getLocalOffset());
+        }
+    }
+}
@@ -0,0 +1,181 @@
+/*
+ * Copyright 2017 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at:
+ *
+ *     http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+
+package software.amazon.ion.impl;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static software.amazon.ion.impl.PrivateUtils.utf8;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import org.junit.Test;
+import software.amazon.ion.IonException;
+import software.amazon.ion.IonReader;
+import software.amazon.ion.IonSystem;
+import software.amazon.ion.IonType;
+import software.amazon.ion.IonWriter;
+import software.amazon.ion.system.IonSystemBuilder;
+
+@SuppressWarnings("deprecation")
+public class BinaryReaderStringsTest
+{
+    private static final IonSystem SYSTEM = IonSystemBuilder.standard().build();
+
+    private static final String[] STRINGS = {
+        "", "a", "abc", "h\u00e9llo", "\u65e5\u672c\u8a9e", "\ud83d\ude00",
+        "ascii then \u00e9 then \ud83d\ude00 then \u65e5",
+        "\u007f\u0080\u07ff\u0800\uffff",
+    };
+
+    private static byte[] binary(String... strings) throws Exception
+    {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        IonWriter writer = SYSTEM.newBinaryWriter(out);
+        for (String s : strings)
+        {
+            writer.writeString(s);
+        }
+        writer.close();
+        return out.toByteArray();
+    }
+
+    private static byte[] bytes(ByteBuffer buffer)
+    {
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.duplicate().get(bytes);
+        return bytes;
+    }
+
+    private static void checkStrings(IonReader reader, String[] strings)
+    {
+        for (String expected : strings)
+        {
+            assertEquals(IonType.STRING, reader.next());
+            assertTrue(expected, PrivateReaderStrings.stringValueEquals(reader, expected));
+            assertFalse(PrivateReaderStrings.stringValueEquals(reader, expected + "x"));
+            assertFalse(PrivateReaderStrings.stringValueEquals(reader, "x" + expected));
+            if (expected.length() > 0)
+            {
+                String shorter = expected.substring(0, expected.length() - 1);
+                assertFalse(PrivateReaderStrings.stringValueEquals(reader, shorter));
+            }
+            assertArrayEquals(utf8(expected),
+                              bytes(PrivateReaderStrings.stringValueUtf8(reader)));
+            assertEquals(expected,
+                         PrivateReaderStrings.stringValueChars(reader).toString());
+            assertEquals(expected, reader.stringValue());
+            // the bytes remain after the string has been decoded
+            assertTrue(PrivateReaderStrings.stringValueEquals(reader, expected));
+        }
+        assertNull(reader.next());
+    }
+
+    @Test
+    public void testStrings() throws Exception
+    {
+        checkStrings(SYSTEM.newReader(binary(STRINGS)), STRINGS);
+    }
+
+    @Test
+    public void testStringsAcrossPages() throws Exception
+    {
+        // strings that straddle the stream's pages are copied out of them
+        StringBuilder big = new StringBuilder();
+        for (int i = 0; i < 20000; i++)
+        {
+            big.append(STRINGS[i % STRINGS.length]);
+        }
+        String[] strings = new String[STRINGS.length * 50 + 1];
+        for (int i = 0; i < strings.length - 1; i++)
+        {
+            strings[i] = STRINGS[i % STRINGS.length] + i;
+        }
+        strings[strings.length - 1] = big.toString();
+        byte[] data = binary(strings);
+        checkStrings(SYSTEM.newReader(new ByteArrayInputStream(data)), strings);
+    }
+
+    @Test
+    public void testStringValueFirst() throws Exception
+    {
+        IonReader reader = SYSTEM.newReader(binary(STRINGS));
+        for (String expected : STRINGS)
+        {
+            reader.next();
+            assertEquals(expected, reader.stringValue());
+            assertEquals(expected,
+                         PrivateReaderStrings.stringValueChars(reader).toString());
+            assertTrue(PrivateReaderStrings.stringValueEquals(reader, expected));
+            assertArrayEquals(utf8(expected),
+                              bytes(PrivateReaderStrings.stringValueUtf8(reader)));
+        }
+    }
+
+    @Test
+    public void testNullsAndSymbols() throws Exception
+    {
+        IonReader reader =
+            SYSTEM.newReader(SYSTEM.getLoader().load("null.string sym").getBytes());
+        reader.next();
+        assertNull(PrivateReaderStrings.stringValueUtf8(reader));
+        assertNull(PrivateReaderStrings.stringValueChars(reader));
+        assertFalse(PrivateReaderStrings.stringValueEquals(reader, ""));
+
+        reader.next();
+        assertTrue(PrivateReaderStrings.stringValueEquals(reader, "sym"));
+        assertEquals("sym", PrivateReaderStrings.stringValueChars(reader).toString());
+        try
+        {
+            PrivateReaderStrings.stringValueUtf8(reader);
+            fail();
+        }
+        catch (IllegalStateException e) { }
+    }
+
+    @Test
+    public void testUnpairedSurrogate() throws Exception
+    {
+        IonReader reader = SYSTEM.newReader(binary("\ud83d\ude00"));
+        reader.next();
+        assertFalse(PrivateReaderStrings.stringValueEquals(reader, "\ud83d"));
+        assertFalse(PrivateReaderStrings.stringValueEquals(reader, "\ude00\ud83d"));
+    }
+
+    @Test(expected = IonException.class)
+    public void testInvalidUtf8() throws Exception
+    {
+        // a string holding the first byte of a two-byte sequence
+        byte[] data = { (byte) 0xE0, 0x01, 0x00, (byte) 0xEA, (byte) 0x81, (byte) 0xC3 };
+        IonReader reader = SYSTEM.newReader(data);
+        reader.next();
+        reader.stringValue();
+    }
+
+    @Test
+    public void testTextReader() throws Exception
+    {
+        IonReader reader = SYSTEM.newReader("\"h\u00e9llo\"");
+        reader.next();
+        assertTrue(PrivateReaderStrings.stringValueEquals(reader, "h\u00e9llo"));
+        assertEquals("h\u00e9llo", PrivateReaderStrings.stringValueChars(reader).toString());
+        assertArrayEquals(utf8("h\u00e9llo"),
+                          bytes(PrivateReaderStrings.stringValueUtf8(reader)));
+    }
+}
@@ -0,0 +1,181 @@
+/*
+ * Copyright 2017 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at:
+ *
+ *     http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+
+package software.amazon.ion.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Random;
+import org.junit.Test;
+import software.amazon.ion.IntegerSize;
+import software.amazon.ion.IonException;
+import software.amazon.ion.IonReader;
+import software.amazon.ion.IonSystem;
+import software.amazon.ion.IonType;
+import software.amazon.ion.system.IonSystemBuilder;
+
+public class IonTextNumbersTest
+{
+    private static final IonSystem SYSTEM = IonSystemBuilder.standard().build();
+
+    private static void checkDouble(String image)
+    {
+        double expected = Double.parseDouble(image);
+        double actual = IonTextNumbers.parseDouble(new StringBuilder(image));
+        assertEquals(image, Double.doubleToRawLongBits(expected),
+                     Double.doubleToRawLongBits(actual));
+    }
+
+    @Test
+    public void testDoubles()
+    {
+        String[] images = {
+            "0e0", "-0e0", "0.000e-5", "1e0", "-1e0", "1.5e0", "0.1e0",
+            "123.456e7", "9007199254740993e0", "9007199254740992e0",
+            "1e22", "1e23", "1e-22", "1e-23", "1e308", "1.7976931348623157e308",
+            "1.7976931348623159e308", "1e309", "4.9e-324", "2.5e-324",
+            "2.4e-324", "2.2250738585072014e-308", "2.2250738585072011e-308",
+            "1e-400", "9999999999999999999e0", "18446744073709551615e0",
+            "18446744073709551616e0", "123456789012345678901234567890e-10",
+            "0.000000000000000000000000000000001e0", "7.2057594037927933e16",
+            "2.2250738585072012e-308", "9.007199254740993e15",
+            "1.00000000000000011102230246251565404236316680908203125e0",
+            "1.00000000000000011102230246251565404236316680908203124e0",
+            "1.00000000000000011102230246251565404236316680908203126e0",
+            "3.0540e0", "1e", "1.e5", "+1e5", "1e+5", "00001e0",
+        };
+        for (String image : images)
+        {
+            try
+            {
+                checkDouble(image);
+            }
+            catch (NumberFormatException e)
+            {
+                try
+                {
+                    IonTextNumbers.parseDouble(new StringBuilder(image));
+                    fail(image);
+                }
+                catch (NumberFormatException expected) { }
+            }
+        }
+    }
+
+    @Test
+    public void testRandomDoubles()
+    {
+        Random random = new Random(0xD0B1EL);
+        for (int i = 0; i < 200000; i++)
+        {
+            double value = Double.longBitsToDouble(random.nextLong());
+            if (Double.isNaN(value) || Double.isInfinite(value)) continue;
+            String image = Double.toString(value);
+            checkDouble(image);
+
+            // shorter and longer significands, which round differently
+            BigDecimal exact = new BigDecimal(value);
+            int digits = 1 + random.nextInt(25);
+            checkDouble(exact.round(new java.math.MathContext(digits)).toString()
+                        .replace('E', 'e'));
+        }
+        for (int i = 0; i < 200000; i++)
+        {
+            long significand = random.nextLong() >>> random.nextInt(64);
+            int exponent = random.nextInt(700) - 350;
+            checkDouble(significand + "e" + exponent);
+        }
+    }
+
+    private static IonReader read(String text)
+    {
+        IonReader reader = SYSTEM.newReader(text);
+        reader.next();
+        return reader;
+    }
+
+    private static void checkInt(BigInteger expected, String image)
+    {
+        IonReader reader = read(image);
+        assertEquals(image, IonType.INT, reader.getType());
+        assertEquals(image, expected, reader.bigIntegerValue());
+        IntegerSize size = expected.bitLength() < 32 ? IntegerSize.INT
+            : expected.bitLength() < 64 ? IntegerSize.LONG
+            : IntegerSize.BIG_INTEGER;
+        assertEquals(image, size, reader.getIntegerSize());
+        if (size != IntegerSize.BIG_INTEGER)
+        {
+            assertEquals(image, expected.longValue(), reader.longValue());
+        }
+    }
+
+    @Test
+    public void testInts()
+    {
+        long[] boundaries = {
+            0, 1, -1, Integer.MAX_VALUE, Integer.MIN_VALUE,
+            Long.MAX_VALUE, Long.MIN_VALUE, 2147483701L, 9223372036854775000L,
+        };
+        for (long boundary : boundaries)
+        {
+            BigInteger base = BigInteger.valueOf(boundary);
+            for (int delta = -2; delta <= 2; delta++)
+            {
+                BigInteger value = base.add(BigInteger.valueOf(delta));
+                String sign = value.signum() < 0 ? "-" : "";
+                BigInteger magnitude = value.abs();
+                checkInt(value, value.toString());
+                checkInt(value, sign + "0x" + magnitude.toString(16));
+                checkInt(value, sign + "0X" + magnitude.toString(16).toUpperCase());
+                checkInt(value, sign + "0b" + magnitude.toString(2));
+            }
+        }
+        checkInt(BigInteger.valueOf(1000000), "1_000_000");
+        checkInt(BigInteger.valueOf(-0xCAFEBABEL), "-0xCAFE_BABE");
+        checkInt(new BigInteger("-123456789012345678901234567890"),
+                 "-123456789012345678901234567890");
+    }
+
+    @Test
+    public void testFloatsFromReader()
+    {
+        IonReader reader = SYSTEM.newReader("1.5e0 -0e0 1_0.2_5e1_0 1e400 [2e-3]");
+        reader.next();
+        assertEquals(1.5d, reader.doubleValue(), 0);
+        reader.next();
+        assertEquals(Double.doubleToRawLongBits(-0.0d),
+                     Double.doubleToRawLongBits(reader.doubleValue()));
+        reader.next();
+        assertEquals(10.25e10d, reader.doubleValue(), 0);
+        reader.next();
+        assertEquals(Double.POSITIVE_INFINITY, reader.doubleValue(), 0);
+        reader.next();
+        reader.stepIn();
+        reader.next();
+        assertEquals(2e-3d, reader.doubleValue(), 0);
+        assertNull(reader.next());
+        reader.stepOut();
+        assertNull(reader.next());
+    }
+
+    @Test(expected = IonException.class)
+    public void testBadFloat()
+    {
+        read("1e").doubleValue();
+    }
+}
@@ -20,6 +20,12 @@ import static software.amazon.ion.Symtabs.makeLocalSymtab;
 import static software.amazon.ion.impl.PrivateUtils.EMPTY_STRING_ARRAY;
 import static software.amazon.ion.impl.PrivateUtils.copyLocalSymbolTable;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
 import org.junit.Test;
 import software.amazon.ion.IonException;
 import software.amazon.ion.IonTestCase;
@@ -293,6 +299,61 @@ public class LocalSymbolTableTest
         st.find(null);
     }
 
+    @Test
+    public void testConcurrentInternAndFind()
+        throws Exception
+    {
+        final SymbolTable st = makeLocalSymtab(system(), LOCAL_SYMBOLS_ABC);
+        final int symbolCount = 2000;
+        final List<Throwable> failures =
+            Collections.synchronizedList(new ArrayList<Throwable>());
+
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++)
+        {
+            final int offset = t * 7;
+            threads[t] = new Thread()
+            {
+                @Override
+                public void run()
+                {
+                    try
+                    {
+                        // every thread interns every symbol, in its own order
+                        for (int i = 0; i < symbolCount; i++)
+                        {
+                            String text = "s" + ((i + offset) % symbolCount);
+                            SymbolToken tok = st.intern(text);
+                            assertEquals(text, tok.getText());
+                            assertEquals(text, st.findKnownSymbol(tok.getSid()));
+                            assertEquals(tok.getSid(), st.findSymbol(text));
+                            assertTrue(tok.getSid() <= st.getMaxId());
+                        }
+                    }
+                    catch (Throwable e)
+                    {
+                        failures.add(e);
+                    }
+                }
+            };
+            threads[t].start();
+        }
+        for (Thread thread : threads)
+        {
+            thread.join();
+        }
+        assertEquals(Collections.emptyList(), failures);
+
+        // each symbol was added exactly once
+        assertEquals(st.getImportedMaxId() + 3 + symbolCount, st.getMaxId());
+        Set<String> declared = new HashSet<String>();
+        Iterator<String> names = st.iterateDeclaredSymbolNames();
+        while (names.hasNext())
+        {
+            assertTrue(declared.add(names.next()));
+        }
+    }
+
     @Test
     public void testVersion()
     {
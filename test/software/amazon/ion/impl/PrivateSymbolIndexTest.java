@@ -0,0 +1,166 @@
+/*
+ * Copyright 2017 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at:
+ *
+ *     http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+
+package software.amazon.ion.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static software.amazon.ion.SymbolTable.UNKNOWN_SYMBOL_ID;
+
+import java.io.UnsupportedEncodingException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import org.junit.Test;
+import software.amazon.ion.SymbolTable;
+import software.amazon.ion.system.IonSystemBuilder;
+
+public class PrivateSymbolIndexTest
+{
+    private static byte[] utf8(String text)
+        throws UnsupportedEncodingException
+    {
+        return text.getBytes("UTF-8");
+    }
+
+    /** Looks up the text in every supported way, expecting the same sid. */
+    private static void checkFind(PrivateSymbolIndex index, int sid, String text)
+        throws UnsupportedEncodingException
+    {
+        assertEquals(text, sid, index.findSymbol(text));
+        assertEquals(text, sid, index.findSymbol(new StringBuilder(text)));
+
+        byte[] bytes = utf8(text);
+        byte[] padded = new byte[bytes.length + 4];
+        System.arraycopy(bytes, 0, padded, 2, bytes.length);
+        assertEquals(text, sid, index.findSymbol(padded, 2, bytes.length));
+    }
+
+    @Test
+    public void testGapsAndDuplicates()
+        throws Exception
+    {
+        String[] names = { "a", null, "b", "a", "\u00e9t\u00e9", "\ud83d\ude00", "b" };
+        PrivateSymbolIndex index = new PrivateSymbolIndex(names);
+
+        assertEquals(7, index.getMaxId());
+        checkFind(index, 1, "a");
+        checkFind(index, 3, "b");
+        checkFind(index, 5, "\u00e9t\u00e9");
+        checkFind(index, 6, "\ud83d\ude00");
+        checkFind(index, UNKNOWN_SYMBOL_ID, "c");
+        checkFind(index, UNKNOWN_SYMBOL_ID, "");
+        checkFind(index, UNKNOWN_SYMBOL_ID, "ab");
+
+        assertSame(names[0], index.findKnownSymbol(4));
+        assertNull(index.findKnownSymbol(2));
+        assertNull(index.findKnownSymbol(0));
+        assertNull(index.findKnownSymbol(8));
+    }
+
+    @Test
+    public void testEqualHashCodes()
+        throws Exception
+    {
+        // "Aa" and "BB" have the same hash code, as do their concatenations
+        String[] names = { "AaAa", "AaBB", "BBAa", "BBBB", "Aa", "BB", "x" };
+        assertEquals(names[0].hashCode(), names[3].hashCode());
+
+        PrivateSymbolIndex index = new PrivateSymbolIndex(names);
+        for (int i = 0; i < names.length; i++)
+        {
+            checkFind(index, i + 1, names[i]);
+        }
+        checkFind(index, UNKNOWN_SYMBOL_ID, "AaAaAa");
+    }
+
+    @Test
+    public void testInvalidUtf8()
+    {
+        PrivateSymbolIndex index = new PrivateSymbolIndex(new String[] { "a" });
+        byte[][] invalid = {
+            { (byte) 0x80 },                            // continuation byte
+            { (byte) 0xC1, (byte) 0xA1 },               // overlong "a"
+            { (byte) 0xE2, (byte) 0x82 },               // truncated
+            { (byte) 0xED, (byte) 0xA0, (byte) 0x80 },  // surrogate
+            { (byte) 0xF5, (byte) 0x80, (byte) 0x80, (byte) 0x80 },
+        };
+        for (byte[] bytes : invalid)
+        {
+            assertEquals(UNKNOWN_SYMBOL_ID,
+                         index.findSymbol(bytes, 0, bytes.length));
+        }
+    }
+
+    @Test
+    public void testLargeTables()
+        throws Exception
+    {
+        Random random = new Random(1);
+        for (int size : new int[] { 0, 1, 2, 5, 100, 20000 })
+        {
+            String[] names = new String[size];
+            for (int i = 0; i < size; i++)
+            {
+                names[i] = "sym" + Integer.toString(random.nextInt(), 36);
+            }
+
+            Map<String, Integer> expected = new HashMap<String, Integer>();
+            for (int i = size - 1; i >= 0; i--)
+            {
+                expected.put(names[i], i + 1);
+            }
+
+            PrivateSymbolIndex index = new PrivateSymbolIndex(names);
+            for (Map.Entry<String, Integer> entry : expected.entrySet())
+            {
+                assertEquals(entry.getValue().intValue(),
+                             index.findSymbol(entry.getKey()));
+            }
+            for (int i = 0; i < 1000; i++)
+            {
+                assertEquals(UNKNOWN_SYMBOL_ID, index.findSymbol("other" + i));
+            }
+        }
+    }
+
+    @Test
+    public void testOf()
+        throws Exception
+    {
+        SymbolTable system =
+            IonSystemBuilder.standard().build().getSystemSymbolTable();
+        PrivateSymbolIndex index = PrivateSymbolIndex.of(system);
+        assertSame(index, PrivateSymbolIndex.of(system));
+        assertEquals(system.getMaxId(), index.getMaxId());
+
+        SymbolTable shared =
+            SharedSymbolTable.newSharedSymbolTable("T", 1, null,
+                Arrays.asList("a", "b", "c", "d").iterator());
+        SymbolTable substitute = new SubstituteSymbolTable(shared, 2, 3);
+        index = PrivateSymbolIndex.of(substitute);
+        assertEquals(3, index.getMaxId());
+        checkFind(index, 3, "c");
+        checkFind(index, UNKNOWN_SYMBOL_ID, "d");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testOfLocalTable()
+    {
+        PrivateSymbolIndex.of(IonSystemBuilder.standard().build()
+                                              .newLocalSymbolTable());
+    }
+}
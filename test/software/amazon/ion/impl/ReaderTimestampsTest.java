@@ -0,0 +1,277 @@
+/*
+ * Copyright 2017 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at:
+ *
+ *     http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+
+package software.amazon.ion.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+import java.math.BigDecimal;
+import java.util.Date;
+import java.util.Random;
+import org.junit.Test;
+import software.amazon.ion.IonException;
+import software.amazon.ion.IonReader;
+import software.amazon.ion.IonSystem;
+import software.amazon.ion.IonType;
+import software.amazon.ion.NullValueException;
+import software.amazon.ion.Timestamp;
+import software.amazon.ion.system.IonSystemBuilder;
+
+@SuppressWarnings("deprecation")
+public class ReaderTimestampsTest
+{
+    private static final IonSystem SYSTEM = IonSystemBuilder.standard().build();
+
+    private static final String TIMESTAMPS =
+        "2017T 2017-02T 2017-02-28 2016-02-29T 2017-06-01T12:30Z "
+        + "2017-06-01T12:30:45-00:00 2017-06-01T12:30:45.1Z "
+        + "2017-06-01T12:30:45.12+05:30 2017-06-01T23:59:59.999-08:00 "
+        + "2017-06-01T00:00:00.000+23:59 2017-12-31T23:59:59.9999999999Z "
+        + "0001-01-01T00:00Z 1582-10-04T23:59:59.999Z 1600-02-29T00:00Z "
+        + "9999-12-31T23:59:59.999Z 1969-12-31T23:59:59.999Z "
+        + "2017-03-01T00:00:00.000001-00:01";
+
+    private static IonReader binaryReader(String text)
+    {
+        return SYSTEM.newReader(SYSTEM.getLoader().load(text).getBytes());
+    }
+
+    @Test
+    public void testUtcMillis()
+    {
+        Random random = new Random(0x71AE5L);
+        for (int i = 0; i < 100000; i++)
+        {
+            int year = 1 + random.nextInt(9999);
+            int month = 1 + random.nextInt(12);
+            int day = 1 + random.nextInt(PrivateUtils.lastDayOfMonth(year, month));
+            int hour = random.nextInt(24);
+            int minute = random.nextInt(60);
+            int second = random.nextInt(60);
+            int millis = random.nextInt(1000);
+            BigDecimal fraction = PrivateUtils.fractionOfSecond(millis, 3);
+            long expected = Date.UTC(year - 1900, month - 1, day,
+                                     hour, minute, second) + millis;
+            assertEquals(year + "-" + month + "-" + day, expected,
+                         PrivateUtils.utcMillis(year, month, day,
+                                                hour, minute, second,
+                                                fraction));
+        }
+    }
+
+    @Test
+    public void testFractions()
+    {
+        assertSame(PrivateUtils.fractionOfSecond(123, 3),
+                   PrivateUtils.fractionOfSecond(123, 3));
+        assertEquals(new BigDecimal("0.05"), PrivateUtils.fractionOfSecond(5, 2));
+        assertEquals(new BigDecimal("0.0005"), PrivateUtils.fractionOfSecond(5, 4));
+        assertEquals(120, PrivateUtils.fractionMillis(new BigDecimal("0.12")));
+        assertEquals(123, PrivateUtils.fractionMillis(new BigDecimal("0.123456789")));
+        assertEquals(999, PrivateUtils.fractionMillis(new BigDecimal("0.99999999999")));
+        assertEquals(0, PrivateUtils.fractionMillis(new BigDecimal("0.000999")));
+        assertSame(PrivateUtils.localOffset(-480), PrivateUtils.localOffset(-480));
+        assertEquals(Integer.valueOf(7), PrivateUtils.localOffset(7));
+
+        Timestamp t = Timestamp.valueOf("2017-06-01T12:30:45.120+05:30");
+        assertSame(PrivateUtils.fractionOfSecond(120, 3), t.getZFractionalSecond());
+        assertSame(PrivateUtils.localOffset(330), t.getLocalOffset());
+    }
+
+    @Test
+    public void testRoundTrip()
+    {
+        char[] chars = new char[Timestamp.MAX_MILLIS_PRINTED_LENGTH];
+        byte[] bytes = new byte[Timestamp.MAX_MILLIS_PRINTED_LENGTH];
+        Random random = new Random(0x5EC0DL);
+        for (int i = 0; i < 20000; i++)
+        {
+            long millis = random.nextLong() % 253402300800000L;
+            if (millis < -62135596800000L) continue;
+            Integer offset = random.nextBoolean() ? null
+                : Integer.valueOf(random.nextInt(24 * 60 * 2 - 1) - 24 * 60 + 1);
+            Timestamp t = Timestamp.forMillis(millis, offset);
+            String text = t.toString();
+            StringBuilder printed = new StringBuilder();
+            try
+            {
+                t.print(printed);
+            }
+            catch (java.io.IOException e)
+            {
+                throw new AssertionError(e);
+            }
+            assertEquals(text, printed.toString());
+            assertEquals(text, new String(chars, 0, t.print(chars, 0)));
+            assertEquals(text, new String(bytes, 0, t.printUtf8(bytes, 0),
+                                          PrivateUtils.ASCII_CHARSET));
+            Timestamp parsed = Timestamp.valueOf(text);
+            assertEquals(text, t, parsed);
+            assertEquals(text, millis, parsed.getMillis());
+        }
+    }
+
+    @Test
+    public void testPrintIntoBuffer()
+    {
+        Timestamp t = Timestamp.valueOf("2017-06-01T12:30:45.123456789012-08:00");
+        String text = t.toString();
+        char[] chars = new char[t.printedLengthLimit() + 3];
+        assertEquals(text.length(), t.print(chars, 3));
+        assertEquals(text, new String(chars, 3, text.length()));
+        byte[] bytes = new byte[t.printedLengthLimit() + 3];
+        assertEquals(text.length(), t.printUtf8(bytes, 3));
+        assertEquals(text, new String(bytes, 3, text.length(),
+                                      PrivateUtils.ASCII_CHARSET));
+        try
+        {
+            t.print(chars, 4);
+            fail();
+        }
+        catch (IndexOutOfBoundsException e) { }
+        try
+        {
+            t.printUtf8(new byte[Timestamp.MAX_MILLIS_PRINTED_LENGTH], 0);
+            fail();
+        }
+        catch (IndexOutOfBoundsException e) { }
+    }
+
+    private static void checkMillis(IonReader reader, IonReader expected)
+    {
+        while (expected.next() != null)
+        {
+            assertEquals(IonType.TIMESTAMP, reader.next());
+            Timestamp t = expected.timestampValue();
+            assertEquals(t.toString(), t.getMillis(),
+                         PrivateReaderTimestamps.timestampValueMillis(reader));
+            assertEquals(t.getMillis(),
+                         PrivateReaderTimestamps.timestampValueMillis(reader));
+            assertEquals(t.toString(), t, reader.timestampValue());
+            assertEquals(t.getMillis(),
+                         PrivateReaderTimestamps.timestampValueMillis(reader));
+        }
+        assertNull(reader.next());
+    }
+
+    @Test
+    public void testTimestampValueMillis()
+    {
+        checkMillis(binaryReader(TIMESTAMPS), SYSTEM.newReader(TIMESTAMPS));
+        checkMillis(SYSTEM.newReader(TIMESTAMPS), SYSTEM.newReader(TIMESTAMPS));
+
+        // the value is still available when skipped without reading
+        IonReader reader = binaryReader("2017-06-01T12:30Z 2018T");
+        reader.next();
+        assertEquals(IonType.TIMESTAMP, reader.next());
+        assertEquals(Timestamp.valueOf("2018T").getMillis(),
+                     PrivateReaderTimestamps.timestampValueMillis(reader));
+    }
+
+    @Test
+    public void testNullAndWrongType()
+    {
+        IonReader reader = binaryReader("null.timestamp 1");
+        reader.next();
+        try
+        {
+            PrivateReaderTimestamps.timestampValueMillis(reader);
+            fail();
+        }
+        catch (NullValueException e) { }
+        reader.next();
+        try
+        {
+            PrivateReaderTimestamps.timestampValueMillis(reader);
+            fail();
+        }
+        catch (IllegalStateException e) { }
+    }
+
+    @Test
+    public void testInvalidTimestamp()
+    {
+        // 2017-13T, with a month that's out of range
+        byte[] data = { (byte) 0xE0, 0x01, 0x00, (byte) 0xEA,
+                        0x64, (byte) 0x80, 0x0F, (byte) 0xE1, (byte) 0x8D };
+        IonReader reader = SYSTEM.newReader(data);
+        reader.next();
+        try
+        {
+            PrivateReaderTimestamps.timestampValueMillis(reader);
+            fail();
+        }
+        catch (IonException e) { }
+    }
+
+    /**
+     * Reads a timestamp both ways, checking that both fail or that both
+     * succeed with the expected millis.
+     */
+    private static void checkLocalRange(byte[] data, Long expected)
+    {
+        IonReader reader = SYSTEM.newReader(data);
+        reader.next();
+        try
+        {
+            long actual = PrivateReaderTimestamps.timestampValueMillis(reader);
+            assertEquals(expected, Long.valueOf(actual));
+        }
+        catch (IonException e)
+        {
+            assertNull(e.getMessage(), expected);
+        }
+
+        reader = SYSTEM.newReader(data);
+        reader.next();
+        try
+        {
+            Timestamp t = reader.timestampValue();
+            assertEquals(expected, Long.valueOf(t.getMillis()));
+            assertEquals(t, Timestamp.valueOf(t.toString()));
+        }
+        catch (IonException e)
+        {
+            assertNull(e.getMessage(), expected);
+        }
+    }
+
+    @Test
+    public void testOffsetMovesYearOutOfRange()
+    {
+        // 0001-01-01T00:00Z and 9999-12-31T23:59Z with offsets of -01:00
+        // and +01:00, which move them out of range in local time
+        byte[] earliest = { (byte) 0xE0, 0x01, 0x00, (byte) 0xEA,
+                            0x66, 0x00, (byte) 0x81, (byte) 0x81, (byte) 0x81,
+                            (byte) 0x80, (byte) 0x80 };
+        byte[] latest = { (byte) 0xE0, 0x01, 0x00, (byte) 0xEA,
+                          0x67, 0x00, 0x4E, (byte) 0x8F, (byte) 0x8C, (byte) 0x9F,
+                          (byte) 0x97, (byte) 0xBB };
+        long earliestMillis = Timestamp.valueOf("0001-01-01T00:00Z").getMillis();
+        long latestMillis = Timestamp.valueOf("9999-12-31T23:59Z").getMillis();
+
+        final byte minus = (byte) 0xFC, plus = (byte) 0xBC;
+        earliest[5] = minus;
+        checkLocalRange(earliest, null);
+        earliest[5] = plus;
+        checkLocalRange(earliest, earliestMillis);
+        latest[5] = minus;
+        checkLocalRange(latest, latestMillis);
+        latest[5] = plus;
+        checkLocalRange(latest, null);
+    }
+}
@@ -300,6 +300,44 @@ public class SymbolTableTest
         assertNull(appended.find("o1"));
     }
 
+    @Test
+    public void testLocalSymbolTableAppendKeepsSharedImports()
+    {
+        SymbolTable importedTable = registerImportedV1();
+
+        String text =
+            LocalSymbolTablePrefix +
+                "{" +
+                "  imports:[{name:'''imported''', version:1}]," +
+                "  symbols:[ \"s1\"]" +
+                "}\n" +
+            LocalSymbolTablePrefix +
+                "{" +
+                "  imports:" + ION_SYMBOL_TABLE + "," +
+                "  symbols:[ \"s2\"]" +
+                "}\n" +
+            LocalSymbolTablePrefix +
+                "{" +
+                "  imports:" + ION_SYMBOL_TABLE + "," +
+                "  symbols:[ \"s3\"]" +
+                "}\n" +
+                "null";
+
+        SymbolTable symbolTable = oneValue(text).getSymbolTable();
+
+        // appended tables don't import the tables they append to
+        SymbolTable[] imports = symbolTable.getImportedTables();
+        assertEquals(1, imports.length);
+        assertSame(importedTable, imports[0]);
+
+        int firstLocalSid = systemMaxId() + IMPORTED_1_MAX_ID + 1;
+        assertEquals(firstLocalSid, symbolTable.getImportedMaxId() + 1);
+        checkSymbol("imported 1", systemMaxId() + 1, symbolTable);
+        checkSymbol("s1", firstLocalSid, symbolTable);
+        checkSymbol("s2", firstLocalSid + 1, symbolTable);
+        checkSymbol("s3", firstLocalSid + 2, symbolTable);
+    }
+
     @Test
     public void testSymtabsPrintLocalSymtabWithGaps()
         throws Exception
@@ -7,8 +7,13 @@ package software.amazon.ion.impl;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.util.Arrays;
 
 public class UnifiedInputStreamXTest extends Assert {
@@ -50,4 +55,151 @@ public class UnifiedInputStreamXTest extends Assert {
 
         assertArrayEquals(expected, actual);
     }
+
+    private static byte[] pattern(int length) {
+        byte[] bytes = new byte[length];
+        for (int i = 0; i < length; i++) {
+            bytes[i] = (byte) (i * 31 + (i >> 8));
+        }
+        return bytes;
+    }
+
+    private static FileChannel channel(byte[] data) throws IOException {
+        File file = File.createTempFile("UnifiedInputStreamXTest", ".bin");
+        file.deleteOnExit();
+        FileOutputStream out = new FileOutputStream(file);
+        try {
+            out.write(data);
+        } finally {
+            out.close();
+        }
+        return new RandomAccessFile(file, "r").getChannel();
+    }
+
+    @Test
+    public void testFileChannelReadsAcrossWindows() throws Exception {
+        byte[] expected = pattern(100000);
+        // A window smaller than a page forces pages to span windows.
+        UnifiedInputStreamX uix = UnifiedInputStreamX.makeStream(channel(expected), 1000);
+
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals("byte " + i, expected[i] & 0xFF, uix.read());
+        }
+        assertEquals(UnifiedInputStreamX.EOF, uix.read());
+        uix.close();
+    }
+
+    @Test
+    public void testFileChannelStartsAtChannelPosition() throws Exception {
+        byte[] expected = pattern(1000);
+        FileChannel channel = channel(expected);
+        channel.position(600);
+        UnifiedInputStreamX uix = UnifiedInputStreamX.makeStream(channel, 128);
+
+        assertEquals(0, uix.getPosition());
+        byte[] actual = new byte[400];
+        assertEquals(400, uix.read(actual, 0, actual.length));
+        assertArrayEquals(Arrays.copyOfRange(expected, 600, 1000), actual);
+        assertEquals(UnifiedInputStreamX.EOF, uix.read());
+        uix.close();
+    }
+
+    @Test
+    public void testFileChannelSkip() throws Exception {
+        byte[] expected = pattern(3 * UnifiedInputStreamX.DEFAULT_PAGE_SIZE + 17);
+        UnifiedInputStreamX uix = UnifiedInputStreamX.makeStream(channel(expected), 4096);
+
+        assertEquals(expected[0] & 0xFF, uix.read());
+        int distance = 2 * UnifiedInputStreamX.DEFAULT_PAGE_SIZE + 5;
+        uix.skip(distance);
+        assertEquals(1 + distance, uix.getPosition());
+        assertEquals(expected[1 + distance] & 0xFF, uix.read());
+
+        try {
+            uix.skip(expected.length);
+            fail("Expected IOException");
+        } catch (IOException e) {
+            // expected
+        }
+        uix.close();
+    }
+
+    @Test
+    public void testFileChannelSeek() throws Exception {
+        byte[] expected = pattern(UnifiedInputStreamX.DEFAULT_PAGE_SIZE * 2);
+        UnifiedInputStreamX.FromFileChannel uix =
+            (UnifiedInputStreamX.FromFileChannel) UnifiedInputStreamX.makeStream(channel(expected), 1000);
+
+        uix.seek(40000, 40010);
+        assertEquals(40000, uix.getPosition());
+        for (int i = 40000; i < 40010; i++) {
+            assertEquals(expected[i] & 0xFF, uix.read());
+        }
+        assertEquals(UnifiedInputStreamX.EOF, uix.read());
+
+        uix.seek(3, 3);
+        assertEquals(UnifiedInputStreamX.EOF, uix.read());
+
+        uix.seek(0, expected.length);
+        assertEquals(expected[0] & 0xFF, uix.read());
+        uix.close();
+    }
+
+    @Test
+    public void testDirectByteBufferHonorsPositionAndLimit() throws Exception {
+        byte[] expected = pattern(3 * UnifiedInputStreamX.DEFAULT_PAGE_SIZE);
+        ByteBuffer buffer = ByteBuffer.allocateDirect(expected.length);
+        buffer.put(expected);
+        buffer.position(100);
+        buffer.limit(expected.length - 100);
+        UnifiedInputStreamX uix = UnifiedInputStreamX.makeStream(buffer);
+
+        for (int i = 100; i < expected.length - 100; i++) {
+            assertEquals("byte " + i, expected[i] & 0xFF, uix.read());
+        }
+        assertEquals(UnifiedInputStreamX.EOF, uix.read());
+        uix.close();
+
+        assertEquals(100, buffer.position());
+        assertEquals(expected.length - 100, buffer.limit());
+    }
+
+    @Test
+    public void testDirectByteBufferSkipAndSeek() throws Exception {
+        byte[] expected = pattern(3 * UnifiedInputStreamX.DEFAULT_PAGE_SIZE);
+        ByteBuffer buffer = ByteBuffer.allocateDirect(expected.length + 7);
+        buffer.position(7);
+        buffer.put(expected);
+        buffer.position(7);
+        UnifiedInputStreamX.FromByteBuffer uix =
+            (UnifiedInputStreamX.FromByteBuffer) UnifiedInputStreamX.makeStream(buffer);
+
+        int distance = 2 * UnifiedInputStreamX.DEFAULT_PAGE_SIZE + 5;
+        uix.skip(distance);
+        assertEquals(distance, uix.getPosition());
+        assertEquals(expected[distance] & 0xFF, uix.read());
+
+        uix.seek(40000, 40010);
+        for (int i = 40000; i < 40010; i++) {
+            assertEquals(expected[i] & 0xFF, uix.read());
+        }
+        assertEquals(UnifiedInputStreamX.EOF, uix.read());
+        uix.close();
+    }
+
+    @Test
+    public void testHeapByteBufferIsReadInPlace() throws Exception {
+        byte[] expected = pattern(1000);
+        ByteBuffer buffer = ByteBuffer.wrap(expected, 10, 900).slice();
+        UnifiedInputStreamX uix = UnifiedInputStreamX.makeStream(buffer);
+
+        assertSame(expected, uix.getByteArray());
+        for (int i = 10; i < 910; i++) {
+            assertEquals(expected[i] & 0xFF, uix.read());
+        }
+        assertEquals(UnifiedInputStreamX.EOF, uix.read());
+
+        uix.close();
+        assertNull(uix.getByteArray());
+    }
 }
@@ -0,0 +1,113 @@
+/*
+ * Copyright 2017 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at:
+ *
+ *     http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+
+package software.amazon.ion.impl.bin;
+
+import static org.junit.Assert.assertArrayEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.GatheringByteChannel;
+import java.nio.channels.IllegalBlockingModeException;
+import java.nio.channels.Pipe;
+import org.junit.Test;
+
+public class GatheringOutputStreamTest
+{
+    private static final class ByteArrayChannel implements GatheringByteChannel
+    {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        boolean full;
+
+        public int write(final ByteBuffer src)
+        {
+            if (full)
+            {
+                // like a non-blocking channel with no room
+                return 0;
+            }
+            final int length = src.remaining();
+            while (src.hasRemaining())
+            {
+                out.write(src.get());
+            }
+            return length;
+        }
+
+        public long write(final ByteBuffer[] srcs, final int offset, final int length)
+        {
+            long written = 0;
+            for (int i = offset; i < offset + length; i++)
+            {
+                written += write(srcs[i]);
+            }
+            return written;
+        }
+
+        public long write(final ByteBuffer[] srcs)
+        {
+            return write(srcs, 0, srcs.length);
+        }
+
+        public boolean isOpen()
+        {
+            return true;
+        }
+
+        public void close() { }
+    }
+
+    @Test
+    public void testSingleBytesAreNotOverwritten() throws IOException
+    {
+        final ByteArrayChannel channel = new ByteArrayChannel();
+        final GatheringOutputStream out = new GatheringOutputStream(channel);
+        out.write(1);
+        out.write(new byte[] {2, 3}, 0, 2);
+        out.write(4);
+        out.write(5);
+        out.flush();
+        out.write(6);
+        out.flush();
+
+        assertArrayEquals(new byte[] {1, 2, 3, 4, 5, 6}, channel.out.toByteArray());
+    }
+
+    @Test(expected = IOException.class)
+    public void testWriteWithoutProgressFails() throws IOException
+    {
+        final ByteArrayChannel channel = new ByteArrayChannel();
+        channel.full = true;
+        final GatheringOutputStream out = new GatheringOutputStream(channel);
+        out.write(new byte[] {1, 2, 3}, 0, 3);
+        out.flush();
+    }
+
+    @Test(expected = IllegalBlockingModeException.class)
+    public void testNonBlockingChannelIsRejected() throws IOException
+    {
+        final Pipe pipe = Pipe.open();
+        try
+        {
+            pipe.sink().configureBlocking(false);
+            new GatheringOutputStream(pipe.sink());
+        }
+        finally
+        {
+            pipe.sink().close();
+            pipe.source().close();
+        }
+    }
+}
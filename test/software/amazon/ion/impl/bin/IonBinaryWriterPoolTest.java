@@ -0,0 +1,167 @@
+/*
+ * Copyright 2017 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at:
+ *
+ *     http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+
+package software.amazon.ion.impl.bin;
+
+import static java.util.Arrays.asList;
+
+import java.io.ByteArrayOutputStream;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import software.amazon.ion.IonSystem;
+import software.amazon.ion.IonType;
+import software.amazon.ion.IonWriter;
+import software.amazon.ion.SymbolTable;
+import software.amazon.ion.impl.bin.PrivateIonManagedBinaryWriterBuilder.AllocatorMode;
+import software.amazon.ion.system.IonSystemBuilder;
+
+@SuppressWarnings("deprecation")
+public class IonBinaryWriterPoolTest extends Assert
+{
+    private static final IonSystem SYSTEM = IonSystemBuilder.standard().build();
+
+    private PrivateIonManagedBinaryWriterBuilder builder;
+
+    @Before
+    public void setup()
+    {
+        final SymbolTable shared =
+            SYSTEM.newSharedSymbolTable("shared", 1, asList("a", "b").iterator());
+        builder = PrivateIonManagedBinaryWriterBuilder
+            .create(AllocatorMode.POOLED)
+            .withUserBlockSize(64)
+            .withFlatImports(shared);
+    }
+
+    /** Writes a few structs whose symbols are specific to the message. */
+    private static void writeMessage(final IonWriter writer, final int id) throws Exception
+    {
+        for (int i = 0; i < 10; i++)
+        {
+            writer.stepIn(IonType.STRUCT);
+            writer.setFieldName("a");
+            writer.writeInt(id);
+            writer.setFieldName("message_" + id);
+            writer.writeSymbol("symbol_" + id + "_" + i);
+            writer.stepOut();
+        }
+    }
+
+    /** Returns what a writer that isn't pooled encodes for the message. */
+    private byte[] expected(final int id) throws Exception
+    {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final IonWriter writer = builder.newWriter(out);
+        writeMessage(writer, id);
+        writer.close();
+        return out.toByteArray();
+    }
+
+    @Test
+    public void testWritersAreReused() throws Exception
+    {
+        final IonBinaryWriterPool pool = builder.newWriterPool(1);
+        IonWriter previous = null;
+        for (int id = 0; id < 3; id++)
+        {
+            final ByteArrayOutputStream out = new ByteArrayOutputStream();
+            final IonWriter writer = pool.newWriter(out);
+            if (previous != null)
+            {
+                assertSame(previous, writer);
+            }
+            writeMessage(writer, id);
+            writer.close();
+            assertArrayEquals(expected(id), out.toByteArray());
+            assertEquals(1, pool.getIdleCount());
+            previous = writer;
+        }
+        pool.close();
+        assertEquals(0, pool.getIdleCount());
+    }
+
+    @Test
+    public void testAbandonedStateIsDiscarded() throws Exception
+    {
+        final IonBinaryWriterPool pool = builder.newWriterPool(1);
+        final IonWriter abandoned = pool.newWriter(new ByteArrayOutputStream());
+        writeMessage(abandoned, 0);
+        abandoned.stepIn(IonType.LIST);
+        abandoned.setTypeAnnotations("dangling");
+        abandoned.stepIn(IonType.STRUCT);
+        abandoned.setFieldName("field");
+        abandoned.close();
+
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final IonWriter writer = pool.newWriter(out);
+        assertSame(abandoned, writer);
+        assertFalse(writer.isInStruct());
+        writeMessage(writer, 1);
+        writer.close();
+        assertArrayEquals(expected(1), out.toByteArray());
+    }
+
+    @Test
+    public void testInitialSymbolTable() throws Exception
+    {
+        final SymbolTable lst = SYSTEM.newLocalSymbolTable();
+        lst.intern("message_1");
+        builder.withInitialSymbolTable(lst);
+
+        final IonBinaryWriterPool pool = builder.newWriterPool(1);
+        for (int i = 0; i < 2; i++)
+        {
+            final ByteArrayOutputStream out = new ByteArrayOutputStream();
+            final IonWriter writer = pool.newWriter(out);
+            writeMessage(writer, 1);
+            writer.close();
+            assertArrayEquals(expected(1), out.toByteArray());
+        }
+    }
+
+    @Test
+    public void testMaxIdleWriters() throws Exception
+    {
+        final IonBinaryWriterPool pool = builder.newWriterPool(1);
+        final IonWriter first = pool.newWriter(new ByteArrayOutputStream());
+        final IonWriter second = pool.newWriter(new ByteArrayOutputStream());
+        assertNotSame(first, second);
+        first.close();
+        second.close();
+        assertEquals(1, pool.getIdleCount());
+        assertSame(first, pool.newWriter(new ByteArrayOutputStream()));
+    }
+
+    @Test
+    public void testCloseWithOpenWriter() throws Exception
+    {
+        final IonBinaryWriterPool pool = builder.newWriterPool(4);
+        final IonWriter writer = pool.newWriter(new ByteArrayOutputStream());
+        pool.close();
+
+        // still usable, and freed rather than kept when closed
+        writeMessage(writer, 0);
+        writer.close();
+        assertEquals(0, pool.getIdleCount());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testNewWriterAfterClose() throws Exception
+    {
+        final IonBinaryWriterPool pool = builder.newWriterPool(1);
+        pool.close();
+        pool.newWriter(new ByteArrayOutputStream());
+    }
+}
@@ -0,0 +1,247 @@
+/*
+ * Copyright 2017 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at:
+ *
+ *     http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+
+package software.amazon.ion.impl.bin;
+
+import static java.util.Arrays.asList;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import software.amazon.ion.IonReader;
+import software.amazon.ion.IonStruct;
+import software.amazon.ion.IonSystem;
+import software.amazon.ion.IonType;
+import software.amazon.ion.IonValue;
+import software.amazon.ion.IonWriter;
+import software.amazon.ion.SymbolTable;
+import software.amazon.ion.impl.PrivateMessageSymbolContext;
+import software.amazon.ion.impl.bin.PrivateIonManagedBinaryWriterBuilder.AllocatorMode;
+import software.amazon.ion.system.IonSystemBuilder;
+import software.amazon.ion.system.SimpleCatalog;
+
+@SuppressWarnings("deprecation")
+public class IonManagedBinaryWriterAppendTest extends Assert
+{
+    private static final IonSystem SYSTEM = IonSystemBuilder.standard().build();
+
+    private SimpleCatalog catalog;
+    private PrivateIonManagedBinaryWriterBuilder builder;
+    private ByteArrayOutputStream out;
+    private List<byte[]> messages;
+
+    @Before
+    public void setup()
+    {
+        final SymbolTable shared =
+            SYSTEM.newSharedSymbolTable("shared", 1, asList("a", "b").iterator());
+        catalog = new SimpleCatalog();
+        catalog.putTable(shared);
+        builder = PrivateIonManagedBinaryWriterBuilder
+            .create(AllocatorMode.POOLED)
+            .withImports(shared)
+            .withCatalog(catalog);
+        out = new ByteArrayOutputStream();
+        messages = new ArrayList<byte[]>();
+    }
+
+    private void writeMessage(final IonWriter writer, final int id) throws Exception
+    {
+        writer.stepIn(IonType.STRUCT);
+        writer.setFieldName("a");
+        writer.writeInt(id);
+        writer.setFieldName("field_" + (id % 3));
+        writer.writeSymbol("symbol_" + id);
+        writer.stepOut();
+        writer.finish();
+        messages.add(out.toByteArray());
+        out.reset();
+    }
+
+    private static IonStruct expected(final int id)
+    {
+        final IonStruct struct = SYSTEM.newEmptyStruct();
+        struct.put("a").newInt(id);
+        struct.put("field_" + (id % 3)).newSymbol("symbol_" + id);
+        return struct;
+    }
+
+    private static boolean startsWithIvm(final byte[] message)
+    {
+        return message.length >= 4
+            && (message[0] & 0xFF) == 0xE0
+            && message[1] == 0x01
+            && message[2] == 0x00
+            && (message[3] & 0xFF) == 0xEA;
+    }
+
+    private void assertMessagesRead()
+    {
+        final PrivateMessageSymbolContext context = new PrivateMessageSymbolContext(SYSTEM, catalog);
+        for (int id = 0; id < messages.size(); id++)
+        {
+            final byte[] message = messages.get(id);
+            final IonReader reader = context.newReader(message, 0, message.length);
+            assertEquals(IonType.STRUCT, reader.next());
+            final IonValue value = SYSTEM.newValue(reader);
+            assertEquals(expected(id), value);
+            assertNull(reader.next());
+        }
+    }
+
+    @Test
+    public void testAppendedSymbols() throws Exception
+    {
+        builder.withLocalSymbolTableAppendEnabled(100);
+        final IonWriter writer = builder.newWriter(out);
+        for (int id = 0; id < 6; id++)
+        {
+            writeMessage(writer, id);
+        }
+        writer.close();
+
+        assertTrue(startsWithIvm(messages.get(0)));
+        for (int id = 1; id < messages.size(); id++)
+        {
+            assertFalse(startsWithIvm(messages.get(id)));
+        }
+        assertMessagesRead();
+
+        // the shared import is kept along with the appended symbols
+        final IonReader reader = SYSTEM.newReader(concatenate());
+        SymbolTable symbols = null;
+        while (reader.next() != null)
+        {
+            symbols = reader.getSymbolTable();
+        }
+        assertEquals(1, symbols.getImportedTables().length);
+        assertEquals("shared", symbols.getImportedTables()[0].getName());
+        assertEquals(11 + 3 + 6, symbols.getMaxId());
+    }
+
+    @Test
+    public void testRepeatedSymbolsAreNotDeclaredAgain() throws Exception
+    {
+        builder.withLocalSymbolTableAppendEnabled(100);
+        final IonWriter writer = builder.newWriter(out);
+        writeMessage(writer, 0);
+        writer.stepIn(IonType.STRUCT);
+        writer.setFieldName("field_0");
+        writer.writeSymbol("symbol_0");
+        writer.stepOut();
+        writer.finish();
+        writer.close();
+
+        // just the struct, without a local symbol table
+        final byte[] message = out.toByteArray();
+        assertEquals(0xD0, message[0] & 0xF0);
+        final PrivateMessageSymbolContext context = new PrivateMessageSymbolContext(SYSTEM, catalog);
+        context.newReader(messages.get(0), 0, messages.get(0).length).next();
+        final IonReader reader = context.newReader(message, 0, message.length);
+        assertEquals(IonType.STRUCT, reader.next());
+        reader.stepIn();
+        assertEquals(IonType.SYMBOL, reader.next());
+        assertEquals("field_0", reader.getFieldName());
+        assertEquals("symbol_0", reader.stringValue());
+    }
+
+    @Test
+    public void testCapResetsTable() throws Exception
+    {
+        // the first message declares 2 symbols, the second 2 more
+        builder.withLocalSymbolTableAppendEnabled(3);
+        final IonWriter writer = builder.newWriter(out);
+        for (int id = 0; id < 4; id++)
+        {
+            writeMessage(writer, id);
+        }
+        writer.close();
+
+        assertTrue(startsWithIvm(messages.get(0)));
+        assertFalse(startsWithIvm(messages.get(1)));
+        assertTrue(startsWithIvm(messages.get(2)));
+        assertFalse(startsWithIvm(messages.get(3)));
+        assertMessagesRead();
+    }
+
+    @Test
+    public void testVersionMarkerResetsTable() throws Exception
+    {
+        builder.withLocalSymbolTableAppendEnabled(100);
+        final IonWriter writer = builder.newWriter(out);
+        writeMessage(writer, 0);
+        writer.writeSymbol("$ion_1_0");
+        writeMessage(writer, 1);
+        writeMessage(writer, 2);
+        writer.close();
+
+        assertTrue(startsWithIvm(messages.get(1)));
+        assertFalse(startsWithIvm(messages.get(2)));
+        assertMessagesRead();
+    }
+
+    @Test
+    public void testDisabled() throws Exception
+    {
+        builder.withLocalSymbolTableAppendEnabled(100).withLocalSymbolTableAppendDisabled();
+        final IonWriter writer = builder.newWriter(out);
+        for (int id = 0; id < 3; id++)
+        {
+            writeMessage(writer, id);
+        }
+        writer.close();
+
+        for (final byte[] message : messages)
+        {
+            assertTrue(startsWithIvm(message));
+        }
+        assertMessagesRead();
+    }
+
+    @Test
+    public void testPooledWriterStartsOver() throws Exception
+    {
+        builder.withLocalSymbolTableAppendEnabled(100);
+        final IonBinaryWriterPool pool = builder.newWriterPool(1);
+        IonWriter writer = pool.newWriter(out);
+        writeMessage(writer, 0);
+        writer.close();
+
+        writer = pool.newWriter(out);
+        writeMessage(writer, 1);
+        writer.close();
+        pool.close();
+
+        assertTrue(startsWithIvm(messages.get(1)));
+        // readable without the first message
+        final byte[] message = messages.get(1);
+        final IonReader reader =
+            new PrivateMessageSymbolContext(SYSTEM, catalog).newReader(message, 0, message.length);
+        assertEquals(IonType.STRUCT, reader.next());
+        assertEquals(expected(1), SYSTEM.newValue(reader));
+    }
+
+    private byte[] concatenate()
+    {
+        final ByteArrayOutputStream all = new ByteArrayOutputStream();
+        for (final byte[] message : messages)
+        {
+            all.write(message, 0, message.length);
+        }
+        return all.toByteArray();
+    }
+}
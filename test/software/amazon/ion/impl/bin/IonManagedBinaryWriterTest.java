@@ -21,6 +21,8 @@ import static java.util.Collections.unmodifiableMap;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.GatheringByteChannel;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -121,6 +123,86 @@ public class IonManagedBinaryWriterTest extends IonRawBinaryWriterTest
         importedSymbolResolverMode = mode;
     }
 
+    /** Where the writer under test sends its output. */
+    public enum OutputMode
+    {
+        STREAM,
+        CHANNEL
+    }
+
+    @Inject("outputMode")
+    public static final OutputMode[] OUTPUT_DIMENSION = OutputMode.values();
+
+    private OutputMode outputMode;
+
+    public void setOutputMode(final OutputMode mode)
+    {
+        outputMode = mode;
+    }
+
+    @Inject("allocatorMode")
+    public static final AllocatorMode[] ALLOCATOR_DIMENSION = { AllocatorMode.POOLED, AllocatorMode.POOLED_DIRECT, AllocatorMode.STRIPED };
+
+    private AllocatorMode allocatorMode;
+
+    public void setAllocatorMode(final AllocatorMode mode)
+    {
+        allocatorMode = mode;
+    }
+
+    /** A channel over a stream that checks that buffers are handed over without copying. */
+    private static final class StreamChannel implements GatheringByteChannel
+    {
+        private final OutputStream out;
+        private boolean open = true;
+        private int writes = 0;
+
+        StreamChannel(final OutputStream out)
+        {
+            this.out = out;
+        }
+
+        public int write(final ByteBuffer src) throws IOException
+        {
+            // the writer must wrap its blocks rather than copy them into a new buffer
+            assertTrue(src.hasArray() || src.isDirect());
+            final int length = src.remaining();
+            final byte[] bytes = new byte[length];
+            src.get(bytes);
+            out.write(bytes);
+            return length;
+        }
+
+        public long write(final ByteBuffer[] srcs, final int offset, final int length) throws IOException
+        {
+            writes++;
+            long written = 0;
+            for (int i = offset; i < offset + length; i++)
+            {
+                written += write(srcs[i]);
+            }
+            return written;
+        }
+
+        public long write(final ByteBuffer[] srcs) throws IOException
+        {
+            return write(srcs, 0, srcs.length);
+        }
+
+        public boolean isOpen()
+        {
+            return open;
+        }
+
+        public void close() throws IOException
+        {
+            open = false;
+            out.close();
+        }
+    }
+
+    private StreamChannel channel;
+
     @Override
     protected IonWriter createWriter(final OutputStream out) throws IOException
     {
@@ -134,12 +216,15 @@ public class IonManagedBinaryWriterTest extends IonRawBinaryWriterTest
             catalog.putTable(table);
         }
 
-        final IonWriter writer = PrivateIonManagedBinaryWriterBuilder
-            .create(AllocatorMode.POOLED)
+        final PrivateIonManagedBinaryWriterBuilder builder = PrivateIonManagedBinaryWriterBuilder
+            .create(allocatorMode)
             .withImports(importedSymbolResolverMode, symbolTables)
             .withPreallocationMode(preallocationMode)
-            .withFloatBinary32Enabled()
-            .newWriter(out);
+            .withFloatBinary32Enabled();
+        channel = new StreamChannel(out);
+        final IonWriter writer = outputMode == OutputMode.CHANNEL
+            ? builder.newWriter(channel)
+            : builder.newWriter(out);
 
         final SymbolTable locals = writer.getSymbolTable();
         assertEquals(14, locals.getImportedMaxId());
@@ -202,6 +287,24 @@ public class IonManagedBinaryWriterTest extends IonRawBinaryWriterTest
         assertValue("{a:1, b:2, c:3, d:4, e:5}");
     }
 
+    @Test
+    public void testFinishWritesLocalSymbolsAndValuesTogether() throws Exception
+    {
+        writer.writeSymbol("a");
+        writer.finish();
+        if (outputMode == OutputMode.CHANNEL)
+        {
+            assertEquals(1, channel.writes);
+        }
+
+        writer.writeSymbol("b");
+        writer.finish();
+        if (outputMode == OutputMode.CHANNEL)
+        {
+            assertEquals(2, channel.writes);
+        }
+    }
+
     @Test
     public void testSymbolTableExport() throws Exception {
         writer.stepIn(IonType.STRUCT);
@@ -0,0 +1,171 @@
+/*
+ * Copyright 2017 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at:
+ *
+ *     http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+
+package software.amazon.ion.impl.bin;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import software.amazon.ion.IonDatagram;
+import software.amazon.ion.IonSystem;
+import software.amazon.ion.IonType;
+import software.amazon.ion.IonWriter;
+import software.amazon.ion.impl.bin.PrivateIonManagedBinaryWriterBuilder.AllocatorMode;
+import software.amazon.ion.system.IonSystemBuilder;
+
+@SuppressWarnings("deprecation")
+public class IonSegmentedBinaryWriterTest extends Assert
+{
+    private static final IonSystem SYSTEM = IonSystemBuilder.standard().build();
+
+    private ByteArrayOutputStream out;
+    private IonSegmentedBinaryWriter writer;
+
+    @Before
+    public void setup()
+    {
+        out = new ByteArrayOutputStream();
+        writer = PrivateIonManagedBinaryWriterBuilder
+            .create(AllocatorMode.STRIPED)
+            .withUserBlockSize(64)
+            .newSegmentedWriter(out);
+    }
+
+    /** Writes a few structs whose field names are specific to the segment. */
+    private static void writeSegment(final IonWriter segment, final int id) throws Exception
+    {
+        for (int i = 0; i < 10; i++)
+        {
+            segment.stepIn(IonType.STRUCT);
+            segment.setFieldName("segment_" + id);
+            segment.writeInt(id);
+            segment.setFieldName("value");
+            segment.writeSymbol("symbol_" + id + "_" + i);
+            segment.stepOut();
+        }
+        segment.close();
+    }
+
+    private static String expectedSegment(final int id)
+    {
+        final StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 10; i++)
+        {
+            text.append("{segment_").append(id).append(':').append(id)
+                .append(",value:symbol_").append(id).append('_').append(i).append('}');
+        }
+        return text.toString();
+    }
+
+    private void assertSegments(final int count)
+    {
+        final StringBuilder expected = new StringBuilder();
+        for (int id = 0; id < count; id++)
+        {
+            expected.append(expectedSegment(id));
+        }
+        final IonDatagram actual = SYSTEM.getLoader().load(out.toByteArray());
+        assertEquals(SYSTEM.getLoader().load(expected.toString()), actual);
+    }
+
+    @Test
+    public void testSegmentsClosedInOrder() throws Exception
+    {
+        for (int id = 0; id < 3; id++)
+        {
+            writeSegment(writer.newSegment(), id);
+        }
+        writer.close();
+        assertSegments(3);
+    }
+
+    @Test
+    public void testSegmentsClosedOutOfOrder() throws Exception
+    {
+        final IonWriter segment0 = writer.newSegment();
+        final IonWriter segment1 = writer.newSegment();
+        final IonWriter segment2 = writer.newSegment();
+        writeSegment(segment2, 2);
+        writeSegment(segment1, 1);
+        // nothing can be written until the first segment is done
+        assertEquals(0, out.size());
+        writeSegment(segment0, 0);
+        writer.close();
+        assertSegments(3);
+    }
+
+    @Test
+    public void testEmptySegment() throws Exception
+    {
+        writeSegment(writer.newSegment(), 0);
+        writer.newSegment().close();
+        writer.close();
+        assertSegments(1);
+    }
+
+    @Test
+    public void testSegmentsWrittenInParallel() throws Exception
+    {
+        final int count = 32;
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try
+        {
+            final List<Future<Void>> results = new ArrayList<Future<Void>>();
+            for (int id = 0; id < count; id++)
+            {
+                final IonWriter segment = writer.newSegment();
+                final int segmentId = id;
+                results.add(executor.submit(new Callable<Void>()
+                {
+                    public Void call() throws Exception
+                    {
+                        writeSegment(segment, segmentId);
+                        return null;
+                    }
+                }));
+            }
+            for (final Future<Void> result : results)
+            {
+                result.get();
+            }
+        }
+        finally
+        {
+            executor.shutdown();
+        }
+        writer.close();
+        assertSegments(count);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testCloseWithOpenSegment() throws Exception
+    {
+        writer.newSegment();
+        writer.close();
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testNewSegmentAfterClose() throws Exception
+    {
+        writer.close();
+        writer.newSegment();
+    }
+}
@@ -16,8 +16,12 @@ package software.amazon.ion.impl.bin;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 
+import java.util.ArrayList;
+import java.util.List;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
@@ -90,4 +94,65 @@ public class PooledBlockAllocatorProviderTest
         block1Again.close();
         block2Again.close();
     }
+
+    @Test
+    public void testDirectBlocks()
+    {
+        final BlockAllocator allocator = new PooledBlockAllocatorProvider(Block.Memory.DIRECT).vendAllocator(8);
+        final Block block = allocator.allocateBlock();
+        assertTrue(block.buffer.isDirect());
+        assertNull(block.data);
+        assertEquals(8, block.capacity());
+        assertEquals(8, block.remaining());
+        block.put(0, (byte) 0x7F);
+        assertEquals(0x7F, block.get(0));
+        block.limit = 3;
+        block.close();
+        final Block blockAgain = allocator.allocateBlock();
+        assertSame(block.buffer, blockAgain.buffer);
+        assertEquals(0, blockAgain.limit);
+        blockAgain.close();
+    }
+
+    @Test
+    public void testDirectFreeListIsBounded()
+    {
+        provider = new PooledBlockAllocatorProvider(Block.Memory.DIRECT, 8 * 4);
+        final BlockAllocator allocator = provider.vendAllocator(8);
+        final List<Block> blocks = new ArrayList<Block>();
+        for (int i = 0; i < 100; i++)
+        {
+            blocks.add(allocator.allocateBlock());
+        }
+        for (final Block block : blocks)
+        {
+            block.close();
+            assertTrue(provider.getFreeBlockCount() <= 4);
+        }
+        assertEquals(4, provider.getFreeBlockCount());
+
+        // the retained blocks are still reused
+        final Block block = allocator.allocateBlock();
+        assertSame(blocks.get(0), block);
+        assertEquals(3, provider.getFreeBlockCount());
+        block.put(0, (byte) 1);
+        assertEquals(1, block.get(0));
+        block.close();
+    }
+
+    @Test
+    public void testHeapFreeListIsUnboundedByDefault()
+    {
+        final BlockAllocator allocator = provider.vendAllocator(8);
+        final List<Block> blocks = new ArrayList<Block>();
+        for (int i = 0; i < 100; i++)
+        {
+            blocks.add(allocator.allocateBlock());
+        }
+        for (final Block block : blocks)
+        {
+            block.close();
+        }
+        assertEquals(100, provider.getFreeBlockCount());
+    }
 }
@@ -0,0 +1,204 @@
+/*
+ * Copyright 2017 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at:
+ *
+ *     http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+
+package software.amazon.ion.impl.bin;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import software.amazon.ion.IonWriter;
+import software.amazon.ion.impl.bin.PrivateIonManagedBinaryWriterBuilder.AllocatorMode;
+import software.amazon.ion.impl.bin.PrivateIonManagedBinaryWriterBuilder.AllocatorStats;
+
+@SuppressWarnings("deprecation")
+public class StripedBlockAllocatorProviderTest
+{
+    private static final int BLOCK_SIZE = 8;
+    private static final long MAX_RETAINED_BYTES = BLOCK_SIZE * 20;
+
+    private StripedBlockAllocatorProvider provider;
+
+    @Before
+    public void setup()
+    {
+        provider = new StripedBlockAllocatorProvider(MAX_RETAINED_BYTES, Long.MAX_VALUE / 1000000);
+    }
+
+    @After
+    public void teardown()
+    {
+        // make sure the provider is not retained
+        provider = null;
+    }
+
+    private List<Block> allocate(final BlockAllocator allocator, final int count)
+    {
+        final List<Block> blocks = new ArrayList<Block>();
+        for (int i = 0; i < count; i++)
+        {
+            blocks.add(allocator.allocateBlock());
+        }
+        return blocks;
+    }
+
+    private static void close(final List<Block> blocks)
+    {
+        for (final Block block : blocks)
+        {
+            block.close();
+        }
+    }
+
+    @Test
+    public void testReuseBlockAfterClose()
+    {
+        final BlockAllocator allocator = provider.vendAllocator(BLOCK_SIZE);
+        final Block block1 = allocator.allocateBlock();
+        final Block block2 = allocator.allocateBlock();
+        assertNotSame(block1.data, block2.data);
+        assertEquals(0, block1.limit);
+        assertEquals(BLOCK_SIZE, block1.data.length);
+        block1.limit = 7;
+        block1.close();
+        final Block block1Again = allocator.allocateBlock();
+        assertSame(block1, block1Again);
+        assertEquals(0, block1Again.limit);
+        assertEquals(2, provider.getMisses());
+    }
+
+    @Test
+    public void testSameAllocatorForSize()
+    {
+        assertSame(provider.vendAllocator(BLOCK_SIZE), provider.vendAllocator(BLOCK_SIZE));
+        assertNotSame(provider.vendAllocator(BLOCK_SIZE), provider.vendAllocator(BLOCK_SIZE * 2));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidBlockSize()
+    {
+        provider.vendAllocator(0);
+    }
+
+    @Test
+    public void testHitsAreCounted()
+    {
+        final BlockAllocator allocator = provider.vendAllocator(BLOCK_SIZE);
+        allocator.allocateBlock().close();
+        for (int i = 0; i < 256; i++)
+        {
+            allocator.allocateBlock().close();
+        }
+        assertEquals(1, provider.getMisses());
+        assertEquals(256, provider.getHits());
+    }
+
+    @Test
+    public void testRetainedBytesAreBounded()
+    {
+        final BlockAllocator allocator = provider.vendAllocator(BLOCK_SIZE);
+        close(allocate(allocator, 100));
+        assertEquals(100, provider.getMisses());
+        // blocks closed beyond the bound are dropped
+        assertEquals(MAX_RETAINED_BYTES, provider.getRetainedBytes());
+    }
+
+    @Test
+    public void testTrim()
+    {
+        final BlockAllocator allocator = provider.vendAllocator(BLOCK_SIZE);
+        close(allocate(allocator, 100));
+        assertTrue(provider.getRetainedBytes() > 0);
+        provider.trim();
+        assertEquals(0, provider.getRetainedBytes());
+    }
+
+    @Test
+    public void testIdleTrim()
+    {
+        // with no trim interval, blocks that weren't used since the last access to a magazine are released
+        provider = new StripedBlockAllocatorProvider(MAX_RETAINED_BYTES, 0);
+        final BlockAllocator allocator = provider.vendAllocator(BLOCK_SIZE);
+        close(allocate(allocator, 100));
+        final long retained = provider.getRetainedBytes();
+        assertTrue("Nothing was retained", retained > 0);
+        assertTrue("Idle blocks were not trimmed: " + retained, retained < MAX_RETAINED_BYTES);
+    }
+
+    private static void writeInts(final PrivateIonManagedBinaryWriterBuilder builder, final int count)
+        throws Exception
+    {
+        final IonWriter writer = builder.newWriter(new ByteArrayOutputStream());
+        for (int i = 0; i < count; i++)
+        {
+            writer.writeInt(i);
+        }
+        writer.close();
+    }
+
+    @Test
+    public void testBuilderStripedAllocator() throws Exception
+    {
+        final PrivateIonManagedBinaryWriterBuilder builder = PrivateIonManagedBinaryWriterBuilder
+            .create(AllocatorMode.POOLED)
+            .withSymbolsBlockSize(BLOCK_SIZE)
+            .withUserBlockSize(BLOCK_SIZE);
+        assertNull(builder.getAllocatorStats());
+
+        builder.withStripedAllocator(MAX_RETAINED_BYTES, Long.MAX_VALUE / 1000000);
+        writeInts(builder, 1000);
+        AllocatorStats stats = builder.getAllocatorStats();
+        assertTrue(stats.toString(), stats.getMisses() > 0);
+        assertTrue(stats.toString(), stats.getRetainedBytes() > 0);
+        // the blocks closed by the writer beyond the bound are dropped
+        assertTrue(stats.toString(), stats.getRetainedBytes() <= MAX_RETAINED_BYTES);
+
+        final long misses = stats.getMisses();
+        for (int i = 0; i < 100; i++)
+        {
+            writeInts(builder, 1);
+        }
+        stats = builder.getAllocatorStats();
+        assertEquals(misses, stats.getMisses());
+        assertTrue(stats.toString(), stats.getHits() > 0);
+
+        builder.trimAllocator();
+        assertEquals(0, builder.getAllocatorStats().getRetainedBytes());
+    }
+
+    @Test
+    public void testBuilderStripedMode()
+    {
+        final AllocatorStats stats = PrivateIonManagedBinaryWriterBuilder
+            .create(AllocatorMode.STRIPED)
+            .getAllocatorStats();
+        assertEquals(0, stats.getHits());
+        assertEquals(0, stats.getMisses());
+        assertEquals(0, stats.getRetainedBytes());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBuilderInvalidRetainedBytes()
+    {
+        PrivateIonManagedBinaryWriterBuilder.create(AllocatorMode.POOLED).withStripedAllocator(-1, 0);
+    }
+}
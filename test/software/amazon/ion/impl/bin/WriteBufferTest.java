@@ -25,26 +25,43 @@ import java.util.Arrays;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
+import org.junit.runner.RunWith;
 import software.amazon.ion.impl.bin.BlockAllocator;
 import software.amazon.ion.impl.bin.BlockAllocatorProviders;
 import software.amazon.ion.impl.bin.WriteBuffer;
+import software.amazon.ion.junit.Injected;
+import software.amazon.ion.junit.Injected.Inject;
 
+@RunWith(Injected.class)
 public class WriteBufferTest
 {
     // XXX make this a prime to make it more likely that we collide on the edges of the buffer
-    private static BlockAllocator ALLOCATOR = BlockAllocatorProviders.basicProvider().vendAllocator(11);
+    private static BlockAllocator HEAP_ALLOCATOR = BlockAllocatorProviders.basicProvider().vendAllocator(11);
+    private static BlockAllocator DIRECT_ALLOCATOR =
+        new PooledBlockAllocatorProvider(Block.Memory.DIRECT).vendAllocator(11);
+
+    @Inject("memory")
+    public static final Block.Memory[] MEMORY_DIMENSION = Block.Memory.values();
+
+    private Block.Memory memory;
+
+    public void setMemory(final Block.Memory memory)
+    {
+        this.memory = memory;
+    }
 
     private WriteBuffer buf;
 
     @Before
     public void setup()
     {
-        buf = new WriteBuffer(ALLOCATOR);
+        buf = new WriteBuffer(memory == Block.Memory.DIRECT ? DIRECT_ALLOCATOR : HEAP_ALLOCATOR);
     }
 
     @After
     public void teardown()
     {
+        buf.close();
         buf = null;
     }
 
@@ -0,0 +1,198 @@
+/*
+ * Copyright 2017 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at:
+ *
+ *     http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+
+package software.amazon.ion.impl.lite;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.Test;
+import software.amazon.ion.IonStruct;
+import software.amazon.ion.IonSystem;
+import software.amazon.ion.IonValue;
+import software.amazon.ion.system.IonSystemBuilder;
+
+public class FieldIndexTest
+{
+    /** Checks the index against the field names it should hold. */
+    private static void check(List<String> names, FieldIndex index)
+    {
+        assertEquals(names.size(), index.size());
+        for (String name : names)
+        {
+            assertEquals(name, names.indexOf(name), index.find(name));
+        }
+        assertEquals(-1, index.find("missing"));
+    }
+
+    @Test
+    public void testDuplicates()
+    {
+        FieldIndex index = new FieldIndex(1);
+        List<String> names = new ArrayList<String>();
+        for (String name : new String[] { "a", "b", "a", "c", "a", "b" })
+        {
+            index.add(name, -1);
+            names.add(name);
+        }
+        check(names, index);
+
+        // removes the first copy, then a later one, then the rest
+        for (int field : new int[] { 0, 3, 2, 0 })
+        {
+            index.remove(field);
+            names.remove(field);
+            check(names, index);
+        }
+    }
+
+    @Test
+    public void testUnknownText()
+    {
+        FieldIndex index = new FieldIndex(4);
+        index.add(null, 10);
+        index.add("a", -1);
+        index.add(null, 10);
+        index.add(null, 11);
+        assertEquals(1, index.find("a"));
+
+        index.remove(0);
+        assertEquals(0, index.find("a"));
+        index.remove(0);
+        assertEquals(-1, index.find("a"));
+        assertEquals(2, index.size());
+    }
+
+    @Test
+    public void testRandomChanges()
+    {
+        Random random = new Random(42);
+        FieldIndex index = new FieldIndex(8);
+        List<String> names = new ArrayList<String>();
+        for (int i = 0; i < 5000; i++)
+        {
+            if (names.isEmpty() || random.nextInt(3) != 0)
+            {
+                String name = "f" + random.nextInt(500);
+                index.add(name, -1);
+                names.add(name);
+            }
+            else
+            {
+                int field = random.nextInt(names.size());
+                index.remove(field);
+                names.remove(field);
+            }
+            if (i % 100 == 0)
+            {
+                check(names, index);
+            }
+        }
+        check(names, index);
+
+        FieldIndex copy = index.copy();
+        copy.remove(0);
+        check(names, index);
+    }
+
+    @Test
+    public void testRemovalsWithoutRenumbering()
+    {
+        FieldIndex index = new FieldIndex(4);
+        List<String> names = new ArrayList<String>();
+        for (int i = 0; i < 64; i++)
+        {
+            String name = "f" + (i % 8);
+            index.add(name, -1);
+            names.add(name);
+        }
+
+        // removes from the front and the middle, leaving dead slots that
+        // are compacted once they're half of them, then from the end
+        for (int field : new int[] { 0, 10, 20, 5, 0, 30, 1, 2, 3, 4 })
+        {
+            index.remove(field);
+            names.remove(field);
+            check(names, index);
+        }
+        while (names.size() > 10)
+        {
+            int field = names.size() - 1;
+            index.remove(field);
+            names.remove(field);
+            check(names, index);
+        }
+
+        // added fields reuse the slots at the end
+        for (int i = 0; i < 40; i++)
+        {
+            String name = "g" + (i % 3);
+            index.add(name, -1);
+            names.add(name);
+            check(names, index);
+            if (i % 4 == 0)
+            {
+                index.remove(i % names.size());
+                names.remove(i % names.size());
+                check(names, index);
+            }
+        }
+    }
+
+    @Test
+    public void testLargeStruct()
+    {
+        IonSystem system = IonSystemBuilder.standard().build();
+        IonStructLite struct = (IonStructLite) system.newEmptyStruct();
+        for (int i = 0; i < 100; i++)
+        {
+            struct.add("f" + (i % 50), system.newInt(i));
+        }
+        assertEquals(null, struct.validate());
+        assertEquals(0, ((IonValueLite) struct.get("f0"))._elementid());
+
+        struct.put("f0", system.newInt(-1));
+        struct.remove(struct.get("f1"));
+        struct.remove("f2");
+        assertEquals(null, struct.validate());
+        assertEquals(97, struct.size());
+        assertEquals(system.newInt(-1), struct.get("f0"));
+        assertEquals(system.newInt(51), struct.get("f1"));
+        assertEquals(system.newInt(52), struct.get("f2"));
+
+        // the clone gets its own index
+        IonStructLite clone = struct.clone();
+        clone.remove("f3");
+        assertEquals(null, clone.validate());
+        assertEquals(null, struct.validate());
+        assertEquals(system.newInt(3), struct.get("f3"));
+
+        IonStruct first = system.newEmptyStruct();
+        for (IonValue field : clone)
+        {
+            if (first.get(field.getFieldName()) == null)
+            {
+                first.add(field.getFieldName(), field.clone());
+            }
+            assertSame(clone, field.getContainer());
+        }
+        for (IonValue field : first)
+        {
+            assertEquals(field, clone.get(field.getFieldName()));
+        }
+    }
+}
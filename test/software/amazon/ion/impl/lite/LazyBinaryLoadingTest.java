@@ -0,0 +1,238 @@
+/*
+ * Copyright 2017 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at:
+ *
+ *     http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+
+package software.amazon.ion.impl.lite;
+
+import static software.amazon.ion.BinaryTest.MAGIC_COOKIE;
+import static software.amazon.ion.BinaryTest.hexToBytes;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import org.junit.Test;
+import software.amazon.ion.IonDatagram;
+import software.amazon.ion.IonIncrementalReader;
+import software.amazon.ion.IonList;
+import software.amazon.ion.IonReader;
+import software.amazon.ion.IonStruct;
+import software.amazon.ion.IonSystem;
+import software.amazon.ion.IonTestCase;
+import software.amazon.ion.IonType;
+import software.amazon.ion.IonValue;
+import software.amazon.ion.IonWriter;
+import software.amazon.ion.system.IonSystemBuilder;
+import software.amazon.ion.util.IonReaders;
+
+public class LazyBinaryLoadingTest
+    extends IonTestCase
+{
+    private static final String DATA =
+        "{ a: 1, b: [ 2, sym, { c: ann::(d e) } ], f: \"text\" } " +
+        "ann::[ { g: null.struct }, [] ] " +
+        "12 " +
+        "{ }";
+
+    private final IonSystem lazy =
+        IonSystemBuilder.standard()
+                        .withLazyBinaryLoading(true)
+                        .withStreamCopyOptimized(true)
+                        .build();
+
+    private static boolean isMaterialized(IonValue container)
+    {
+        // the field is read directly, since every accessor materializes
+        return ((IonContainerLite) container)._child_count != 0;
+    }
+
+    private byte[] twoStreams()
+        throws Exception
+    {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write(encode(DATA));
+        out.write(encode("{ other_field: other_symbol, a: [ 1 ] }"));
+        return out.toByteArray();
+    }
+
+    @Test
+    public void testLoadIsLazy()
+    {
+        IonDatagram dg = lazy.getLoader().load(encode(DATA));
+        IonStruct struct = (IonStruct) dg.get(0);
+        assertFalse(isMaterialized(struct));
+
+        IonList b = (IonList) struct.get("b");
+        assertTrue(isMaterialized(struct));
+        assertFalse(isMaterialized(b));
+        assertEquals(3, b.size());
+        assertTrue(isMaterialized(b));
+        assertFalse(isMaterialized(b.get(2)));
+
+        IonValue e = ((IonStruct) b.get(2)).get("c");
+        assertEquals("ann::(d e)", e.toString());
+    }
+
+    @Test
+    public void testNewValueIsLazy()
+    {
+        IonReader reader = lazy.newReader(encode(DATA));
+        assertSame(IonType.STRUCT, reader.next());
+        IonStruct struct = (IonStruct) lazy.newValue(reader);
+        assertFalse(isMaterialized(struct));
+        assertEquals(lazy.singleValue("\"text\""), struct.get("f"));
+    }
+
+    @Test
+    public void testByteBufferIsCopied()
+        throws Exception
+    {
+        byte[] data = encode(DATA);
+        ByteBuffer buffer = ByteBuffer.wrap(data);
+        IonReader reader = IonReaders.newReader(lazy, buffer);
+        assertSame(IonType.STRUCT, reader.next());
+        IonStruct struct = (IonStruct) lazy.newValue(reader);
+        reader.close();
+
+        // the buffer may be reused once the reader is closed
+        Arrays.fill(data, (byte) 0);
+        assertFalse(isMaterialized(struct));
+        assertEquals(system().getLoader().load(encode(DATA)).get(0), struct);
+    }
+
+    @Test
+    public void testIncrementalReaderIsCopied()
+        throws Exception
+    {
+        byte[] data = encode(DATA);
+        IonIncrementalReader reader = IonReaders.newIncrementalReader(lazy);
+        reader.feed(data, 0, data.length);
+        assertSame(IonType.STRUCT, reader.next());
+        IonStruct struct = (IonStruct) lazy.newValue(reader);
+
+        // the reader compacts its buffer as values are consumed
+        assertSame(IonType.LIST, reader.next());
+        reader.feed(encode("[ 1, 2, 3 ]"), 4, 7);
+        reader.close();
+        assertFalse(isMaterialized(struct));
+        assertEquals(system().getLoader().load(encode(DATA)).get(0), struct);
+    }
+
+    @Test
+    public void testTextIsNotLazy()
+    {
+        IonDatagram dg = lazy.getLoader().load(DATA);
+        assertTrue(isMaterialized(dg.get(0)));
+    }
+
+    @Test
+    public void testEquivalence()
+        throws Exception
+    {
+        byte[] data = twoStreams();
+        IonDatagram expected = system().getLoader().load(data);
+        IonDatagram actual = lazy.getLoader().load(data);
+        assertEquals(expected, actual);
+        assertEquals(expected.hashCode(), actual.hashCode());
+        assertEquals(expected.toString(), actual.toString());
+        assertEquals(system().getLoader().load(expected.getBytes()),
+                     lazy.getLoader().load(actual.getBytes()));
+    }
+
+    @Test
+    public void testWriteCopiesEncoding()
+        throws Exception
+    {
+        // the NOP pad would be dropped if the struct were re-encoded
+        String hex = "D5 84 21 01 80 00";
+        byte[] struct = hexToBytes(hex);
+        IonValue value = lazy.getLoader().load(hexToBytes(MAGIC_COOKIE + hex)).get(0);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        IonWriter writer = lazy.newBinaryWriter(out);
+        value.writeTo(writer);
+        writer.close();
+        assertFalse(isMaterialized(value));
+
+        // the writer may precede the copy with a symbol table
+        byte[] written = out.toByteArray();
+        byte[] tail = Arrays.copyOfRange(written, written.length - struct.length,
+                                         written.length);
+        assertTrue(Arrays.equals(struct, tail));
+    }
+
+    @Test
+    public void testWriteIncompatibleSymbols()
+        throws Exception
+    {
+        IonDatagram dg = lazy.getLoader().load(twoStreams());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        IonWriter writer = lazy.newBinaryWriter(out);
+        dg.get(0).writeTo(writer);
+        dg.get(dg.size() - 1).writeTo(writer);
+        writer.close();
+        assertFalse(isMaterialized(dg.get(0)));
+
+        IonDatagram copy = system().getLoader().load(out.toByteArray());
+        assertEquals(dg.get(0), copy.get(0));
+        assertEquals(dg.get(dg.size() - 1), copy.get(1));
+    }
+
+    @Test
+    public void testWriteWithNewAnnotationsAndFieldName()
+    {
+        IonStruct struct = (IonStruct) lazy.getLoader().load(encode(DATA)).get(0);
+        IonList b = (IonList) struct.get("b");
+        b.setTypeAnnotations("changed");
+        struct.remove(b);
+        struct.add("renamed", b);
+        assertFalse(isMaterialized(b));
+        assertEquals(
+            system().singleValue("{ a: 1, f: \"text\", renamed: changed::[ 2, sym, { c: ann::(d e) } ] }"),
+            system().singleValue(struct.toString()));
+    }
+
+    @Test
+    public void testModification()
+    {
+        IonDatagram dg = lazy.getLoader().load(encode(DATA));
+        IonStruct struct = (IonStruct) dg.get(0);
+        struct.put("a", lazy.newInt(5));
+        ((IonList) dg.get(1)).add(lazy.newString("added"));
+        ((IonStruct) dg.get(3)).clear();
+
+        IonDatagram expected = system().getLoader().load(
+            "{ b: [ 2, sym, { c: ann::(d e) } ], f: \"text\", a: 5 } " +
+            "ann::[ { g: null.struct }, [], \"added\" ] " +
+            "12 " +
+            "{ }");
+        assertEquals(expected, system().getLoader().load(dg.getBytes()));
+    }
+
+    @Test
+    public void testClone()
+    {
+        IonValue value = lazy.getLoader().load(encode(DATA)).get(0);
+        IonValue clone = value.clone();
+        assertFalse(isMaterialized(value));
+        assertEquals(value, clone);
+    }
+
+    @Test
+    public void testMakeReadOnlyMaterializes()
+    {
+        IonValue value = lazy.getLoader().load(encode(DATA)).get(0);
+        value.makeReadOnly();
+        assertTrue(isMaterialized(value));
+        assertTrue(isMaterialized(((IonStruct) value).get("b")));
+    }
+}
@@ -0,0 +1,199 @@
+/*
+ * Copyright 2017 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at:
+ *
+ *     http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+
+package software.amazon.ion.streaming;
+
+import java.io.ByteArrayOutputStream;
+import org.junit.After;
+import org.junit.Test;
+import software.amazon.ion.IonDatagram;
+import software.amazon.ion.IonException;
+import software.amazon.ion.IonIncrementalReader;
+import software.amazon.ion.IonTestCase;
+import software.amazon.ion.IonType;
+import software.amazon.ion.IonWriter;
+import software.amazon.ion.SeekableReader;
+import software.amazon.ion.SpanProvider;
+import software.amazon.ion.util.IonReaders;
+
+public class IncrementalReaderTest
+    extends IonTestCase
+{
+    private IonIncrementalReader in;
+
+    @After
+    @Override
+    public void tearDown()
+        throws Exception
+    {
+        if (in != null)
+        {
+            in.close();
+            in = null;
+        }
+        super.tearDown();
+    }
+
+    /**
+     * Two independently written streams, so the symbol table changes part
+     * way through, with a blob larger than the reader's initial buffer.
+     */
+    private byte[] data()
+        throws Exception
+    {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (String prefix : new String[] { "first", "second" })
+        {
+            IonWriter writer = system().newBinaryWriter(out);
+            for (int i = 0; i < 20; i++)
+            {
+                writer.addTypeAnnotation(prefix);
+                writer.stepIn(IonType.STRUCT);
+                writer.setFieldName(prefix + "_symbol");
+                writer.writeSymbol(prefix + "_" + i);
+                writer.setFieldName("list");
+                writer.stepIn(IonType.LIST);
+                writer.writeBool(i % 2 == 0);
+                writer.writeNull();
+                writer.writeString("text " + i);
+                writer.stepOut();
+                writer.stepOut();
+                writer.writeInt(i);
+            }
+            writer.writeBlob(new byte[10000]);
+            writer.close();
+        }
+        return out.toByteArray();
+    }
+
+    /** Reads whatever complete values are available. */
+    private void drain(IonDatagram values)
+    {
+        while (in.next() != null)
+        {
+            values.add(system().newValue(in));
+        }
+    }
+
+    private void checkFeeding(byte[] data, int pieceSize)
+    {
+        in = IonReaders.newIncrementalReader(system());
+        IonDatagram values = system().newDatagram();
+        for (int offset = 0; offset < data.length; offset += pieceSize)
+        {
+            in.feed(data, offset, Math.min(pieceSize, data.length - offset));
+            drain(values);
+        }
+        assertFalse(in.isValueIncomplete());
+        assertNull(in.next());
+        assertEquals(loader().load(data), values);
+    }
+
+    @Test
+    public void testFeedingPieces()
+        throws Exception
+    {
+        byte[] data = data();
+        for (int pieceSize : new int[] { 1, 3, 17, 1000, data.length })
+        {
+            checkFeeding(data, pieceSize);
+        }
+    }
+
+    @Test
+    public void testIncompleteValue()
+        throws Exception
+    {
+        byte[] data = encode("{a:\"some text\"} 12");
+        in = IonReaders.newIncrementalReader(system());
+        assertNull(in.next());
+        assertFalse(in.isValueIncomplete());
+
+        // the int is two bytes long
+        in.feed(data, 0, data.length - 1);
+        assertSame(IonType.STRUCT, in.next());
+        assertNull(in.next());
+        assertTrue(in.isValueIncomplete());
+
+        in.feed(data, data.length - 1, 1);
+        assertFalse(in.isValueIncomplete());
+        assertSame(IonType.INT, in.next());
+        assertEquals(12, in.intValue());
+        assertNull(in.next());
+    }
+
+    @Test
+    public void testFeedingWhileInValue()
+        throws Exception
+    {
+        byte[] data = encode("{a:1,b:2} " + "\"" + new String(new char[10000]).replace('\0', 'x') + "\"");
+        int split = 50;
+        in = IonReaders.newIncrementalReader(system());
+        in.feed(data, 0, split);
+        assertSame(IonType.STRUCT, in.next());
+        in.stepIn();
+        assertSame(IonType.INT, in.next());
+        assertEquals("a", in.getFieldName());
+
+        // this can't fit in the original buffer while the struct is being read
+        in.feed(data, split, data.length - split);
+
+        assertSame(IonType.INT, in.next());
+        assertEquals("b", in.getFieldName());
+        assertEquals(2, in.intValue());
+        in.stepOut();
+        assertSame(IonType.STRING, in.next());
+        assertEquals(10000, in.stringValue().length());
+        assertNull(in.next());
+    }
+
+    @Test
+    public void testFiveByteLength()
+    {
+        // a positive int whose one-byte length is padded out to five bytes
+        byte[] data = { (byte) 0xE0, 0x01, 0x00, (byte) 0xEA,
+                        0x2E, 0x00, 0x00, 0x00, 0x00, (byte) 0x81, 0x07 };
+        in = IonReaders.newIncrementalReader(system());
+        in.feed(data, 0, data.length);
+        assertFalse(in.isValueIncomplete());
+        assertSame(IonType.INT, in.next());
+        assertEquals(7, in.intValue());
+        assertNull(in.next());
+    }
+
+    @Test(expected = IonException.class)
+    public void testFiveByteLengthOverflow()
+    {
+        // the final byte of the length takes it past Integer.MAX_VALUE
+        byte[] data = { (byte) 0xE0, 0x01, 0x00, (byte) 0xEA,
+                        0x2E, 0x7F, 0x7F, 0x7F, 0x7F, (byte) 0xFF };
+        in = IonReaders.newIncrementalReader(system());
+        in.feed(data, 0, data.length);
+    }
+
+    @Test
+    public void testNoSpans()
+    {
+        in = IonReaders.newIncrementalReader(system());
+        assertNull(in.asFacet(SpanProvider.class));
+        assertNull(in.asFacet(SeekableReader.class));
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testFeedOutOfBounds()
+    {
+        in = IonReaders.newIncrementalReader(system());
+        in.feed(new byte[4], 2, 3);
+    }
+}
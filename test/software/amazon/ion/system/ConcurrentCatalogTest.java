@@ -0,0 +1,200 @@
+/*
+ * Copyright 2017 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at:
+ *
+ *     http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+
+package software.amazon.ion.system;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import org.junit.Test;
+import software.amazon.ion.IonTestCase;
+import software.amazon.ion.SymbolTable;
+
+public class ConcurrentCatalogTest
+    extends IonTestCase
+{
+    private SymbolTable table(String name, int version)
+    {
+        String text =
+            "$ion_shared_symbol_table::{" +
+            "  name:\"" + name + "\", version:" + version + "," +
+            "  symbols:[ \"" + name + version + "\" ]" +
+            "}";
+        return system().newSharedSymbolTable(system().newReader(text));
+    }
+
+    @Test
+    public void testGetAndRemove()
+    {
+        ConcurrentCatalog cat = new ConcurrentCatalog();
+        assertNull(cat.getTable("T"));
+        assertNull(cat.getTable("T", 3));
+
+        SymbolTable t1 = table("T", 1);
+        cat.putTable(t1);
+        assertSame(t1, cat.getTable("T"));
+        assertSame(t1, cat.getTable("T", 1));
+        assertSame(t1, cat.getTable("T", 5));
+
+        SymbolTable t2 = table("T", 2);
+        cat.putTable(t2);
+        assertSame(t2, cat.getTable("T"));
+        assertSame(t1, cat.getTable("T", 1));
+        assertSame(t2, cat.getTable("T", 5));
+
+        assertNull(cat.removeTable("T", 3));
+        assertNull(cat.removeTable("U", 1));
+        assertSame(t1, cat.removeTable("T", 1));
+        assertSame(t2, cat.getTable("T", 1));
+        assertSame(t2, cat.removeTable("T", 2));
+        assertNull(cat.getTable("T"));
+        assertFalse(cat.iterator().hasNext());
+    }
+
+    @Test
+    public void testReplaceSameVersion()
+    {
+        ConcurrentCatalog cat = new ConcurrentCatalog();
+        cat.putTable(table("T", 1));
+        SymbolTable replacement = table("T", 1);
+        cat.putTable(replacement);
+        assertSame(replacement, cat.getTable("T", 1));
+
+        Iterator<SymbolTable> tables = cat.iterator();
+        assertSame(replacement, tables.next());
+        assertFalse(tables.hasNext());
+    }
+
+    /** Checks every lookup against {@link SimpleCatalog}. */
+    @Test
+    public void testSameMatchesAsSimpleCatalog()
+    {
+        Random random = new Random(1);
+        SimpleCatalog simple = new SimpleCatalog();
+        ConcurrentCatalog concurrent = new ConcurrentCatalog();
+        for (int i = 0; i < 40; i++)
+        {
+            SymbolTable table = table("T" + random.nextInt(3), 1 + random.nextInt(10));
+            simple.putTable(table);
+            concurrent.putTable(table);
+        }
+        simple.removeTable("T0", 5);
+        concurrent.removeTable("T0", 5);
+
+        for (int n = 0; n < 4; n++)
+        {
+            String name = "T" + n;
+            assertSame(simple.getTable(name), concurrent.getTable(name));
+            for (int version = 1; version < 13; version++)
+            {
+                assertSame(simple.getTable(name, version),
+                           concurrent.getTable(name, version));
+            }
+        }
+
+        Set<SymbolTable> expected = new HashSet<SymbolTable>();
+        for (SymbolTable table : simple) expected.add(table);
+        Set<SymbolTable> actual = new HashSet<SymbolTable>();
+        for (SymbolTable table : concurrent) actual.add(table);
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    public void testPutTablesIsAtomic()
+    {
+        ConcurrentCatalog cat = new ConcurrentCatalog();
+        List<SymbolTable> tables =
+            Arrays.asList(table("A", 1), table("B", 1),
+                          system().getSystemSymbolTable());
+        try
+        {
+            cat.putTables(tables);
+            fail("expected exception");
+        }
+        catch (IllegalArgumentException e) { }
+        assertNull(cat.getTable("A"));
+
+        cat.putTables(tables.subList(0, 2));
+        assertSame(tables.get(0), cat.getTable("A"));
+        assertSame(tables.get(1), cat.getTable("B"));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testIteratorIsReadOnly()
+    {
+        ConcurrentCatalog cat = new ConcurrentCatalog();
+        cat.putTable(table("T", 1));
+        Iterator<SymbolTable> tables = cat.iterator();
+        tables.next();
+        tables.remove();
+    }
+
+    @Test
+    public void testConcurrentPutAndGet()
+        throws Exception
+    {
+        final ConcurrentCatalog cat = new ConcurrentCatalog();
+        final List<SymbolTable> tables = new ArrayList<SymbolTable>();
+        for (int i = 0; i < 200; i++)
+        {
+            tables.add(table("T" + (i % 20), 1 + i / 20));
+        }
+        final List<Throwable> failures =
+            Collections.synchronizedList(new ArrayList<Throwable>());
+
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++)
+        {
+            final int first = t;
+            threads[t] = new Thread()
+            {
+                @Override
+                public void run()
+                {
+                    try
+                    {
+                        for (int i = first; i < tables.size(); i += 4)
+                        {
+                            SymbolTable table = tables.get(i);
+                            cat.putTable(table);
+                            assertSame(table, cat.getTable(table.getName(),
+                                                           table.getVersion()));
+                        }
+                    }
+                    catch (Throwable e)
+                    {
+                        failures.add(e);
+                    }
+                }
+            };
+            threads[t].start();
+        }
+        for (Thread thread : threads)
+        {
+            thread.join();
+        }
+        assertEquals(Collections.emptyList(), failures);
+
+        for (SymbolTable table : tables)
+        {
+            assertSame(table, cat.getTable(table.getName(), table.getVersion()));
+        }
+        assertSame(tables.get(199), cat.getTable("T19"));
+    }
+}
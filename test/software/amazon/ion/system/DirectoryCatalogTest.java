@@ -0,0 +1,211 @@
+/*
+ * Copyright 2017 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at:
+ *
+ *     http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+
+package software.amazon.ion.system;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.CountDownLatch;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import software.amazon.ion.IonException;
+import software.amazon.ion.IonTestCase;
+import software.amazon.ion.IonWriter;
+import software.amazon.ion.SymbolTable;
+
+public class DirectoryCatalogTest
+    extends IonTestCase
+{
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private static String symtab(String name, int version, String... symbols)
+    {
+        StringBuilder buf = new StringBuilder();
+        buf.append("$ion_shared_symbol_table::{ name:\"").append(name)
+           .append("\", version:").append(version).append(", symbols:[");
+        for (String symbol : symbols)
+        {
+            buf.append('"').append(symbol).append("\",");
+        }
+        return buf.append("] } ").toString();
+    }
+
+    private void writeText(String fileName, String text)
+        throws IOException
+    {
+        OutputStream out = new FileOutputStream(new File(folder.getRoot(), fileName));
+        try
+        {
+            out.write(text.getBytes("UTF-8"));
+        }
+        finally
+        {
+            out.close();
+        }
+    }
+
+    private void writeBinary(String fileName, String text)
+        throws IOException
+    {
+        OutputStream out = new FileOutputStream(new File(folder.getRoot(), fileName));
+        try
+        {
+            IonWriter writer = system().newBinaryWriter(out);
+            writer.writeValues(system().newReader(text));
+            writer.close();
+        }
+        finally
+        {
+            out.close();
+        }
+    }
+
+    private DirectoryCatalog populate(long memoryBudget)
+        throws IOException
+    {
+        writeText("a.ion", symtab("T", 1, "a", "b") + symtab("T", 3, "a", "b", "c", "d")
+                           + symtab("U", 0, "u"));
+        writeBinary("b.10n", symtab("T", 2, "a", "b", "c"));
+        assertTrue(new File(folder.getRoot(), "subdirectory").mkdir());
+        return new DirectoryCatalog(system(), folder.getRoot(), memoryBudget);
+    }
+
+    @Test
+    public void testLookups()
+        throws Exception
+    {
+        DirectoryCatalog cat = populate(Long.MAX_VALUE);
+        assertEquals(0, cat.getLoadedSize());
+
+        SymbolTable t2 = cat.getTable("T", 2);
+        assertTrue(cat.getLoadedSize() > 0);
+        assertEquals("T", t2.getName());
+        assertEquals(2, t2.getVersion());
+        assertEquals(3, t2.getMaxId());
+        assertTrue(t2.isSharedTable());
+        assertSame(t2, cat.getTable("T", 2));
+
+        assertEquals(3, cat.getTable("T").getVersion());
+        assertEquals(1, cat.getTable("T", 1).getVersion());
+        assertEquals(3, cat.getTable("T", 9).getVersion());
+        assertEquals(1, cat.getTable("U").getVersion());
+        assertNull(cat.getTable("V"));
+        assertNull(cat.getTable("V", 1));
+    }
+
+    @Test
+    public void testEviction()
+        throws Exception
+    {
+        DirectoryCatalog big = populate(Long.MAX_VALUE);
+        big.getTable("T", 1);
+        long t1Size = big.getLoadedSize();
+        big.getTable("T", 2);
+        long budget = big.getLoadedSize() - 1;
+
+        // only the most recently used table fits
+        DirectoryCatalog cat = new DirectoryCatalog(system(), folder.getRoot(), budget);
+        SymbolTable t1 = cat.getTable("T", 1);
+        assertSame(t1, cat.getTable("T", 1));
+        assertEquals(t1Size, cat.getLoadedSize());
+
+        SymbolTable t2 = cat.getTable("T", 2);
+        assertTrue(cat.getLoadedSize() <= budget);
+        assertSame(t2, cat.getTable("T", 2));
+
+        SymbolTable reloaded = cat.getTable("T", 1);
+        assertNotSame(t1, reloaded);
+        assertEquals("b", reloaded.findKnownSymbol(reloaded.getMaxId()));
+
+        // a table over budget by itself is still kept
+        DirectoryCatalog tiny = new DirectoryCatalog(system(), folder.getRoot(), 0);
+        SymbolTable t3 = tiny.getTable("T", 3);
+        assertSame(t3, tiny.getTable("T"));
+    }
+
+    @Test
+    public void testConcurrentLoads()
+        throws Exception
+    {
+        final DirectoryCatalog cat = populate(Long.MAX_VALUE);
+        final CountDownLatch start = new CountDownLatch(1);
+        final SymbolTable[] tables = new SymbolTable[8];
+        Thread[] threads = new Thread[tables.length];
+        for (int i = 0; i < threads.length; i++)
+        {
+            final int index = i;
+            threads[i] = new Thread()
+            {
+                @Override
+                public void run()
+                {
+                    try
+                    {
+                        start.await();
+                    }
+                    catch (InterruptedException e)
+                    {
+                        return;
+                    }
+                    tables[index] = cat.getTable("T", 3);
+                }
+            };
+            threads[i].start();
+        }
+        start.countDown();
+        for (Thread thread : threads)
+        {
+            thread.join();
+        }
+
+        // every thread gets the table from the same read
+        for (SymbolTable table : tables)
+        {
+            assertSame(tables[0], table);
+        }
+        assertEquals(4, tables[0].getMaxId());
+    }
+
+    @Test(expected = IonException.class)
+    public void testMalformedTable()
+        throws Exception
+    {
+        writeText("bad.ion", symtab("T", 1) + "{ version: 2 }");
+        new DirectoryCatalog(system(), folder.getRoot());
+    }
+
+    @Test(expected = IOException.class)
+    public void testMissingDirectory()
+        throws Exception
+    {
+        new DirectoryCatalog(system(), new File(folder.getRoot(), "missing"));
+    }
+
+    @Test
+    public void testWithSystem()
+        throws Exception
+    {
+        DirectoryCatalog cat = populate(Long.MAX_VALUE);
+        // $12 is the third symbol of T, after the nine system symbols
+        String data =
+            "$ion_symbol_table::{imports:[{name:\"T\", version:2, max_id:3}]} $12";
+        assertEquals("c",
+                     IonSystemBuilder.standard().withCatalog(cat).build()
+                                     .singleValue(data).toString());
+    }
+}
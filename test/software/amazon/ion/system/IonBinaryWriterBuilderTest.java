@@ -16,7 +16,9 @@ package software.amazon.ion.system;
 
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
@@ -24,13 +26,19 @@ import static software.amazon.ion.TestUtils.symbolTableEquals;
 import static software.amazon.ion.impl.PrivateUtils.newLocalSymtab;
 
 import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.channels.FileChannel;
 import java.util.Collections;
 import org.junit.Assert;
 import org.junit.Test;
 import software.amazon.ion.IonCatalog;
+import software.amazon.ion.IonReader;
 import software.amazon.ion.IonSystem;
+import software.amazon.ion.IonType;
 import software.amazon.ion.IonWriter;
 import software.amazon.ion.SymbolTable;
 import software.amazon.ion.Symtabs;
@@ -394,4 +402,38 @@ public class IonBinaryWriterBuilderTest
         b.setImports(new SymbolTable[0]);
         assertArrayEquals(new SymbolTable[0], b.getImports());
     }
+
+    //-------------------------------------------------------------------------
+
+    @Test
+    public void testBuildChannel()
+        throws IOException
+    {
+        File file = File.createTempFile("IonBinaryWriterBuilderTest", ".10n");
+        file.deleteOnExit();
+
+        FileChannel channel = new RandomAccessFile(file, "rw").getChannel();
+        IonWriter writer = IonBinaryWriterBuilder.standard().build(channel);
+        writer.stepIn(IonType.STRUCT);
+        writer.setFieldName("greeting");
+        writer.writeSymbol("hello");
+        writer.stepOut();
+        writer.finish();
+        writer.writeString("world");
+        writer.close();
+        assertFalse(channel.isOpen());
+
+        IonSystem system = IonSystemBuilder.standard().build();
+        IonReader reader = system.newReader(new FileInputStream(file));
+        assertEquals(IonType.STRUCT, reader.next());
+        reader.stepIn();
+        assertEquals(IonType.SYMBOL, reader.next());
+        assertEquals("greeting", reader.getFieldName());
+        assertEquals("hello", reader.stringValue());
+        reader.stepOut();
+        assertEquals(IonType.STRING, reader.next());
+        assertEquals("world", reader.stringValue());
+        assertNull(reader.next());
+        reader.close();
+    }
 }
@@ -15,6 +15,7 @@
 package software.amazon.ion.system;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
@@ -141,6 +142,29 @@ public class IonSystemBuilderTest
     }
 
 
+    @Test
+    public void testLazyBinaryLoading()
+    {
+        IonSystemBuilder b = IonSystemBuilder.standard().copy();
+        assertFalse(b.isLazyBinaryLoading());
+        b.setLazyBinaryLoading(true);
+        assertTrue(b.copy().isLazyBinaryLoading());
+        assertTrue(isLiteSystem(b.build()));
+    }
+
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testLazyBinaryLoadingImmutability()
+    {
+        IonSystemBuilder b = IonSystemBuilder.standard().copy();
+        b.setLazyBinaryLoading(true);
+
+        IonSystemBuilder b2 = b.immutable();
+        assertTrue(b2.isLazyBinaryLoading());
+        b2.setLazyBinaryLoading(false);
+    }
+
+
     //-------------------------------------------------------------------------
 
     @Test
@@ -358,6 +358,30 @@ public class EquivalenceTest
         assertNotIonEq(ion("\"hi\""), ion("'hi'"));
     }
 
+    private IonValue readOnly(final String raw) {
+        IonValue value = ion(raw);
+        value.makeReadOnly();
+        return value;
+    }
+
+    @Test
+    public void testReadOnlyStructs() {
+        String repeated = "{a:1, a:{b:[1, 2]}, a:x::2, a:1, c:d}";
+        assertIonEq(readOnly(repeated),
+                    readOnly("{a:x::2, c:d, a:1, a:{b:[1, 2]}, a:1}"));
+        assertIonEq(readOnly(repeated), ion(repeated));
+        assertNotIonEq(readOnly(repeated),
+                       readOnly("{a:1, a:{b:[1, 2]}, a:x::2, a:2, c:d}"));
+        assertNotIonEq(readOnly(repeated),
+                       readOnly("{a:1, a:{b:[1, 3]}, a:x::2, a:1, c:d}"));
+
+        // annotations are ignored when comparing by content
+        assertNotIonEq(readOnly(repeated),
+                       readOnly("{a:1, a:{b:[1, 2]}, a:2, a:1, c:d}"));
+        assertIonEqForm(readOnly(repeated),
+                        readOnly("{a:1, a:{b:[1, 2]}, a:2, a:1, c:d}"));
+    }
+
     // TODO amzn/ion-java#58 : Remove the ignore annotation from this test after
     // making the required changes to Equivalence.Field.hashCode.
     @Ignore
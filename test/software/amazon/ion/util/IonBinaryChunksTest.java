@@ -0,0 +1,274 @@
+/*
+ * Copyright 2017 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at:
+ *
+ *     http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+
+package software.amazon.ion.util;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import software.amazon.ion.IonDatagram;
+import software.amazon.ion.IonReader;
+import software.amazon.ion.IonTestCase;
+import software.amazon.ion.IonType;
+import software.amazon.ion.IonWriter;
+import software.amazon.ion.Span;
+import software.amazon.ion.util.IonBinaryChunks.ChunkProcessor;
+
+public class IonBinaryChunksTest
+    extends IonTestCase
+{
+    private static final int VALUES_PER_STREAM = 50;
+
+    private ExecutorService executor;
+    private byte[] data;
+
+    @Before
+    @Override
+    public void setUp()
+        throws Exception
+    {
+        super.setUp();
+        executor = Executors.newFixedThreadPool(4);
+
+        // two independently written streams, so the symbol table changes part way through
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        writeStream(out, "first");
+        writeStream(out, "second");
+        data = out.toByteArray();
+    }
+
+    @After
+    @Override
+    public void tearDown()
+        throws Exception
+    {
+        executor.shutdown();
+        super.tearDown();
+    }
+
+    private void writeStream(ByteArrayOutputStream out, String prefix)
+        throws Exception
+    {
+        IonWriter writer = system().newBinaryWriter(out);
+        for (int i = 0; i < VALUES_PER_STREAM; i++)
+        {
+            writer.addTypeAnnotation(prefix + "_annotation");
+            writer.stepIn(IonType.STRUCT);
+            writer.setFieldName(prefix + "_field");
+            writer.writeSymbol(prefix + "_" + (i % 7));
+            writer.setFieldName("n");
+            writer.writeInt(i);
+            writer.stepOut();
+        }
+        writer.close();
+    }
+
+    private IonDatagram load(IonReader reader)
+    {
+        IonDatagram values = system().newDatagram();
+        while (reader.next() != null)
+        {
+            values.add(system().newValue(reader));
+        }
+        return values;
+    }
+
+    private final ChunkProcessor<IonDatagram> LOAD =
+        new ChunkProcessor<IonDatagram>()
+        {
+            public IonDatagram process(IonReader reader)
+            {
+                return load(reader);
+            }
+        };
+
+    private final Function<IonReader, IonDatagram> LOAD_FUNCTION =
+        new Function<IonReader, IonDatagram>()
+        {
+            public IonDatagram apply(IonReader reader)
+            {
+                return load(reader);
+            }
+        };
+
+    private void checkDatagrams(List<IonDatagram> chunks)
+    {
+        IonDatagram actual = system().newDatagram();
+        for (IonDatagram chunk : chunks)
+        {
+            while (!chunk.isEmpty())
+            {
+                actual.add(chunk.remove(0));
+            }
+        }
+        assertEquals(loader().load(data), actual);
+    }
+
+    private File writeFile()
+        throws Exception
+    {
+        File file = File.createTempFile("ion-chunks", ".10n");
+        FileOutputStream out = new FileOutputStream(file);
+        try
+        {
+            out.write(data);
+        }
+        finally
+        {
+            out.close();
+        }
+        return file;
+    }
+
+    private void checkChunks(List<Future<IonDatagram>> results)
+        throws Exception
+    {
+        IonDatagram actual = system().newDatagram();
+        for (Future<IonDatagram> result : results)
+        {
+            IonDatagram chunk = result.get();
+            while (!chunk.isEmpty())
+            {
+                actual.add(chunk.remove(0));
+            }
+        }
+        assertEquals(loader().load(data), actual);
+    }
+
+    @Test
+    public void testSplitCoversEveryValue()
+    {
+        IonReader reader = system().newReader(data);
+        List<Span> chunks = IonBinaryChunks.split(reader, 1);
+        assertEquals(2 * VALUES_PER_STREAM, chunks.size());
+        assertNull(reader.next());
+    }
+
+    @Test
+    public void testSplitLargeChunk()
+    {
+        List<Span> chunks =
+            IonBinaryChunks.split(system().newReader(data), Long.MAX_VALUE);
+        assertEquals(1, chunks.size());
+    }
+
+    @Test
+    public void testScanBytes()
+        throws Exception
+    {
+        for (long chunkSize : new long[] { 1, 100, 1000, Long.MAX_VALUE })
+        {
+            checkChunks(IonBinaryChunks.scan(system(), data, chunkSize,
+                                             executor, LOAD));
+        }
+    }
+
+    @Test
+    public void testScanFile()
+        throws Exception
+    {
+        File file = writeFile();
+        try
+        {
+            checkChunks(IonBinaryChunks.scan(system(), file, 256,
+                                             executor, LOAD));
+        }
+        finally
+        {
+            file.delete();
+        }
+    }
+
+    @Test
+    public void testStreamBytes()
+    {
+        for (long chunkSize : new long[] { 1, 100, 1000, Long.MAX_VALUE })
+        {
+            checkDatagrams(IonBinaryChunks.stream(system(), data, chunkSize)
+                                          .map(LOAD_FUNCTION)
+                                          .collect(Collectors.<IonDatagram>toList()));
+        }
+    }
+
+    @Test
+    public void testStreamFile()
+        throws Exception
+    {
+        File file = writeFile();
+        try
+        {
+            checkDatagrams(IonBinaryChunks.stream(system(), file, 256)
+                                          .map(LOAD_FUNCTION)
+                                          .collect(Collectors.<IonDatagram>toList()));
+        }
+        finally
+        {
+            file.delete();
+        }
+    }
+
+    @Test
+    public void testSpliteratorSplits()
+    {
+        Spliterator<IonReader> suffix = IonBinaryChunks.spliterator(system(), data, 1);
+        assertEquals(2 * VALUES_PER_STREAM, suffix.getExactSizeIfKnown());
+        assertTrue(suffix.hasCharacteristics(Spliterator.ORDERED));
+
+        Spliterator<IonReader> prefix = suffix.trySplit();
+        assertEquals(VALUES_PER_STREAM, prefix.estimateSize());
+        assertEquals(VALUES_PER_STREAM, suffix.estimateSize());
+
+        // each chunk is a single value, and the halves meet at the second stream
+        assertTrue(suffix.tryAdvance(new Consumer<IonReader>()
+        {
+            public void accept(IonReader reader)
+            {
+                assertEquals(IonType.STRUCT, reader.next());
+                assertEquals("second_annotation", reader.getTypeAnnotations()[0]);
+                assertNull(reader.next());
+            }
+        }));
+        assertEquals(VALUES_PER_STREAM - 1, suffix.estimateSize());
+
+        Spliterator<IonReader> single = suffix;
+        while (single.estimateSize() > 1)
+        {
+            single = single.trySplit();
+        }
+        assertNull(single.trySplit());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testSplitText()
+    {
+        IonBinaryChunks.split(system().newReader("a b c"), 1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testSplitInvalidChunkSize()
+    {
+        IonBinaryChunks.split(system().newReader(data), 0);
+    }
+}
@@ -0,0 +1,152 @@
+/*
+ * Copyright 2017 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at:
+ *
+ *     http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+
+package software.amazon.ion.util;
+
+import java.io.ByteArrayOutputStream;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import org.junit.Test;
+import software.amazon.ion.IonDatagram;
+import software.amazon.ion.IonReader;
+import software.amazon.ion.IonTestCase;
+import software.amazon.ion.IonValue;
+
+public class IonDigestTest
+    extends IonTestCase
+{
+    private static final String[] VALUES = {
+        "null", "null.int", "null.struct", "null.list", "true", "false",
+        "0", "-1", "1", "255", "256", "-9223372036854775808",
+        "9223372036854775807", "9223372036854775808",
+        "123456789012345678901234567890", "-123456789012345678901234567890",
+        "1e0", "-0e0", "0e0", "nan", "+inf", "-inf",
+        "1.0", "1.00", "-0.", "0.", "0d-1", "-1.5", "15d-1",
+        "2017-01-01T00:00Z", "2017-01-01T00:00:00Z", "2017-01-01T00:00-00:00",
+        "2017-01-01T01:00+01:00", "2017T", "2017-01T",
+        "\"a\"", "\"b\"", "\"\"", "a", "b", "'$99'", "'\u00e9'", "\"\u00e9\"",
+        "{{aGVsbG8=}}", "{{aGVsbA==}}", "{{\"hello\"}}", "{{}}",
+        "x::1", "y::1", "x::y::1", "y::x::1", "x::null",
+        "[]", "()", "[1]", "[1, 2]", "[2, 1]", "[[1], 2]", "[[1, 2]]",
+        "(1 2)", "x::[1, 2]",
+        "{}", "{a:1}", "{a:1, b:2}", "{a:1, a:2}", "{a:1, a:1}",
+        "{a:x::1}", "{a:{b:[1, {c:d}]}}", "{a:{b:[1, {c:e}]}}",
+        "{a:{c:[1]}, b:x}", "{a:[]}", "{a:()}", "{'a b':1}", "{a:\"b\"}",
+    };
+
+    private static MessageDigest sha256() throws Exception
+    {
+        return MessageDigest.getInstance("SHA-256");
+    }
+
+    private IonReader binaryReader(String text)
+    {
+        return system().newReader(loader().load(text).getBytes());
+    }
+
+    private byte[] digest(IonReader reader) throws Exception
+    {
+        return IonDigest.of(reader, sha256());
+    }
+
+    private byte[] canonical(IonReader reader) throws Exception
+    {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        IonDigest.writeCanonical(system(), reader, out);
+        return out.toByteArray();
+    }
+
+    @Test
+    public void testDigestsAgreeWithEquivalence() throws Exception
+    {
+        for (String text1 : VALUES)
+        {
+            IonValue v1 = oneValue(text1);
+            byte[] digest1 = digest(binaryReader(text1));
+            assertTrue(text1, Arrays.equals(digest1, IonDigest.of(v1, sha256())));
+            for (String text2 : VALUES)
+            {
+                IonValue v2 = oneValue(text2);
+                byte[] digest2 = digest(system().newReader(text2));
+                assertEquals(text1 + " vs " + text2,
+                             Equivalence.ionEquals(v1, v2),
+                             Arrays.equals(digest1, digest2));
+            }
+        }
+    }
+
+    @Test
+    public void testStructsInAnyOrder() throws Exception
+    {
+        String[][] equivalents = {
+            { "{a:1, b:{c:[x, y], d:e}, a:2}", "{b:{d:e, c:[x, y]}, a:2, a:1}" },
+            { "[{a:1, b:2}, {b:3, a:4}]", "[{b:2, a:1}, {a:4, b:3}]" },
+            { "{a:{a:1, b:2}, a:{a:2, b:1}}", "{a:{b:1, a:2}, a:{b:2, a:1}}" },
+        };
+        for (String[] pair : equivalents)
+        {
+            assertTrue(Arrays.equals(digest(binaryReader(pair[0])),
+                                     digest(system().newReader(pair[1]))));
+            assertTrue(Arrays.equals(canonical(binaryReader(pair[0])),
+                                     canonical(system().newReader(pair[1]))));
+        }
+
+        // a field moved into another struct is a different value
+        assertFalse(Arrays.equals(
+            digest(system().newReader("{a:{b:1, c:2}, d:{}}")),
+            digest(system().newReader("{a:{b:1}, d:{c:2}}"))));
+        assertFalse(Arrays.equals(
+            digest(system().newReader("[1] [2]")),
+            digest(system().newReader("[1, 2]"))));
+    }
+
+    @Test
+    public void testCanonicalEncoding() throws Exception
+    {
+        StringBuilder all = new StringBuilder();
+        for (String text : VALUES)
+        {
+            if (!text.contains("$")) // unknown symbols can't be written
+            {
+                all.append(text).append(' ');
+            }
+        }
+        String text = all.toString();
+        byte[] fromBinary = canonical(binaryReader(text));
+        byte[] fromText = canonical(system().newReader(text));
+        assertTrue(Arrays.equals(fromBinary, fromText));
+
+        IonDatagram expected = loader().load(text);
+        IonDatagram actual = loader().load(fromBinary);
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++)
+        {
+            assertEquals(expected.get(i), actual.get(i));
+        }
+
+        // canonical data is its own canonical encoding
+        assertTrue(Arrays.equals(fromBinary,
+                                 canonical(system().newReader(fromBinary))));
+        assertTrue(Arrays.equals(digest(system().newReader(text)),
+                                 digest(system().newReader(fromBinary))));
+    }
+
+    @Test
+    public void testCanonicalFieldOrder() throws Exception
+    {
+        byte[] bytes = canonical(system().newReader("{c:1, b:2, a:[{z:1, y:2}]}"));
+        assertEquals("{a:[{y:2,z:1}],b:2,c:1}",
+                     loader().load(bytes).get(0).toString());
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright 2017 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at:
+ *
+ *     http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+
+package software.amazon.ion.util;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import software.amazon.ion.IonException;
+import software.amazon.ion.IonReader;
+import software.amazon.ion.IonTestCase;
+import software.amazon.ion.IonType;
+
+public class IonReadersTest
+    extends IonTestCase
+{
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private File write(String name, byte[] data)
+        throws Exception
+    {
+        File file = folder.newFile(name);
+        FileOutputStream out = new FileOutputStream(file);
+        try
+        {
+            out.write(data);
+        }
+        finally
+        {
+            out.close();
+        }
+        return file;
+    }
+
+    private void checkValues(IonReader reader)
+        throws Exception
+    {
+        try
+        {
+            assertEquals(IonType.SYMBOL, reader.next());
+            assertEquals("a", reader.stringValue());
+            assertEquals(IonType.INT, reader.next());
+            assertEquals(12, reader.intValue());
+            assertNull(reader.next());
+        }
+        finally
+        {
+            reader.close();
+        }
+    }
+
+    @Test
+    public void testPathText()
+        throws Exception
+    {
+        File file = write("values.ion", "a 12".getBytes("UTF-8"));
+        checkValues(IonReaders.newReader(system(), file.toPath()));
+    }
+
+    @Test
+    public void testPathBinary()
+        throws Exception
+    {
+        File file = write("values.10n", loader().load("a 12").getBytes());
+        checkValues(IonReaders.newReader(system(), file.toPath()));
+    }
+
+    @Test(expected = IonException.class)
+    public void testMissingPath()
+    {
+        IonReaders.newReader(system(),
+                             new File(folder.getRoot(), "missing").toPath());
+    }
+}
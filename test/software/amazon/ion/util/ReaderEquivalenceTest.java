@@ -0,0 +1,219 @@
+/*
+ * Copyright 2017 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at:
+ *
+ *     http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+
+package software.amazon.ion.util;
+
+import org.junit.Test;
+import software.amazon.ion.IonDatagram;
+import software.amazon.ion.IonException;
+import software.amazon.ion.IonReader;
+import software.amazon.ion.IonTestCase;
+import software.amazon.ion.IonValue;
+import software.amazon.ion.util.ReaderEquivalence.Difference;
+
+public class ReaderEquivalenceTest
+    extends IonTestCase
+{
+    private static final String[] VALUES = {
+        "null", "null.int", "null.struct", "true", "false",
+        "0", "-1", "123456789012345678901234567890",
+        "1e0", "-0e0", "0e0", "nan", "+inf",
+        "1.0", "1.00", "-0.", "0.",
+        "2017-01-01T00:00Z", "2017-01-01T00:00:00Z", "2017-01-01T00:00-00:00",
+        "2017-01-01T01:00+01:00",
+        "\"a\"", "\"b\"", "a", "b", "'$99'",
+        "{{aGVsbG8=}}", "{{aGVsbA==}}", "{{\"hello\"}}",
+        "x::1", "y::1", "x::y::1", "y::x::1",
+        "[]", "[1]", "[1, 2]", "[2, 1]", "(1 2)", "x::[1, 2]",
+        "{}", "{a:1}", "{a:1, b:2}", "{b:2, a:1}", "{a:1, a:2}",
+        "{a:2, a:1}", "{a:1, a:1}", "{a:x::1}", "{a:{b:[1, {c:d}]}}",
+        "{a:{b:[1, {c:e}]}}", "{b:x, a:{c:[1]}}", "{a:{c:[1]}, b:x}",
+    };
+
+    private ReaderEquivalence strict()
+    {
+        return new ReaderEquivalence(system());
+    }
+
+    private ReaderEquivalence byContent()
+    {
+        return new ReaderEquivalence(system(), false,
+                                     ReaderEquivalence.DEFAULT_MAX_BUFFERED_FIELDS);
+    }
+
+    private IonReader textReader(String text)
+    {
+        return system().newReader(text);
+    }
+
+    private IonReader binaryReader(String text)
+    {
+        return system().newReader(loader().load(text).getBytes());
+    }
+
+    private void checkDifference(String text1, String text2,
+                                 String path, String message)
+    {
+        Difference difference = strict().compare(binaryReader(text1),
+                                                 textReader(text2));
+        assertNotNull(text1 + " vs " + text2, difference);
+        assertEquals(path, difference.getPath());
+        assertEquals(message, difference.getMessage());
+    }
+
+    @Test
+    public void testAgreesWithEquivalence()
+    {
+        for (String text1 : VALUES)
+        {
+            IonValue v1 = oneValue(text1);
+            for (String text2 : VALUES)
+            {
+                IonValue v2 = oneValue(text2);
+                String message = text1 + " vs " + text2;
+                assertEquals(message, Equivalence.ionEquals(v1, v2),
+                             strict().equivalent(binaryReader(text1),
+                                                 textReader(text2)));
+                assertEquals(message, Equivalence.ionEqualsByContent(v1, v2),
+                             byContent().equivalent(textReader(text1),
+                                                    binaryReader(text2)));
+            }
+        }
+    }
+
+    @Test
+    public void testStreams()
+    {
+        StringBuilder all = new StringBuilder();
+        for (String text : VALUES)
+        {
+            all.append(text).append(' ');
+        }
+        String text = all.toString();
+        assertNull(strict().compare(binaryReader(text), textReader(text)));
+
+        IonDatagram dg = loader().load(text);
+        dg.remove(dg.size() - 1);
+        checkDifference(text, dg.toString(), "[" + dg.size() + "]",
+                        "only the first reader has a value");
+        checkDifference(dg.toString(), text, "[" + dg.size() + "]",
+                        "only the second reader has a value");
+    }
+
+    @Test
+    public void testPaths()
+    {
+        checkDifference("1 {a:{b:[1, 2, 3]}}", "1 {a:{b:[1, 2, 4]}}",
+                        "[1].a.b[2]", "INT values differ");
+        checkDifference("{a:{b:[1, 2]}}", "{a:{b:[1, 2, 3]}}",
+                        "[0].a.b[2]", "only the second reader has a value");
+        checkDifference("{'a b':(x y)}", "{'a b':(x z)}",
+                        "[0].'a b'[1]", "SYMBOL values differ");
+        checkDifference("[x::1]", "[y::1]", "[0][0]", "annotations differ");
+        checkDifference("[null.int]", "[1]", "[0][0]", "only the first value is null");
+        checkDifference("[1]", "[1e0]", "[0][0]", "types differ: INT and FLOAT");
+    }
+
+    @Test
+    public void testStructsOutOfOrder()
+    {
+        assertNull(strict().compare(binaryReader("{a:1, b:{c:[d]}, a:2, e:f}"),
+                                    textReader("{e:f, a:2, a:1, b:{c:[d]}}")));
+        assertNull(strict().compare(binaryReader("{a:1, a:2, b:3}"),
+                                    textReader("{a:2, a:1, b:3}")));
+        checkDifference("{a:1, b:2, c:3}", "{a:1, c:3, b:4}",
+                        "[0].b", "no equivalent field in the first struct");
+        checkDifference("{a:1, b:2, c:3}", "{a:1, c:3, b:2, d:4}",
+                        "[0].d", "no equivalent field in the first struct");
+        checkDifference("{a:1, b:2, c:3, d:4}", "{a:1, c:3, b:2}",
+                        "[0].d", "no equivalent field in the second struct");
+
+        // comparison continues after a struct that was loaded
+        checkDifference("[{a:1, b:2}, 3]", "[{b:2, a:1}, 4]",
+                        "[0][1]", "INT values differ");
+    }
+
+    @Test
+    public void testRepeatedLobs()
+    {
+        String[][] pairs = {
+            { "{a:{{AQ==}}, a:{{Ag==}}}", "{a:{{Ag==}}, a:{{AQ==}}}" },
+            { "{a:{{\"x\"}}, a:{{\"y\"}}}", "{a:{{\"y\"}}, a:{{\"x\"}}}" },
+        };
+        for (String[] pair : pairs)
+        {
+            assertNull(strict().compare(binaryReader(pair[0]), binaryReader(pair[1])));
+            assertNull(strict().compare(binaryReader(pair[0]), textReader(pair[1])));
+            assertNull(byContent().compare(textReader(pair[0]), binaryReader(pair[1])));
+        }
+        Difference difference =
+            strict().compare(binaryReader("{a:{{AQ==}}, a:{{Ag==}}}"),
+                             binaryReader("{a:{{Ag==}}, a:{{Aw==}}}"));
+        assertEquals("[0].a", difference.getPath());
+        assertEquals("no equivalent field in the first struct",
+                     difference.getMessage());
+    }
+
+    @Test
+    public void testRepeatedContainers()
+    {
+        try
+        {
+            strict().compare(binaryReader("{a:[1], b:2, a:[2]}"),
+                             textReader("{a:[2], b:2, a:[1]}"));
+            fail("expected an exception");
+        }
+        catch (IonException e)
+        {
+            assertTrue(e.getMessage(), e.getMessage().contains("[0].a"));
+        }
+        try
+        {
+            strict().compare(binaryReader("{a:{b:[1]}}"),
+                             textReader("{a:{b:[2]}, a:{b:[1]}}"));
+            fail("expected an exception");
+        }
+        catch (IonException e)
+        {
+            assertTrue(e.getMessage(), e.getMessage().contains("[0].a"));
+        }
+
+        // the name doesn't recur, so the containers can't match other fields
+        checkDifference("{a:{b:[1]}, c:[1]}", "{a:{b:[2]}, c:[1]}",
+                        "[0].a.b[0]", "INT values differ");
+        checkDifference("[{a:[1], a:[2]}, {c:(x)}]", "[{a:[1], a:[2]}, {c:(y)}]",
+                        "[0][1].c[0]", "SYMBOL values differ");
+    }
+
+    @Test
+    public void testBufferLimit()
+    {
+        ReaderEquivalence equivalence =
+            new ReaderEquivalence(system(), true, 2);
+        assertTrue(equivalence.equivalent(binaryReader("{a:1, b:2, c:3}"),
+                                          textReader("{a:1, b:2, c:3}")));
+        assertTrue(equivalence.equivalent(binaryReader("{a:1, b:2, c:3}"),
+                                          textReader("{a:1, c:3, b:2}")));
+        try
+        {
+            equivalence.compare(binaryReader("{a:1, b:2, c:3}"),
+                                textReader("{c:3, b:2, a:1}"));
+            fail("expected an exception");
+        }
+        catch (IonException e)
+        {
+            assertTrue(e.getMessage(), e.getMessage().contains("[0]"));
+        }
+    }
+}